@@ -0,0 +1,142 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+/**
+ * Microbenchmarks for the partitioned reached-set implementations,
+ * in particular {@link ReachedSet#getReached(AbstractState)},
+ * which is called by the CPA algorithm for every successor.
+ * The states are distributed uniformly over the partitions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PartitionedReachedSetBenchmark {
+
+  public static enum ReachedSetType {
+    PARTITIONED,
+    CONCURRENT_PARTITIONED,
+  }
+
+  private static class PartitionedState implements AbstractState, Partitionable {
+
+    private final Integer partition;
+
+    private PartitionedState(int pPartition) {
+      partition = pPartition;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return partition;
+    }
+  }
+
+  @Param
+  private ReachedSetType type;
+
+  @Param({"10", "1000"})
+  private int partitions;
+
+  @Param({"10000", "100000"})
+  private int states;
+
+  private ReachedSet reached;
+  private List<PartitionedState> queries;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    switch (type) {
+    case PARTITIONED:
+      reached = new PartitionedReachedSet(TraversalMethod.DFS);
+      break;
+    case CONCURRENT_PARTITIONED:
+      reached = new ConcurrentPartitionedReachedSet(TraversalMethod.DFS);
+      break;
+    default:
+      throw new AssertionError();
+    }
+
+    for (int i = 0; i < states; i++) {
+      reached.add(new PartitionedState(i % partitions), SingletonPrecision.getInstance());
+    }
+
+    queries = new ArrayList<>(partitions);
+    for (int i = 0; i < partitions; i++) {
+      queries.add(new PartitionedState(i));
+    }
+    random = new Random(0);
+  }
+
+  @Benchmark
+  public int getReached() {
+    Collection<AbstractState> partition = reached.getReached(queries.get(random.nextInt(partitions)));
+    return partition.size();
+  }
+
+  @Benchmark
+  public int iterateReached() {
+    int count = 0;
+    for (AbstractState state : reached.getReached(queries.get(random.nextInt(partitions)))) {
+      if (state != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public ReachedSet addAndRemove() {
+    PartitionedState state = new PartitionedState(random.nextInt(partitions));
+    reached.add(state, SingletonPrecision.getInstance());
+    reached.remove(state);
+    return reached;
+  }
+}
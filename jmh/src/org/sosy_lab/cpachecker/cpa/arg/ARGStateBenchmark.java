@@ -0,0 +1,81 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/**
+ * Microbenchmark for the creation of {@link ARGState}s,
+ * which happens for every successor computed by the ARG CPA.
+ * Each invocation builds a fresh ARG that is a binary tree
+ * with the given number of states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ARGStateBenchmark {
+
+  private static final AbstractState WRAPPED_STATE = new AbstractState() {};
+
+  @Param({"100", "10000"})
+  private int states;
+
+  @Benchmark
+  public ARGState createTree() {
+    List<ARGState> tree = new ArrayList<>(states);
+    tree.add(new ARGState(WRAPPED_STATE, null));
+    for (int i = 1; i < states; i++) {
+      tree.add(new ARGState(WRAPPED_STATE, tree.get((i - 1) / 2)));
+    }
+    return tree.get(0);
+  }
+
+  @Benchmark
+  public ARGState createAndRemoveChain() {
+    ARGState root = new ARGState(WRAPPED_STATE, null);
+    ARGState current = root;
+    for (int i = 1; i < states; i++) {
+      current = new ARGState(WRAPPED_STATE, current);
+    }
+    current.removeFromARG();
+    return root;
+  }
+}
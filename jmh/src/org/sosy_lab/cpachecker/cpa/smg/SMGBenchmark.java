@@ -0,0 +1,114 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.smg.objects.SMGRegion;
+
+/**
+ * Microbenchmarks for {@link SMG}, in particular for copying,
+ * which is done for each successor state of the SMG analysis.
+ * The synthetic heap consists of regions that each contain
+ * one integer value and one pointer to another random region.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SMGBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int regions;
+
+  private SMG heap;
+  private List<SMGRegion> objects;
+  private int nextValue;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    MachineModel machineModel = MachineModel.LINUX64;
+    int pointerSize = machineModel.getSizeofPtr();
+    int intSize = machineModel.getSizeofInt();
+
+    heap = new SMG(machineModel);
+    objects = new ArrayList<>(regions);
+    for (int i = 0; i < regions; i++) {
+      SMGRegion region = new SMGRegion(intSize + pointerSize, "region" + i);
+      heap.addObject(region);
+      objects.add(region);
+    }
+
+    nextValue = 1;
+    for (SMGRegion region : objects) {
+      int intValue = nextValue++;
+      heap.addValue(intValue);
+      heap.addHasValueEdge(new SMGEdgeHasValue(CNumericTypes.INT, 0, region, intValue));
+
+      int pointer = nextValue++;
+      SMGRegion target = objects.get(random.nextInt(regions));
+      heap.addValue(pointer);
+      heap.addPointsToEdge(new SMGEdgePointsTo(pointer, target, 0));
+      heap.addHasValueEdge(new SMGEdgeHasValue(pointerSize, intSize, region, pointer));
+    }
+  }
+
+  @Benchmark
+  public SMG copy() {
+    return new SMG(heap);
+  }
+
+  @Benchmark
+  public SMG copyAndWrite() {
+    SMG copy = new SMG(heap);
+    int value = nextValue + 1;
+    copy.addValue(value);
+    copy.addHasValueEdge(new SMGEdgeHasValue(CNumericTypes.INT, 0, objects.get(0), value));
+    return copy;
+  }
+
+  @Benchmark
+  public Object readValuesOfObject() {
+    return heap.getHVEdges(SMGEdgeHasValueFilter.objectFilter(objects.get(regions / 2)));
+  }
+}
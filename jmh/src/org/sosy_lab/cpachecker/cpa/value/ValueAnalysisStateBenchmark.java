@@ -0,0 +1,122 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.cpa.value.type.Value;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Microbenchmarks for the operations of {@link ValueAnalysisState}
+ * that are executed on every transfer, merge and stop operator,
+ * i.e., mostly operations on the underlying persistent maps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ValueAnalysisStateBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int variables;
+
+  private List<MemoryLocation> locations;
+  private ValueAnalysisState state;
+  private ValueAnalysisState otherState;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    random = new Random(0);
+    locations = new ArrayList<>(variables);
+    state = new ValueAnalysisState();
+    otherState = new ValueAnalysisState();
+
+    for (int i = 0; i < variables; i++) {
+      MemoryLocation location = MemoryLocation.valueOf("main", "var" + i, 0);
+      locations.add(location);
+      Value value = new NumericValue(random.nextInt(100));
+      state.assignConstant(location, value, CNumericTypes.INT);
+
+      // the other state differs in every tenth variable
+      if (i % 10 != 0) {
+        otherState.assignConstant(location, value, CNumericTypes.INT);
+      } else {
+        otherState.assignConstant(location, new NumericValue(-1), CNumericTypes.INT);
+      }
+    }
+  }
+
+  private MemoryLocation randomLocation() {
+    return locations.get(random.nextInt(variables));
+  }
+
+  @Benchmark
+  public ValueAnalysisState copyAndAssign() {
+    ValueAnalysisState copy = ValueAnalysisState.copyOf(state);
+    copy.assignConstant(randomLocation(), new NumericValue(42), CNumericTypes.INT);
+    return copy;
+  }
+
+  @Benchmark
+  public ValueAnalysisState copyAndForget() {
+    ValueAnalysisState copy = ValueAnalysisState.copyOf(state);
+    copy.forget(randomLocation());
+    return copy;
+  }
+
+  @Benchmark
+  public Value getValueFor() {
+    return state.getValueFor(randomLocation());
+  }
+
+  @Benchmark
+  public ValueAnalysisState join() {
+    return state.join(otherState);
+  }
+
+  @Benchmark
+  public boolean isLessOrEqual() {
+    return state.isLessOrEqual(otherState);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap.SSAMapBuilder;
+
+/**
+ * Microbenchmark for {@link SSAMap#merge(SSAMap, SSAMap)},
+ * which is executed for every merge of two path formulas.
+ * The two maps share all variables, and a given percentage of them
+ * has a different index in both maps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SSAMapBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int variables;
+
+  @Param({"0", "10", "100"})
+  private int differentPercentage;
+
+  private SSAMap ssa1;
+  private SSAMap ssa2;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    SSAMapBuilder builder1 = SSAMap.emptySSAMap().builder();
+    SSAMapBuilder builder2 = SSAMap.emptySSAMap().builder();
+
+    for (int i = 0; i < variables; i++) {
+      String name = "main::var" + i;
+      int idx = 1 + random.nextInt(10);
+      builder1.setIndex(name, CNumericTypes.INT, idx);
+      if (random.nextInt(100) < differentPercentage) {
+        idx += 1 + random.nextInt(10);
+      }
+      builder2.setIndex(name, CNumericTypes.INT, idx);
+    }
+
+    ssa1 = builder1.build();
+    ssa2 = builder2.build();
+  }
+
+  @Benchmark
+  public Object merge() {
+    return SSAMap.merge(ssa1, ssa2);
+  }
+}
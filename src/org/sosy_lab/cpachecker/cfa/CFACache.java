@@ -0,0 +1,255 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * On-disk cache for created CFAs including the results of the analyses
+ * that are attached to them (loop structure, variable classification, live variables).
+ *
+ * The cache is content-addressed: the name of a cache file is a hash of everything
+ * the CFA depends on, i.e., the contents of the source files, the machine model,
+ * the options that influence the CFA creation, and the version of CPAchecker.
+ * Thus cache files never need to be invalidated,
+ * and several (also concurrent) runs of CPAchecker can share the same directory.
+ * Only the options that are read during the CFA creation are part of the hash
+ * (cf. {@link #CFA_OPTIONS}), so runs with different analyses share the cached CFA.
+ * Files that are included with <code>#include "..."</code> are hashed, too.
+ * The cache must not be used together with an external preprocessor,
+ * because the CFA then depends on files that are not known here.
+ *
+ * The CFA is stored in the Java serialization format (cf. {@link ImmutableCFA}),
+ * compressed with GZIP.
+ */
+@Options(prefix="cfa.cache")
+class CFACache {
+
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * The options with these prefixes are injected during the CFA creation
+   * (by the parsers, the CFA post-processings, and the analyses of the CFA)
+   * and thus may influence the created CFA.
+   */
+  private static final ImmutableList<String> CFA_OPTIONS = ImmutableList.of(
+      "analysis.entryFunction", "analysis.functionPointer", "analysis.interprocedural",
+      "analysis.machineModel", "analysis.summaryEdges", "analysis.useGlobalVars",
+      "cfa.", "language", "liveVar.", "parser.");
+
+  /**
+   * The options with these prefixes are read during the CFA creation,
+   * but only control the output and the cache itself.
+   */
+  private static final ImmutableList<String> OUTPUT_OPTIONS = ImmutableList.of(
+      "cfa.cache.", "cfa.callgraph.export", "cfa.callgraph.file", "cfa.export", "cfa.file",
+      "cfa.useCache");
+
+  private static final Pattern LOCAL_INCLUDE = Pattern.compile("^\\s*#\\s*include\\s*\"([^\"]+)\"");
+
+  // Not an output file, because the cache is shared between runs
+  // and should be used also if the output is disabled.
+  @Option(description="directory where the cached CFAs are stored")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path directory = Paths.get("cfa-cache");
+
+  private final Configuration config;
+  private final LogManager logger;
+
+  final Timer loadTimer = new Timer();
+  final Timer storeTimer = new Timer();
+  boolean loadedFromCache = false;
+
+  CFACache(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    config = pConfig;
+    logger = pLogger;
+  }
+
+  /**
+   * Compute the key under which the CFA for the given source files is cached.
+   */
+  String computeKey(List<String> pSourceFiles, MachineModel pMachineModel, Language pLanguage)
+      throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(FORMAT_VERSION);
+    hasher.putString(CPAchecker.getCPAcheckerVersion(), StandardCharsets.UTF_8);
+    hasher.putString(pMachineModel.name(), StandardCharsets.UTF_8);
+    hasher.putString(pLanguage.name(), StandardCharsets.UTF_8);
+
+    List<String> options = Splitter.on('\n').omitEmptyStrings().trimResults()
+        .splitToList(config.asPropertiesString());
+    for (String option : Ordering.natural().sortedCopy(options)) {
+      if (hasPrefix(option, CFA_OPTIONS) && !hasPrefix(option, OUTPUT_OPTIONS)) {
+        hasher.putString(option, StandardCharsets.UTF_8).putChar('\n');
+      }
+    }
+
+    Set<File> hashedFiles = new HashSet<>();
+    for (String sourceFile : pSourceFiles) {
+      hashFile(new File(sourceFile), hasher, hashedFiles);
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Add the name and the contents of a file and of all files
+   * that it includes with <code>#include "..."</code> to the hash.
+   */
+  private static void hashFile(File pFile, Hasher pHasher, Set<File> pHashedFiles)
+      throws IOException {
+    if (!pHashedFiles.add(pFile)) {
+      return;
+    }
+    pHasher.putString(pFile.getPath(), StandardCharsets.UTF_8);
+    if (!pFile.isFile()) {
+      // missing include, the parser will report it
+      pHasher.putBoolean(false);
+      return;
+    }
+    pHasher.putBytes(Files.hash(pFile, Hashing.sha256()).asBytes());
+
+    for (String line : Files.readLines(pFile, StandardCharsets.UTF_8)) {
+      Matcher matcher = LOCAL_INCLUDE.matcher(line);
+      if (matcher.find()) {
+        File included = new File(matcher.group(1));
+        if (!included.isAbsolute()) {
+          included = new File(pFile.getAbsoluteFile().getParentFile(), matcher.group(1));
+        }
+        hashFile(included, pHasher, pHashedFiles);
+      }
+    }
+  }
+
+  private static boolean hasPrefix(String pOption, List<String> pPrefixes) {
+    for (String prefix : pPrefixes) {
+      if (pOption.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private File getFile(String pKey) {
+    return directory.resolve(pKey + ".cfa.gz").toFile();
+  }
+
+  /**
+   * Load the CFA with the given key from the cache.
+   * @return the cached CFA, or an absent value if there is no (readable) CFA in the cache.
+   */
+  Optional<CFA> load(String pKey) {
+    File file = getFile(pKey);
+    if (!file.exists()) {
+      logger.log(Level.FINE, "No cached CFA found in", file);
+      return Optional.absent();
+    }
+
+    loadTimer.start();
+    try (ObjectInputStream in = new ObjectInputStream(
+        new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        return Optional.absent();
+      }
+      CFA cfa = (ImmutableCFA)in.readObject();
+      loadedFromCache = true;
+      logger.log(Level.INFO, "Using cached CFA from", file);
+      return Optional.of(cfa);
+
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      logger.logUserException(Level.WARNING, e, "Could not read cached CFA, creating it again");
+      return Optional.absent();
+    } finally {
+      loadTimer.stop();
+    }
+  }
+
+  /**
+   * Store the CFA in the cache under the given key.
+   * The file is written atomically, so concurrent runs never see a partially written file.
+   */
+  void store(String pKey, ImmutableCFA pCfa) {
+    storeTimer.start();
+    File file = getFile(pKey);
+    File tmpFile = null;
+    try {
+      Files.createParentDirs(file);
+      tmpFile = File.createTempFile(pKey, ".tmp", file.getParentFile());
+      try (ObjectOutputStream out = new ObjectOutputStream(
+          new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile))))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeObject(pCfa);
+      }
+      java.nio.file.Files.move(tmpFile.toPath(), file.toPath(),
+          StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      tmpFile = null;
+      logger.log(Level.FINE, "Stored CFA in cache file", file);
+
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not store CFA in cache");
+    } finally {
+      if (tmpFile != null) {
+        tmpFile.delete();
+      }
+      storeTimer.stop();
+    }
+  }
+}
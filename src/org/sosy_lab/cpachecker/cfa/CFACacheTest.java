@@ -0,0 +1,212 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+
+public class CFACacheTest {
+
+  private static final String REAL_PROGRAM = "test/programs/simple/parallel_exploration_false-unreach-label.c";
+
+  private File dir;
+  private File program;
+  private File header;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDir();
+    header = new File(dir, "header.h");
+    Files.write("int x;\n", header, StandardCharsets.UTF_8);
+    program = new File(dir, "program.c");
+    Files.write("#include \"header.h\"\nint main() { return x; }\n", program, StandardCharsets.UTF_8);
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : Files.fileTreeTraverser().postOrderTraversal(dir)) {
+      file.delete();
+    }
+  }
+
+  private Configuration config(String... pOptions) throws InvalidConfigurationException {
+    ConfigurationBuilder builder = TestDataTools.configurationForTest();
+    builder.setOption("cfa.cache.directory", new File(dir, "cache").getPath());
+    for (int i = 0; i < pOptions.length; i += 2) {
+      builder.setOption(pOptions[i], pOptions[i + 1]);
+    }
+    return builder.build();
+  }
+
+  private String computeKey(String... pOptions) throws InvalidConfigurationException, IOException {
+    CFACache cache = new CFACache(config(pOptions), TestLogManager.getInstance());
+    List<String> files = ImmutableList.of(program.getPath());
+    return cache.computeKey(files, MachineModel.LINUX32, Language.C);
+  }
+
+  @Test
+  public void testSameOptions() throws Exception {
+    assertThat(computeKey("analysis.summaryEdges", "true"))
+        .isEqualTo(computeKey("analysis.summaryEdges", "true"));
+  }
+
+  @Test
+  public void testSummaryEdgesMissCache() throws Exception {
+    assertThat(computeKey("analysis.summaryEdges", "true"))
+        .isNotEqualTo(computeKey("analysis.summaryEdges", "false"));
+  }
+
+  @Test
+  public void testOutputOptionsHitCache() throws Exception {
+    assertThat(computeKey("output.path", "output1/", "cfa.export", "true"))
+        .isEqualTo(computeKey("output.path", "output2/", "cfa.export", "false"));
+  }
+
+  @Test
+  public void testAnalysisOptionsHitCache() throws Exception {
+    assertThat(computeKey("cpa", "cpa.arg.ARGCPA", "specification", "config/specification/default.spc",
+                          "analysis.algorithm.CEGAR", "true"))
+        .isEqualTo(computeKey("cpa", "cpa.composite.CompositeCPA", "cpa.value.merge", "JOIN"));
+  }
+
+  @Test
+  public void testChangedHeaderMissesCache() throws Exception {
+    String key = computeKey();
+    Files.write("long x;\n", header, StandardCharsets.UTF_8);
+    assertThat(computeKey()).isNotEqualTo(key);
+  }
+
+  @Test
+  public void testRoundTripPreservesCFA() throws Exception {
+    Configuration config = config();
+    CFACreator creator = new CFACreator(config, TestLogManager.getInstance(), ShutdownNotifier.create());
+    ImmutableCFA cfa = (ImmutableCFA) creator.parseFileAndCreateCFA(ImmutableList.of(REAL_PROGRAM));
+
+    CFACache cache = new CFACache(config, TestLogManager.getInstance());
+    cache.store("roundtrip", cfa);
+    Optional<CFA> loaded = cache.load("roundtrip");
+    assertThat(loaded.isPresent()).named("CFA loaded from cache").isTrue();
+    CFA copy = loaded.get();
+    assertThat(copy).isNotSameAs(cfa);
+
+    assertThat(copy.getMachineModel()).isEqualTo(cfa.getMachineModel());
+    assertThat(copy.getLanguage()).isEqualTo(cfa.getLanguage());
+    assertThat(copy.getMainFunction().getNodeNumber()).isEqualTo(cfa.getMainFunction().getNodeNumber());
+    assertThat(describeFunctionHeads(copy)).isEqualTo(describeFunctionHeads(cfa));
+    assertThat(describeNodes(copy)).isEqualTo(describeNodes(cfa));
+
+    assertThat(copy.getLoopStructure().isPresent()).isEqualTo(cfa.getLoopStructure().isPresent());
+    if (cfa.getLoopStructure().isPresent()) {
+      assertThat(copy.getLoopStructure().get().getCount())
+          .isEqualTo(cfa.getLoopStructure().get().getCount());
+    }
+    assertThat(copy.getVarClassification().isPresent()).isEqualTo(cfa.getVarClassification().isPresent());
+    assertThat(copy.getLiveVariables().isPresent()).isEqualTo(cfa.getLiveVariables().isPresent());
+  }
+
+  @Test
+  public void testCachedCFAGivesSameVerdict() throws Exception {
+    Map<String, String> options = ImmutableMap.<String, String>builder()
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA")
+        .put("specification", "config/specification/default.spc")
+        .put("cfa.useCache", "true")
+        .put("cfa.cache.directory", new File(dir, "cache").getPath())
+        .build();
+
+    TestResults created = CPATestRunner.run(options, REAL_PROGRAM);
+    TestResults cached = CPATestRunner.run(options, REAL_PROGRAM);
+
+    assertThat(created.getLog()).doesNotContain("Using cached CFA");
+    assertThat(cached.getLog()).contains("Using cached CFA");
+    assertThat(created.getCheckerResult().getResult()).isEqualTo(Result.FALSE);
+    assertThat(cached.getCheckerResult().getResult()).isEqualTo(Result.FALSE);
+    assertThat(cached.getCheckerResult().getReached().size())
+        .isEqualTo(created.getCheckerResult().getReached().size());
+  }
+
+  /**
+   * Describe each function head by its name, its node number, its declaration,
+   * and the node number of its exit node.
+   */
+  private static SortedMap<String, String> describeFunctionHeads(CFA pCfa) {
+    SortedMap<String, String> result = new TreeMap<>();
+    for (FunctionEntryNode head : pCfa.getAllFunctionHeads()) {
+      result.put(head.getFunctionName(), head.getNodeNumber() + " "
+          + head.getFunctionDefinition() + " " + head.getExitNode().getNodeNumber());
+    }
+    return result;
+  }
+
+  /**
+   * Describe each node by its number, its function, and all its edges
+   * (the string representation of an edge contains its predecessor and successor).
+   */
+  private static SortedMap<Integer, String> describeNodes(CFA pCfa) {
+    SortedMap<Integer, String> result = new TreeMap<>();
+    for (CFANode node : pCfa.getAllNodes()) {
+      List<String> edges = new ArrayList<>();
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        edges.add(edge.getEdgeType() + " " + edge);
+      }
+      for (CFAEdge edge : CFAUtils.allEnteringEdges(node)) {
+        edges.add(edge.getEdgeType() + " " + edge);
+      }
+      result.put(node.getNodeNumber(), node.getFunctionName() + " " + edges);
+    }
+    return result;
+  }
+}
@@ -37,6 +37,8 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.concurrency.Threads;
@@ -49,6 +51,7 @@ import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CParser.FileToParse;
 import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
@@ -218,12 +221,22 @@ public class CFACreator {
       description="This option enables the computation of a classification of CFA nodes.")
 private boolean classifyNodes = false;
 
+  @Option(secure=true, name="cfa.useCache",
+      description="Store the created CFA together with the analyses attached to it"
+          + " in a cache on disk (cf. cfa.cache.directory), and re-use it"
+          + " if the same program is analyzed again with the same options"
+          + " for the CFA creation (the analysis configuration may differ)."
+          + " Only supported for C programs without parser.usePreprocessor"
+          + " and without cfa.removeIrrelevantForSpecification.")
+  private boolean useCache = false;
+
   @Option(secure=true, description="C or Java?")
   private Language language = Language.C;
 
   private final LogManager logger;
   private final Parser parser;
   private final CFAReduction cfaReduction;
+  private final @Nullable CFACache cfaCache;
   private final ShutdownNotifier shutdownNotifier;
 
   private static class CFACreatorStatistics implements Statistics {
@@ -232,11 +245,13 @@ private boolean classifyNodes = false;
     private final Timer totalTime = new Timer();
     private Timer parsingTime;
     private Timer conversionTime;
+    private @Nullable CParser cParser; // for the work time of parallel parsing
     private final Timer checkTime = new Timer();
     private final Timer processingTime = new Timer();
     private final Timer pruningTime = new Timer();
     private final Timer variableClassificationTime = new Timer();
     private final Timer exportTime = new Timer();
+    private @Nullable CFACache cfaCache;
 
     @Override
     public String getName() {
@@ -248,6 +263,9 @@ private boolean classifyNodes = false;
       out.println("  Time for loading parser:    " + parserInstantiationTime);
       out.println("  Time for CFA construction:  " + totalTime);
       out.println("    Time for parsing file(s): " + parsingTime);
+      if (cParser != null) {
+        printSpeedup(out, cParser.getParseWorkTime(), parsingTime);
+      }
       out.println("    Time for AST to CFA:      " + conversionTime);
       out.println("    Time for CFA sanity check:" + checkTime);
       out.println("    Time for post-processing: " + processingTime);
@@ -260,6 +278,18 @@ private boolean classifyNodes = false;
       if (exportTime.getNumberOfIntervals() > 0) {
         out.println("    Time for CFA export:      " + exportTime);
       }
+      if (cfaCache != null) {
+        out.println("    CFA loaded from cache:    " + (cfaCache.loadedFromCache ? "yes" : "no"));
+        out.println("    Time for loading CFA:     " + cfaCache.loadTimer);
+        out.println("    Time for storing CFA:     " + cfaCache.storeTimer);
+      }
+    }
+
+    private static void printSpeedup(PrintStream out, @Nullable TimeSpan workTime, Timer wallTime) {
+      long wallNanos = wallTime.getSumTime().asNanos();
+      if (workTime != null && wallNanos > 0) {
+        out.println(String.format("      Speedup of parallelism: %.2f", (double)workTime.asNanos() / wallNanos));
+      }
     }
   }
 
@@ -301,6 +331,9 @@ private boolean classifyNodes = false;
 
     stats.parsingTime = parser.getParseTime();
     stats.conversionTime = parser.getCFAConstructionTime();
+    if (parser instanceof CParser) {
+      stats.cParser = (CParser)parser;
+    }
 
     if (removeIrrelevantForSpecification) {
       cfaReduction = new CFAReduction(config, logger, pShutdownNotifier);
@@ -308,6 +341,19 @@ private boolean classifyNodes = false;
       cfaReduction = null;
     }
 
+    if (useCache && language == Language.C && !usePreprocessor
+        && !removeIrrelevantForSpecification) {
+      cfaCache = new CFACache(config, logger);
+      stats.cfaCache = cfaCache;
+    } else {
+      if (useCache) {
+        logger.log(Level.WARNING, "CFA cache is only supported for C programs"
+            + " without parser.usePreprocessor and without cfa.removeIrrelevantForSpecification,"
+            + " ignoring option cfa.useCache.");
+      }
+      cfaCache = null;
+    }
+
     stats.parserInstantiationTime.stop();
   }
 
@@ -354,6 +400,17 @@ private boolean classifyNodes = false;
 
     stats.totalTime.start();
     try {
+      String cacheKey = null;
+      if (cfaCache != null) {
+        checkIfValidFiles(sourceFiles);
+        cacheKey = cfaCache.computeKey(sourceFiles, machineModel, language);
+        Optional<CFA> cachedCfa = cfaCache.load(cacheKey);
+        if (cachedCfa.isPresent()) {
+          exportCFAAsyncIfRequested(cachedCfa.get());
+          return cachedCfa.get();
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -374,14 +431,19 @@ private boolean classifyNodes = false;
         throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      ImmutableCFA cfa = createCFA(c, mainFunction);
+
+      if (cacheKey != null && !cfa.isEmpty()) {
+        cfaCache.store(cacheKey, cfa);
+      }
+      return cfa;
 
     } finally {
       stats.totalTime.stop();
     }
   }
 
-  private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
+  private ImmutableCFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
 
     FunctionEntryNode mainFunction = pMainFunction;
 
@@ -490,10 +552,7 @@ private boolean classifyNodes = false;
     assert CFACheck.check(mainFunction, null, cfaReduction != null);
     stats.checkTime.stop();
 
-    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
-        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
-      exportCFAAsync(immutableCFA);
-    }
+    exportCFAAsyncIfRequested(immutableCFA);
 
     logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
 
@@ -891,6 +950,13 @@ v.addInitializer(initializer);
     }
   }
 
+  private void exportCFAAsyncIfRequested(final CFA cfa) {
+    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
+        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
+      exportCFAAsync(cfa);
+    }
+  }
+
   private void exportCFAAsync(final CFA cfa) {
     // execute asynchronously, this may take several seconds for large programs on slow disks
     Threads.newThread(new Runnable() {
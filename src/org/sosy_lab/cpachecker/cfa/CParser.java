@@ -27,10 +27,12 @@ import java.io.IOException;
 import java.util.List;
 
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
 import org.sosy_lab.cpachecker.cfa.parser.eclipse.EclipseParsers;
@@ -98,6 +100,13 @@ public interface CParser extends Parser {
    */
   ParseResult parseString(List<FileContentToParse> code, CSourceOriginMapping sourceOriginMapping) throws CParserException, InvalidConfigurationException;
 
+  /**
+   * Return the accumulated time that was needed for parsing in all threads.
+   * This differs from {@link #getParseTime()} only if files were parsed in parallel.
+   * Optional method: may return null.
+   */
+  TimeSpan getParseWorkTime();
+
   /**
    * Method for parsing a string that contains exactly one function with exactly
    * one statement. Only the AST for the statement is returned, the function
@@ -136,6 +145,25 @@ public interface CParser extends Parser {
    */
   List<CAstNode> parseStatements(String code, Scope scope) throws CParserException, InvalidConfigurationException;
 
+  /**
+   * Method for parsing several blocks of statements at once.
+   * The code contains only functions, each with exactly one block of statements
+   * as for {@link #parseStatements(String, Scope)}.
+   * The blocks are converted independently of each other,
+   * so the result for each block is the same as if it was parsed on its own.
+   *
+   * Example input:
+   * void foo0() { bar(); } void foo1() { a = 2; }
+   * Example output:
+   * AST for "<<bar();>, <a = 2;>>"
+   *
+   * @param code The code snippet as described above.
+   * @param scope The scope is needed to resolve the type bindings in the statements.
+   * @return The list of ASTs for the statements of each function, in the order of the functions.
+   * @throws CParserException If parsing fails.
+   */
+  List<List<CAstNode>> parseStatementBlocks(String code, Scope scope) throws CParserException, InvalidConfigurationException;
+
   /**
    * Enum for clients of this class to choose the C dialect the parser uses.
    */
@@ -151,7 +179,21 @@ public interface CParser extends Parser {
     @Option(secure=true, description="C dialect for parser")
     private Dialect dialect = Dialect.GNUC;
 
+    @Option(secure=true, description="Number of threads for parsing several files "
+        + "in parallel. The CFAs are always built sequentially, "
+        + "so the resulting CFA does not depend on this number.")
+    @IntegerOption(min=1)
+    private int threads = 1;
+
     private ParserOptions() { }
+
+    public Dialect getDialect() {
+      return dialect;
+    }
+
+    public int getThreads() {
+      return threads;
+    }
   }
 
   /**
@@ -172,7 +214,7 @@ public interface CParser extends Parser {
     }
 
     public static CParser getParser(Configuration config, LogManager logger, ParserOptions options, MachineModel machine) {
-      return EclipseParsers.getCParser(config, logger, options.dialect, machine);
+      return EclipseParsers.getCParser(config, logger, options, machine);
     }
   }
 }
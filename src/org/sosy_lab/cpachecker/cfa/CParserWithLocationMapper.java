@@ -45,6 +45,7 @@ import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
@@ -216,6 +217,11 @@ public class CParserWithLocationMapper implements CParser {
     return realParser.getCFAConstructionTime();
   }
 
+  @Override
+  public TimeSpan getParseWorkTime() {
+    return realParser.getParseWorkTime();
+  }
+
   @Override
   public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping sourceOriginMapping) throws CParserException, IOException,
       InvalidConfigurationException, InterruptedException {
@@ -256,4 +262,9 @@ public class CParserWithLocationMapper implements CParser {
   public List<CAstNode> parseStatements(String pCode, Scope pScope) throws CParserException, InvalidConfigurationException {
     return realParser.parseStatements(pCode, pScope);
   }
+
+  @Override
+  public List<List<CAstNode>> parseStatementBlocks(String pCode, Scope pScope) throws CParserException, InvalidConfigurationException {
+    return realParser.parseStatementBlocks(pCode, pScope);
+  }
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
@@ -73,6 +74,11 @@ class CParserWithPreprocessor implements CParser {
     return realParser.getCFAConstructionTime();
   }
 
+  @Override
+  public TimeSpan getParseWorkTime() {
+    return realParser.getParseWorkTime();
+  }
+
   @Override
   public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping sourceOriginMapping) throws CParserException, IOException,
       InvalidConfigurationException, InterruptedException {
@@ -104,4 +110,9 @@ class CParserWithPreprocessor implements CParser {
   public List<CAstNode> parseStatements(String pCode, Scope pScope) throws CParserException, InvalidConfigurationException {
     return realParser.parseStatements(pCode, pScope);
   }
+
+  @Override
+  public List<List<CAstNode>> parseStatementBlocks(String pCode, Scope pScope) throws CParserException, InvalidConfigurationException {
+    return realParser.parseStatementBlocks(pCode, pScope);
+  }
 }
\ No newline at end of file
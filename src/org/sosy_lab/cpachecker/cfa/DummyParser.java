@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
@@ -70,6 +71,11 @@ public class DummyParser implements CParser {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public TimeSpan getParseWorkTime() {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping pSourceOriginMapping)
       throws CParserException, IOException, InvalidConfigurationException, InterruptedException {
@@ -93,4 +99,10 @@ public class DummyParser implements CParser {
       InvalidConfigurationException {
     throw new UnsupportedOperationException();
   }
+
+  @Override
+  public List<List<CAstNode>> parseStatementBlocks(String pCode, Scope pScope) throws CParserException,
+      InvalidConfigurationException {
+    throw new UnsupportedOperationException();
+  }
 }
\ No newline at end of file
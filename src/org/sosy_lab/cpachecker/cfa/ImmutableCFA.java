@@ -25,10 +25,24 @@ package org.sosy_lab.cpachecker.cfa;
 
 import static com.google.common.base.Preconditions.*;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
@@ -39,13 +53,16 @@ import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.SetMultimap;
 
 /**
  * This class represents a CFA after it has been fully created (parsing, linking
  * of functions, etc.).
  */
-class ImmutableCFA implements CFA {
+class ImmutableCFA implements CFA, Serializable {
+
+  private static final long serialVersionUID = 4417622437440163302L;
 
   private final MachineModel machineModel;
   private final ImmutableSortedMap<String, FunctionEntryNode> functions;
@@ -166,4 +183,169 @@ class ImmutableCFA implements CFA {
     return language;
   }
 
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * The serialized form of a CFA.
+   * CFA nodes do not serialize their edges
+   * because for long paths in the CFA the default serialization would need
+   * a recursion as deep as the path.
+   * Thus this class first serializes all nodes without edges,
+   * then all edges (which only refer to already serialized nodes),
+   * and only afterwards everything that refers to nodes and edges.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -2473316315811622541L;
+
+    private transient MachineModel machineModel;
+    private transient Language language;
+    private transient List<CFANode> allNodes;
+    private transient Map<String, FunctionEntryNode> functions;
+    private transient FunctionEntryNode mainFunction;
+    private transient Optional<LoopStructure> loopStructure;
+    private transient Optional<VariableClassification> varClassification;
+    private transient Optional<LiveVariables> liveVariables;
+
+    private SerializationProxy(ImmutableCFA pCfa) {
+      machineModel = pCfa.machineModel;
+      language = pCfa.language;
+      allNodes = pCfa.allNodes.asList();
+      functions = pCfa.functions;
+      mainFunction = pCfa.mainFunction;
+      loopStructure = pCfa.loopStructure;
+      varClassification = pCfa.varClassification;
+      liveVariables = pCfa.liveVariables;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+      out.defaultWriteObject();
+      out.writeObject(machineModel);
+      out.writeObject(language);
+
+      // Nodes that are not part of the CFA but reachable from edges,
+      // e.g., the inner nodes of multi edges, are serialized as well,
+      // otherwise their edges would be lost.
+      Set<CFANode> nodes = new LinkedHashSet<>(allNodes);
+      Queue<CFANode> waitlist = new ArrayDeque<>(allNodes);
+      while (!waitlist.isEmpty()) {
+        for (CFAEdge edge : getEdges(waitlist.poll())) {
+          for (CFANode node : getNodes(edge)) {
+            if (nodes.add(node)) {
+              waitlist.add(node);
+            }
+          }
+        }
+      }
+
+      out.writeInt(allNodes.size());
+      out.writeInt(nodes.size());
+      for (CFANode node : nodes) {
+        out.writeObject(node);
+      }
+
+      for (CFANode node : nodes) {
+        out.writeInt(node.getNumLeavingEdges());
+        for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+          out.writeObject(node.getLeavingEdge(i));
+        }
+        out.writeInt(node.getNumEnteringEdges());
+        for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+          out.writeObject(node.getEnteringEdge(i));
+        }
+        out.writeObject(node.getLeavingSummaryEdge());
+        out.writeObject(node.getEnteringSummaryEdge());
+      }
+
+      out.writeObject(ImmutableSortedMap.copyOf(functions));
+      out.writeObject(mainFunction);
+      out.writeObject(loopStructure.orNull());
+      out.writeObject(varClassification.orNull());
+      out.writeObject(liveVariables.orNull());
+    }
+
+    private static List<CFAEdge> getEdges(CFANode node) {
+      List<CFAEdge> result = new ArrayList<>();
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        result.add(node.getLeavingEdge(i));
+      }
+      for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+        result.add(node.getEnteringEdge(i));
+      }
+      if (node.getLeavingSummaryEdge() != null) {
+        result.add(node.getLeavingSummaryEdge());
+      }
+      if (node.getEnteringSummaryEdge() != null) {
+        result.add(node.getEnteringSummaryEdge());
+      }
+      return result;
+    }
+
+    private static List<CFANode> getNodes(CFAEdge edge) {
+      List<CFANode> result = new ArrayList<>();
+      result.add(edge.getPredecessor());
+      result.add(edge.getSuccessor());
+      if (edge instanceof MultiEdge) {
+        for (CFAEdge innerEdge : (MultiEdge)edge) {
+          result.addAll(getNodes(innerEdge));
+        }
+      }
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      machineModel = (MachineModel)in.readObject();
+      language = (Language)in.readObject();
+
+      int cfaNodeCount = in.readInt();
+      int nodeCount = in.readInt();
+      List<CFANode> nodes = new ArrayList<>(nodeCount);
+      for (int i = 0; i < nodeCount; i++) {
+        nodes.add((CFANode)in.readObject());
+      }
+      allNodes = nodes.subList(0, cfaNodeCount);
+
+      for (CFANode node : nodes) {
+        int leavingEdgeCount = in.readInt();
+        for (int i = 0; i < leavingEdgeCount; i++) {
+          node.addLeavingEdge((CFAEdge)in.readObject());
+        }
+        int enteringEdgeCount = in.readInt();
+        for (int i = 0; i < enteringEdgeCount; i++) {
+          node.addEnteringEdge((CFAEdge)in.readObject());
+        }
+        FunctionSummaryEdge leavingSummaryEdge = (FunctionSummaryEdge)in.readObject();
+        if (leavingSummaryEdge != null) {
+          node.addLeavingSummaryEdge(leavingSummaryEdge);
+        }
+        FunctionSummaryEdge enteringSummaryEdge = (FunctionSummaryEdge)in.readObject();
+        if (enteringSummaryEdge != null) {
+          node.addEnteringSummaryEdge(enteringSummaryEdge);
+        }
+      }
+
+      functions = (Map<String, FunctionEntryNode>)in.readObject();
+      mainFunction = (FunctionEntryNode)in.readObject();
+      loopStructure = Optional.fromNullable((LoopStructure)in.readObject());
+      varClassification = Optional.fromNullable((VariableClassification)in.readObject());
+      liveVariables = Optional.fromNullable((LiveVariables)in.readObject());
+    }
+
+    private Object readResolve() {
+      SetMultimap<String, CFANode> nodes = LinkedHashMultimap.create();
+      for (CFANode node : allNodes) {
+        nodes.put(node.getFunctionName(), node);
+      }
+      return new ImmutableCFA(machineModel, functions, nodes, mainFunction,
+          loopStructure, varClassification, liveVariables, language);
+    }
+  }
 }
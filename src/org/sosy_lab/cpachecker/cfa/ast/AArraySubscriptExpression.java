@@ -30,6 +30,7 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AArraySubscriptExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = -6369333329058628291L;
 
   private final AExpression arrayExpression;
   private final AExpression subscriptExpression;
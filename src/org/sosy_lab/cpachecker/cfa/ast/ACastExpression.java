@@ -33,6 +33,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ACastExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = -5633241662475652064L;
+
   private final AExpression operand;
   private final Type     castType;
 
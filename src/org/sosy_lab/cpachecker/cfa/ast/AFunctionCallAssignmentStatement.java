@@ -30,6 +30,7 @@ import java.util.Objects;
 
 public abstract class AFunctionCallAssignmentStatement extends AbstractStatement implements AAssignment, AFunctionCall {
 
+  private static final long serialVersionUID = -8086215710802298635L;
 
   private final ALeftHandSide leftHandSide;
   private final AFunctionCallExpression rightHandSide;
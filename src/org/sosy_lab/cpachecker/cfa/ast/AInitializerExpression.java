@@ -29,6 +29,8 @@ import java.util.Objects;
 
 public abstract class AInitializerExpression extends AbstractInitializer {
 
+  private static final long serialVersionUID = 7475444969828932717L;
+
   private final AExpression expression;
 
   public AInitializerExpression(FileLocation pFileLocation, final AExpression pExpression) {
@@ -32,6 +32,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AIntegerLiteralExpression extends ALiteralExpression {
 
+  private static final long serialVersionUID = 7157627385308583162L;
+
   private final BigInteger value;
 
   public AIntegerLiteralExpression(FileLocation pFileLocation, Type pType, BigInteger pValue) {
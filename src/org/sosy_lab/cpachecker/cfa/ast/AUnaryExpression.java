@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AUnaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = 213301736726838988L;
+
   private final AExpression operand;
   private final AUnaryOperator  operator;
 
@@ -29,6 +29,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public abstract class AbstractAstNode implements AAstNode {
 
+  private static final long serialVersionUID = -9133550652706194394L;
+
   private final FileLocation fileLocation;
 
   public AbstractAstNode(final FileLocation pFileLocation) {
@@ -37,6 +37,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class AbstractDeclaration extends AbstractSimpleDeclaration implements ADeclaration {
 
+  private static final long serialVersionUID = -4246556551698637752L;
+
   private final boolean isGlobal;
 
   public AbstractDeclaration(FileLocation pFileLocation,  boolean pIsGlobal, Type pType, String pName) {
@@ -25,12 +25,15 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 import static com.google.common.base.Preconditions.*;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 
 import com.google.common.collect.Iterables;
 
-public class FileLocation {
+public class FileLocation implements Serializable {
+
+  private static final long serialVersionUID = 6652099907084949014L;
 
   private final int endingLine;
   private final String fileName;
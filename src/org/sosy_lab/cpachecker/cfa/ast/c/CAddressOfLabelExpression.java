@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CAddressOfLabelExpression extends AbstractExpression implements CExpression {
 
+  private static final long serialVersionUID = -7231283900188138943L;
+
   private final String label;
 
   public CAddressOfLabelExpression(final FileLocation pFileLocation,
@@ -29,7 +29,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CArraySubscriptExpression extends AArraySubscriptExpression implements CLeftHandSide {
 
-
+  private static final long serialVersionUID = 6737239486400295285L;
 
   public CArraySubscriptExpression(final FileLocation pFileLocation,
                                       final CType pType,
@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CComplexCastExpression extends AbstractExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = 8944578472565975996L;
+
   private final CExpression operand;
   private final CType     type;
   /**
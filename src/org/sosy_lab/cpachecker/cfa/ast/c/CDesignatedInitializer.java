@@ -37,6 +37,7 @@ import com.google.common.collect.ImmutableList;
 
 public class CDesignatedInitializer extends AbstractInitializer implements CInitializer {
 
+  private static final long serialVersionUID = 1999636687862202784L;
 
   private final List<CDesignator> designators;
   private final CInitializer right;
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class CExpressionStatement extends AExpressionStatement implements CStatement {
 
+  private static final long serialVersionUID = -6540254667817925451L;
+
   public CExpressionStatement(final FileLocation pFileLocation,
                                  final CExpression pExpression) {
     super(pFileLocation,  pExpression);
@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class CFieldDesignator extends CDesignator {
 
+  private static final long serialVersionUID = -2090485539643591629L;
+
   private final String         name;
 
   public CFieldDesignator(final FileLocation pFileLocation,
@@ -28,7 +28,7 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public final class CFunctionCallStatement extends AFunctionCallStatement implements CStatement, CFunctionCall {
 
-
+  private static final long serialVersionUID = 2428285482015145765L;
 
   public CFunctionCallStatement(FileLocation pFileLocation,
                                    CFunctionCallExpression pFunctionCall) {
@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CImaginaryLiteralExpression extends ALiteralExpression implements CLiteralExpression {
 
+  private static final long serialVersionUID = 8010918814978973273L;
+
   private final CLiteralExpression value;
 
   public CImaginaryLiteralExpression(FileLocation pFileLocation,
@@ -33,6 +33,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CIntegerLiteralExpression extends AIntegerLiteralExpression implements CLiteralExpression {
 
+  private static final long serialVersionUID = 7983905979456529461L;
+
   public static final CIntegerLiteralExpression ONE = createDummyLiteral(1L, CNumericTypes.INT);
   public static final CIntegerLiteralExpression ZERO = createDummyLiteral(0L, CNumericTypes.INT);
 
@@ -38,6 +38,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
  */
 public final class CParameterDeclaration extends AParameterDeclaration implements CSimpleDeclaration {
 
+  private static final long serialVersionUID = -3258800071606884819L;
+
   private String qualifiedName;
 
   public CParameterDeclaration(FileLocation pFileLocation,
@@ -30,6 +30,8 @@ import com.google.common.base.Optional;
 
 public class CReturnStatement extends AbstractReturnStatement implements CAstNode {
 
+  private static final long serialVersionUID = 6556121018033417839L;
+
   public CReturnStatement(final FileLocation pFileLocation,
       final Optional<CExpression> pExpression,
       final Optional<CAssignment> pAssignment) {
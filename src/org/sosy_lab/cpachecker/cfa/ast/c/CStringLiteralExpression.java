@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CStringLiteralExpression extends AStringLiteralExpression implements CLiteralExpression {
 
+  private static final long serialVersionUID = 2460638737723985375L;
+
   public CStringLiteralExpression(FileLocation pFileLocation,
                                      CType pType,
                                      String pValue) {
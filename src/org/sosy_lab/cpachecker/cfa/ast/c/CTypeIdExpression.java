@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CTypeIdExpression extends AbstractExpression implements CExpression {
 
+  private static final long serialVersionUID = 2475709908018027391L;
+
   private final TypeIdOperator operator;
   private final CType type;
 
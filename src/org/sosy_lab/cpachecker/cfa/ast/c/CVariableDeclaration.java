@@ -41,6 +41,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
  */
 public final class CVariableDeclaration extends AVariableDeclaration implements CDeclaration {
 
+  private static final long serialVersionUID = 5371321191547272620L;
+
   private final CStorageClass    cStorageClass;
 
   public CVariableDeclaration(FileLocation pFileLocation, boolean pIsGlobal,
@@ -54,6 +54,8 @@ import com.google.common.collect.ImmutableList;
  */
 public class JArrayCreationExpression extends AbstractExpression implements JExpression {
 
+  private static final long serialVersionUID = 4774805269363278283L;
+
   private final List<JExpression> length;
   private final JArrayInitializer initializer;
   //TODO Type Variables < Type { , Type } >
@@ -42,6 +42,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JArrayType;
  */
 public class JArrayInitializer extends AbstractExpression implements JAstNode, JInitializer, JExpression {
 
+  private static final long serialVersionUID = 7473262585439735766L;
+
   private final List<JExpression> initializerExpressions;
 
   public JArrayInitializer(FileLocation pFileLocation, List<JExpression> pInitializerExpression, JArrayType pType) {
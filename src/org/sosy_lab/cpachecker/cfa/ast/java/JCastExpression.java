@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JCastExpression extends ACastExpression implements JExpression {
 
+  private static final long serialVersionUID = 7115076363753467391L;
+
   public JCastExpression(FileLocation pFileLocation, JType pCastType, JExpression pOperand) {
     super(pFileLocation, pCastType, pOperand);
   }
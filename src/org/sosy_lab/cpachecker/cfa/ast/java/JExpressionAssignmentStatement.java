@@ -42,6 +42,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
  */
 public class JExpressionAssignmentStatement extends AExpressionAssignmentStatement implements JAssignment, JStatement {
 
+  private static final long serialVersionUID = 6371262208158845244L;
+
   public JExpressionAssignmentStatement(FileLocation pFileLocation, JLeftHandSide pLeftHandSide,
       JExpression pRightHandSide) {
     super(pFileLocation, pLeftHandSide, pRightHandSide);
@@ -44,6 +44,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
  */
 public class JExpressionStatement extends AExpressionStatement implements JStatement {
 
+  private static final long serialVersionUID = 7701984377015030572L;
+
   public JExpressionStatement(FileLocation pFileLocation, JExpression pExpression) {
     super(pFileLocation, pExpression);
   }
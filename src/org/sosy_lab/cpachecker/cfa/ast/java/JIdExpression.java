@@ -38,6 +38,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JIdExpression extends AIdExpression implements JLeftHandSide {
 
+  private static final long serialVersionUID = 7407381570501804868L;
+
   public JIdExpression(FileLocation pFileLocation, JType pType, String pName, JSimpleDeclaration pDeclaration) {
     super(pFileLocation, pType, pName, pDeclaration);
     // TODO Refactor, so we do not need null for declaration.
@@ -55,6 +55,8 @@ import com.google.common.base.Strings;
  */
 public class JMethodDeclaration extends AFunctionDeclaration implements JDeclaration {
 
+  private static final long serialVersionUID = -2431077381377748947L;
+
  // TODO Type Variables, Exceptions, Annotations
 
   private final boolean isFinal;
@@ -33,6 +33,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
  */
 public class JMethodInvocationAssignmentStatement extends AFunctionCallAssignmentStatement implements JAssignment, JStatement, JMethodOrConstructorInvocation {
 
+  private static final long serialVersionUID = -3954962497432581977L;
+
   public JMethodInvocationAssignmentStatement(FileLocation pFileLocation, JLeftHandSide pLeftHandSide,
       JMethodInvocationExpression pRightHandSide) {
     super(pFileLocation, pLeftHandSide, pRightHandSide);
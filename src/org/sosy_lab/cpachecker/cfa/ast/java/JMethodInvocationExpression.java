@@ -43,6 +43,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JMethodInvocationExpression extends AFunctionCallExpression implements JRightHandSide {
 
+  private static final long serialVersionUID = 8465844615477848747L;
+
   //TODO Type parameters
 
   // TODO erase these two fields and change the algorithm to find known run time type bindings,
@@ -38,6 +38,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
  */
 public class JMethodInvocationStatement extends AFunctionCallStatement implements JStatement, JMethodOrConstructorInvocation {
 
+  private static final long serialVersionUID = 1114022138003827725L;
+
   public JMethodInvocationStatement(FileLocation pFileLocation, JMethodInvocationExpression pFunctionCall) {
     super(pFileLocation, pFunctionCall);
   }
@@ -46,6 +46,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JReferencedMethodInvocationExpression extends JMethodInvocationExpression {
 
+  private static final long serialVersionUID = 1666474897662729317L;
+
   private final JIdExpression qualifier;
 
   public JReferencedMethodInvocationExpression(FileLocation pFileLocation, JType pType, JExpression pFunctionName,
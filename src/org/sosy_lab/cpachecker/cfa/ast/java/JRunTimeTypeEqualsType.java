@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JRunTimeTypeEqualsType extends AbstractExpression implements JExpression {
 
+  private static final long serialVersionUID = -813917973837832541L;
+
   private final JRunTimeTypeExpression runTimeTypeExpression;
   private final JClassOrInterfaceType typeDef;
 
@@ -40,6 +40,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JUnaryExpression extends AUnaryExpression implements JExpression {
 
+  private static final long serialVersionUID = -1800863401945140467L;
+
   public JUnaryExpression(FileLocation pFileLocation, JType pType, JExpression pOperand, UnaryOperator pOperator) {
     super(pFileLocation, pType, pOperand, pOperator);
 
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JVariableDeclaration extends AVariableDeclaration implements JDeclaration {
 
+  private static final long serialVersionUID = -8431014855516394622L;
 
   private static final boolean IS_LOCAL = false;
   private final boolean isFinal;
@@ -31,6 +31,8 @@ import com.google.common.base.Optional;
 
 public class ADeclarationEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -7167183473768676576L;
+
   protected final ADeclaration declaration;
 
   protected ADeclarationEdge(final String pRawSignature, final FileLocation pFileLocation,
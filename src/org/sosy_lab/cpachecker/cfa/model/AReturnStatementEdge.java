@@ -33,6 +33,8 @@ import com.google.common.base.Optional;
 
 public class AReturnStatementEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -168738090929640789L;
+
   protected final AReturnStatement rawAST;
 
   protected AReturnStatementEdge(String pRawStatement, AReturnStatement pRawAST,
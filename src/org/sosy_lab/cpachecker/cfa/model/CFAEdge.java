@@ -24,12 +24,14 @@
 package org.sosy_lab.cpachecker.cfa.model;
 
 
+import java.io.Serializable;
+
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
 
 import com.google.common.base.Optional;
 
-public interface CFAEdge {
+public interface CFAEdge extends Serializable {
 
   public CFAEdgeType getEdgeType();
 
@@ -26,20 +26,28 @@ package org.sosy_lab.cpachecker.cfa.model;
 import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.Iterables.getLast;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.util.UniqueIdGenerator;
 
-public class CFANode implements Comparable<CFANode> {
+public class CFANode implements Comparable<CFANode>, Serializable {
+
+  private static final long serialVersionUID = 5168350311260537453L;
 
   private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
 
   private final int nodeNumber;
 
-  private final List<CFAEdge> leavingEdges = new ArrayList<>(1);
-  private final List<CFAEdge> enteringEdges = new ArrayList<>(1);
+  // The edges are not serialized together with the node,
+  // because this would lead to a recursion as deep as the longest path in the CFA.
+  // Whoever serializes CFA nodes needs to take care of the edges (cf. ImmutableCFA).
+  private transient List<CFAEdge> leavingEdges = new ArrayList<>(1);
+  private transient List<CFAEdge> enteringEdges = new ArrayList<>(1);
 
   // is start node of a loop?
   private boolean isLoopStart = false;
@@ -48,8 +56,8 @@ public class CFANode implements Comparable<CFANode> {
   private final String functionName;
 
   // list of summary edges
-  private FunctionSummaryEdge leavingSummaryEdge = null;
-  private FunctionSummaryEdge enteringSummaryEdge = null;
+  private transient FunctionSummaryEdge leavingSummaryEdge = null;
+  private transient FunctionSummaryEdge enteringSummaryEdge = null;
 
   // reverse postorder sort id, smaller if it appears later in sorting
   private int reversePostorderId = 0;
@@ -65,6 +73,15 @@ public class CFANode implements Comparable<CFANode> {
     return nodeNumber;
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    leavingEdges = new ArrayList<>(1);
+    enteringEdges = new ArrayList<>(1);
+
+    // nodes created after deserialization must not get the same number
+    idGenerator.skipIdsUpTo(nodeNumber);
+  }
+
   public int getReversePostorderId() {
     return reversePostorderId;
   }
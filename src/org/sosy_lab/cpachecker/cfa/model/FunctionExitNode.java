@@ -28,6 +28,8 @@ import static com.google.common.base.Preconditions.*;
 
 public class FunctionExitNode extends CFANode {
 
+  private static final long serialVersionUID = -2121551404006873299L;
+
   private FunctionEntryNode entryNode;
 
   public FunctionExitNode(String pFunctionName) {
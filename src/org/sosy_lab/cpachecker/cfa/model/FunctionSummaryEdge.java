@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public  class FunctionSummaryEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 7351748666599175674L;
+
   private final AFunctionCall expression;
   private final FunctionEntryNode functionEntry;
 
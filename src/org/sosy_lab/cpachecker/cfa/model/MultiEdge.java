@@ -43,6 +43,8 @@ import com.google.common.collect.Lists;
  */
 public class MultiEdge extends AbstractCFAEdge implements Iterable<CFAEdge> {
 
+  private static final long serialVersionUID = -8242686399772788717L;
+
   private final ImmutableList<CFAEdge> edges;
 
   public MultiEdge(CFANode pPredecessor, CFANode pSuccessor, List<CFAEdge> pEdges) {
@@ -36,7 +36,7 @@ import com.google.common.base.Optional;
 
 public class CFunctionCallEdge extends FunctionCallEdge {
 
-
+  private static final long serialVersionUID = 8016380411081298016L;
 
   public CFunctionCallEdge(String pRawStatement,
       FileLocation pFileLocation, CFANode pPredecessor, CFunctionEntryNode pSuccessor,
@@ -30,6 +30,7 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 
 public class CFunctionSummaryEdge extends FunctionSummaryEdge {
 
+  private static final long serialVersionUID = 8608401723455179033L;
 
   public CFunctionSummaryEdge(String pRawStatement, FileLocation pFileLocation,
       CFANode pPredecessor, CFANode pSuccessor, CFunctionCall pExpression,
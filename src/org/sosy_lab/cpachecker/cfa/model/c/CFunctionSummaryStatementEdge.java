@@ -31,6 +31,9 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CStatement;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CFunctionSummaryStatementEdge extends CStatementEdge {
+
+  private static final long serialVersionUID = 8961299631597457222L;
+
   private final String functionName;
   private final CFunctionCall fcall;
 
@@ -32,6 +32,7 @@ import com.google.common.base.Optional;
 
 public class CStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = 2578812586001810680L;
 
   public CStatementEdge(String pRawStatement, CStatement pStatement,
       FileLocation pFileLocation, CFANode pPredecessor, CFANode pSuccessor) {
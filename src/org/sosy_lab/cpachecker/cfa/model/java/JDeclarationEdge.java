@@ -34,7 +34,7 @@ import com.google.common.base.Optional;
 
 public class JDeclarationEdge extends ADeclarationEdge {
 
-
+  private static final long serialVersionUID = -2437675468907824466L;
 
   public JDeclarationEdge(final String pRawSignature, final FileLocation pFileLocation,
       final CFANode pPredecessor, final CFANode pSuccessor, final JDeclaration pDeclaration) {
@@ -30,6 +30,7 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
 
 public class JMethodReturnEdge extends FunctionReturnEdge {
 
+  private static final long serialVersionUID = 7166613158797558028L;
 
   public JMethodReturnEdge(FileLocation pFileLocation,
       FunctionExitNode pPredecessor, CFANode pSuccessor,
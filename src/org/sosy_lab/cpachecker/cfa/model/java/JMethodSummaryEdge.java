@@ -30,6 +30,7 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 
 public class JMethodSummaryEdge extends FunctionSummaryEdge {
 
+  private static final long serialVersionUID = 8043951604825008371L;
 
   public JMethodSummaryEdge(String pRawStatement, FileLocation pFileLocation,
       CFANode pPredecessor, CFANode pSuccessor,
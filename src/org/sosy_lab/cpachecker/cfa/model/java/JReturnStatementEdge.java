@@ -36,6 +36,7 @@ import com.google.common.base.Optional;
 
 public class JReturnStatementEdge extends AReturnStatementEdge {
 
+  private static final long serialVersionUID = -4195213602223360227L;
 
   public JReturnStatementEdge(String pRawStatement, JReturnStatement pRawAST,
       FileLocation pFileLocation, CFANode pPredecessor, FunctionExitNode pSuccessor) {
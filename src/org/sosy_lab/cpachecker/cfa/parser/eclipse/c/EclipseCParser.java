@@ -32,6 +32,12 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
@@ -54,14 +60,17 @@ import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CParser;
+import org.sosy_lab.cpachecker.cfa.CParser.ParserOptions;
 import org.sosy_lab.cpachecker.cfa.CSourceOriginMapping;
 import org.sosy_lab.cpachecker.cfa.ParseResult;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
@@ -72,8 +81,10 @@ import org.sosy_lab.cpachecker.exceptions.CParserException;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Wrapper for Eclipse CDT 7.0 and 8.* (internal version number since 5.2.*)
@@ -89,17 +100,23 @@ class EclipseCParser implements CParser {
   private final LogManager logger;
   private final Configuration config;
 
+  private final int threads;
+
   private final Timer parseTimer = new Timer();
   private final Timer cfaTimer = new Timer();
 
+  // accumulated time of all threads, only relevant if threads > 1
+  private final AtomicLong parseWorkNanos = new AtomicLong();
+
   public EclipseCParser(Configuration pConfig, LogManager pLogger,
-      Dialect dialect, MachineModel pMachine) {
+      ParserOptions pOptions, MachineModel pMachine) {
 
     this.logger = pLogger;
     this.machine = pMachine;
     this.config = pConfig;
+    this.threads = pOptions.getThreads();
 
-    switch (dialect) {
+    switch (pOptions.getDialect()) {
     case C99:
       language = new CLanguage(new ANSICParserExtensionConfiguration());
       break;
@@ -138,15 +155,58 @@ class EclipseCParser implements CParser {
   }
 
   @Override
-  public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping sourceOriginMapping) throws CParserException, IOException, InvalidConfigurationException {
+  public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping sourceOriginMapping) throws CParserException, IOException, InvalidConfigurationException, InterruptedException {
 
-    List<IASTTranslationUnit> astUnits = new ArrayList<>();
-    for (FileToParse f: pFilenames) {
-      astUnits.add(parse(wrapFile(f.getFileName())));
+    List<IASTTranslationUnit> astUnits;
+    if (threads > 1 && pFilenames.size() > 1) {
+      astUnits = parseInParallel(pFilenames);
+    } else {
+      astUnits = new ArrayList<>();
+      for (FileToParse f: pFilenames) {
+        astUnits.add(parse(wrapFile(f.getFileName())));
+      }
     }
     return buildCFA(astUnits, sourceOriginMapping);
   }
 
+  /**
+   * Parse several files in parallel.
+   * The translation units are returned in the same order as the given files,
+   * so that the rest of the CFA construction is independent of the thread scheduling.
+   */
+  private List<IASTTranslationUnit> parseInParallel(List<FileToParse> pFilenames)
+      throws CParserException, IOException, InterruptedException {
+    parseTimer.start();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, pFilenames.size()),
+        new ThreadFactoryBuilder().setNameFormat("Parser thread %d").setDaemon(true).build());
+    try {
+      List<Future<IASTTranslationUnit>> futures = new ArrayList<>(pFilenames.size());
+      for (final FileToParse f : pFilenames) {
+        futures.add(executor.submit(new Callable<IASTTranslationUnit>() {
+          @Override
+          public IASTTranslationUnit call() throws CParserException, IOException {
+            return parseWithoutTimer(wrapFile(f.getFileName()));
+          }
+        }));
+      }
+
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(pFilenames.size());
+      for (Future<IASTTranslationUnit> future : futures) {
+        try {
+          astUnits.add(future.get());
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(e.getCause(), CParserException.class, IOException.class);
+          throw new UnexpectedCheckedException("parsing", e.getCause());
+        }
+      }
+      return astUnits;
+
+    } finally {
+      executor.shutdownNow();
+      parseTimer.stop();
+    }
+  }
+
   @Override
   public ParseResult parseString(List<FileContentToParse> codeFragments, CSourceOriginMapping sourceOriginMapping) throws CParserException, InvalidConfigurationException {
 
@@ -224,7 +284,35 @@ class EclipseCParser implements CParser {
       throw new CParserException("Not a single function: " + ast.getRawSignature());
     }
 
-    IASTFunctionDefinition func = (IASTFunctionDefinition)declarations[0];
+    return convertFunctionBody((IASTFunctionDefinition)declarations[0], scope);
+  }
+
+  @Override
+  public List<List<CAstNode>> parseStatementBlocks(String pCode, Scope scope) throws CParserException, InvalidConfigurationException {
+    IASTTranslationUnit ast = parse(wrapCode("", pCode));
+
+    IASTDeclaration[] declarations = ast.getDeclarations();
+    if (declarations == null) {
+      throw new CParserException("No function found: " + ast.getRawSignature());
+    }
+
+    List<List<CAstNode>> result = new ArrayList<>(declarations.length);
+    for (IASTDeclaration declaration : declarations) {
+      if (!(declaration instanceof IASTFunctionDefinition)) {
+        throw new CParserException("Not a function: " + declaration.getRawSignature());
+      }
+      result.add(convertFunctionBody((IASTFunctionDefinition)declaration, scope));
+    }
+    return result;
+  }
+
+  /**
+   * Convert the statements of the body of a function.
+   * Each call uses a new converter, so the statements of different functions
+   * do not influence each other.
+   */
+  private List<CAstNode> convertFunctionBody(IASTFunctionDefinition func, Scope scope)
+      throws CParserException, InvalidConfigurationException {
     IASTStatement body = func.getBody();
     if (!(body instanceof IASTCompoundStatement)) {
       throw new CParserException("Function has an unexpected " + body.getClass().getSimpleName() + " as body: " + func.getRawSignature());
@@ -263,6 +351,18 @@ class EclipseCParser implements CParser {
 
   private IASTTranslationUnit parse(FileContent codeReader) throws CParserException {
     parseTimer.start();
+    try {
+      return parseWithoutTimer(codeReader);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  /**
+   * Parse a file, this method is thread-safe.
+   */
+  private IASTTranslationUnit parseWithoutTimer(FileContent codeReader) throws CParserException {
+    long start = System.nanoTime();
     try {
       IASTTranslationUnit result = getASTTranslationUnit(codeReader);
 
@@ -292,7 +392,7 @@ class EclipseCParser implements CParser {
     } catch (CoreException e) {
       throw new CParserException(e);
     } finally {
-      parseTimer.stop();
+      parseWorkNanos.addAndGet(System.nanoTime() - start);
     }
   }
 
@@ -414,6 +514,11 @@ class EclipseCParser implements CParser {
     return cfaTimer;
   }
 
+  @Override
+  public TimeSpan getParseWorkTime() {
+    return threads > 1 ? TimeSpan.ofNanos(parseWorkNanos.get()) : null;
+  }
+
 
   /**
    * Private class extending the Eclipse CDT class that is the starting point
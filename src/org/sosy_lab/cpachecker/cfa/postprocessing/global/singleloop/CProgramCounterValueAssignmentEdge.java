@@ -41,6 +41,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
  */
 class CProgramCounterValueAssignmentEdge extends CStatementEdge implements ProgramCounterValueAssignmentEdge {
 
+  private static final long serialVersionUID = -9040734058544089266L;
+
   /**
    * The program counter value.
    */
@@ -43,6 +43,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
  */
 class CProgramCounterValueAssumeEdge extends CAssumeEdge implements ProgramCounterValueAssumeEdge {
 
+  private static final long serialVersionUID = 7477892827208343079L;
+
   /**
    * The program counter value assumed.
    */
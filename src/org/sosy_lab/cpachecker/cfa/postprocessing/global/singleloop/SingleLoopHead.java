@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.cfa.postprocessing.global.singleloop;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
@@ -47,10 +49,14 @@ import com.google.common.base.Preconditions;
  */
 public class SingleLoopHead extends CFANode {
 
+  private static final long serialVersionUID = 4553860148706013965L;
+
   /**
    * The program counter value assignment edges leading to the loop head.
+   * Like the edges of the node, these are not serialized
+   * but filled again when the entering edges are added after deserialization.
    */
-  private final Map<Integer, ProgramCounterValueAssignmentEdge> enteringPCValueAssignmentEdges = new HashMap<>();
+  private transient Map<Integer, ProgramCounterValueAssignmentEdge> enteringPCValueAssignmentEdges = new HashMap<>();
 
   /**
    * Creates a new loop head with line number 0 and an artificial function name.
@@ -59,6 +65,11 @@ public class SingleLoopHead extends CFANode {
     super(CFASingleLoopTransformation.ARTIFICIAL_PROGRAM_COUNTER_FUNCTION_NAME);
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    enteringPCValueAssignmentEdges = new HashMap<>();
+  }
+
   @Override
   public void addEnteringEdge(CFAEdge pEnteringEdge) {
     if (pEnteringEdge instanceof ProgramCounterValueAssignmentEdge) {
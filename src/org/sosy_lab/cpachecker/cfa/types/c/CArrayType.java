@@ -29,6 +29,8 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Objects;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
 import org.sosy_lab.cpachecker.cfa.types.AArrayType;
@@ -162,15 +164,17 @@ public class CArrayType extends AArrayType implements CType, Serializable {
     private final boolean isConst;
     private final boolean isVolatile;
     private final CType type;
+    private final @Nullable CExpression length;
 
     public SerializationProxy(CArrayType arrayType) {
       isConst = arrayType.isConst;
       isVolatile = arrayType.isVolatile;
       type = arrayType.getType();
+      length = arrayType.getLength();
     }
 
     private Object readResolve() {
-      return new CArrayType(isConst, isVolatile, type, null);
+      return new CArrayType(isConst, isVolatile, type, length);
     }
   }
 }
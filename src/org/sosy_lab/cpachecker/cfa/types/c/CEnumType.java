@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.cfa.types.c;
 import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.Iterables.transform;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 
@@ -40,7 +41,9 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CSimpleDeclarationVisitor;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 
-public final class CEnumType implements CComplexType {
+public final class CEnumType implements CComplexType, Serializable {
+
+  private static final long serialVersionUID = -986078271714119880L;
 
   private final ImmutableList<CEnumerator> enumerators;
   private final String name;
@@ -122,6 +125,8 @@ public final class CEnumType implements CComplexType {
 
   public static final class CEnumerator extends AbstractSimpleDeclaration implements CSimpleDeclaration {
 
+    private static final long serialVersionUID = 4840873731303567126L;
+
     private final @Nullable Long  value;
     private CEnumType             enumType;
     private final String         qualifiedName;
@@ -68,6 +68,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
@@ -236,6 +237,7 @@ public class CPAchecker {
       reached = factory.createReachedSet();
 
       Algorithm algorithm;
+      ConfigurableProgramAnalysis cpa = null;
 
       if (runCBMCasExternalTool) {
 
@@ -252,7 +254,7 @@ public class CPAchecker {
             ? SpecAutomatonCompositionType.BACKWARD_TO_ENTRY_SPEC
             : SpecAutomatonCompositionType.TARGET_SPEC;
 
-        ConfigurableProgramAnalysis cpa = factory.createCPA(
+        cpa = factory.createCPA(
             cfa, stats,
             speComposition);
         GlobalInfo.getInstance().storeCPA(cpa);
@@ -281,7 +283,14 @@ public class CPAchecker {
       // run analysis
       result = Result.UNKNOWN; // set to unknown so that the result is correct in case of exception
 
-      AlgorithmStatus status = runAlgorithm(algorithm, reached, stats);
+      AlgorithmStatus status;
+      try {
+        status = runAlgorithm(algorithm, reached, stats);
+      } finally {
+        if (cpa != null) {
+          CPAs.notifyAnalysisTerminated(cpa);
+        }
+      }
 
       violatedPropertyDescription = findViolatedProperties(reached);
       if (violatedPropertyDescription != null) {
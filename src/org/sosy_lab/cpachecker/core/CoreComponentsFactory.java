@@ -42,6 +42,7 @@ import org.sosy_lab.cpachecker.core.algorithm.CEGARAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CounterexampleCheckAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CustomInstructionRequirementsExtractingAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ParallelCPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithmWithARGReplay;
 import org.sosy_lab.cpachecker.core.algorithm.RestartWithConditionsAlgorithm;
@@ -85,6 +86,12 @@ public class CoreComponentsFactory {
         + "\nCurrently all refiner require the use of the ARGCPA.")
   private boolean useCEGAR = false;
 
+  @Option(secure=true, name="algorithm.parallelCPA",
+      description = "explore the waitlist with several threads in parallel"
+        + "\nThe number of threads can be set with the cpa.parallel.workers option."
+        + "\nAll used CPAs need to declare that they support this (by implementing ThreadSafeCPA).")
+  private boolean useParallelCPAAlgorithm = false;
+
   @Option(secure=true, description="use a second model checking run (e.g., with CBMC or a different CPAchecker configuration) to double-check counter-examples")
   private boolean checkCounterexamples = false;
 
@@ -188,7 +195,12 @@ public class CoreComponentsFactory {
       algorithm = new RestartAlgorithmWithARGReplay(config, logger, shutdownNotifier, cfa);
 
     } else {
-      algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier, stats);
+      if (useParallelCPAAlgorithm) {
+        logger.log(Level.INFO, "Using Parallel CPA Algorithm");
+        algorithm = new ParallelCPAAlgorithm(cpa, logger, config, shutdownNotifier, stats);
+      } else {
+        algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier, stats);
+      }
 
       if (useAnalysisWithEnablerCPAAlgorithm) {
         algorithm = new AnalysisWithRefinableEnablerCPAAlgorithm(algorithm, cpa, cfa, logger, config, shutdownNotifier);
@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
 import javax.management.JMException;
 
 import org.sosy_lab.common.concurrency.Threads;
@@ -46,6 +47,7 @@ import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
@@ -62,7 +64,10 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AlgorithmIterationListener;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.IterationStatistics;
+import org.sosy_lab.cpachecker.core.interfaces.SnapshotStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ConcurrentLocationMappedReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ConcurrentPartitionedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.LocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.PartitionedReachedSet;
@@ -71,6 +76,7 @@ import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.coverage.CoverageReport;
 import org.sosy_lab.cpachecker.util.resources.MemoryStatistics;
 import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
+import org.sosy_lab.cpachecker.util.statistics.JsonLinesStatisticsWriter;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 
 import com.google.common.base.Function;
@@ -108,6 +114,24 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     description="track memory usage of JVM during runtime")
   private boolean monitorMemoryUsage = true;
 
+  @Option(secure=true, name="statistics.snapshots.export",
+      description="write snapshots of the statistics periodically during the analysis,"
+          + " as one JSON object per line")
+  private boolean exportSnapshots = false;
+
+  @Option(secure=true, name="statistics.snapshots.file",
+      description="file for the snapshots of the statistics")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path snapshotFile = Paths.get("StatisticsSnapshots.jsonl");
+
+  @Option(secure=true, name="statistics.snapshots.interval",
+      description="time between two snapshots of the statistics"
+          + " (use seconds or specify a unit; 0 for a snapshot after each iteration)")
+  @TimeSpanOption(codeUnit=TimeUnit.NANOSECONDS,
+      defaultUserUnit=TimeUnit.SECONDS,
+      min=0)
+  private TimeSpan snapshotInterval = TimeSpan.ofSeconds(10);
+
   private final LogManager logger;
   private final Collection<Statistics> subStats;
   private final MemoryStatistics memStats;
@@ -116,6 +140,12 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
 
   private Collection<IterationStatistics> iterationStats;
 
+  private Collection<SnapshotStatistics> snapshotStats;
+  private final long startTime = System.nanoTime();
+  private long lastSnapshotTime = startTime;
+  private long snapshotIterations = 0;
+  private @Nullable Writer snapshotWriter;
+
   private final Timer programTime = new Timer();
   final Timer creationTime = new Timer();
   final Timer cpaCreationTime = new Timer();
@@ -239,6 +269,11 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
       memStatsThread.interrupt(); // stop memory statistics collection
     }
 
+    if (result != Result.NOT_YET_STARTED) {
+      writeSnapshot(reached, result);
+    }
+    closeSnapshotWriter();
+
     if (result != Result.NOT_YET_STARTED) {
       dumpReachedSet(reached);
 
@@ -384,6 +419,16 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
       mostFrequentLocation = (CFANode)maxPartition.getKey();
       mostFrequentLocationCount = maxPartition.getValue().size();
 
+    } else if (reached instanceof ConcurrentLocationMappedReachedSet) {
+      ConcurrentLocationMappedReachedSet l = (ConcurrentLocationMappedReachedSet)reached;
+      locations = l.getLocations();
+
+      Map.Entry<Object, Collection<AbstractState>> maxPartition = l.getMaxPartition();
+      if (maxPartition != null) {
+        mostFrequentLocation = (CFANode)maxPartition.getKey();
+        mostFrequentLocationCount = maxPartition.getValue().size();
+      }
+
     } else {
       HashMultiset<CFANode> allLocations = HashMultiset.create(from(reached)
                                                                     .transform(EXTRACT_LOCATION)
@@ -416,20 +461,31 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
 
     if (reached instanceof PartitionedReachedSet) {
       PartitionedReachedSet p = (PartitionedReachedSet)reached;
-      int partitions = p.getNumberOfPartitions();
-      out.println("  Number of partitions:          " + partitions);
-      out.println("    Avg size of partitions:      " + reachedSize / partitions);
-      Map.Entry<Object, Collection<AbstractState>> maxPartition = p.getMaxPartition();
-      out.print  ("    Max size of partitions:      " + maxPartition.getValue().size());
-      if (maxPartition.getValue().size() > 1) {
-        out.println(" (with key " + maxPartition.getKey() + ")");
-      } else {
-        out.println();
-      }
+      printPartitionStatistics(p.getNumberOfPartitions(), p.getMaxPartition(), reachedSize, out);
+
+    } else if (reached instanceof ConcurrentPartitionedReachedSet) {
+      ConcurrentPartitionedReachedSet p = (ConcurrentPartitionedReachedSet)reached;
+      printPartitionStatistics(p.getNumberOfPartitions(), p.getMaxPartition(), reachedSize, out);
     }
     out.println("  Number of target states:       " + from(reached).filter(IS_TARGET_STATE).size());
   }
 
+  private void printPartitionStatistics(int partitions,
+      @Nullable Map.Entry<Object, Collection<AbstractState>> maxPartition,
+      int reachedSize, PrintStream out) {
+    if (partitions == 0 || maxPartition == null) {
+      return;
+    }
+    out.println("  Number of partitions:          " + partitions);
+    out.println("    Avg size of partitions:      " + reachedSize / partitions);
+    out.print  ("    Max size of partitions:      " + maxPartition.getValue().size());
+    if (maxPartition.getValue().size() > 1) {
+      out.println(" (with key " + maxPartition.getKey() + ")");
+    } else {
+      out.println();
+    }
+  }
+
   private void printCfaStatistics(PrintStream out) {
     if (cfa != null) {
       int edges = 0;
@@ -505,5 +561,75 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     for(IterationStatistics s: iterationStats) {
       s.printIterationStatistics(System.out, pReached);
     }
+
+    if (exportSnapshots && snapshotFile != null) {
+      writeSnapshotIfDue(pReached);
+    }
+  }
+
+  private synchronized void writeSnapshotIfDue(ReachedSet pReached) {
+    snapshotIterations++;
+    if (System.nanoTime() - lastSnapshotTime >= snapshotInterval.asNanos()) {
+      writeSnapshot(pReached, null);
+    }
+  }
+
+  /**
+   * Write the current values of the statistics as one line of the snapshot file.
+   * The line is flushed immediately such that the snapshots are available
+   * even if CPAchecker is killed later on.
+   * @param pResult The result of the analysis for the final snapshot, otherwise <code>null</code>.
+   */
+  private synchronized void writeSnapshot(ReachedSet pReached, @Nullable Result pResult) {
+    if (!exportSnapshots || snapshotFile == null) {
+      return;
+    }
+    if (snapshotStats == null) {
+      snapshotStats = new ArrayList<>();
+      for (Statistics s : subStats) {
+        if (s instanceof SnapshotStatistics) {
+          snapshotStats.add((SnapshotStatistics)s);
+        }
+      }
+    }
+
+    lastSnapshotTime = System.nanoTime();
+    Runtime runtime = Runtime.getRuntime();
+
+    JsonLinesStatisticsWriter writer = JsonLinesStatisticsWriter.collectingStatistics();
+    writer.put("time", TimeSpan.ofNanos(lastSnapshotTime - startTime))
+          .put("final", pResult != null)
+          .putIf(pResult != null, "result", String.valueOf(pResult))
+          .put("iterations", snapshotIterations)
+          .put("reachedSetSize", pReached.size())
+          .put("waitlistSize", pReached.getWaitlist().size())
+          .put("heapUsed", runtime.totalMemory() - runtime.freeMemory())
+          .put("heapMax", runtime.maxMemory());
+    for (SnapshotStatistics s : snapshotStats) {
+      s.writeSnapshot(writer);
+    }
+
+    try {
+      if (snapshotWriter == null) {
+        snapshotWriter = Files.openOutputFile(snapshotFile);
+      }
+      writer.writeLine(snapshotWriter);
+      snapshotWriter.flush();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write statistics snapshot to file");
+      exportSnapshots = false;
+      closeSnapshotWriter();
+    }
+  }
+
+  private synchronized void closeSnapshotWriter() {
+    if (snapshotWriter != null) {
+      try {
+        snapshotWriter.close();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write statistics snapshot to file");
+      }
+      snapshotWriter = null;
+    }
   }
 }
@@ -48,6 +48,7 @@ import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Refiner;
+import org.sosy_lab.cpachecker.core.interfaces.SnapshotStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -55,6 +56,7 @@ import org.sosy_lab.cpachecker.cpa.value.refiner.UnsoundRefiner;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.InvalidComponentException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
@@ -64,7 +66,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 @Options(prefix="cegar")
 public class CEGARAlgorithm implements Algorithm, StatisticsProvider {
 
-  private static class CEGARStatistics implements Statistics {
+  private static class CEGARStatistics implements SnapshotStatistics {
 
     private final Timer totalTimer = new Timer();
     private final Timer refinementTimer = new Timer();
@@ -105,6 +107,13 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider {
         out.println("Max time for refinement:          " + refinementTimer.getMaxTime().formatAs(TimeUnit.SECONDS));
       }
     }
+
+    @Override
+    public void writeSnapshot(StatisticsWriter writer) {
+      writer.put("refinements", countRefinements)
+            .put("successfulRefinements", countSuccessfulRefinements)
+            .put("refinementTime", refinementTimer);
+    }
   }
 
   private final CEGARStatistics stats = new CEGARStatistics();
@@ -59,8 +59,13 @@ import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Operator;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Sample;
 
 import com.google.common.base.Functions;
 import com.google.common.base.Optional;
@@ -139,6 +144,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     private boolean reportFalseAsUnknown = false;
 
     private final ForcedCovering forcedCovering;
+    private final OperatorProfiler profiler;
 
     private final ConfigurableProgramAnalysis cpa;
     private final LogManager logger;
@@ -163,10 +169,21 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         forcedCovering = null;
       }
 
+      // use the profiler of the analysis, such that all algorithms write into the same profile
+      CompositeCPA compositeCpa = CPAs.retrieveCPA(cpa, CompositeCPA.class);
+      if (compositeCpa != null) {
+        profiler = compositeCpa.getOperatorProfiler();
+      } else {
+        if (new OperatorProfiler(config, logger).isEnabled()) {
+          logger.log(Level.WARNING, "Operator profiling is only supported for analyses with CompositeCPA,"
+              + " no operator profile will be written.");
+        }
+        profiler = OperatorProfiler.disabled();
+      }
     }
 
     public CPAAlgorithm newInstance() {
-      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener, reportFalseAsUnknown);
+      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener, reportFalseAsUnknown, profiler);
     }
   }
 
@@ -198,11 +215,18 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   private final AlgorithmStatus status;
 
+  private final OperatorProfiler profiler;
+  private final OperatorProfiler.Probe transferProbe;
+  private final OperatorProfiler.Probe precisionProbe;
+  private final OperatorProfiler.Probe mergeProbe;
+  private final OperatorProfiler.Probe stopProbe;
+
   private CPAAlgorithm(ConfigurableProgramAnalysis cpa, LogManager logger,
       ShutdownNotifier pShutdownNotifier,
       ForcedCovering pForcedCovering,
       AlgorithmIterationListener pIterationListener,
-      boolean pIsImprecise) {
+      boolean pIsImprecise,
+      OperatorProfiler pProfiler) {
 
     this.cpa = cpa;
     this.logger = logger;
@@ -210,6 +234,11 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     this.forcedCovering = pForcedCovering;
     this.iterationListener = pIterationListener;
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
+    profiler = pProfiler;
+    transferProbe = profiler.getProbe(Operator.TRANSFER, null);
+    precisionProbe = profiler.getProbe(Operator.PREC, null);
+    mergeProbe = profiler.getProbe(Operator.MERGE, null);
+    stopProbe = profiler.getProbe(Operator.STOP, null);
   }
 
   @Override
@@ -226,6 +255,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       stats.stopTimer.stopIfRunning();
       stats.addTimer.stopIfRunning();
       stats.forcedCoveringTimer.stopIfRunning();
+      profiler.endIteration();
     }
   }
 
@@ -254,6 +284,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       final Precision precision = reachedSet.getPrecision(state);
       stats.chooseTimer.stop();
 
+      profiler.beginIteration(state);
+
       logger.log(Level.FINER, "Retrieved state from waitlist");
       logger.log(Level.ALL, "Current state is", state, "with precision",
           precision);
@@ -273,10 +305,12 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       }
 
       stats.transferTimer.start();
+      Sample transferSample = transferProbe.start();
       Collection<? extends AbstractState> successors;
       try {
         successors = transferRelation.getAbstractSuccessors(state, precision);
       } finally {
+        transferProbe.stop(transferSample);
         stats.transferTimer.stop();
       }
       // TODO When we have a nice way to mark the analysis result as incomplete,
@@ -293,6 +327,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         logger.log(Level.ALL, "Successor of", state, "\nis", successor);
 
         stats.precisionTimer.start();
+        Sample precisionSample = precisionProbe.start();
         PrecisionAdjustmentResult precAdjustmentResult;
         try {
           Optional<PrecisionAdjustmentResult> precAdjustmentOptional =
@@ -305,6 +340,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           }
           precAdjustmentResult = precAdjustmentOptional.get();
         } finally {
+          precisionProbe.stop(precisionSample);
           stats.precisionTimer.stop();
         }
 
@@ -314,10 +350,12 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
         if (action == Action.BREAK) {
           stats.stopTimer.start();
+          Sample stopSample = stopProbe.start();
           boolean stop;
           try {
             stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
           } finally {
+            stopProbe.stop(stopSample);
             stats.stopTimer.stop();
           }
 
@@ -361,9 +399,14 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
             logger.log(Level.FINER, "Considering", reached.size(),
                 "states from reached set for merge");
             for (AbstractState reachedState : reached) {
-              AbstractState mergedState =
-                  mergeOperator.merge(successor, reachedState,
-                      successorPrecision);
+              AbstractState mergedState;
+              Sample mergeSample = mergeProbe.start();
+              try {
+                mergedState = mergeOperator.merge(successor, reachedState,
+                    successorPrecision);
+              } finally {
+                mergeProbe.stop(mergeSample);
+              }
 
               if (!mergedState.equals(reachedState)) {
                 logger.log(Level.FINER,
@@ -389,10 +432,12 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         }
 
         stats.stopTimer.start();
+        Sample stopSample = stopProbe.start();
         boolean stop;
         try {
           stop = stopOperator.stop(successor, reached, successorPrecision);
         } finally {
+          stopProbe.stop(stopSample);
           stats.stopTimer.stop();
         }
 
@@ -411,6 +456,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         }
       }
 
+      profiler.endIteration();
+
       if (iterationListener != null) {
         iterationListener.afterAlgorithmIteration(this, reachedSet);
       }
@@ -0,0 +1,627 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Predicates.instanceOf;
+import static com.google.common.base.Predicates.not;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AlgorithmIterationListener;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A variant of {@link CPAAlgorithm} that explores the waitlist with several
+ * worker threads.
+ *
+ * Each worker takes a state from the shared waitlist and computes its successors
+ * while holding a read lock on the reached set,
+ * so several workers may expand states concurrently.
+ * Precision adjustment, merge, stop and adding to the reached set are committed
+ * while holding the exclusive lock, thus the reached set itself does not need to be thread-safe,
+ * and modifications of the ARG by merge never happen during the expansion of a state.
+ * If the expanded state was removed from the reached set (e.g., by a merge)
+ * before its successors are committed, the successors are discarded.
+ *
+ * All CPAs need to support concurrent calls of their transfer relation
+ * and have to declare this by implementing {@link ThreadSafeCPA},
+ * otherwise this algorithm refuses to start.
+ * Forced covering is not supported.
+ */
+@Options(prefix="cpa.parallel")
+public class ParallelCPAAlgorithm implements Algorithm, StatisticsProvider {
+
+  private static class WorkerStatistics {
+
+    private final Timer precisionTimer = new Timer();
+    private final Timer transferTimer = new Timer();
+    private final Timer mergeTimer = new Timer();
+    private final Timer stopTimer = new Timer();
+    private final Timer addTimer = new Timer();
+    private final Timer waitTimer = new Timer();
+
+    private int countIterations = 0;
+    private int countSuccessors = 0;
+    private int maxSuccessors = 0;
+    private int countMerge = 0;
+    private int countStop = 0;
+    private int countBreak = 0;
+
+    private void stopAllTimers() {
+      precisionTimer.stopIfRunning();
+      transferTimer.stopIfRunning();
+      mergeTimer.stopIfRunning();
+      stopTimer.stopIfRunning();
+      addTimer.stopIfRunning();
+      waitTimer.stopIfRunning();
+    }
+  }
+
+  private static class ParallelCPAStatistics implements Statistics {
+
+    private final Timer totalTimer = new Timer();
+    private final List<WorkerStatistics> workers = new ArrayList<>();
+
+    // only accessed while holding the exclusive lock
+    private int maxWaitlistSize = 0;
+    private long countWaitlistSize = 0;
+
+    @Override
+    public String getName() {
+      return "Parallel CPA algorithm";
+    }
+
+    @Override
+    public void printStatistics(PrintStream out, Result pResult,
+        ReachedSet pReached) {
+      int countIterations = 0;
+      int countSuccessors = 0;
+      int maxSuccessors = 0;
+      int countMerge = 0;
+      int countStop = 0;
+      int countBreak = 0;
+      TimeSpan precisionTime = TimeSpan.empty();
+      TimeSpan transferTime = TimeSpan.empty();
+      TimeSpan mergeTime = TimeSpan.empty();
+      TimeSpan stopTime = TimeSpan.empty();
+      TimeSpan addTime = TimeSpan.empty();
+      TimeSpan waitTime = TimeSpan.empty();
+      for (WorkerStatistics worker : workers) {
+        countIterations += worker.countIterations;
+        countSuccessors += worker.countSuccessors;
+        maxSuccessors = Math.max(maxSuccessors, worker.maxSuccessors);
+        countMerge += worker.countMerge;
+        countStop += worker.countStop;
+        countBreak += worker.countBreak;
+        precisionTime = TimeSpan.sum(precisionTime, worker.precisionTimer.getSumTime());
+        transferTime = TimeSpan.sum(transferTime, worker.transferTimer.getSumTime());
+        mergeTime = TimeSpan.sum(mergeTime, worker.mergeTimer.getSumTime());
+        stopTime = TimeSpan.sum(stopTime, worker.stopTimer.getSumTime());
+        addTime = TimeSpan.sum(addTime, worker.addTimer.getSumTime());
+        waitTime = TimeSpan.sum(waitTime, worker.waitTimer.getSumTime());
+      }
+
+      out.println("Number of worker threads:        " + workers.size());
+      out.println("Number of iterations:            " + countIterations);
+      if (countIterations == 0) {
+        // Statistics not relevant, prevent division by zero
+        return;
+      }
+
+      out.println("Max size of waitlist:            " + maxWaitlistSize);
+      out.println("Average size of waitlist:        " + countWaitlistSize
+          / countIterations);
+      out.println("Number of computed successors:   " + countSuccessors);
+      out.println("Max successors for one state:    " + maxSuccessors);
+      out.println("Number of times merged:          " + countMerge);
+      out.println("Number of times stopped:         " + countStop);
+      out.println("Number of times breaked:         " + countBreak);
+      out.println();
+      out.println("Total time for CPA algorithm:     " + totalTimer);
+      out.println("  Time for precision adjustment:  " + precisionTime.formatAs(TimeUnit.SECONDS));
+      out.println("  Time for transfer relation:     " + transferTime.formatAs(TimeUnit.SECONDS));
+      out.println("  Time for merge operator:        " + mergeTime.formatAs(TimeUnit.SECONDS));
+      out.println("  Time for stop operator:         " + stopTime.formatAs(TimeUnit.SECONDS));
+      out.println("  Time for adding to reached set: " + addTime.formatAs(TimeUnit.SECONDS));
+      out.println("  Time waiting for states:        " + waitTime.formatAs(TimeUnit.SECONDS));
+      out.println("  (times summed up over all worker threads)");
+
+      int i = 0;
+      for (WorkerStatistics worker : workers) {
+        out.println();
+        out.println("Worker " + i++ + ":");
+        out.println("  Number of iterations:           " + worker.countIterations);
+        out.println("  Number of computed successors:  " + worker.countSuccessors);
+        out.println("  Number of times merged:         " + worker.countMerge);
+        out.println("  Number of times stopped:        " + worker.countStop);
+        out.println("  Time for precision adjustment:  " + worker.precisionTimer);
+        out.println("  Time for transfer relation:     " + worker.transferTimer);
+        out.println("  Time for merge operator:        " + worker.mergeTimer);
+        out.println("  Time for stop operator:         " + worker.stopTimer);
+        out.println("  Time for adding to reached set: " + worker.addTimer);
+        out.println("  Time waiting for states:        " + worker.waitTimer);
+      }
+    }
+  }
+
+  @Option(secure=true, description="number of worker threads that explore the waitlist concurrently, "
+      + "0 for one thread per available processor")
+  @IntegerOption(min=0)
+  private int workers = 0;
+
+  private final ParallelCPAStatistics stats = new ParallelCPAStatistics();
+
+  private final ConfigurableProgramAnalysis cpa;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final @Nullable AlgorithmIterationListener iterationListener;
+
+  /**
+   * Guards the reached set and the fields below.
+   * The read lock is held while the reached set is read by CPA operators,
+   * the write lock while it is modified.
+   */
+  private final ReentrantReadWriteLock reachedLock = new ReentrantReadWriteLock();
+  private final Lock readLock = reachedLock.readLock();
+  private final Lock writeLock = reachedLock.writeLock();
+  private final Condition waitlistChanged = writeLock.newCondition();
+
+  private int activeWorkers = 0;
+  private boolean finished = false;
+
+  public ParallelCPAAlgorithm(ConfigurableProgramAnalysis pCpa, LogManager pLogger,
+      Configuration pConfig, ShutdownNotifier pShutdownNotifier,
+      @Nullable AlgorithmIterationListener pIterationListener) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    cpa = pCpa;
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+    iterationListener = pIterationListener;
+
+    if (workers == 0) {
+      workers = Runtime.getRuntime().availableProcessors();
+    }
+
+    FluentIterable<ConfigurableProgramAnalysis> nonThreadSafeCPAs =
+        CPAs.asIterable(cpa).filter(not(instanceOf(ThreadSafeCPA.class)));
+    if (!nonThreadSafeCPAs.isEmpty()) {
+      throw new InvalidConfigurationException("The parallel CPA algorithm cannot be used with "
+          + nonThreadSafeCPAs.transform(cpaClass()).join(Joiner.on(", "))
+          + " because these CPAs are not thread-safe.");
+    }
+    if (pConfig.getProperty("cpa.forcedCovering") != null) {
+      throw new InvalidConfigurationException("The parallel CPA algorithm does not support forced covering.");
+    }
+
+    for (int i = 0; i < workers; i++) {
+      stats.workers.add(new WorkerStatistics());
+    }
+  }
+
+  private static Function<Object, String> cpaClass() {
+    return new Function<Object, String>() {
+      @Override
+      public String apply(Object pInput) {
+        return pInput.getClass().getSimpleName();
+      }
+    };
+  }
+
+  @Override
+  public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException, InterruptedException {
+    stats.totalTimer.start();
+    finished = false;
+    activeWorkers = 0;
+
+    ExecutorService executor = Executors.newFixedThreadPool(workers, Threads.threadFactory());
+    try {
+      List<Future<Boolean>> results = new ArrayList<>(workers);
+      for (final WorkerStatistics workerStats : stats.workers) {
+        results.add(executor.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() throws CPAException, InterruptedException {
+            try {
+              return runWorker(reachedSet, workerStats);
+            } finally {
+              workerStats.stopAllTimers();
+            }
+          }
+        }));
+      }
+      executor.shutdown();
+
+      boolean breakSignalled = false;
+      for (Future<Boolean> result : results) {
+        try {
+          breakSignalled |= result.get();
+        } catch (ExecutionException e) {
+          terminateWorkers();
+          Throwables.propagateIfPossible(e.getCause(), CPAException.class, InterruptedException.class);
+          throw new UnexpectedCheckedException("parallel CPA algorithm", e.getCause());
+        }
+      }
+
+      if (breakSignalled) {
+        logger.log(Level.FINER, "Break signalled, ParallelCPAAlgorithm stopped.");
+      }
+      return AlgorithmStatus.SOUND_AND_PRECISE;
+
+    } finally {
+      terminateWorkers();
+      executor.shutdownNow();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+      stats.totalTimer.stopIfRunning();
+    }
+  }
+
+  private void terminateWorkers() {
+    writeLock.lock();
+    try {
+      finished = true;
+      waitlistChanged.signalAll();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Take the next state from the waitlist and mark the calling worker as active,
+   * or wait until another worker has added new states.
+   * @return The next state, or null if the exploration is finished.
+   */
+  private @Nullable AbstractState takeNextState(ReachedSet reachedSet, WorkerStatistics workerStats)
+      throws InterruptedException {
+    writeLock.lock();
+    try {
+      while (!finished) {
+        if (reachedSet.hasWaitingState()) {
+          int size = reachedSet.getWaitlist().size();
+          stats.maxWaitlistSize = Math.max(size, stats.maxWaitlistSize);
+          stats.countWaitlistSize += size;
+
+          activeWorkers++;
+          return reachedSet.popFromWaitlist();
+        }
+        if (activeWorkers == 0) {
+          // nobody can produce new states anymore
+          finished = true;
+          waitlistChanged.signalAll();
+          break;
+        }
+        workerStats.waitTimer.start();
+        try {
+          waitlistChanged.await();
+        } finally {
+          workerStats.waitTimer.stop();
+        }
+      }
+      return null;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Worker loop. Has to be called without holding any lock.
+   * @return Whether the worker stopped because some successor signalled BREAK.
+   */
+  private boolean runWorker(final ReachedSet reachedSet, final WorkerStatistics workerStats)
+      throws CPAException, InterruptedException {
+    final TransferRelation transferRelation = cpa.getTransferRelation();
+    final PrecisionAdjustment precisionAdjustment = cpa.getPrecisionAdjustment();
+
+    AbstractState state;
+    while ((state = takeNextState(reachedSet, workerStats)) != null) {
+      boolean done = false;
+      try {
+        shutdownNotifier.shutdownIfNecessary();
+        workerStats.countIterations++;
+
+        final Precision precision;
+        Collection<? extends AbstractState> successors;
+
+        // The read lock is held during the whole expansion of the state,
+        // such that no merge can modify the ARG around the expanded state meanwhile.
+        readLock.lock();
+        try {
+          if (!reachedSet.contains(state)) {
+            // state was merged or removed after it was taken from the waitlist
+            continue;
+          }
+          precision = reachedSet.getPrecision(state);
+
+          logger.log(Level.FINER, "Retrieved state from waitlist");
+          logger.log(Level.ALL, "Current state is", state, "with precision", precision);
+
+          workerStats.transferTimer.start();
+          try {
+            successors = transferRelation.getAbstractSuccessors(state, precision);
+          } finally {
+            workerStats.transferTimer.stop();
+          }
+        } finally {
+          readLock.unlock();
+        }
+
+        int numSuccessors = successors.size();
+        logger.log(Level.FINER, "Current state has", numSuccessors, "successors");
+        workerStats.countSuccessors += numSuccessors;
+        workerStats.maxSuccessors = Math.max(numSuccessors, workerStats.maxSuccessors);
+
+        writeLock.lock();
+        try {
+          if (!reachedSet.contains(state)) {
+            // state was merged or removed by another worker after it was expanded,
+            // its replacement is in the waitlist and will be expanded again
+            logger.log(Level.FINER, "Discarding successors of state that is no longer in the reached set");
+            discardSuccessors(successors);
+            continue;
+          }
+
+          if (finished) {
+            // another worker signalled BREAK or failed,
+            // make sure the state is not lost
+            discardSuccessors(successors);
+            reachedSet.reAddToWaitlist(state);
+            return false;
+          }
+
+          List<PrecisionAdjustmentResult> adjustedSuccessors = new ArrayList<>(numSuccessors);
+          for (AbstractState successor : successors) {
+            workerStats.precisionTimer.start();
+            try {
+              Optional<PrecisionAdjustmentResult> precAdjustmentOptional =
+                  precisionAdjustment.prec(
+                      successor, precision, reachedSet,
+                      Functions.<AbstractState>identity(),
+                      successor);
+              if (precAdjustmentOptional.isPresent()) {
+                adjustedSuccessors.add(precAdjustmentOptional.get());
+              }
+            } finally {
+              workerStats.precisionTimer.stop();
+            }
+          }
+
+          done = commitSuccessors(state, adjustedSuccessors, reachedSet, workerStats);
+
+          if (iterationListener != null) {
+            iterationListener.afterAlgorithmIteration(this, reachedSet);
+          }
+        } finally {
+          writeLock.unlock();
+        }
+
+      } catch (CPAException | InterruptedException | RuntimeException | Error e) {
+        // re-add state such that the waitlist stays complete
+        writeLock.lock();
+        try {
+          if (reachedSet.contains(state) && !reachedSet.getWaitlist().contains(state)) {
+            reachedSet.reAddToWaitlist(state);
+          }
+          finished = true;
+        } finally {
+          writeLock.unlock();
+        }
+        throw e;
+
+      } finally {
+        writeLock.lock();
+        try {
+          activeWorkers--;
+          if (done) {
+            finished = true;
+          }
+          waitlistChanged.signalAll();
+        } finally {
+          writeLock.unlock();
+        }
+      }
+
+      if (done) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Remove successors that will not be added to the reached set from the ARG.
+   * Has to be called while holding the write lock.
+   */
+  private void discardSuccessors(Collection<? extends AbstractState> successors) {
+    for (AbstractState successor : successors) {
+      ARGState argSuccessor = AbstractStates.extractStateByType(successor, ARGState.class);
+      if (argSuccessor != null && !argSuccessor.isDestroyed()) {
+        argSuccessor.removeFromARG();
+      }
+    }
+  }
+
+  /**
+   * Apply merge and stop for the given successors and add them to the reached set.
+   * Has to be called while holding the write lock.
+   * @return Whether BREAK was signalled.
+   */
+  private boolean commitSuccessors(AbstractState state,
+      List<PrecisionAdjustmentResult> successors,
+      ReachedSet reachedSet, WorkerStatistics workerStats) throws CPAException, InterruptedException {
+    assert reachedLock.isWriteLockedByCurrentThread();
+    final MergeOperator mergeOperator = cpa.getMergeOperator();
+    final StopOperator stopOperator = cpa.getStopOperator();
+
+    Iterator<PrecisionAdjustmentResult> it = successors.iterator();
+    while (it.hasNext()) {
+      PrecisionAdjustmentResult precAdjustmentResult = it.next();
+      AbstractState successor = precAdjustmentResult.abstractState();
+      Precision successorPrecision = precAdjustmentResult.precision();
+      Action action = precAdjustmentResult.action();
+
+      if (action == Action.BREAK) {
+        workerStats.stopTimer.start();
+        boolean stop;
+        try {
+          stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
+        } finally {
+          workerStats.stopTimer.stop();
+        }
+
+        if (AbstractStates.isTargetState(successor) && stop) {
+          // don't signal BREAK for covered states
+          workerStats.countStop++;
+          logger.log(Level.FINER,
+              "Break was signalled but ignored because the state is covered.");
+          continue;
+
+        } else {
+          workerStats.countBreak++;
+          logger.log(Level.FINER, "Break signalled, ParallelCPAAlgorithm will stop.");
+
+          reachedSet.add(successor, successorPrecision);
+
+          if (it.hasNext()) {
+            // re-add the old state to the waitlist, there are unhandled
+            // successors left that otherwise would be forgotten
+            reachedSet.reAddToWaitlist(state);
+          }
+          return true;
+        }
+      }
+      assert action == Action.CONTINUE : "Enum Action has unhandled values!";
+
+      Collection<AbstractState> reached = reachedSet.getReached(successor);
+
+      if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
+        workerStats.mergeTimer.start();
+        try {
+          List<AbstractState> toRemove = new ArrayList<>();
+          List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
+
+          for (AbstractState reachedState : ImmutableList.copyOf(reached)) {
+            AbstractState mergedState =
+                mergeOperator.merge(successor, reachedState, successorPrecision);
+
+            if (!mergedState.equals(reachedState)) {
+              logger.log(Level.FINER, "Successor was merged with state from reached set");
+              workerStats.countMerge++;
+
+              toRemove.add(reachedState);
+              toAdd.add(Pair.of(mergedState, successorPrecision));
+            }
+          }
+          reachedSet.removeAll(toRemove);
+          reachedSet.addAll(toAdd);
+
+          if (mergeOperator instanceof ARGMergeJoinCPAEnabledAnalysis) {
+            ((ARGMergeJoinCPAEnabledAnalysis)mergeOperator).cleanUp(reachedSet);
+          }
+
+        } finally {
+          workerStats.mergeTimer.stop();
+        }
+      }
+
+      workerStats.stopTimer.start();
+      boolean stop;
+      try {
+        stop = stopOperator.stop(successor, reached, successorPrecision);
+      } finally {
+        workerStats.stopTimer.stop();
+      }
+
+      if (stop) {
+        logger.log(Level.FINER, "Successor is covered or unreachable, not adding to waitlist");
+        workerStats.countStop++;
+
+      } else {
+        logger.log(Level.FINER, "No need to stop, adding successor to waitlist");
+
+        workerStats.addTimer.start();
+        reachedSet.add(successor, successorPrecision);
+        workerStats.addTimer.stop();
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ParallelCPAAlgorithmTest {
+
+  private static final String PROGRAM = "test/programs/simple/parallel_exploration.c";
+
+  private static final String SAFE_PROGRAM = "test/programs/simple/parallel_exploration_true-unreach-label.c";
+  private static final String UNSAFE_PROGRAM = "test/programs/simple/parallel_exploration_false-unreach-label.c";
+
+  private static final String THREAD_SAFE_CPAS = "cpa.location.LocationCPA, cpa.callstack.CallstackCPA";
+
+  private static Map<String, String> options(boolean parallel, String cpas) {
+    return ImmutableMap.<String, String>builder()
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", cpas)
+        .put("analysis.algorithm.parallelCPA", Boolean.toString(parallel))
+        .put("cpa.parallel.workers", "4")
+        .build();
+  }
+
+  private static Map<String, String> valueAnalysisOptions(boolean parallel) {
+    return ImmutableMap.<String, String>builder()
+        .putAll(options(parallel, THREAD_SAFE_CPAS + ", cpa.value.ValueAnalysisCPA"))
+        .put("specification", "config/specification/default.spc")
+        .build();
+  }
+
+  /**
+   * The analysis of locations and call stacks has a unique result
+   * independent of the order in which states are explored,
+   * so the parallel exploration needs to find exactly the same states
+   * as the sequential one. Repeat to increase the chance of hitting races.
+   */
+  @Test
+  public void parallelExplorationFindsSameStates() throws Exception {
+    TestResults sequential = CPATestRunner.run(options(false, THREAD_SAFE_CPAS), PROGRAM);
+    sequential.assertIsSafe();
+    int expectedSize = sequential.getCheckerResult().getReached().size();
+
+    for (int i = 0; i < 20; i++) {
+      TestResults parallel = CPATestRunner.run(options(true, THREAD_SAFE_CPAS), PROGRAM);
+      parallel.assertIsSafe();
+
+      UnmodifiableReachedSet reached = parallel.getCheckerResult().getReached();
+      assertThat(reached.size()).named("size of reached set").isEqualTo(expectedSize);
+      assertARGIsConsistent(reached);
+    }
+  }
+
+  /**
+   * A standard configuration with the default specification (observer automata)
+   * and a value analysis needs to be accepted and give the same verdicts
+   * as the sequential exploration.
+   */
+  @Test
+  public void valueAnalysisWithDefaultSpecification() throws Exception {
+    checkVerdict(SAFE_PROGRAM, Result.TRUE);
+    checkVerdict(UNSAFE_PROGRAM, Result.FALSE);
+  }
+
+  private static void checkVerdict(String program, Result expected) throws Exception {
+    TestResults sequential = CPATestRunner.run(valueAnalysisOptions(false), program);
+    assertThat(sequential.getCheckerResult().getResult())
+        .named("sequential verdict for " + program).isEqualTo(expected);
+
+    for (int i = 0; i < 5; i++) {
+      TestResults parallel = CPATestRunner.run(valueAnalysisOptions(true), program);
+      assertThat(parallel.getCheckerResult().getResult())
+          .named("parallel verdict for " + program).isEqualTo(expected);
+      assertARGIsConsistent(parallel.getCheckerResult().getReached());
+    }
+  }
+
+  @Test
+  public void refuseCPAsThatAreNotThreadSafe() throws Exception {
+    TestResults results = CPATestRunner.run(
+        options(true, THREAD_SAFE_CPAS + ", cpa.predicate.PredicateCPA"), PROGRAM);
+
+    assertThat(results.getCheckerResult().getResult()).isEqualTo(Result.NOT_YET_STARTED);
+    assertThat(results.getLog()).contains("PredicateCPA");
+  }
+
+  private static void assertARGIsConsistent(UnmodifiableReachedSet reached) {
+    for (AbstractState state : reached) {
+      ARGState argState = (ARGState) state;
+      assertThat(argState.isDestroyed()).named("state in reached set is destroyed").isFalse();
+
+      for (ARGState parent : argState.getParents()) {
+        assertThat(reached.contains(parent)).named("parent is in reached set").isTrue();
+      }
+      for (ARGState child : argState.getChildren()) {
+        assertThat(reached.contains(child) || child.isCovered())
+            .named("child is in reached set or covered").isTrue();
+      }
+    }
+  }
+}
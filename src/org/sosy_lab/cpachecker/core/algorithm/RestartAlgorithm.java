@@ -33,15 +33,25 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.Triple;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -70,6 +80,7 @@ import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
 
@@ -85,6 +96,10 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     private int noOfAlgorithmsUsed = 0;
     private Timer totalTime = new Timer();
 
+    // only used in parallel mode
+    private final List<PortfolioAnalysis> portfolioAnalyses = new ArrayList<>();
+    private @Nullable PortfolioAnalysis winner = null;
+
     public RestartAlgorithmStatistics(int pNoOfAlgorithms) {
       noOfAlgorithms = pNoOfAlgorithms;
       subStats = new ArrayList<>();
@@ -122,9 +137,41 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       out.println("Number of algorithms provided:    " + noOfAlgorithms);
       out.println("Number of algorithms used:        " + noOfAlgorithmsUsed);
 
+      if (!portfolioAnalyses.isEmpty()) {
+        printPortfolioStatistics(out, result, reached);
+        return;
+      }
+
       printSubStatistics(out, result, reached);
     }
 
+    private void printPortfolioStatistics(PrintStream out, Result result, ReachedSet reached) {
+      out.println("Winning configuration:            "
+          + (winner == null ? "none" : winner.configFile));
+      out.println("Total time for all algorithms:    " + totalTime);
+
+      for (PortfolioAnalysis analysis : portfolioAnalyses) {
+        out.println();
+        String text = "Statistics for algorithm " + analysis.index + " of " + noOfAlgorithms
+            + " (" + analysis.configFile + ")";
+        out.println(text);
+        out.println(Strings.repeat("=", text.length()));
+        out.println("Outcome:                          " + analysis.outcome);
+        out.println("Total time for algorithm " + analysis.index + ": " + analysis.time);
+
+        for (Statistics s : analysis.subStats) {
+          String name = s.getName();
+          if (!isNullOrEmpty(name)) {
+            name = name + " statistics";
+            out.println("");
+            out.println(name);
+            out.println(Strings.repeat("-", name.length()));
+          }
+          s.printStatistics(out, result, analysis.reached != null ? analysis.reached : reached);
+        }
+      }
+    }
+
     private void printSubStatistics(PrintStream out, Result result, ReachedSet reached) {
       out.println("Total time for algorithm " + noOfAlgorithmsUsed + ": " + totalTime);
 
@@ -142,12 +189,71 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   }
 
+  private static enum PortfolioOutcome {
+    NOT_STARTED("not started"),
+    INVALID_CONFIGURATION("skipped because of an invalid configuration"),
+    WON("conclusive result, won"),
+    INCONCLUSIVE("finished without conclusive result"),
+    TOO_LATE("conclusive result, but another analysis finished first"),
+    FAILED("failed"),
+    INTERRUPTED("interrupted"),
+    CANCELLED("cancelled because another analysis finished first");
+
+    private final String description;
+
+    private PortfolioOutcome(String pDescription) {
+      description = pDescription;
+    }
+
+    @Override
+    public String toString() {
+      return description;
+    }
+  }
+
+  /**
+   * One analysis of the portfolio that is run in parallel mode.
+   * All fields except the shutdown notifier are only written by the thread
+   * running this analysis and only read after this thread has finished.
+   */
+  private static class PortfolioAnalysis {
+
+    private final int index;
+    private final Path configFile;
+    private final ShutdownNotifier shutdownNotifier;
+    private final Collection<Statistics> subStats = new ArrayList<>();
+    private final Timer time = new Timer();
+
+    private PortfolioOutcome outcome = PortfolioOutcome.NOT_STARTED;
+    private @Nullable Algorithm algorithm = null;
+    private @Nullable ConfigurableProgramAnalysis cpa = null;
+    private @Nullable ReachedSet reached = null;
+    private @Nullable AlgorithmStatus status = null;
+    private @Nullable CPAException failure = null;
+
+    private PortfolioAnalysis(int pIndex, Path pConfigFile, ShutdownNotifier pShutdownNotifier) {
+      index = pIndex;
+      configFile = pConfigFile;
+      shutdownNotifier = pShutdownNotifier;
+    }
+  }
+
   @Option(secure=true, required=true, description = "List of files with configurations to use. "
       + "A filename can be suffixed with :if-interrupted, :if-failed, and :if-terminated "
       + "which means that this configuration will only be used if the previous configuration ended with a matching condition.")
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<Path> configFiles;
 
+  @Option(secure=true, description="run the configurations concurrently as a portfolio "
+      + "instead of one after another. The first analysis with a conclusive result wins "
+      + "and all other analyses are stopped. Restart conditions are ignored in this mode.")
+  private boolean parallel = false;
+
+  @Option(secure=true, description="maximum number of analyses that run concurrently in parallel mode, "
+      + "0 for running all configurations at once")
+  @IntegerOption(min=0)
+  private int parallelAnalyses = 0;
+
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final RestartAlgorithmStatistics stats;
@@ -184,6 +290,10 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     CFANode mainFunction = AbstractStates.extractLocation(pReached.getFirstState());
     assert mainFunction != null : "Location information needed";
 
+    if (parallel) {
+      return runPortfolio(reached, mainFunction);
+    }
+
     PeekingIterator<Path> configFilesIterator = Iterators.peekingIterator(configFiles.iterator());
 
     AlgorithmStatus status = AlgorithmStatus.UNSOUND_AND_PRECISE;
@@ -204,7 +314,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
         singleConfigFileName = Paths.get(CONFIG_FILE_CONDITION_SPLITTER.split(singleConfigFileName.toString()).iterator().next());
 
         try {
-          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownNotifier);
+          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownNotifier,
+              stats.noOfAlgorithmsUsed + 1, stats.getSubStatistics(), 1);
           currentAlgorithm = currentAlg.getFirst();
           currentCpa = currentAlg.getSecond();
           currentReached = currentAlg.getThird();
@@ -227,7 +338,13 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
         // run algorithm
         try {
-          status = currentAlgorithm.run(currentReached);
+          try {
+            status = currentAlgorithm.run(currentReached);
+          } finally {
+            if (currentCpa != null) {
+              CPAs.notifyAnalysisTerminated(currentCpa);
+            }
+          }
 
           if (from(currentReached).anyMatch(IS_TARGET_STATE) && status.isPrecise()) {
 
@@ -327,6 +444,185 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     return status;
   }
 
+  /**
+   * Run all configurations concurrently. The first analysis that finishes
+   * with a conclusive result wins, all other analyses are cancelled.
+   */
+  private AlgorithmStatus runPortfolio(ForwardingReachedSet reached, final CFANode mainFunction)
+      throws CPAException, InterruptedException {
+    final List<PortfolioAnalysis> analyses = new ArrayList<>(configFiles.size());
+    for (Path configFile : configFiles) {
+      List<String> parts = CONFIG_FILE_CONDITION_SPLITTER.splitToList(configFile.toString());
+      if (parts.size() == 2) {
+        logger.logf(Level.WARNING, "Ignoring restart condition '%s' of configuration '%s' in parallel mode.",
+            parts.get(1), parts.get(0));
+      }
+      analyses.add(new PortfolioAnalysis(analyses.size() + 1, Paths.get(parts.get(0)),
+          ShutdownNotifier.createWithParent(shutdownNotifier)));
+    }
+    stats.portfolioAnalyses.addAll(analyses);
+
+    final int threads = parallelAnalyses == 0
+        ? analyses.size()
+        : Math.min(parallelAnalyses, analyses.size());
+    final AtomicReference<PortfolioAnalysis> winner = new AtomicReference<>();
+
+    stats.totalTime.start();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, Threads.threadFactory());
+    try {
+      List<Future<?>> futures = new ArrayList<>(analyses.size());
+      for (final PortfolioAnalysis analysis : analyses) {
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            runPortfolioAnalysis(analysis, analyses, winner, mainFunction, threads);
+            return null;
+          }
+        }));
+      }
+      executor.shutdown();
+
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(e.getCause());
+          throw new UnexpectedCheckedException("parallel restart algorithm", e.getCause());
+        }
+      }
+    } finally {
+      for (PortfolioAnalysis analysis : analyses) {
+        analysis.shutdownNotifier.requestShutdown("Analysis terminated");
+      }
+      executor.shutdownNow();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+      stats.totalTime.stop();
+    }
+
+    @Nullable PortfolioAnalysis result = winner.get();
+    stats.winner = result;
+    for (PortfolioAnalysis analysis : analyses) {
+      if (analysis.outcome != PortfolioOutcome.NOT_STARTED) {
+        stats.noOfAlgorithmsUsed++;
+      }
+    }
+
+    if (result == null) {
+      shutdownNotifier.shutdownIfNecessary();
+      logger.log(Level.INFO, "No analysis of the portfolio finished with a conclusive result.");
+
+      // like in sequential mode, use the result of the last analysis that produced one
+      @Nullable CPAException lastFailure = null;
+      for (PortfolioAnalysis analysis : analyses) {
+        if (analysis.status != null) {
+          result = analysis;
+        } else if (analysis.failure != null) {
+          lastFailure = analysis.failure;
+        }
+      }
+      if (result == null) {
+        if (lastFailure != null) {
+          throw lastFailure;
+        }
+        return AlgorithmStatus.UNSOUND_AND_PRECISE;
+      }
+    } else {
+      logger.logf(Level.INFO, "Analysis %d of the portfolio (%s) finished first.",
+          result.index, result.configFile);
+    }
+
+    for (PortfolioAnalysis analysis : analyses) {
+      if (analysis != result) {
+        if (analysis.cpa != null) {
+          CPAs.closeCpaIfPossible(analysis.cpa, logger);
+        }
+        if (analysis.algorithm != null) {
+          CPAs.closeIfPossible(analysis.algorithm, logger);
+        }
+      }
+    }
+
+    currentAlgorithm = result.algorithm;
+    reached.setDelegate(result.reached);
+    return result.status;
+  }
+
+  /**
+   * Create and run the analysis of one configuration of the portfolio.
+   * All exceptions that are expected from an analysis are recorded in the
+   * given analysis instead of being thrown.
+   */
+  private void runPortfolioAnalysis(PortfolioAnalysis analysis, List<PortfolioAnalysis> analyses,
+      AtomicReference<PortfolioAnalysis> winner, CFANode mainFunction, int concurrentAnalyses) {
+    analysis.time.start();
+    try {
+      analysis.shutdownNotifier.shutdownIfNecessary();
+
+      try {
+        Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> alg = createNextAlgorithm(
+            analysis.configFile, mainFunction, analysis.shutdownNotifier,
+            analysis.index, analysis.subStats, concurrentAnalyses);
+        analysis.algorithm = alg.getFirst();
+        analysis.cpa = alg.getSecond();
+        analysis.reached = alg.getThird();
+      } catch (InvalidConfigurationException e) {
+        analysis.outcome = PortfolioOutcome.INVALID_CONFIGURATION;
+        logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + analysis.configFile.toString() + " is invalid");
+        return;
+      } catch (IOException e) {
+        analysis.outcome = PortfolioOutcome.INVALID_CONFIGURATION;
+        logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + analysis.configFile.toString() + " could not be read");
+        return;
+      }
+
+      if (analysis.algorithm instanceof StatisticsProvider) {
+        ((StatisticsProvider)analysis.algorithm).collectStatistics(analysis.subStats);
+      }
+
+      AlgorithmStatus status;
+      try {
+        status = analysis.algorithm.run(analysis.reached);
+      } finally {
+        if (analysis.cpa != null) {
+          CPAs.notifyAnalysisTerminated(analysis.cpa);
+        }
+      }
+      analysis.status = status;
+
+      boolean conclusive = (from(analysis.reached).anyMatch(IS_TARGET_STATE) && status.isPrecise())
+          || (status.isSound() && !analysis.reached.hasWaitingState());
+      if (!conclusive) {
+        analysis.outcome = PortfolioOutcome.INCONCLUSIVE;
+
+      } else if (winner.compareAndSet(null, analysis)) {
+        analysis.outcome = PortfolioOutcome.WON;
+        for (PortfolioAnalysis other : analyses) {
+          if (other != analysis) {
+            other.shutdownNotifier.requestShutdown(
+                "Analysis " + analysis.index + " of the portfolio finished first");
+          }
+        }
+
+      } else {
+        analysis.outcome = PortfolioOutcome.TOO_LATE;
+      }
+
+    } catch (CPAException e) {
+      analysis.outcome = PortfolioOutcome.FAILED;
+      analysis.failure = e;
+      logger.logUserException(Level.WARNING, e, "Analysis " + analysis.index + " not completed");
+
+    } catch (InterruptedException e) {
+      analysis.outcome = winner.get() != null
+          ? PortfolioOutcome.CANCELLED
+          : PortfolioOutcome.INTERRUPTED;
+
+    } finally {
+      analysis.shutdownNotifier.requestShutdown("Analysis terminated"); // shutdown any remaining components
+      analysis.time.stop();
+    }
+  }
+
   @Options
   private static class RestartAlgorithmOptions {
 
@@ -360,7 +656,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   }
 
-  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownNotifier singleShutdownNotifier) throws InvalidConfigurationException, CPAException, IOException {
+  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownNotifier singleShutdownNotifier,
+      int algorithmIndex, Collection<Statistics> subStats, int concurrentAnalyses) throws InvalidConfigurationException, CPAException, IOException {
 
     ReachedSet reached;
     ConfigurableProgramAnalysis cpa;
@@ -375,12 +672,12 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       singleConfigBuilder.copyOptionFrom(globalConfig, "specification");
     }
     Configuration singleConfig = singleConfigBuilder.build();
-    LogManager singleLogger = logger.withComponentName("Analysis" + (stats.noOfAlgorithmsUsed+1));
+    LogManager singleLogger = logger.withComponentName("Analysis" + algorithmIndex);
 
     RestartAlgorithmOptions singleOptions = new RestartAlgorithmOptions();
     singleConfig.inject(singleOptions);
 
-    ResourceLimitChecker singleLimits = ResourceLimitChecker.fromConfiguration(singleConfig, singleLogger, singleShutdownNotifier);
+    ResourceLimitChecker singleLimits = ResourceLimitChecker.fromConfiguration(singleConfig, singleLogger, singleShutdownNotifier, concurrentAnalyses);
     singleLimits.start();
 
     if (singleOptions.runCBMCasExternalTool) {
@@ -389,8 +686,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       reached = new ReachedSetFactory(singleConfig, singleLogger).create();
     } else {
       ReachedSetFactory singleReachedSetFactory = new ReachedSetFactory(singleConfig, singleLogger);
-      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownNotifier, stats);
-      algorithm = createAlgorithm(cpa, singleConfig, singleLogger, singleShutdownNotifier, stats, singleReachedSetFactory, singleOptions);
+      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownNotifier, subStats);
+      algorithm = createAlgorithm(cpa, singleConfig, singleLogger, singleShutdownNotifier, singleReachedSetFactory, singleOptions);
       reached = createInitialReachedSetForRestart(cpa, mainFunction, singleReachedSetFactory, singleLogger);
     }
 
@@ -414,14 +711,14 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   private ConfigurableProgramAnalysis createCPA(ReachedSetFactory pReachedSetFactory,
       Configuration pConfig, LogManager singleLogger, ShutdownNotifier singleShutdownNotifier,
-      RestartAlgorithmStatistics stats) throws InvalidConfigurationException, CPAException {
+      Collection<Statistics> subStats) throws InvalidConfigurationException, CPAException {
     singleLogger.log(Level.FINE, "Creating CPAs");
 
     CPABuilder builder = new CPABuilder(pConfig, singleLogger, singleShutdownNotifier, pReachedSetFactory);
     ConfigurableProgramAnalysis cpa = builder.buildCPAWithSpecAutomatas(cfa);
 
     if (cpa instanceof StatisticsProvider) {
-      ((StatisticsProvider)cpa).collectStatistics(stats.getSubStatistics());
+      ((StatisticsProvider)cpa).collectStatistics(subStats);
     }
     return cpa;
   }
@@ -430,7 +727,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       final ConfigurableProgramAnalysis cpa, Configuration pConfig,
       final LogManager singleLogger,
       final ShutdownNotifier singleShutdownNotifier,
-      final RestartAlgorithmStatistics stats, ReachedSetFactory singleReachedSetFactory,
+      ReachedSetFactory singleReachedSetFactory,
       RestartAlgorithmOptions pOptions)
   throws InvalidConfigurationException, CPAException {
     singleLogger.log(Level.FINE, "Creating algorithms");
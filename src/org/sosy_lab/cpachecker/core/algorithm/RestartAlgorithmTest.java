@@ -0,0 +1,117 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+
+public class RestartAlgorithmTest {
+
+  private static final String PROGRAM = "test/programs/simple/restart_portfolio_true-unreach-label.c";
+
+  /** Terminates immediately with a sound result because ERROR is not reachable in the CFA. */
+  private static final String CONCLUSIVE_CONFIG = Joiner.on('\n').join(
+      "cpa = cpa.arg.ARGCPA",
+      "ARGCPA.cpa = cpa.composite.CompositeCPA",
+      "CompositeCPA.cpas = cpa.location.LocationCPA, cpa.callstack.CallstackCPA");
+
+  /** Does not terminate in reasonable time because it unrolls the loop of the program. */
+  private static final String NON_TERMINATING_CONFIG = Joiner.on('\n').join(
+      "cpa = cpa.arg.ARGCPA",
+      "ARGCPA.cpa = cpa.composite.CompositeCPA",
+      "CompositeCPA.cpas = cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA");
+
+  private File dir;
+
+  @Before
+  public void setUp() {
+    dir = Files.createTempDir();
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : Files.fileTreeTraverser().postOrderTraversal(dir)) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void portfolioStopsOtherAnalysesAfterConclusiveResult() throws Exception {
+    String conclusive = writeConfig("conclusive.properties", CONCLUSIVE_CONFIG);
+    String nonTerminating = writeConfig("nonTerminating.properties", NON_TERMINATING_CONFIG);
+
+    // in sequential mode, the second analysis is never started
+    TestResults sequential = CPATestRunner.run(options(false, conclusive, nonTerminating), PROGRAM);
+    assertThat(sequential.getCheckerResult().getResult()).named("sequential verdict")
+        .isEqualTo(Result.TRUE);
+
+    TestResults parallel = CPATestRunner.run(options(true, conclusive, nonTerminating), PROGRAM);
+    assertThat(parallel.getCheckerResult().getResult()).named("portfolio verdict")
+        .isEqualTo(sequential.getCheckerResult().getResult());
+
+    String statistics = getStatistics(parallel);
+    assertThat(statistics).contains("Winning configuration:            " + conclusive);
+    assertThat(statistics).containsMatch(
+        "Statistics for algorithm 1 of 2 .*\\n=+\\nOutcome: +conclusive result, won\\n");
+    assertThat(statistics).containsMatch(
+        "Statistics for algorithm 2 of 2 .*\\n=+\\nOutcome: +cancelled because another analysis finished first\\n");
+  }
+
+  private static Map<String, String> options(boolean pParallel, String... pConfigFiles) {
+    return ImmutableMap.of(
+        "analysis.restartAfterUnknown", "true",
+        "restartAlgorithm.configFiles", Joiner.on(", ").join(pConfigFiles),
+        "restartAlgorithm.parallel", Boolean.toString(pParallel),
+        "specification", "config/specification/default.spc");
+  }
+
+  private String writeConfig(String pFileName, String pContent) throws IOException {
+    File config = new File(dir, pFileName);
+    Files.write(pContent, config, StandardCharsets.UTF_8);
+    return config.getPath();
+  }
+
+  private static String getStatistics(TestResults pResults) throws IOException {
+    ByteArrayOutputStream statistics = new ByteArrayOutputStream();
+    pResults.getCheckerResult().printStatistics(new PrintStream(statistics, true, "UTF-8"));
+    return statistics.toString("UTF-8");
+  }
+}
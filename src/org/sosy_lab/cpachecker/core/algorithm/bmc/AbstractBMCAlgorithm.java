@@ -28,10 +28,24 @@ import static org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState.FILTE
 import static org.sosy_lab.cpachecker.util.AbstractStates.*;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -65,7 +79,11 @@ import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
+import org.sosy_lab.cpachecker.util.predicates.AssignableTerm;
+import org.sosy_lab.cpachecker.util.predicates.AssignableTerm.Variable;
+import org.sosy_lab.cpachecker.util.predicates.Model;
 import org.sosy_lab.cpachecker.util.predicates.Solver;
+import org.sosy_lab.cpachecker.util.predicates.TermType;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.BooleanFormula;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.ProverEnvironment;
@@ -74,12 +92,18 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerVie
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 @Options(prefix="bmc")
 abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
+  private static final String CANDIDATE_INDICATOR_PREFIX = "__BMC_CANDIDATE_VIOLATED_";
+
   static final Predicate<AbstractState> IS_STOP_STATE =
     Predicates.compose(new Predicate<AssumptionStorageState>() {
                              @Override
@@ -109,12 +133,31 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
       + "the SV-COMP 2013 competition contribution of ESBMC 1.20.")
   private boolean havocLoopTerminationConditionVariablesOnly = false;
 
+  @Option(secure=true, description="Check candidate invariants incrementally: "
+      + "after increasing the bound, only the states added by the new unrolling "
+      + "and the stop states that were not yet proven unreachable are checked, "
+      + "and the facts proven for the previous bounds are kept asserted "
+      + "on the solver instead of being discarded.")
+  private boolean incremental = false;
+
+  @Option(secure=true, description="Run the inductive step case for bound k "
+      + "in a separate thread, concurrently with the base case for bound k+1. "
+      + "Requires a solver that supports concurrent execution.")
+  private boolean parallelInduction = false;
+
+  @Option(secure=true, description="Check all candidate invariants of a bound "
+      + "with a single solver query, in which a fresh indicator variable marks "
+      + "the violation of each candidate. Only the candidates whose indicator "
+      + "is true in a model are checked again individually.")
+  private boolean batchCandidateChecks = false;
+
   protected final BMCStatistics stats;
   private final Algorithm algorithm;
   private final ConfigurableProgramAnalysis cpa;
 
   private final ConfigurableProgramAnalysis stepCaseCPA;
   private final Algorithm stepCaseAlgorithm;
+  private final ShutdownNotifier stepCaseShutdownNotifier;
 
   protected final InvariantGenerator invariantGenerator;
 
@@ -131,6 +174,12 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
   private final TargetLocationProvider targetLocationProvider;
 
+  // For incremental checking: the lemmas that were proven so far,
+  // and how many of them are asserted on the lowest frame of the prover stack.
+  private final List<BooleanFormula> lemmas = Lists.newArrayList();
+  private int lemmasOnProver = 0;
+  private boolean lemmaFramePushed = false;
+
   protected AbstractBMCAlgorithm(Algorithm pAlgorithm, ConfigurableProgramAnalysis pCPA,
                       Configuration pConfig, LogManager pLogger,
                       ReachedSetFactory pReachedSetFactory,
@@ -153,10 +202,15 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
     if (induction) {
       LogManager stepCaseLogger = logger.withComponentName("InductionStepCase");
-      CPABuilder builder = new CPABuilder(pConfig, stepCaseLogger, pShutdownNotifier, pReachedSetFactory);
+      // the step case gets its own notifier so that a concurrently running
+      // step case can be stopped without stopping the whole analysis
+      stepCaseShutdownNotifier = ShutdownNotifier.createWithParent(pShutdownNotifier);
+      CPABuilder builder = new CPABuilder(pConfig, stepCaseLogger, stepCaseShutdownNotifier, pReachedSetFactory);
       stepCaseCPA = builder.buildCPAWithSpecAutomatas(cfa);
-      stepCaseAlgorithm = CPAAlgorithm.create(stepCaseCPA, stepCaseLogger, pConfig, pShutdownNotifier);
+      stepCaseAlgorithm = CPAAlgorithm.create(stepCaseCPA, stepCaseLogger, pConfig, stepCaseShutdownNotifier);
     } else {
+      parallelInduction = false;
+      stepCaseShutdownNotifier = pShutdownNotifier;
       stepCaseCPA = null;
       stepCaseAlgorithm = null;
     }
@@ -184,6 +238,10 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     pmgr = predCpa.getPathFormulaManager();
     shutdownNotifier = pShutdownNotifier;
 
+    if (parallelInduction && !fmgr.getVersion().toLowerCase().contains("smtinterpol")) {
+      throw new InvalidConfigurationException("Solver does not support concurrent execution, use SMTInterpol instead.");
+    }
+
     targetLocationProvider = new TargetLocationProvider(reachedSetFactory, shutdownNotifier, logger, pConfig, cfa);
   }
 
@@ -229,76 +287,149 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
           @SuppressWarnings("resource")
           KInductionProver kInductionProver = createInductionProver()) {
 
-        do {
-          shutdownNotifier.shutdownIfNecessary();
-
-          logger.log(Level.INFO, "Creating formula for program");
-          status = BMCHelper.unroll(logger, reachedSet, algorithm, cpa);
-          if (from(reachedSet)
-              .skip(1) // first state of reached is always an abstraction state, so skip it
-              .transform(toState(PredicateAbstractState.class))
-              .anyMatch(FILTER_ABSTRACTION_STATES)) {
-
-            logger.log(Level.WARNING, "BMC algorithm does not work with abstractions. Could not check for satisfiability!");
-            return status;
-          }
-
-          if (invariantGenerator.isProgramSafe()) {
-            // The reachedSet might contain target states which would give a wrong
-            // indication of safety to the caller. So remove them.
-            for (CandidateInvariant candidateInvariant : candidateGenerator) {
-              candidateInvariant.assumeTruth(reachedSet);
-            }
-            return AlgorithmStatus.SOUND_AND_PRECISE;
-          }
-
-          // Perform a bounded model check on each candidate invariant
-          Iterator<CandidateInvariant> candidateInvariantIterator = candidateGenerator.iterator();
-          while (candidateInvariantIterator.hasNext()) {
-            CandidateInvariant candidateInvariant = candidateInvariantIterator.next();
-            // first check safety in k iterations
-
-            boolean safe = boundedModelCheck(reachedSet, prover, candidateInvariant);
-            if (!safe) {
-              candidateInvariantIterator.remove();
+        // For incremental checking: the states that were already checked for
+        // the previous bounds, and the candidates that were proven for them.
+        final Set<AbstractState> checkedStates = Sets.newIdentityHashSet();
+        final Set<CandidateInvariant> checkedCandidates = Sets.newIdentityHashSet();
+        final Set<AbstractState> unreachableStopStates = Sets.newIdentityHashSet();
+        lemmas.clear();
+        lemmasOnProver = 0;
+        lemmaFramePushed = false;
+
+        // For parallel induction: the step case that is currently running
+        // concurrently to the base case, if any.
+        Future<Boolean> pendingInduction = null;
+        ExecutorService inductionExecutor = parallelInduction
+            ? Executors.newSingleThreadExecutor(Threads.threadFactory())
+            : null;
+
+        try {
+          do {
+            shutdownNotifier.shutdownIfNecessary();
+
+            logger.log(Level.INFO, "Creating formula for program");
+            status = BMCHelper.unroll(logger, reachedSet, algorithm, cpa);
+            if (from(reachedSet)
+                .skip(1) // first state of reached is always an abstraction state, so skip it
+                .transform(toState(PredicateAbstractState.class))
+                .anyMatch(FILTER_ABSTRACTION_STATES)) {
+
+              logger.log(Level.WARNING, "BMC algorithm does not work with abstractions. Could not check for satisfiability!");
+              return status;
             }
 
             if (invariantGenerator.isProgramSafe()) {
+              // The reachedSet might contain target states which would give a wrong
+              // indication of safety to the caller. So remove them.
+              for (CandidateInvariant candidateInvariant : candidateGenerator) {
+                candidateInvariant.assumeTruth(reachedSet);
+              }
               return AlgorithmStatus.SOUND_AND_PRECISE;
             }
-          }
 
-          // second check soundness
-          boolean sound;
+            Iterable<AbstractState> newStates = from(reachedSet).filter(Predicates.not(Predicates.in(checkedStates)));
+            if (incremental) {
+              stats.reusedStates += reachedSet.size() - Iterables.size(newStates);
+            }
 
-          // verify soundness, but don't bother if we are unsound anyway or we have found a bug
-          if (status.isSound()) {
+            if (batchCandidateChecks && Iterables.size(candidateGenerator) > 1) {
+              // Perform a bounded model check on all candidate invariants at once
+              batchBoundedModelCheck(candidateGenerator, newStates, checkedCandidates, reachedSet, prover);
+              if (invariantGenerator.isProgramSafe()) {
+                return AlgorithmStatus.SOUND_AND_PRECISE;
+              }
+            } else {
+
+              // Perform a bounded model check on each candidate invariant
+              Iterator<CandidateInvariant> candidateInvariantIterator = candidateGenerator.iterator();
+              while (candidateInvariantIterator.hasNext()) {
+                CandidateInvariant candidateInvariant = candidateInvariantIterator.next();
+                // first check safety in k iterations
+
+                Iterable<AbstractState> statesToCheck =
+                    getStatesToCheck(candidateInvariant, newStates, checkedCandidates, reachedSet);
+                boolean safe = boundedModelCheck(statesToCheck, reachedSet, prover, candidateInvariant);
+                if (!safe) {
+                  candidateInvariantIterator.remove();
+                } else if (incremental) {
+                  checkedCandidates.add(candidateInvariant);
+                }
+
+                if (invariantGenerator.isProgramSafe()) {
+                  return AlgorithmStatus.SOUND_AND_PRECISE;
+                }
+              }
+            }
 
-            // check bounding assertions
-            sound = candidateGenerator.hasCandidatesAvailable() ? checkBoundingAssertions(reachedSet, prover) : true;
+            if (incremental) {
+              Iterables.addAll(checkedStates, reachedSet);
+              updateLemmaFrame(prover);
+            }
 
-            if (invariantGenerator.isProgramSafe()) {
-              return AlgorithmStatus.SOUND_AND_PRECISE;
+            // second check soundness
+            boolean sound;
+
+            // verify soundness, but don't bother if we are unsound anyway or we have found a bug
+            if (status.isSound()) {
+
+              // check bounding assertions
+              sound = candidateGenerator.hasCandidatesAvailable() ? checkBoundingAssertions(reachedSet, prover, unreachableStopStates) : true;
+
+              if (invariantGenerator.isProgramSafe()) {
+                return AlgorithmStatus.SOUND_AND_PRECISE;
+              }
+
+              // try to prove program safety via induction
+              if (induction) {
+                final int k = CPAs.retrieveCPA(cpa, BoundsCPA.class).getMaxLoopIterations();
+                final Set<CandidateInvariant> candidates = from(candidateGenerator).toSet();
+                if (parallelInduction) {
+                  // Use the result of the step case for the previous bound,
+                  // which ran concurrently with the base case for this bound,
+                  // and start the step case for this bound.
+                  if (pendingInduction != null) {
+                    sound = awaitInduction(pendingInduction) || sound;
+                    candidateGenerator.confirmCandidates(kInductionProver.getConfirmedCandidates());
+                  }
+                  pendingInduction = null;
+                  if (!sound) {
+                    pendingInduction = inductionExecutor.submit(createInductionTask(kInductionProver, k, candidates));
+                  }
+                } else {
+                  sound = sound || kInductionProver.check(k, candidates);
+                  candidateGenerator.confirmCandidates(kInductionProver.getConfirmedCandidates());
+                }
+              }
+              if (invariantGenerator.isProgramSafe()
+                  || (sound && !candidateGenerator.produceMoreCandidates())) {
+                return AlgorithmStatus.SOUND_AND_PRECISE;
+              }
             }
 
-            // try to prove program safety via induction
-            if (induction) {
-              final int k = CPAs.retrieveCPA(cpa, BoundsCPA.class).getMaxLoopIterations();
-              sound = sound || kInductionProver.check(k, from(candidateGenerator).toSet());
-              candidateGenerator.confirmCandidates(kInductionProver.getConfirmedCandidates());
+            if (!candidateGenerator.hasCandidatesAvailable()) {
+              // no remaining invariants to be proven
+              return status;
             }
+          }
+          while (status.isSound() && adjustConditions());
+
+          // the step case for the last bound may still be able to prove safety
+          if (pendingInduction != null && status.isSound()) {
+            boolean sound = awaitInduction(pendingInduction);
+            pendingInduction = null;
+            candidateGenerator.confirmCandidates(kInductionProver.getConfirmedCandidates());
             if (invariantGenerator.isProgramSafe()
                 || (sound && !candidateGenerator.produceMoreCandidates())) {
               return AlgorithmStatus.SOUND_AND_PRECISE;
             }
           }
 
-          if (!candidateGenerator.hasCandidatesAvailable()) {
-            // no remaining invariants to be proven
-            return status;
+        } finally {
+          if (inductionExecutor != null) {
+            cancelInduction(pendingInduction);
+            inductionExecutor.shutdown();
           }
         }
-        while (status.isSound() && adjustConditions());
       }
 
       return AlgorithmStatus.UNSOUND_AND_PRECISE;
@@ -306,6 +437,50 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     }
   }
 
+  private Callable<Boolean> createInductionTask(final KInductionProver pKInductionProver,
+      final int pK, final Set<CandidateInvariant> pCandidates) {
+    return new Callable<Boolean>() {
+
+      @Override
+      public Boolean call() throws CPAException, InterruptedException {
+        return pKInductionProver.check(pK, pCandidates);
+      }
+    };
+  }
+
+  /**
+   * Waits for the result of a step case that was run concurrently.
+   *
+   * @return {@code true} if the step case proved all its candidate invariants.
+   */
+  private boolean awaitInduction(Future<Boolean> pInduction) throws CPAException, InterruptedException {
+    stats.inductionWait.start();
+    try {
+      return pInduction.get();
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("induction check", e.getCause());
+    } finally {
+      stats.inductionWait.stop();
+    }
+  }
+
+  /**
+   * Stops a step case that is still running concurrently and waits for it,
+   * such that the induction prover can be closed safely afterwards.
+   */
+  private void cancelInduction(@Nullable Future<Boolean> pInduction) throws InterruptedException {
+    if (pInduction == null || pInduction.isDone()) {
+      return;
+    }
+    stepCaseShutdownNotifier.requestShutdown("Induction step case no longer needed");
+    try {
+      pInduction.get();
+    } catch (ExecutionException | CancellationException e) {
+      logger.logDebugException(e, "Induction step case stopped");
+    }
+  }
+
   /**
    * Gets the candidate invariants to be checked.
    *
@@ -335,8 +510,180 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
   }
 
 
-  protected boolean boundedModelCheck(final ReachedSet pReachedSet, final ProverEnvironment pProver, CandidateInvariant pInductionProblem) throws CPATransferException, InterruptedException, SolverException {
-    BooleanFormula program = bfmgr.not(pInductionProblem.getAssertion(pReachedSet, fmgr, pmgr));
+  /**
+   * Gets the states a candidate invariant needs to be checked for.
+   * A candidate that already held for the previous bound needs to be
+   * checked only for the states of the new unrolling.
+   */
+  private Iterable<AbstractState> getStatesToCheck(CandidateInvariant pCandidateInvariant,
+      Iterable<AbstractState> pNewStates, Set<CandidateInvariant> pCheckedCandidates,
+      ReachedSet pReachedSet) {
+    if (incremental && pCheckedCandidates.contains(pCandidateInvariant)) {
+      return pNewStates;
+    }
+    return pReachedSet;
+  }
+
+  /**
+   * Checks all candidate invariants of the given generator and removes the
+   * violated ones from it.
+   *
+   * Instead of one query per candidate, a single query asks whether any of
+   * the candidates is violated, with a fresh indicator variable for the
+   * violation of each candidate. If this query is unsatisfiable, all
+   * candidates hold. Otherwise, only the candidates whose indicator is true
+   * in the model are checked individually, which also creates the
+   * counterexample, and the query is repeated for the rest.
+   * The check stops early if the invariant generator proves the program safe.
+   */
+  private void batchBoundedModelCheck(CandidateGenerator pCandidateGenerator,
+      Iterable<AbstractState> pNewStates, Set<CandidateInvariant> pCheckedCandidates,
+      ReachedSet pReachedSet, ProverEnvironment pProver)
+      throws CPATransferException, InterruptedException, SolverException {
+    if (!isCandidateCheckEnabled()) {
+      // consistent with boundedModelCheck: all candidates are kept unchecked
+      return;
+    }
+
+    Map<CandidateInvariant, BooleanFormula> remaining = Maps.newLinkedHashMap();
+    for (CandidateInvariant candidateInvariant : pCandidateGenerator) {
+      Iterable<AbstractState> statesToCheck =
+          getStatesToCheck(candidateInvariant, pNewStates, pCheckedCandidates, pReachedSet);
+      remaining.put(candidateInvariant, candidateInvariant.getAssertion(statesToCheck, fmgr, pmgr));
+    }
+    Set<CandidateInvariant> violated = Sets.newHashSet();
+
+    while (!remaining.isEmpty() && !invariantGenerator.isProgramSafe()) {
+      Map<String, CandidateInvariant> indicatorNames = Maps.newHashMap();
+      List<BooleanFormula> indicators = Lists.newArrayListWithCapacity(remaining.size());
+      List<BooleanFormula> definitions = Lists.newArrayListWithCapacity(remaining.size());
+      for (Map.Entry<CandidateInvariant, BooleanFormula> entry : remaining.entrySet()) {
+        String name = CANDIDATE_INDICATOR_PREFIX + indicatorNames.size();
+        BooleanFormula indicator = bfmgr.makeVariable(name);
+        indicatorNames.put(name, entry.getKey());
+        indicators.add(indicator);
+        definitions.add(bfmgr.equivalence(indicator, bfmgr.not(entry.getValue())));
+      }
+
+      logger.log(Level.INFO, "Starting satisfiability check for", remaining.size(), "candidates...");
+      stats.satCheck.start();
+      stats.batchQueries++;
+      pProver.push(bfmgr.and(bfmgr.and(definitions), bfmgr.or(indicators)));
+      boolean allSafe;
+      Collection<CandidateInvariant> suspects;
+      try {
+        allSafe = pProver.isUnsat();
+        suspects = allSafe
+            ? Collections.<CandidateInvariant>emptyList()
+            : getViolatedCandidates(pProver.getModel(), indicatorNames);
+      } finally {
+        pProver.pop();
+        stats.satCheck.stop();
+      }
+
+      if (allSafe) {
+        // no candidate is violated
+        for (Map.Entry<CandidateInvariant, BooleanFormula> entry : remaining.entrySet()) {
+          entry.getKey().assumeTruth(pReachedSet);
+          if (incremental) {
+            pCheckedCandidates.add(entry.getKey());
+          }
+          keepLemma(entry.getValue());
+        }
+        break;
+      }
+
+      if (suspects.isEmpty()) {
+        // the model did not tell us which candidates are violated
+        suspects = Lists.newArrayList(remaining.keySet());
+      }
+      for (CandidateInvariant candidateInvariant : suspects) {
+        if (invariantGenerator.isProgramSafe()) {
+          break;
+        }
+        Iterable<AbstractState> statesToCheck =
+            getStatesToCheck(candidateInvariant, pNewStates, pCheckedCandidates, pReachedSet);
+        if (!boundedModelCheck(statesToCheck, pReachedSet, pProver, candidateInvariant)) {
+          violated.add(candidateInvariant);
+        } else if (incremental) {
+          pCheckedCandidates.add(candidateInvariant);
+        }
+        remaining.remove(candidateInvariant);
+      }
+    }
+
+    Iterables.removeAll(pCandidateGenerator, violated);
+  }
+
+  private static Collection<CandidateInvariant> getViolatedCandidates(Model pModel,
+      Map<String, CandidateInvariant> pIndicatorNames) {
+    List<CandidateInvariant> result = Lists.newArrayList();
+    for (Map.Entry<AssignableTerm, Object> entry : pModel.entrySet()) {
+      AssignableTerm term = entry.getKey();
+      if (term instanceof Variable && term.getType() == TermType.Boolean
+          && Boolean.TRUE.equals(entry.getValue())) {
+        CandidateInvariant candidateInvariant =
+            pIndicatorNames.get(FormulaManagerView.parseName(term.getName()).getFirst());
+        if (candidateInvariant != null) {
+          result.add(candidateInvariant);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Remembers an assertion that was proven valid
+   * if the incremental mode is enabled.
+   * It is asserted on the prover by the next call to {@link #updateLemmaFrame(ProverEnvironment)}.
+   */
+  private void keepLemma(BooleanFormula pAssertion) {
+    if (incremental && !bfmgr.isTrue(pAssertion)) {
+      lemmas.add(pAssertion);
+      stats.keptLemmas++;
+    }
+  }
+
+  /**
+   * Asserts the conjunction of all lemmas kept so far on the lowest frame
+   * of the prover stack, replacing the previous conjunction.
+   * The lemmas are known to be valid, so they do not change the
+   * satisfiability of later queries, but they let the solver reuse what it
+   * learned for the shared prefixes of the longer path formulas of the next
+   * bounds. Using a single frame keeps the prover stack from growing with
+   * each proven lemma.
+   * Must only be called if no other formulas are pushed on the prover.
+   */
+  private void updateLemmaFrame(ProverEnvironment pProver) {
+    if (lemmas.size() > lemmasOnProver) {
+      if (lemmaFramePushed) {
+        pProver.pop();
+      }
+      pProver.push(bfmgr.and(lemmas));
+      lemmaFramePushed = true;
+      lemmasOnProver = lemmas.size();
+    }
+  }
+
+  /**
+   * Checks whether the given candidate invariant holds for the given states.
+   *
+   * @param pStatesToCheck the states the candidate invariant is checked for,
+   * either the whole reached set or only the states added by the last unrolling.
+   * @param pReachedSet the reached set containing the states to check.
+   * @param pProver the prover to use for the check.
+   * @param pInductionProblem the candidate invariant to check.
+   *
+   * @return {@code true} if the candidate invariant holds for all checked
+   * states, {@code false} otherwise.
+   */
+  protected boolean boundedModelCheck(final Iterable<AbstractState> pStatesToCheck, final ReachedSet pReachedSet, final ProverEnvironment pProver, CandidateInvariant pInductionProblem) throws CPATransferException, InterruptedException, SolverException {
+    if (!isCandidateCheckEnabled()) {
+      return true;
+    }
+
+    BooleanFormula assertion = pInductionProblem.getAssertion(pStatesToCheck, fmgr, pmgr);
+    BooleanFormula program = bfmgr.not(assertion);
     logger.log(Level.INFO, "Starting satisfiability check...");
     stats.satCheck.start();
     pProver.push(program);
@@ -353,9 +700,23 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     // Now pop the program formula off of the stack
     pProver.pop();
 
+    if (safe) {
+      keepLemma(assertion);
+    }
+
     return safe;
   }
 
+  /**
+   * Whether the candidate invariants are checked by the solver at all.
+   * If not, both the individual and the batch check consider all candidates
+   * to hold without checking them, and the reached set is left unchanged.
+   * Subclasses can override this to disable the check.
+   */
+  protected boolean isCandidateCheckEnabled() {
+    return true;
+  }
+
   /**
    * This class is called after a violation has been found
    * (i.e., the bounded-model-checking formula was satisfied).
@@ -381,16 +742,26 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
    * model check, i.e. where the bounded model check stopped.
    * @param prover the prover to be used to prove that the stop states are
    * unreachable.
+   * @param pUnreachableStopStates the stop states that were already proven
+   * unreachable for a previous bound. In the incremental mode, these are not
+   * checked again, and the newly checked stop states are added if they are
+   * unreachable.
    *
    * @return {@code true} if the bounded model check covered all reachable
    * states and was thus sound, {@code false} otherwise.
    *
    * @throws InterruptedException if the satisfiability check is interrupted.
    */
-  private boolean checkBoundingAssertions(final ReachedSet pReachedSet, final ProverEnvironment prover)
+  private boolean checkBoundingAssertions(final ReachedSet pReachedSet, final ProverEnvironment prover,
+      final Set<AbstractState> pUnreachableStopStates)
       throws SolverException, InterruptedException {
     FluentIterable<AbstractState> stopStates = from(pReachedSet)
                                                     .filter(IS_STOP_STATE);
+    if (incremental) {
+      // the path formula of a state does not change with the bound,
+      // so a stop state that was unreachable before is still unreachable
+      stopStates = stopStates.filter(Predicates.not(Predicates.in(pUnreachableStopStates)));
+    }
 
     if (boundingAssertions) {
       // create formula for unwinding assertions
@@ -404,6 +775,11 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
       prover.pop();
       stats.assertionsCheck.stop();
 
+      if (sound && incremental) {
+        Iterables.addAll(pUnreachableStopStates, stopStates);
+        keepLemma(bfmgr.not(assertions));
+      }
+
       logger.log(Level.FINER, "Soundness after assertion checks:", sound);
       return sound;
 
@@ -434,6 +810,6 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
         stats,
         reachedSetFactory,
         havocLoopTerminationConditionVariablesOnly,
-        shutdownNotifier) : null;
+        stepCaseShutdownNotifier) : null;
   }
 }
@@ -144,12 +144,8 @@ public class BMCAlgorithm extends AbstractBMCAlgorithm implements Algorithm {
   }
 
   @Override
-  protected boolean boundedModelCheck(final ReachedSet pReachedSet, final ProverEnvironment pProver, CandidateInvariant pInductionProblem) throws CPATransferException, InterruptedException, SolverException {
-    if (!checkTargetStates) {
-      return true;
-    }
-
-    return super.boundedModelCheck(pReachedSet, pProver, pInductionProblem);
+  protected boolean isCandidateCheckEnabled() {
+    return checkTargetStates;
   }
 
   /**
@@ -0,0 +1,83 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.bmc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+public class BMCAlgorithmTest {
+
+  private static final String SAFE_PROGRAM = "test/programs/simple/bmc_incremental_true-unreach-label.c";
+  private static final String UNSAFE_PROGRAM = "test/programs/simple/bmc_incremental_false-unreach-label.c";
+
+  private static Map<String, String> options(boolean incremental) {
+    return ImmutableMap.<String, String>builder()
+        .put("analysis.algorithm.BMC", "true")
+        .put("analysis.traversal.order", "bfs")
+        .put("analysis.traversal.useReversePostorder", "true")
+        .put("analysis.traversal.useCallstack", "true")
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, "
+            + "cpa.predicate.PredicateCPA, cpa.assumptions.storage.AssumptionStorageCPA, "
+            + "cpa.bounds.BoundsCPA")
+        .put("cpa.bounds.maxLoopIterations", "1")
+        .put("cpa.bounds.maxLoopIterationsUpperBound", "0")
+        .put("cpa.bounds.maxLoopIterationAdjusterFactory", "INCREMENT")
+        .put("cpa.predicate.blk.alwaysAtFunctions", "false")
+        .put("cpa.predicate.blk.alwaysAtLoops", "false")
+        .put("cpa.predicate.targetStateSatCheck", "false")
+        .put("cpa.automaton.breakOnTargetState", "0")
+        .put("specification", "config/specification/default.spc")
+        .put("bmc.incremental", Boolean.toString(incremental))
+        .build();
+  }
+
+  private static Result check(String pProgram, boolean pIncremental) throws Exception {
+    TestResults results = CPATestRunner.run(options(pIncremental), pProgram);
+    return results.getCheckerResult().getResult();
+  }
+
+  @Test
+  public void incrementalModeProvesSafety() throws Exception {
+    Result expected = check(SAFE_PROGRAM, false);
+    assertThat(expected).isEqualTo(Result.TRUE);
+    assertThat(check(SAFE_PROGRAM, true)).named("result with bmc.incremental").isEqualTo(expected);
+  }
+
+  @Test
+  public void incrementalModeFindsBug() throws Exception {
+    Result expected = check(UNSAFE_PROGRAM, false);
+    assertThat(expected).isEqualTo(Result.FALSE);
+    assertThat(check(UNSAFE_PROGRAM, true)).named("result with bmc.incremental").isEqualTo(expected);
+  }
+}
@@ -38,8 +38,13 @@ public class BMCStatistics implements Statistics {
 
   final Timer inductionPreparation = new Timer();
   final Timer inductionCheck = new Timer();
+  final Timer inductionWait = new Timer();
   private int inductionCutPoints = 0;
 
+  int reusedStates = 0;
+  int keptLemmas = 0;
+  int batchQueries = 0;
+
   @Override
   public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
     if (satCheck.getNumberOfIntervals() > 0) {
@@ -51,10 +56,20 @@ public class BMCStatistics implements Statistics {
     if (assertionsCheck.getNumberOfIntervals() > 0) {
       out.println("Time for bounding assertions check:  " + assertionsCheck);
     }
+    if (reusedStates > 0 || keptLemmas > 0) {
+      out.println("Number of reused states:             " + reusedStates);
+      out.println("Number of lemmas kept on prover:     " + keptLemmas);
+    }
+    if (batchQueries > 0) {
+      out.println("Number of batched candidate checks:  " + batchQueries);
+    }
     if (inductionCheck.getNumberOfIntervals() > 0) {
       out.println("Number of cut points for induction:  " + inductionCutPoints);
       out.println("Time for induction formula creation: " + inductionPreparation);
       out.println("Time for induction check:            " + inductionCheck);
+      if (inductionWait.getNumberOfIntervals() > 0) {
+        out.println("Time waiting for parallel induction: " + inductionWait);
+      }
     }
   }
 
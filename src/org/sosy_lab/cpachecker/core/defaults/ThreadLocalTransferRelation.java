@@ -0,0 +1,88 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.defaults;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+/**
+ * A transfer relation that delegates to a separate instance of another
+ * transfer relation for each thread.
+ * This allows CPAs whose transfer relation keeps per-call information in fields
+ * (like subclasses of {@link ForwardingTransferRelation}) to be used concurrently,
+ * e.g., as a {@link org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA}.
+ *
+ * Successors and strengthening of a state are always computed by the instance
+ * of the same thread, so information from the transfer can be used
+ * during strengthening as before.
+ */
+public abstract class ThreadLocalTransferRelation<T extends TransferRelation>
+    implements TransferRelation {
+
+  private final ThreadLocal<T> delegates = new ThreadLocal<T>() {
+    @Override
+    protected T initialValue() {
+      return createDelegate();
+    }
+  };
+
+  /**
+   * Create the instance used by the current thread.
+   * Called at most once per thread.
+   */
+  protected abstract T createDelegate();
+
+  protected final T getDelegate() {
+    return delegates.get();
+  }
+
+  @Override
+  public Collection<? extends AbstractState> getAbstractSuccessors(
+      AbstractState pState, Precision pPrecision)
+      throws CPATransferException, InterruptedException {
+    return getDelegate().getAbstractSuccessors(pState, pPrecision);
+  }
+
+  @Override
+  public Collection<? extends AbstractState> getAbstractSuccessorsForEdge(
+      AbstractState pState, Precision pPrecision, CFAEdge pCfaEdge)
+      throws CPATransferException, InterruptedException {
+    return getDelegate().getAbstractSuccessorsForEdge(pState, pPrecision, pCfaEdge);
+  }
+
+  @Override
+  public Collection<? extends AbstractState> strengthen(AbstractState pState,
+      List<AbstractState> pOtherStates, @Nullable CFAEdge pCfaEdge, Precision pPrecision)
+      throws CPATransferException, InterruptedException {
+    return getDelegate().strengthen(pState, pOtherStates, pCfaEdge, pPrecision);
+  }
+}
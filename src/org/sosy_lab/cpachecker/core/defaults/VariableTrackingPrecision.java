@@ -44,6 +44,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
 import org.sosy_lab.cpachecker.cfa.types.java.JBasicType;
 import org.sosy_lab.cpachecker.cfa.types.java.JSimpleType;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.LocationSensitivePrecision;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperPrecision;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -55,13 +56,14 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.TreeMultimap;
 import com.google.errorprone.annotations.ForOverride;
 
-public abstract class VariableTrackingPrecision implements Precision {
+public abstract class VariableTrackingPrecision implements LocationSensitivePrecision {
 
   /**
    * This method creates a precision which cannot be refined, all decisions about
@@ -195,6 +197,17 @@ public abstract class VariableTrackingPrecision implements Precision {
    */
   public abstract boolean tracksTheSameVariablesAs(VariableTrackingPrecision otherPrecision);
 
+  /**
+   * By default, a precision has the same effect at a location as another precision
+   * if both track the same variables everywhere.
+   * Subclasses with location-specific information may override this.
+   */
+  @Override
+  public boolean hasSameEffectAt(Precision pOtherPrecision, CFANode pLocation) {
+    return pOtherPrecision instanceof VariableTrackingPrecision
+        && tracksTheSameVariablesAs((VariableTrackingPrecision) pOtherPrecision);
+  }
+
   /**
    * This method checks if the caller precision is empty, thus there is
    * no variable that should be tracked.
@@ -537,6 +550,17 @@ public abstract class VariableTrackingPrecision implements Precision {
       }
       return false;
     }
+
+    @Override
+    public boolean hasSameEffectAt(Precision pOtherPrecision, CFANode pLocation) {
+      if (pOtherPrecision.getClass().equals(getClass())
+          && super.baseline.equals(((LocalizedRefinablePrecision) pOtherPrecision).getBaseline())
+          && ImmutableSet.copyOf(rawPrecision.get(pLocation)).equals(
+              ImmutableSet.copyOf(((LocalizedRefinablePrecision) pOtherPrecision).rawPrecision.get(pLocation)))) {
+        return true;
+      }
+      return false;
+    }
   }
 
   public static class ScopedRefinablePrecision extends RefinablePrecision {
@@ -0,0 +1,38 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * This is a marker interface for transfer relations that allow the
+ * {@link org.sosy_lab.cpachecker.cpa.composite.CompositeTransferRelation}
+ * to compute their successors and strengthened states in a separate thread,
+ * concurrently with the transfer relations of the other component CPAs.
+ *
+ * Transfer relations should only implement this interface if their
+ * operators do not share mutable state (e.g., a solver instance)
+ * with the operators of other CPAs.
+ */
+public interface ConcurrentTransferRelation extends TransferRelation {
+
+}
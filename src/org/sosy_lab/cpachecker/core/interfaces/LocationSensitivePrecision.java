@@ -0,0 +1,50 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+
+/**
+ * Interface for precisions whose effect depends on the program location
+ * at which they are applied.
+ * Two precisions may differ globally but still have the same effect at
+ * a specific location, e.g., if they differ only in predicates for another location.
+ * This is used for keeping parts of the ARG during refinement
+ * that would be computed in the same way with the refined precision.
+ */
+public interface LocationSensitivePrecision extends Precision {
+
+  /**
+   * Check whether this precision has the same effect as another precision
+   * at a given location, i.e., whether an analysis would compute the same
+   * abstract states at this location with both precisions.
+   * If unsure, implementations should return false.
+   *
+   * @param pOtherPrecision The precision to compare with.
+   * @param pLocation The location at which the precisions are applied.
+   * @return Whether both precisions are equivalent at the given location.
+   */
+  public boolean hasSameEffectAt(Precision pOtherPrecision, CFANode pLocation);
+
+}
@@ -0,0 +1,38 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Statistics that can report their current values while the analysis is running.
+ * This is used for writing periodic machine-readable snapshots of the statistics.
+ * The method is called between two iterations of the algorithm,
+ * and the names of the values should be short keys that are unique across all statistics.
+ */
+public interface SnapshotStatistics extends Statistics {
+
+  public void writeSnapshot(StatisticsWriter writer);
+
+}
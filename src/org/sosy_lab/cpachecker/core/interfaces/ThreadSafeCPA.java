@@ -0,0 +1,43 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * This is a marker interface for CPAs that support being used by algorithms
+ * that explore the state space with several threads
+ * (like {@link org.sosy_lab.cpachecker.core.algorithm.ParallelCPAAlgorithm}).
+ *
+ * For such CPAs, the transfer relation (including strengthening) may be
+ * called concurrently from several threads for different states.
+ * The precision adjustment, merge and stop operators are never called concurrently
+ * with any other operator of the CPA.
+ * CPAs should only implement this interface if their transfer relation does not keep
+ * per-call information in fields (or keeps it per thread) and does not share mutable state
+ * (e.g., a solver instance) with other components.
+ * Wrapper CPAs should only implement this interface if they fulfill
+ * these requirements themselves, the algorithm checks the wrapped CPAs separately.
+ */
+public interface ThreadSafeCPA extends ConfigurableProgramAnalysis {
+
+}
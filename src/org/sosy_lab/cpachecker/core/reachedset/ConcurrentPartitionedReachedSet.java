@@ -0,0 +1,533 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+
+/**
+ * Implementation of the reached set that is safe for concurrent access
+ * from several threads.
+ * Like {@link PartitionedReachedSet}, it partitions the set by keys that
+ * depend on the abstract state
+ * (this can be changed by overriding {@link #getPartitionKey(AbstractState)}).
+ *
+ * Locking is striped per state and partition:
+ * {@link #add(AbstractState, Precision)} and {@link #remove(AbstractState)}
+ * hold the lock of the entry of the affected state while updating
+ * all internal data structures, such that a state can be added and removed
+ * concurrently without leaving parts of it behind.
+ * Apart from that, they only lock the partition of the affected state
+ * (and the waitlist, which is not partitioned).
+ * Each partition stores its states in a concurrent map ordered by insertion,
+ * thus {@link #getReached(AbstractState)} does not need any lock
+ * and returns a live view of the partition.
+ *
+ * All views and iterators returned by this class are weakly consistent,
+ * i.e., they never throw {@link java.util.ConcurrentModificationException},
+ * but may or may not reflect modifications that happen concurrently.
+ */
+public class ConcurrentPartitionedReachedSet implements ReachedSet {
+
+  /**
+   * An entry of the reached set, stores the precision of the state
+   * and its position in the insertion order.
+   * The monitor of this object guards adding the state to and removing it
+   * from all data structures of the reached set.
+   */
+  private static final class Entry {
+    private final AbstractState state;
+    private final long index;
+    private volatile Precision precision;
+
+    /** Set when the state was removed from the reached set. */
+    private boolean removed = false;
+
+    private Entry(AbstractState pState, long pIndex, Precision pPrecision) {
+      state = pState;
+      index = pIndex;
+      precision = pPrecision;
+    }
+  }
+
+  /**
+   * The states of one partition, ordered by their insertion index.
+   * Modifications are done while holding the monitor of this object,
+   * readers access the concurrent map without locking.
+   */
+  private static final class Partition {
+    private final ConcurrentNavigableMap<Long, AbstractState> states = new ConcurrentSkipListMap<>();
+
+    /** The size of {@link #states}, which cannot be computed in constant time. */
+    private volatile int size = 0;
+
+    /** Set when the partition was removed from the partition map because it became empty. */
+    private boolean removed = false;
+  }
+
+  private static final Function<Entry, AbstractState> GET_STATE = new Function<Entry, AbstractState>() {
+    @Override
+    public AbstractState apply(Entry pInput) {
+      return pInput.state;
+    }
+  };
+
+  private static final Function<Entry, Precision> GET_PRECISION = new Function<Entry, Precision>() {
+    @Override
+    public Precision apply(Entry pInput) {
+      return pInput.precision;
+    }
+  };
+
+  private final ConcurrentMap<AbstractState, Entry> reached = new ConcurrentHashMap<>();
+  private final ConcurrentNavigableMap<Long, Entry> insertionOrder = new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<Object, Partition> partitions = new ConcurrentHashMap<>();
+  private final AtomicLong nextIndex = new AtomicLong();
+
+  private volatile @Nullable AbstractState lastState = null;
+
+  /** Guarded by its own monitor. */
+  private final Waitlist waitlist;
+
+  private final Set<AbstractState> unmodifiableReached = new AbstractSet<AbstractState>() {
+
+    @Override
+    public Iterator<AbstractState> iterator() {
+      return Iterators.transform(insertionOrder.values().iterator(), GET_STATE);
+    }
+
+    @Override
+    public boolean contains(Object pObj) {
+      return reached.containsKey(pObj);
+    }
+
+    @Override
+    public int size() {
+      return reached.size();
+    }
+  };
+
+  public ConcurrentPartitionedReachedSet(WaitlistFactory waitlistFactory) {
+    waitlist = waitlistFactory.createWaitlistInstance();
+  }
+
+  @Override
+  public void add(AbstractState state, Precision precision) throws IllegalArgumentException {
+    checkNotNull(state);
+    checkNotNull(precision);
+
+    Entry entry = new Entry(state, nextIndex.getAndIncrement(), precision);
+    Entry previous;
+
+    // Lock the entry before publishing it,
+    // a concurrent remove of the state has to wait until it is added completely.
+    synchronized (entry) {
+      previous = reached.putIfAbsent(state, entry);
+
+      if (previous == null) {
+        insertionOrder.put(entry.index, entry);
+        addToPartition(getPartitionKey(state), entry);
+        synchronized (waitlist) {
+          waitlist.add(state);
+        }
+        lastState = state;
+        return;
+      }
+    }
+
+    // State was already in the reached set,
+    // cf. DefaultReachedSet#add for why we do nothing here.
+    if (!precision.equals(previous.precision)) {
+      throw new IllegalArgumentException("State added to reached set which is already contained, but with a different precision");
+    }
+  }
+
+  @Override
+  public void addAll(Iterable<Pair<AbstractState, Precision>> toAdd) {
+    for (Pair<AbstractState, Precision> pair : toAdd) {
+      add(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  private void addToPartition(Object key, Entry entry) {
+    while (true) {
+      Partition partition = partitions.get(key);
+      if (partition == null) {
+        Partition newPartition = new Partition();
+        partition = partitions.putIfAbsent(key, newPartition);
+        if (partition == null) {
+          partition = newPartition;
+        }
+      }
+
+      synchronized (partition) {
+        if (!partition.removed) {
+          partition.states.put(entry.index, entry.state);
+          partition.size++;
+          return;
+        }
+      }
+      // partition was concurrently removed, retry with a fresh one
+    }
+  }
+
+  private void removeFromPartition(Object key, Entry entry) {
+    Partition partition = partitions.get(key);
+    if (partition == null) {
+      return;
+    }
+
+    synchronized (partition) {
+      if (partition.states.remove(entry.index) == null) {
+        return;
+      }
+      partition.size--;
+
+      if (partition.size == 0) {
+        partition.removed = true;
+        partitions.remove(key, partition);
+      }
+    }
+  }
+
+  @Override
+  public void reAddToWaitlist(AbstractState s) {
+    checkNotNull(s);
+    Entry entry = reached.get(s);
+    Preconditions.checkArgument(entry != null, "State has to be in the reached set");
+
+    synchronized (entry) {
+      if (entry.removed) {
+        // state was removed concurrently, it must not end up in the waitlist again
+        return;
+      }
+      synchronized (waitlist) {
+        if (!waitlist.contains(s)) {
+          waitlist.add(s);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void updatePrecision(AbstractState s, Precision newPrecision) {
+    checkNotNull(s);
+    checkNotNull(newPrecision);
+
+    Entry entry = reached.get(s);
+    if (entry == null) {
+      throw new IllegalArgumentException("State needs to be in the reached set in order to change the precision.");
+    }
+    entry.precision = newPrecision;
+  }
+
+  @Override
+  public void remove(AbstractState state) {
+    checkNotNull(state);
+
+    Entry entry = reached.get(state);
+    if (entry == null) {
+      return;
+    }
+
+    synchronized (entry) {
+      if (entry.removed) {
+        return;
+      }
+      entry.removed = true;
+
+      synchronized (waitlist) {
+        waitlist.remove(state);
+      }
+      insertionOrder.remove(entry.index, entry);
+      removeFromPartition(getPartitionKey(state), entry);
+
+      if (state.equals(lastState)) {
+        lastState = null;
+      }
+
+      // Remove the entry last, such that the state cannot be added again
+      // while parts of the old entry are still present.
+      reached.remove(state, entry);
+    }
+  }
+
+  @Override
+  public void removeAll(Iterable<? extends AbstractState> toRemove) {
+    for (AbstractState state : toRemove) {
+      remove(state);
+    }
+  }
+
+  @Override
+  public void removeOnlyFromWaitlist(AbstractState state) {
+    checkNotNull(state);
+    synchronized (waitlist) {
+      waitlist.remove(state);
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (waitlist) {
+      waitlist.clear();
+    }
+    for (Entry entry : insertionOrder.values()) {
+      remove(entry.state);
+    }
+    lastState = null;
+  }
+
+  @Override
+  public Set<AbstractState> asCollection() {
+    return unmodifiableReached;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return unmodifiableReached.iterator();
+  }
+
+  @Override
+  public Collection<Precision> getPrecisions() {
+    return new AbstractCollection<Precision>() {
+
+      @Override
+      public Iterator<Precision> iterator() {
+        return Iterators.transform(insertionOrder.values().iterator(), GET_PRECISION);
+      }
+
+      @Override
+      public int size() {
+        return insertionOrder.size();
+      }
+    };
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState state) {
+    return getReachedForKey(getPartitionKey(state));
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(CFANode location) {
+    return asCollection();
+  }
+
+  /**
+   * Get a live view of the states of a partition in insertion order.
+   * Accessing this view does not need any lock,
+   * its iterators are weakly consistent.
+   */
+  protected Collection<AbstractState> getReachedForKey(final Object key) {
+    return new AbstractCollection<AbstractState>() {
+
+      private @Nullable Partition current() {
+        return partitions.get(key);
+      }
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        Partition partition = current();
+        return partition == null
+            ? Collections.<AbstractState>emptyIterator()
+            : partition.states.values().iterator();
+      }
+
+      @Override
+      public boolean contains(Object pObj) {
+        Partition partition = current();
+        Entry entry = reached.get(pObj);
+        return partition != null && entry != null && partition.states.containsKey(entry.index);
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return size() == 0;
+      }
+
+      @Override
+      public int size() {
+        Partition partition = current();
+        return partition == null ? 0 : partition.size;
+      }
+    };
+  }
+
+  protected Object getPartitionKey(AbstractState pState) {
+    assert pState instanceof Partitionable : "Partitionable states necessary for ConcurrentPartitionedReachedSet";
+    return ((Partitionable)pState).getPartitionKey();
+  }
+
+  protected Set<?> getKeySet() {
+    return Collections.unmodifiableSet(partitions.keySet());
+  }
+
+  public int getNumberOfPartitions() {
+    return partitions.size();
+  }
+
+  public Map.Entry<Object, Collection<AbstractState>> getMaxPartition() {
+    int max = 0;
+    Map.Entry<Object, Collection<AbstractState>> maxPartition = null;
+
+    for (Map.Entry<Object, Partition> partition : partitions.entrySet()) {
+      int size = partition.getValue().size;
+      if (size > max) {
+        max = size;
+        maxPartition = new AbstractMap.SimpleImmutableEntry<Object, Collection<AbstractState>>(
+            partition.getKey(), ImmutableList.copyOf(partition.getValue().states.values()));
+      }
+    }
+    return maxPartition;
+  }
+
+  @Override
+  public AbstractState getFirstState() {
+    Map.Entry<Long, Entry> first = insertionOrder.firstEntry();
+    Preconditions.checkState(first != null);
+    return first.getValue().state;
+  }
+
+  @Override
+  public AbstractState getLastState() {
+    return lastState;
+  }
+
+  @Override
+  public boolean hasWaitingState() {
+    synchronized (waitlist) {
+      return !waitlist.isEmpty();
+    }
+  }
+
+  @Override
+  public Collection<AbstractState> getWaitlist() {
+    return new AbstractCollection<AbstractState>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        // iterate over a copy, the waitlist itself may change concurrently
+        synchronized (waitlist) {
+          return ImmutableList.copyOf(waitlist).iterator();
+        }
+      }
+
+      @Override
+      public boolean contains(Object obj) {
+        if (!(obj instanceof AbstractState)) {
+          return false;
+        }
+        synchronized (waitlist) {
+          return waitlist.contains((AbstractState)obj);
+        }
+      }
+
+      @Override
+      public boolean isEmpty() {
+        synchronized (waitlist) {
+          return waitlist.isEmpty();
+        }
+      }
+
+      @Override
+      public int size() {
+        synchronized (waitlist) {
+          return waitlist.size();
+        }
+      }
+
+      @Override
+      public String toString() {
+        synchronized (waitlist) {
+          return waitlist.toString();
+        }
+      }
+    };
+  }
+
+  @Override
+  public AbstractState popFromWaitlist() {
+    synchronized (waitlist) {
+      return waitlist.pop();
+    }
+  }
+
+  @Override
+  public Precision getPrecision(AbstractState state) {
+    checkNotNull(state);
+    Entry entry = reached.get(state);
+    Preconditions.checkArgument(entry != null, "State not in reached set:\n%s", state);
+    return entry.precision;
+  }
+
+  @Override
+  public boolean contains(AbstractState state) {
+    checkNotNull(state);
+    return reached.containsKey(state);
+  }
+
+  @Override
+  public int size() {
+    return reached.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return reached.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return unmodifiableReached.toString();
+  }
+}
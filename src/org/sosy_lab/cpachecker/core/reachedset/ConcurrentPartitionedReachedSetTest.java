@@ -0,0 +1,233 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+import com.google.common.collect.ImmutableList;
+
+public class ConcurrentPartitionedReachedSetTest {
+
+  private static class TestState implements AbstractState, Partitionable {
+
+    private final Object key;
+
+    TestState(Object pKey) {
+      key = pKey;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return key;
+    }
+  }
+
+  private Precision precision;
+  private ConcurrentPartitionedReachedSet reached;
+
+  @Before
+  public void setUp() {
+    precision = mock(Precision.class);
+    reached = new ConcurrentPartitionedReachedSet(TraversalMethod.BFS);
+  }
+
+  @Test
+  public void testPartitions() {
+    TestState a1 = new TestState("a");
+    TestState a2 = new TestState("a");
+    TestState b1 = new TestState("b");
+
+    reached.add(a1, precision);
+    reached.add(b1, precision);
+    reached.add(a2, precision);
+
+    assertThat(reached.getReached(new TestState("a"))).containsExactly(a1, a2).inOrder();
+    assertThat(reached.getReached(b1)).containsExactly(b1);
+    assertThat(reached.getReached(new TestState("c"))).isEmpty();
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(2);
+
+    reached.remove(b1);
+    assertThat(reached.getReached(b1)).isEmpty();
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(1);
+  }
+
+  @Test
+  public void testOrderAndWaitlist() {
+    TestState s1 = new TestState("a");
+    TestState s2 = new TestState("b");
+    TestState s3 = new TestState("a");
+
+    reached.add(s1, precision);
+    reached.add(s2, precision);
+    reached.add(s3, precision);
+
+    assertThat(reached.asCollection()).containsExactly(s1, s2, s3).inOrder();
+    assertThat(reached.getFirstState()).isSameAs(s1);
+    assertThat(reached.getLastState()).isSameAs(s3);
+
+    assertThat(reached.popFromWaitlist()).isSameAs(s1);
+    assertThat(reached.getWaitlist()).containsExactly(s2, s3).inOrder();
+
+    reached.remove(s1);
+    assertThat(reached.getFirstState()).isSameAs(s2);
+    assertThat(reached.contains(s1)).isFalse();
+    assertThat(reached.size()).isEqualTo(2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddWithDifferentPrecision() {
+    TestState s = new TestState("a");
+    reached.add(s, precision);
+    reached.add(s, mock(Precision.class));
+  }
+
+  @Test
+  public void testConcurrentModification() throws Exception {
+    final int threads = 4;
+    final int statesPerThread = 1000;
+    final int keys = 10;
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            List<TestState> added = new ArrayList<>();
+            for (int i = 0; i < statesPerThread; i++) {
+              TestState state = new TestState(i % keys);
+              reached.add(state, precision);
+              added.add(state);
+              // read concurrently modified partition
+              assertThat(reached.getReached(state)).contains(state);
+            }
+            // remove half of the states again
+            for (int i = 0; i < added.size(); i += 2) {
+              reached.remove(added.get(i));
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int expectedSize = threads * statesPerThread / 2;
+    assertThat(reached.size()).isEqualTo(expectedSize);
+    assertThat(reached.asCollection()).hasSize(expectedSize);
+    assertThat(reached.getWaitlist()).hasSize(expectedSize);
+
+    int sumOfPartitions = 0;
+    for (int k = 0; k < keys; k++) {
+      sumOfPartitions += reached.getReached(new TestState(k)).size();
+    }
+    assertThat(sumOfPartitions).isEqualTo(expectedSize);
+  }
+
+  /**
+   * Adding and removing the same states concurrently must not leave a state
+   * in some of the internal data structures but not in others.
+   */
+  @Test
+  public void testConcurrentAddAndRemoveOfSameStates() throws Exception {
+    final int states = 1000;
+    final int keys = 10;
+
+    for (int round = 0; round < 20; round++) {
+      reached = new ConcurrentPartitionedReachedSet(TraversalMethod.BFS);
+      final List<TestState> toAdd = new ArrayList<>();
+      for (int i = 0; i < states; i++) {
+        toAdd.add(new TestState(i % keys));
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        Future<?> adder = executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (TestState state : toAdd) {
+              reached.add(state, precision);
+            }
+            return null;
+          }
+        });
+        Future<?> remover = executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (TestState state : toAdd) {
+              reached.remove(state);
+            }
+            return null;
+          }
+        });
+        adder.get();
+        remover.get();
+      } finally {
+        executor.shutdownNow();
+      }
+
+      List<TestState> expected = new ArrayList<>();
+      for (TestState state : toAdd) {
+        if (reached.contains(state)) {
+          expected.add(state);
+        }
+      }
+      assertThat(reached.size()).isEqualTo(expected.size());
+      assertThat(ImmutableList.copyOf(reached.iterator())).named("states in insertion order")
+          .containsExactlyElementsIn(expected);
+      assertThat(ImmutableList.copyOf(reached.getWaitlist())).named("states in waitlist")
+          .containsExactlyElementsIn(expected);
+
+      int sumOfPartitions = 0;
+      for (int k = 0; k < keys; k++) {
+        Collection<AbstractState> partition = reached.getReached(new TestState(k));
+        assertThat(ImmutableList.copyOf(partition)).named("states in partition " + k)
+            .hasSize(partition.size());
+        sumOfPartitions += partition.size();
+      }
+      assertThat(sumOfPartitions).isEqualTo(reached.size());
+    }
+  }
+}
@@ -43,7 +43,7 @@ import org.sosy_lab.cpachecker.cpa.automaton.AutomatonVariableWaitlist;
 public class ReachedSetFactory {
 
   private static enum ReachedSetType {
-    NORMAL, LOCATIONMAPPED, PARTITIONED
+    NORMAL, LOCATIONMAPPED, PARTITIONED, CONCURRENT_LOCATIONMAPPED, CONCURRENT_PARTITIONED
   }
 
   @Option(secure=true, name="traversal.order",
@@ -88,7 +88,9 @@ public class ReachedSetFactory {
       + "\nNORMAL: just a simple set"
       + "\nLOCATIONMAPPED: a different set per location "
       + "(faster, states with different locations cannot be merged)"
-      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)")
+      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)"
+      + "\nCONCURRENT_LOCATIONMAPPED, CONCURRENT_PARTITIONED: thread-safe variants "
+      + "of the above, with one lock per partition")
   ReachedSetType reachedSet = ReachedSetType.PARTITIONED;
 
   public ReachedSetFactory(Configuration config, LogManager logger) throws InvalidConfigurationException {
@@ -128,6 +130,12 @@ public class ReachedSetFactory {
     case LOCATIONMAPPED:
       return new LocationMappedReachedSet(waitlistFactory);
 
+    case CONCURRENT_PARTITIONED:
+      return new ConcurrentPartitionedReachedSet(waitlistFactory);
+
+    case CONCURRENT_LOCATIONMAPPED:
+      return new ConcurrentLocationMappedReachedSet(waitlistFactory);
+
     case NORMAL:
     default:
       return new DefaultReachedSet(waitlistFactory);
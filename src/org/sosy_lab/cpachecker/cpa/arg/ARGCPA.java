@@ -25,6 +25,7 @@ package org.sosy_lab.cpachecker.cpa.arg;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -45,6 +46,7 @@ import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.CounterexampleInfo;
 import org.sosy_lab.cpachecker.core.defaults.AbstractSingleWrapperCPA;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
@@ -62,8 +64,10 @@ import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.counterexamples.CEXExporter;
 import org.sosy_lab.cpachecker.cpa.arg.counterexamples.ConjunctiveCounterexampleFilter;
 import org.sosy_lab.cpachecker.cpa.arg.counterexamples.CounterexampleFilter;
@@ -71,13 +75,16 @@ import org.sosy_lab.cpachecker.cpa.arg.counterexamples.NullCounterexampleFilter;
 import org.sosy_lab.cpachecker.cpa.arg.counterexamples.PathEqualityCounterexampleFilter;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 @Options(prefix="cpa.arg")
 public class ARGCPA extends AbstractSingleWrapperCPA implements
-    ConfigurableProgramAnalysisWithBAM, ProofChecker {
+    ConfigurableProgramAnalysisWithBAM, ProofChecker, ThreadSafeCPA {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ARGCPA.class);
@@ -103,6 +110,16 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
           PathEqualityCounterexampleFilter.class);
   private final CounterexampleFilter cexFilter;
 
+  @Option(secure=true, name="refinement.reuseSubtrees",
+      description="On refinement, keep those parts of the removed subtree of the ARG "
+        + "whose states were computed with a precision that has the same effect "
+        + "as the new precision at their locations, "
+        + "and re-explore only the remaining parts.")
+  private boolean reuseSubtrees = false;
+
+  private final StatInt reusedStates = new StatInt(StatKind.SUM, "Number of reused ARG states of refined subtrees");
+  private final StatInt removedStates = new StatInt(StatKind.SUM, "Number of removed ARG states of refined subtrees");
+
   private final LogManager logger;
 
   private final AbstractDomain abstractDomain;
@@ -233,6 +250,22 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(stats);
+    if (reuseSubtrees) {
+      pStatsCollection.add(new Statistics() {
+
+        @Override
+        public String getName() {
+          return "ARG subtree reuse";
+        }
+
+        @Override
+        public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+          StatisticsWriter.writingStatisticsTo(pOut)
+              .put(reusedStates)
+              .put(removedStates);
+        }
+      });
+    }
     super.collectStatistics(pStatsCollection);
   }
 
@@ -265,6 +298,15 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
     counterexamples.keySet().removeAll(toRemove);
   }
 
+  boolean shouldReuseSubtrees() {
+    return reuseSubtrees;
+  }
+
+  void updateSubtreeReuseStatistics(int pReusedStates, int pRemovedStates) {
+    reusedStates.setNextValue(pReusedStates);
+    removedStates.setNextValue(pRemovedStates);
+  }
+
   ARGToDotWriter getRefinementGraphWriter() {
     return stats.getRefinementGraphWriter();
   }
@@ -33,6 +33,7 @@ import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -42,6 +43,7 @@ import java.util.SortedMap;
 
 import javax.annotation.Nullable;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.configuration.Configuration;
@@ -90,6 +92,7 @@ import org.sosy_lab.cpachecker.util.SourceLocationMapper;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.AssumeCase;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlBuilder;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlStreamWriter;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphType;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
@@ -152,6 +155,12 @@ public class ARGPathExport {
   @Option(secure=true, description="Verification witness: Include the offset within the file?")
   boolean exportOffset = true;
 
+  @Option(secure=true, description="Verification witness: Write nodes and edges incrementally"
+      + " while the ARG is traversed, instead of building the whole graph in memory first."
+      + " Redundant nodes are only merged along edges into states with a single parent,"
+      + " so the witness may be less compact.")
+  boolean streamingExport = false;
+
 
   public ARGPathExport(Configuration pConfig) throws InvalidConfigurationException {
     Preconditions.checkNotNull(pConfig);
@@ -309,7 +318,15 @@ public class ARGPathExport {
 
     String defaultFileName = getInitialFileName(pRootState);
     WitnessWriter writer = new WitnessWriter(defaultFileName);
-    writer.writePath(pTarget, pRootState, pSuccessorFunction, pPathElements, pIsTargetPathEdge, pCounterExample);
+    if (streamingExport) {
+      try {
+        writer.writePathStreaming(pTarget, pRootState, pSuccessorFunction, pPathElements, pIsTargetPathEdge, pCounterExample);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    } else {
+      writer.writePath(pTarget, pRootState, pSuccessorFunction, pPathElements, pIsTargetPathEdge, pCounterExample);
+    }
   }
 
   private String getInitialFileName(ARGState pRootState) {
@@ -531,23 +548,36 @@ public class ARGPathExport {
     }
 
     private void appendKeyDefinitions(GraphMlBuilder pDoc, GraphType pGraphType) {
+      for (Map.Entry<KeyDef, String> keyDef : getKeyDefinitions(pGraphType).entrySet()) {
+        pDoc.appendNewKeyDef(keyDef.getKey(), keyDef.getValue());
+      }
+    }
+
+    /**
+     * Returns the keys that are defined in a witness of the given type,
+     * in the order in which they are written, together with their default values
+     * (which may be null if a key has no default value).
+     */
+    private Map<KeyDef, String> getKeyDefinitions(GraphType pGraphType) {
+      Map<KeyDef, String> result = new LinkedHashMap<>();
       if (pGraphType == GraphType.CONDITION) {
-        pDoc.appendNewKeyDef(KeyDef.INVARIANT, null);
-        pDoc.appendNewKeyDef(KeyDef.NAMED, null);
+        result.put(KeyDef.INVARIANT, null);
+        result.put(KeyDef.NAMED, null);
       }
-      pDoc.appendNewKeyDef(KeyDef.ASSUMPTION, null);
-      pDoc.appendNewKeyDef(KeyDef.SOURCECODE, null);
-      pDoc.appendNewKeyDef(KeyDef.SOURCECODELANGUAGE, null);
-      pDoc.appendNewKeyDef(KeyDef.CONTROLCASE, null);
-      pDoc.appendNewKeyDef(KeyDef.ORIGINLINE, null);
-      pDoc.appendNewKeyDef(KeyDef.ORIGINFILE, defaultSourcefileName);
-      pDoc.appendNewKeyDef(KeyDef.NODETYPE, AutomatonGraphmlCommon.defaultNodeType.text);
+      result.put(KeyDef.ASSUMPTION, null);
+      result.put(KeyDef.SOURCECODE, null);
+      result.put(KeyDef.SOURCECODELANGUAGE, null);
+      result.put(KeyDef.CONTROLCASE, null);
+      result.put(KeyDef.ORIGINLINE, null);
+      result.put(KeyDef.ORIGINFILE, defaultSourcefileName);
+      result.put(KeyDef.NODETYPE, AutomatonGraphmlCommon.defaultNodeType.text);
       for (NodeFlag f : NodeFlag.values()) {
-        pDoc.appendNewKeyDef(f.key, "false");
+        result.put(f.key, "false");
       }
 
-      pDoc.appendNewKeyDef(KeyDef.FUNCTIONENTRY, null);
-      pDoc.appendNewKeyDef(KeyDef.FUNCTIONEXIT, null);
+      result.put(KeyDef.FUNCTIONENTRY, null);
+      result.put(KeyDef.FUNCTIONEXIT, null);
+      return result;
     }
 
     /**
@@ -820,6 +850,206 @@ public class ARGPathExport {
       doc.appendFooter();
     }
 
+    /**
+     * Writes the witness like {@link #writePath}, but emits each node and edge
+     * as soon as it is known, and merges redundant nodes during the traversal
+     * instead of in a separate pass over the whole graph.
+     * Only the states on the frontier of the traversal are kept,
+     * so the memory needed does not depend on the size of the written graph.
+     *
+     * A node is only merged into its predecessor if the state has a single parent
+     * in the ARG, because edges entering it later could not be redirected anymore.
+     * Thus the result may contain nodes that {@link #writePath} would have merged.
+     */
+    public void writePathStreaming(Appendable pTarget,
+        final ARGState pRootState,
+        final Function<? super ARGState, ? extends Iterable<ARGState>> pSuccessorFunction,
+        final Predicate<? super ARGState> pPathStates,
+        Predicate<Pair<ARGState, ARGState>> pIsTargetPathEdge,
+        final CounterexampleInfo pCounterExample)
+        throws XMLStreamException {
+
+      Map<ARGState, CFAEdgeWithAssumptions> valueMap = null;
+      if (pCounterExample != null) {
+        RichModel model = pCounterExample.getTargetPathModel();
+        CFAPathWithAssumptions cfaPath = model.getCFAPathWithAssignments();
+        if (cfaPath != null) {
+          ARGPath targetPath = pCounterExample.getTargetPath();
+          valueMap = model.getExactVariableValues(targetPath);
+        }
+      }
+
+      GraphType graphType = GraphType.PROGRAMPATH;
+      GraphMlStreamWriter doc = new GraphMlStreamWriter(pTarget);
+
+      doc.writeDocHeader();
+      writeKeyDefinitions(doc, graphType);
+      doc.writeGraphHeader(graphType, "C");
+
+      // The pending nodes of the states that are not yet processed
+      Map<ARGState, PendingNode> frontier = Maps.newHashMap();
+      Set<ARGState> processed = new HashSet<>();
+      boolean sinkReached = false;
+
+      int multiEdgeCount = 0;
+      for (Pair<ARGState, Iterable<ARGState>> argEdges : collectPathEdges(pRootState, pSuccessorFunction, pPathStates)) {
+        ARGState s = argEdges.getFirst();
+        processed.add(s);
+
+        PendingNode source = frontier.remove(s);
+        if (source == null) {
+          // The root state, or a state that is not reachable by an edge in the witness
+          source = new PendingNode(createNodeData(s, s == pRootState));
+        }
+
+        CFANode loc = AbstractStates.extractLocation(s);
+        List<ARGState> children = ImmutableList.copyOf(argEdges.getSecond());
+        boolean sourceMerged = false;
+
+        for (ARGState child : children) {
+          CFANode childLoc = AbstractStates.extractLocation(child);
+          CFAEdge edgeToNextState = loc.getEdgeTo(childLoc);
+          String prevStateId = getStateIdent(s);
+          PendingNode current = source;
+          int outDegree = children.size();
+
+          if (edgeToNextState instanceof MultiEdge) {
+            multiEdgeCount++;
+            List<CFAEdge> edges = ((MultiEdge)edgeToNextState).getEdges();
+
+            // inner part (without last edge), the pseudo states have a single entering edge
+            for (int i = 0; i < edges.size()-1; i++) {
+              CFAEdge innerEdge = edges.get(i);
+              String pseudoStateId = getPseudoStateIdent(child, i, multiEdgeCount);
+              assert (!(innerEdge instanceof AssumeEdge));
+
+              TransitionCondition label = constructTransitionCondition(prevStateId, pseudoStateId, innerEdge, null, valueMap);
+              PendingNode next = streamEdge(doc, current, outDegree, new NodeData(pseudoStateId), true, label);
+              finishPseudoNode(doc, source, current, next);
+              prevStateId = pseudoStateId;
+              current = next;
+              outDegree = 1;
+            }
+
+            // last edge connecting it with the real successor
+            edgeToNextState = edges.get(edges.size()-1);
+          }
+
+          PendingNode next;
+          if (pPathStates.apply(child) && pIsTargetPathEdge.apply(Pair.of(s, child))) {
+            TransitionCondition label = constructTransitionCondition(prevStateId, getStateIdent(child), edgeToNextState, s, valueMap);
+            PendingNode target = frontier.get(child);
+            boolean singleEntry = target == null
+                && !processed.contains(child)
+                && child.getParents().size() == 1
+                && child.getCoveredByThis().isEmpty();
+            NodeData targetNode = target == null ? createNodeData(child, false) : target.node;
+            next = streamEdge(doc, current, outDegree, targetNode, singleEntry, label);
+            if (!processed.contains(child)) {
+              frontier.put(child, next);
+            }
+          } else {
+            TransitionCondition label = constructTransitionCondition(prevStateId, SINK_NODE_ID, edgeToNextState, s, valueMap);
+            next = streamEdge(doc, current, outDegree, new NodeData(SINK_NODE_ID), false, label);
+            sinkReached = true;
+          }
+          finishPseudoNode(doc, source, current, next);
+          sourceMerged |= next.node == source.node;
+        }
+
+        if (!sourceMerged) {
+          writeNode(doc, source.node);
+        }
+      }
+      assert frontier.isEmpty() : "Not all states on the path were processed: " + frontier.keySet();
+
+      if (sinkReached) {
+        NodeData sink = new NodeData(SINK_NODE_ID);
+        sink.flags.add(NodeFlag.ISSINKNODE);
+        writeNode(doc, sink);
+      }
+
+      doc.writeFooter();
+    }
+
+    /**
+     * Writes the edge from the given pending node to the given target node,
+     * or merges the target node into the node of the pending node
+     * if the edge is redundant (see {@link #writePath}).
+     *
+     * @return the pending node for the leaving edges of the target.
+     */
+    private PendingNode streamEdge(GraphMlStreamWriter pDoc, PendingNode pSource, int pOutDegree,
+        NodeData pTarget, boolean pTargetHasSingleEntry, TransitionCondition pLabel) throws XMLStreamException {
+      TransitionCondition label = new TransitionCondition();
+      label.keyValues.putAll(pSource.prefix.keyValues);
+      label.keyValues.putAll(pLabel.keyValues);
+
+      if (pOutDegree == 1 && pTargetHasSingleEntry && isRedundant(label, pSource.node.enteringLabels)) {
+        pSource.node.flags.addAll(pTarget.flags);
+        pSource.node.violatedProperties.addAll(pTarget.violatedProperties);
+        return new PendingNode(pSource.node, label);
+      }
+
+      pDoc.startEdge(pSource.node.id, pTarget.id);
+      for (KeyDef k : label.keyValues.keySet()) {
+        pDoc.writeData(k, label.keyValues.get(k));
+      }
+      pDoc.endElement();
+      pTarget.enteringLabels.add(label);
+      return new PendingNode(pTarget);
+    }
+
+    /**
+     * Writes the node of a pseudo state of a multi edge
+     * after its leaving edge was written, unless it was merged.
+     */
+    private void finishPseudoNode(GraphMlStreamWriter pDoc, PendingNode pSource,
+        PendingNode pCurrent, PendingNode pNext) throws XMLStreamException {
+      if (pCurrent.node != pSource.node && pNext.node != pCurrent.node) {
+        writeNode(pDoc, pCurrent.node);
+      }
+    }
+
+    private boolean isRedundant(TransitionCondition pLabel, Iterable<TransitionCondition> pEnteringLabels) {
+      if (!pLabel.hasTransitionRestrictions()) {
+        return true;
+      }
+      for (TransitionCondition enteringLabel : pEnteringLabels) {
+        if (enteringLabel.summarizes(pLabel)) {
+          return true;
+        }
+      }
+      return pLabel.keyValues.size() == 1 && pLabel.keyValues.containsKey(KeyDef.FUNCTIONEXIT);
+    }
+
+    private NodeData createNodeData(ARGState pState, boolean pIsEntry) {
+      NodeData result = new NodeData(getStateIdent(pState));
+      if (pIsEntry) {
+        result.flags.add(NodeFlag.ISENTRY);
+      }
+      result.flags.addAll(extractNodeFlags(pState));
+      result.violatedProperties.addAll(extractViolatedProperties(pState));
+      return result;
+    }
+
+    private void writeNode(GraphMlStreamWriter pDoc, NodeData pNode) throws XMLStreamException {
+      pDoc.startNode(pNode.id, NodeType.ONPATH);
+      for (NodeFlag f : pNode.flags) {
+        pDoc.writeData(f.key, "true");
+      }
+      for (String violation : pNode.violatedProperties) {
+        pDoc.writeData(KeyDef.VIOLATEDPROPERTY, violation);
+      }
+      pDoc.endElement();
+    }
+
+    private void writeKeyDefinitions(GraphMlStreamWriter pDoc, GraphType pGraphType) throws XMLStreamException {
+      for (Map.Entry<KeyDef, String> keyDef : getKeyDefinitions(pGraphType).entrySet()) {
+        pDoc.writeKeyDef(keyDef.getKey(), keyDef.getValue());
+      }
+    }
+
     private void mergeNodes(final Edge pEdge) {
       final String source = pEdge.source;
       final String target = pEdge.target;
@@ -949,6 +1179,47 @@ public class ARGPathExport {
     }
   }
 
+  /**
+   * A node of the witness that is written by the streaming export,
+   * with the data that is needed until it is written.
+   */
+  private static class NodeData {
+
+    private final String id;
+
+    private final Set<NodeFlag> flags = EnumSet.noneOf(NodeFlag.class);
+
+    private final Set<String> violatedProperties = Sets.newTreeSet();
+
+    /** The labels of the edges entering this node that were written so far. */
+    private final List<TransitionCondition> enteringLabels = Lists.newArrayList();
+
+    public NodeData(String pId) {
+      this.id = Preconditions.checkNotNull(pId);
+    }
+  }
+
+  /**
+   * The node whose leaving edges are written next in the streaming export.
+   * If states were merged into the node,
+   * the conditions of the merged edges are added to each leaving edge.
+   */
+  private static class PendingNode {
+
+    private final NodeData node;
+
+    private final TransitionCondition prefix;
+
+    public PendingNode(NodeData pNode) {
+      this(pNode, new TransitionCondition());
+    }
+
+    public PendingNode(NodeData pNode, TransitionCondition pPrefix) {
+      this.node = Preconditions.checkNotNull(pNode);
+      this.prefix = Preconditions.checkNotNull(pPrefix);
+    }
+  }
+
   private static class DelayedAssignmentsKey {
 
     private final String from;
@@ -0,0 +1,180 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.cpachecker.util.AbstractStates.IS_TARGET_STATE;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+public class ARGPathExportTest {
+
+  private static final String PROGRAM = "test/programs/simple/globalVariableInitialValue_false-unreach-label.c";
+
+  private static final Map<String, String> ANALYSIS = ImmutableMap.of(
+      "cpa", "cpa.arg.ARGCPA",
+      "ARGCPA.cpa", "cpa.composite.CompositeCPA",
+      "CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA",
+      "specification", "config/specification/default.spc");
+
+  private File dir;
+
+  @Before
+  public void setUp() {
+    dir = Files.createTempDir();
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : Files.fileTreeTraverser().postOrderTraversal(dir)) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testStreamingExportEqualsBatchExport() throws Exception {
+    TestResults results = CPATestRunner.run(ANALYSIS, PROGRAM);
+    assertThat(results.getCheckerResult().getResult()).isEqualTo(Result.FALSE);
+
+    UnmodifiableReachedSet reached = results.getCheckerResult().getReached();
+    ARGState root = (ARGState) reached.getFirstState();
+    ARGState target = (ARGState) FluentIterable.from(reached).firstMatch(IS_TARGET_STATE).get();
+    ARGPath path = ARGUtils.getOnePathTo(target);
+
+    String batch = export(false, root, path);
+    String streaming = export(true, root, path);
+
+    // The path is linear, so the streaming export merges the same nodes as the batch export
+    assertThat(describe(streaming)).containsExactlyElementsIn(describe(batch));
+
+    assertWitnessIsConfirmed(batch, "batch.graphml");
+    assertWitnessIsConfirmed(streaming, "streaming.graphml");
+  }
+
+  private static String export(boolean pStreaming, ARGState pRoot, ARGPath pPath) throws Exception {
+    ARGPathExport exporter = new ARGPathExport(TestDataTools.configurationForTest()
+        .setOption("cpa.arg.witness.streamingExport", Boolean.toString(pStreaming))
+        .build());
+    StringBuilder result = new StringBuilder();
+    exporter.writePath(result, pRoot,
+        ARGUtils.CHILDREN_OF_STATE,
+        Predicates.in(pPath.getStateSet()),
+        Predicates.in(getEdges(pPath)),
+        null);
+    return result.toString();
+  }
+
+  private static Set<Pair<ARGState, ARGState>> getEdges(ARGPath pPath) {
+    Set<Pair<ARGState, ARGState>> result = new HashSet<>();
+    List<ARGState> states = pPath.asStatesList();
+    for (int i = 1; i < states.size(); i++) {
+      result.add(Pair.of(states.get(i - 1), states.get(i)));
+    }
+    return result;
+  }
+
+  /**
+   * Validates the given witness by using it as specification for an analysis of the program,
+   * which has to find the violation again.
+   */
+  private void assertWitnessIsConfirmed(String pWitness, String pFileName) throws Exception {
+    File witness = new File(dir, pFileName);
+    Files.write(pWitness, witness, StandardCharsets.UTF_8);
+
+    Map<String, String> options = ImmutableMap.<String, String>builder()
+        .putAll(Maps.filterKeys(ANALYSIS, Predicates.not(Predicates.equalTo("specification"))))
+        .put("specification", "config/specification/default.spc," + witness.getPath())
+        .build();
+    TestResults results = CPATestRunner.run(options, PROGRAM);
+    assertThat(results.getCheckerResult().getResult()).named("result when validating " + pFileName)
+        .isEqualTo(Result.FALSE);
+  }
+
+  /**
+   * Describes the key definitions, nodes, and edges of a GraphML document,
+   * independently of the formatting and the order of the elements.
+   */
+  private static List<String> describe(String pDocument) throws Exception {
+    Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+        .parse(new InputSource(new StringReader(pDocument))).getDocumentElement();
+    List<String> result = new ArrayList<>();
+    for (String tag : new String[] {"key", "node", "edge"}) {
+      NodeList elements = root.getElementsByTagName(tag);
+      for (int i = 0; i < elements.getLength(); i++) {
+        result.add(describeElement((Element) elements.item(i)));
+      }
+    }
+    return result;
+  }
+
+  private static String describeElement(Element pElement) {
+    List<String> parts = new ArrayList<>();
+    NamedNodeMap attributes = pElement.getAttributes();
+    for (int i = 0; i < attributes.getLength(); i++) {
+      Node attribute = attributes.item(i);
+      parts.add(attribute.getNodeName() + "=" + attribute.getNodeValue());
+    }
+    NodeList children = pElement.getChildNodes();
+    for (int i = 0; i < children.getLength(); i++) {
+      Node child = children.item(i);
+      if (child instanceof Element) {
+        Element data = (Element) child;
+        parts.add(data.getTagName() + "[" + data.getAttribute("key") + "]=" + data.getTextContent().trim());
+      }
+    }
+    Collections.sort(parts);
+    return pElement.getTagName() + " " + parts;
+  }
+}
@@ -26,7 +26,10 @@ package org.sosy_lab.cpachecker.cpa.arg;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,12 +37,14 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.logging.Level;
 
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSetWrapper;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Precisions;
 
 import com.google.common.base.Functions;
@@ -118,10 +123,7 @@ public class ARGReachedSet {
    * @param p The new precision.
    */
   public void removeSubtree(ARGState e, Precision p, Predicate<? super Precision> pPrecisionType) {
-    for (ARGState ae : removeSubtree0(e)) {
-      mReached.updatePrecision(ae, adaptPrecision(mReached.getPrecision(ae), p, pPrecisionType));
-      mReached.reAddToWaitlist(ae);
-    }
+    removeSubtree(e, ImmutableList.of(p), ImmutableList.<Predicate<? super Precision>>of(pPrecisionType));
   }
 
   /**
@@ -131,6 +133,10 @@ public class ARGReachedSet {
    * If multiple precisions are given,
    * adapt all matching sub-precisions of a WrappedPrecision.
    *
+   * If the ARGCPA is configured to reuse subtrees, only those states of the
+   * subtree are removed for which the new precision has an effect
+   * (see {@link #removeSubtreeWithReuse(ARGState, List, List, Map)}).
+   *
    * @param e The root of the removed subtree, may not be the initial element.
    * @param p The new precision.
    */
@@ -138,14 +144,19 @@ public class ARGReachedSet {
 
     Preconditions.checkArgument(precisions.size() == precisionTypes.size());
 
-    Set<ARGState> toWaitlist = removeSubtree0(e);
+    // many states share the same precision object, so adapt each one only once
+    Map<Precision, Precision> precisionUpdateCache = Maps.newIdentityHashMap();
+
+    Set<ARGState> toWaitlist;
+    if (cpa != null && cpa.shouldReuseSubtrees()) {
+      toWaitlist = removeSubtreeWithReuse(e, precisions, precisionTypes, precisionUpdateCache);
+    } else {
+      toWaitlist = removeSubtree0(e);
+    }
 
     for (ARGState ae : toWaitlist) {
-      Precision prec = mReached.getPrecision(ae);
-      for (int i = 0; i < precisions.size(); i++) {
-        prec = adaptPrecision(prec, precisions.get(i), precisionTypes.get(i));
-      }
-      mReached.updatePrecision(ae, prec);
+      mReached.updatePrecision(ae,
+          adaptPrecision(mReached.getPrecision(ae), precisions, precisionTypes, precisionUpdateCache));
       mReached.reAddToWaitlist(ae);
     }
   }
@@ -241,6 +252,25 @@ public class ARGReachedSet {
     return Precisions.replaceByType(pOldPrecision, pNewPrecision, pPrecisionType);
   }
 
+  private Precision adaptPrecision(Precision pOldPrecision, List<Precision> pNewPrecisions,
+      List<Predicate<? super Precision>> pPrecisionTypes) {
+    Precision prec = pOldPrecision;
+    for (int i = 0; i < pNewPrecisions.size(); i++) {
+      prec = adaptPrecision(prec, pNewPrecisions.get(i), pPrecisionTypes.get(i));
+    }
+    return prec;
+  }
+
+  private Precision adaptPrecision(Precision pOldPrecision, List<Precision> pNewPrecisions,
+      List<Predicate<? super Precision>> pPrecisionTypes, Map<Precision, Precision> pPrecisionUpdateCache) {
+    Precision newPrecision = pPrecisionUpdateCache.get(pOldPrecision);
+    if (newPrecision == null) {
+      newPrecision = adaptPrecision(pOldPrecision, pNewPrecisions, pPrecisionTypes);
+      pPrecisionUpdateCache.put(pOldPrecision, newPrecision);
+    }
+    return newPrecision;
+  }
+
   private Set<ARGState> removeSubtree0(ARGState e) {
     Preconditions.checkNotNull(e);
     Preconditions.checkArgument(!e.getParents().isEmpty(), "May not remove the initial element from the ARG/reached set");
@@ -262,6 +292,105 @@ public class ARGReachedSet {
     return toWaitlist;
   }
 
+  /**
+   * Remove only those states of a subtree that need to be re-explored
+   * with the new precisions, and update the precisions of the remaining states.
+   *
+   * A state of the subtree is kept if its own precision and the precisions of its parents
+   * have the same effect at its location before and after the precision update
+   * (cf. {@link Precisions#haveSameEffectAt(Precision, Precision, CFANode)}).
+   * All other states are removed together with their subtrees,
+   * all siblings of removed states (such that their parents can be re-expanded
+   * without creating duplicates), and all states covered by removed states.
+   * If this would keep a target state or remove no state of the subtree,
+   * the refinement would not make progress, so the whole subtree is removed instead.
+   *
+   * @param e The root of the subtree, may not be the initial element.
+   * @return The elements to re-add to the waitlist (cf. {@link #removeSet(Set)}).
+   */
+  private Set<ARGState> removeSubtreeWithReuse(ARGState e, List<Precision> pPrecisions,
+      List<Predicate<? super Precision>> pPrecisionTypes, Map<Precision, Precision> pPrecisionUpdateCache) {
+    Preconditions.checkNotNull(e);
+    Preconditions.checkArgument(!e.getParents().isEmpty(), "May not remove the initial element from the ARG/reached set");
+
+    dumpSubgraph(e);
+
+    Set<ARGState> subtree = e.getSubgraph();
+    Set<ARGState> toUnreach = new HashSet<>();
+    for (ARGState ae : subtree) {
+      if (!isUnaffectedByPrecisionUpdate(ae, pPrecisions, pPrecisionTypes, pPrecisionUpdateCache)) {
+        toUnreach.add(ae);
+      }
+    }
+
+    Deque<ARGState> worklist = new ArrayDeque<>(toUnreach);
+    while (!worklist.isEmpty()) {
+      ARGState removed = worklist.pop();
+
+      List<ARGState> affected = new ArrayList<>();
+      affected.addAll(removed.getChildren());
+      affected.addAll(removed.getCoveredByThis());
+      for (ARGState parent : removed.getParents()) {
+        if (subtree.contains(parent)) {
+          affected.addAll(parent.getChildren());
+        }
+      }
+
+      for (ARGState ae : affected) {
+        if (toUnreach.add(ae)) {
+          worklist.push(ae);
+        }
+      }
+    }
+
+    List<ARGState> reused = new ArrayList<>();
+    boolean keepsTargetState = false;
+    for (ARGState ae : subtree) {
+      if (!toUnreach.contains(ae)) {
+        reused.add(ae);
+        keepsTargetState |= ae.isTarget();
+      }
+    }
+
+    if (keepsTargetState || reused.size() == subtree.size()) {
+      reused.clear();
+      toUnreach.addAll(subtree);
+      for (ARGState ae : subtree) {
+        toUnreach.addAll(ae.getCoveredByThis());
+      }
+    }
+
+    for (ARGState ae : reused) {
+      mReached.updatePrecision(ae,
+          adaptPrecision(mReached.getPrecision(ae), pPrecisions, pPrecisionTypes, pPrecisionUpdateCache));
+    }
+    cpa.updateSubtreeReuseStatistics(reused.size(), subtree.size() - reused.size());
+
+    return removeSet(toUnreach);
+  }
+
+  private boolean isUnaffectedByPrecisionUpdate(ARGState e, List<Precision> pPrecisions,
+      List<Predicate<? super Precision>> pPrecisionTypes, Map<Precision, Precision> pPrecisionUpdateCache) {
+    CFANode location = AbstractStates.extractLocation(e);
+    if (location == null) {
+      return false;
+    }
+
+    // the parents' precisions were used for computing this state,
+    // and the state's own precision will be used for computing its successors
+    List<ARGState> relevantStates = new ArrayList<>(e.getParents());
+    relevantStates.add(e);
+
+    for (ARGState ae : relevantStates) {
+      Precision oldPrecision = mReached.getPrecision(ae);
+      Precision newPrecision = adaptPrecision(oldPrecision, pPrecisions, pPrecisionTypes, pPrecisionUpdateCache);
+      if (newPrecision == null || !Precisions.haveSameEffectAt(oldPrecision, newPrecision, location)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void dumpSubgraph(ARGState e) {
     if (cpa == null) {
       return;
@@ -469,5 +598,11 @@ public class ARGReachedSet {
         Predicate<? super Precision> pPrecisionType) {
       delegate.removeSubtree(pE, pP, pPrecisionType);
     }
+
+    @Override
+    public void removeSubtree(ARGState pE, List<Precision> pPrecisions,
+        List<Predicate<? super Precision>> pPrecisionTypes) {
+      delegate.removeSubtree(pE, pPrecisions, pPrecisionTypes);
+    }
   }
 }
@@ -0,0 +1,131 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class ARGSubtreeReuseTest {
+
+  private static final String SAFE_PROGRAM = "test/programs/simple/arg_subtree_reuse_true-unreach-label.c";
+  private static final String UNSAFE_PROGRAM = "test/programs/simple/arg_subtree_reuse_false-unreach-label.c";
+
+  private static final String PREDICATE_ANALYSIS = "cpa.predicate.PredicateCPA";
+  private static final String PREDICATE_REFINER = "cpa.predicate.PredicateRefiner";
+  private static final String VALUE_ANALYSIS = "cpa.value.ValueAnalysisCPA";
+  private static final String VALUE_REFINER = "cpa.value.refiner.ValueAnalysisRefiner";
+
+  private static final Pattern REUSED_STATES =
+      Pattern.compile("Number of reused ARG states of refined subtrees:\\s+(\\d+)");
+
+  private static Map<String, String> options(String pAnalysis, String pRefiner, boolean pReuseSubtrees) {
+    return ImmutableMap.<String, String>builder()
+        .put("analysis.algorithm.CEGAR", "true")
+        .put("analysis.traversal.order", "bfs")
+        .put("analysis.traversal.useReversePostorder", "true")
+        .put("analysis.traversal.useCallstack", "true")
+        .put("cegar.refiner", pRefiner)
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, " + pAnalysis)
+        .put("specification", "config/specification/default.spc")
+        .put("cpa.arg.refinement.reuseSubtrees", Boolean.toString(pReuseSubtrees))
+        .build();
+  }
+
+  /**
+   * Check that reusing subtrees on refinement does not change the verdict
+   * and does not make the reached set larger.
+   *
+   * @return the number of states that were reused on refinement.
+   */
+  private static int assertSameResultWithReuse(String pAnalysis, String pRefiner,
+      String pProgram, Result pExpected) throws Exception {
+    TestResults withoutReuse = CPATestRunner.run(options(pAnalysis, pRefiner, false), pProgram);
+    assertThat(withoutReuse.getCheckerResult().getResult()).isEqualTo(pExpected);
+
+    TestResults withReuse = CPATestRunner.run(options(pAnalysis, pRefiner, true), pProgram);
+    assertThat(withReuse.getCheckerResult().getResult())
+        .named("result with cpa.arg.refinement.reuseSubtrees").isEqualTo(pExpected);
+    assertThat(withReuse.getCheckerResult().getReached().size())
+        .named("size of reached set with cpa.arg.refinement.reuseSubtrees")
+        .isAtMost(withoutReuse.getCheckerResult().getReached().size());
+
+    return getReusedStates(withReuse);
+  }
+
+  private static int getReusedStates(TestResults pResults) throws UnsupportedEncodingException {
+    ByteArrayOutputStream statistics = new ByteArrayOutputStream();
+    pResults.getCheckerResult().printStatistics(new PrintStream(statistics, true, "UTF-8"));
+    Matcher matcher = REUSED_STATES.matcher(statistics.toString("UTF-8"));
+    assertThat(matcher.find()).named("statistics contain number of reused states").isTrue();
+    return Integer.parseInt(matcher.group(1));
+  }
+
+  @Test
+  public void statesAreReused() throws Exception {
+    int reusedStates = 0;
+    for (String[] analysis : ImmutableList.of(
+        new String[] {PREDICATE_ANALYSIS, PREDICATE_REFINER},
+        new String[] {VALUE_ANALYSIS, VALUE_REFINER})) {
+      reusedStates += assertSameResultWithReuse(analysis[0], analysis[1], SAFE_PROGRAM, Result.TRUE);
+      reusedStates += assertSameResultWithReuse(analysis[0], analysis[1], UNSAFE_PROGRAM, Result.FALSE);
+    }
+    assertThat(reusedStates).named("number of reused states in all configurations").isGreaterThan(0);
+  }
+
+  @Test
+  public void predicateAnalysisProvesSafety() throws Exception {
+    assertSameResultWithReuse(PREDICATE_ANALYSIS, PREDICATE_REFINER, SAFE_PROGRAM, Result.TRUE);
+  }
+
+  @Test
+  public void predicateAnalysisFindsBug() throws Exception {
+    assertSameResultWithReuse(PREDICATE_ANALYSIS, PREDICATE_REFINER, UNSAFE_PROGRAM, Result.FALSE);
+  }
+
+  @Test
+  public void valueAnalysisProvesSafety() throws Exception {
+    assertSameResultWithReuse(VALUE_ANALYSIS, VALUE_REFINER, SAFE_PROGRAM, Result.TRUE);
+  }
+
+  @Test
+  public void valueAnalysisFindsBug() throws Exception {
+    assertSameResultWithReuse(VALUE_ANALYSIS, VALUE_REFINER, UNSAFE_PROGRAM, Result.FALSE);
+  }
+}
@@ -111,6 +111,45 @@ class AutomatonASTComparator {
     return parseBlockOfStatements(tmp, parser, scope);
   }
 
+  /**
+   * Parses several blocks of statements with a single call to the parser.
+   * Each block is put into its own function in the code given to the parser,
+   * and the parser converts each function independently,
+   * such that no block can influence the statements of another block.
+   * If the blocks cannot be parsed together,
+   * each block is parsed on its own to produce the same result (or error)
+   * as {@link #generateSourceASTOfBlock(String, CParser, Scope)}.
+   *
+   * @return the statements of each block, in the order of the given blocks.
+   */
+  static List<List<CStatement>> generateSourceASTOfBlocks(List<String> pSources, CParser parser, Scope scope)
+      throws InvalidAutomatonException, InvalidConfigurationException, CParserException {
+    if (pSources.size() > 1) {
+      StringBuilder code = new StringBuilder();
+      for (int i = 0; i < pSources.size(); i++) {
+        code.append(addFunctionDeclaration("test" + i, pSources.get(i))).append('\n');
+      }
+      try {
+        List<List<CAstNode>> blocks = parser.parseStatementBlocks(code.toString(), scope);
+        if (blocks.size() == pSources.size()) {
+          List<List<CStatement>> result = new ArrayList<>(blocks.size());
+          for (List<CAstNode> block : blocks) {
+            result.add(toStatements(block));
+          }
+          return result;
+        }
+      } catch (InvalidAutomatonException | CParserException e) {
+        // fall back to parsing each block on its own, which reports the error for the right block
+      }
+    }
+
+    List<List<CStatement>> result = new ArrayList<>(pSources.size());
+    for (String source : pSources) {
+      result.add(generateSourceASTOfBlock(source, parser, scope));
+    }
+    return result;
+  }
+
   @VisibleForTesting
   static String replaceJokersInPattern(String pPattern) {
     String tmp = pPattern.replaceAll("\\$\\?", " " + JOKER_EXPR + " ");
@@ -138,10 +177,14 @@ class AutomatonASTComparator {
    * @return "void test() { " + body + ";}";
    */
   private static String addFunctionDeclaration(String pBody) {
+    return addFunctionDeclaration("test", pBody);
+  }
+
+  private static String addFunctionDeclaration(String pFunctionName, String pBody) {
     if (pBody.trim().endsWith(";")) {
-      return "void test() { " + pBody + "}";
+      return "void " + pFunctionName + "() { " + pBody + "}";
     } else {
-      return "void test() { " + pBody + ";}";
+      return "void " + pFunctionName + "() { " + pBody + ";}";
     }
   }
 
@@ -185,6 +228,10 @@ class AutomatonASTComparator {
 
     statements = parser.parseStatements(code, scope);
 
+    return toStatements(statements);
+  }
+
+  private static List<CStatement> toStatements(List<CAstNode> statements) throws InvalidAutomatonException {
     for (CAstNode statement : statements) {
       if (!(statement instanceof CStatement)) {
         throw new InvalidAutomatonException("Code in assumption: <"
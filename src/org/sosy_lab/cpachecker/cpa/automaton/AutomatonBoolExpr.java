@@ -227,6 +227,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
     public String toString() {
       return "MATCH \"" + pattern + "\"";
     }
+
+    public String getPattern() {
+      return pattern;
+    }
   }
 
   static class MatchJavaAssert implements AutomatonBoolExpr {
@@ -286,6 +290,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
     public String toString() {
       return "MATCH ASSUME CASE " + matchPositiveCase;
     }
+
+    public boolean getMatchPositiveCase() {
+      return matchPositiveCase;
+    }
   }
 
   static class MatchAllSuccessorEdgesBoolExpr implements AutomatonBoolExpr {
@@ -526,6 +534,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
       return "MATCH " + matchDescriptor;
     }
 
+    public LocationDescriptor getMatchDescriptor() {
+      return matchDescriptor;
+    }
+
   }
 
   /**
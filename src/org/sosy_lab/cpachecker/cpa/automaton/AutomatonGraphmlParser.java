@@ -44,11 +44,15 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.annotation.Nullable;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
+import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -78,13 +82,10 @@ import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.AssumeCase;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlTag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
@@ -92,9 +93,11 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.FluentIterable;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
@@ -105,6 +108,9 @@ public class AutomatonGraphmlParser {
 
   private static final String DISTANCE_TO_VIOLATION = "__DISTANCE_TO_VIOLATION";
 
+  /** Function name used for assumptions that are parsed in the global scope. */
+  private static final String GLOBAL_SCOPE = "";
+
   public static final String WITNESS_AUTOMATON_NAME = "WitnessAutomaton";
 
   @Option(secure=true, description="Consider assumptions that are provided with the path automaton?")
@@ -151,53 +157,53 @@ public class AutomatonGraphmlParser {
    * @throws CParserException
   */
   public List<Automaton> parseAutomatonFile(Path pInputFile) throws InvalidConfigurationException {
+    return parseAutomatonFile(pInputFile, true);
+  }
+
+  /**
+   * Parses a Specification File and returns the Automata found in the file.
+   *
+   * @param pParseAssumptionsTogether whether the assumptions of all edges in the same function scope
+   * are parsed with a single call to the parser, or each assumption with a call of its own.
+   */
+  @VisibleForTesting
+  List<Automaton> parseAutomatonFile(Path pInputFile, boolean pParseAssumptionsTogether)
+      throws InvalidConfigurationException {
     CParser cparser = CParser.Factory.getParser(config, logger, CParser.Factory.getOptions(config), machine);
     try (InputStream input = pInputFile.asByteSource().openStream()) {
-      // Parse the XML document ----
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(input);
-      doc.getDocumentElement().normalize();
-
-      GraphMlDocumentData docDat = new GraphMlDocumentData(doc);
+      // Read the XML document ----
+      GraphMlDocumentData docDat = GraphMlDocumentData.read(input);
 
       // (The one) root node of the graph ----
-      NodeList graphs = doc.getElementsByTagName(GraphMlTag.GRAPH.toString());
-      Preconditions.checkArgument(graphs.getLength() == 1, "The graph file must describe exactly one automaton.");
-      Node graphNode = graphs.item(0);
+      Preconditions.checkArgument(docDat.getNumberOfGraphs() == 1, "The graph file must describe exactly one automaton.");
 
       // Extract the information on the automaton ----
-      Node nameAttribute = graphNode.getAttributes().getNamedItem("name");
       String automatonName = WITNESS_AUTOMATON_NAME;
-      if (nameAttribute != null) {
-        automatonName += "_" + nameAttribute.getTextContent();
+      if (docDat.getGraphName() != null) {
+        automatonName += "_" + docDat.getGraphName();
       }
       String initialStateName = null;
 
       // Create transitions ----
       //AutomatonBoolExpr epsilonTrigger = new SubsetMatchEdgeTokens(Collections.<Comparable<Integer>>emptySet());
-      NodeList edges = doc.getElementsByTagName(GraphMlTag.EDGE.toString());
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
       Map<String, LinkedList<AutomatonTransition>> stateTransitions = Maps.newHashMap();
       Map<String, Deque<String>> stacks = Maps.newHashMap();
 
       // Create graph
-      Multimap<String, Node> leavingEdges = HashMultimap.create();
-      Multimap<String, Node> enteringEdges = HashMultimap.create();
+      Multimap<String, GraphMlElement> leavingEdges = LinkedHashMultimap.create();
+      Multimap<String, GraphMlElement> enteringEdges = LinkedHashMultimap.create();
       String entryNodeId = null;
 
       Set<String> violationStates = Sets.newHashSet();
 
-      for (int i = 0; i < edges.getLength(); i++) {
-        Node stateTransitionEdge = edges.item(i);
-
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+      for (GraphMlElement stateTransitionEdge : docDat.getEdges()) {
+        String sourceStateId = stateTransitionEdge.getSource();
+        String targetStateId = stateTransitionEdge.getTarget();
         leavingEdges.put(sourceStateId, stateTransitionEdge);
         enteringEdges.put(targetStateId, stateTransitionEdge);
 
-        Element sourceStateNode = docDat.getNodeWithId(sourceStateId);
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
+        GraphMlElement sourceStateNode = docDat.getNodeWithId(sourceStateId);
+        GraphMlElement targetStateNode = docDat.getNodeWithId(targetStateId);
         EnumSet<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceStateNode);
         EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
         if (targetNodeFlags.contains(NodeFlag.ISVIOLATION)) {
@@ -209,10 +215,9 @@ public class AutomatonGraphmlParser {
       }
 
       // Find entry
-      for (int i = 0; i < nodes.getLength(); ++i) {
-        Node node = nodes.item(i);
+      for (GraphMlElement node : docDat.getNodes()) {
         if (Boolean.parseBoolean(docDat.getDataValueWithDefault(node, KeyDef.ISENTRYNODE, "false"))) {
-          entryNodeId = GraphMlDocumentData.getAttributeValue(node, "id", "Every node needs an id!");
+          entryNodeId = node.getId();
           break;
         }
       }
@@ -228,8 +233,8 @@ public class AutomatonGraphmlParser {
       while (!waitlist.isEmpty()) {
         String current = waitlist.poll();
         int newDistance = distances.get(current) + 1;
-        for (Node enteringEdge : enteringEdges.get(current)) {
-          String sourceStateId = GraphMlDocumentData.getAttributeValue(enteringEdge, "source", "Every transition needs a source!");
+        for (GraphMlElement enteringEdge : enteringEdges.get(current)) {
+          String sourceStateId = enteringEdge.getSource();
           Integer oldDistance = distances.get(sourceStateId);
           if (oldDistance == null || oldDistance > newDistance) {
             distances.put(sourceStateId, newDistance);
@@ -240,49 +245,29 @@ public class AutomatonGraphmlParser {
       // Sink nodes have infinite distance to the target location, encoded as -1
       distances.put(AutomatonGraphmlCommon.SINK_NODE_ID, -1);
 
-      Set<Node> visitedEdges = new HashSet<>();
-      Queue<Node> waitingEdges = new ArrayDeque<>();
+      // Determine the order in which the edges are handled,
+      // and the function scopes of their assumptions
+      List<GraphMlElement> edgeOrder = Lists.newArrayList();
+      Map<GraphMlElement, String> assumptionFunctions = Maps.newHashMap();
+      Multimap<String, String> assumptionsByFunction = LinkedHashMultimap.create();
+
+      Set<GraphMlElement> visitedEdges = new HashSet<>();
+      Queue<GraphMlElement> waitingEdges = new ArrayDeque<>();
       waitingEdges.addAll(leavingEdges.get(entryNodeId));
       visitedEdges.addAll(waitingEdges);
       while (!waitingEdges.isEmpty()) {
-        Node stateTransitionEdge = waitingEdges.poll();
+        GraphMlElement stateTransitionEdge = waitingEdges.poll();
+        edgeOrder.add(stateTransitionEdge);
 
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+        String sourceStateId = stateTransitionEdge.getSource();
+        String targetStateId = stateTransitionEdge.getTarget();
 
-        for (Node successorEdge : leavingEdges.get(targetStateId)) {
+        for (GraphMlElement successorEdge : leavingEdges.get(targetStateId)) {
           if (visitedEdges.add(successorEdge)) {
             waitingEdges.add(successorEdge);
           }
         }
 
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
-        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
-
-        final List<AutomatonBoolExpr> assertions = Collections.emptyList();
-        boolean leadsToViolationNode = targetNodeFlags.contains(NodeFlag.ISVIOLATION);
-        if (leadsToViolationNode) {
-          violationStates.add(targetStateId);
-        }
-
-        Integer distance = distances.get(targetStateId);
-        if (distance == null) {
-          distance = Integer.MAX_VALUE;
-        }
-        List<AutomatonAction> actions = Collections.<AutomatonAction>singletonList(
-            new AutomatonAction.Assignment(
-                DISTANCE_TO_VIOLATION,
-                new AutomatonIntExpr.Constant(-distance)
-                )
-            );
-        List<CStatement> assumptions = Lists.newArrayList();
-
-        LinkedList<AutomatonTransition> transitions = stateTransitions.get(sourceStateId);
-        if (transitions == null) {
-          transitions = Lists.newLinkedList();
-          stateTransitions.put(sourceStateId, transitions);
-        }
-
         // Handle call stack
         Deque<String> currentStack = stacks.get(sourceStateId);
         if (currentStack == null) {
@@ -324,34 +309,72 @@ public class AutomatonGraphmlParser {
           newStack = new ArrayDeque<>(newStack);
         }
 
-        AutomatonBoolExpr conjunctedTriggers = AutomatonBoolExpr.TRUE;
-
-        // Add assumptions to the transition
+        // Collect the assumptions of the edge, they are parsed all at once below
         if (considerAssumptions) {
           Set<String> transAssumes = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ASSUMPTION);
           Set<String> assumptionScopes = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ASSUMPTIONSCOPE);
           Preconditions.checkArgument(assumptionScopes.size() < 2, "At most one assumption scope must be provided for an edge.");
           if (!transAssumes.isEmpty()) {
-            Scope scope = this.scope;
+            String functionName = GLOBAL_SCOPE;
             if (scope instanceof CProgramScope
                 && (!assumptionScopes.isEmpty() || !newStack.isEmpty())) {
-              final String functionName;
               if (!assumptionScopes.isEmpty()) {
                 functionName = assumptionScopes.iterator().next();
               } else {
                 functionName = newStack.peek();
               }
-              scope = ((CProgramScope) scope).createFunctionScope(functionName);
             }
+            assumptionFunctions.put(stateTransitionEdge, functionName);
             for (String assumeCode : transAssumes) {
-              assumptions.addAll(removeDuplicates(adjustCharAssignments(
-                  AutomatonASTComparator.generateSourceASTOfBlock(
-                      tryFixArrayInitializers(assumeCode),
-                      cparser,
-                      scope))));
+              assumptionsByFunction.put(functionName, tryFixArrayInitializers(assumeCode));
             }
           }
         }
+      }
+
+      Map<Pair<String, String>, List<CStatement>> parsedAssumptions = parseAssumptions(assumptionsByFunction, cparser, pParseAssumptionsTogether);
+
+      for (GraphMlElement stateTransitionEdge : edgeOrder) {
+        String sourceStateId = stateTransitionEdge.getSource();
+        String targetStateId = stateTransitionEdge.getTarget();
+
+        GraphMlElement targetStateNode = docDat.getNodeWithId(targetStateId);
+        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
+
+        final List<AutomatonBoolExpr> assertions = Collections.emptyList();
+        boolean leadsToViolationNode = targetNodeFlags.contains(NodeFlag.ISVIOLATION);
+        if (leadsToViolationNode) {
+          violationStates.add(targetStateId);
+        }
+
+        Integer distance = distances.get(targetStateId);
+        if (distance == null) {
+          distance = Integer.MAX_VALUE;
+        }
+        List<AutomatonAction> actions = Collections.<AutomatonAction>singletonList(
+            new AutomatonAction.Assignment(
+                DISTANCE_TO_VIOLATION,
+                new AutomatonIntExpr.Constant(-distance)
+                )
+            );
+        List<CStatement> assumptions = Lists.newArrayList();
+
+        LinkedList<AutomatonTransition> transitions = stateTransitions.get(sourceStateId);
+        if (transitions == null) {
+          transitions = Lists.newLinkedList();
+          stateTransitions.put(sourceStateId, transitions);
+        }
+
+        AutomatonBoolExpr conjunctedTriggers = AutomatonBoolExpr.TRUE;
+
+        // Add assumptions to the transition
+        String assumptionFunction = assumptionFunctions.get(stateTransitionEdge);
+        if (assumptionFunction != null) {
+          for (String assumeCode : GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ASSUMPTION)) {
+            assumptions.addAll(removeDuplicates(adjustCharAssignments(
+                parsedAssumptions.get(Pair.of(assumptionFunction, tryFixArrayInitializers(assumeCode))))));
+          }
+        }
 
         if (matchOriginLine) {
           Set<String> originFileTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ORIGINFILE);
@@ -467,7 +490,7 @@ public class AutomatonGraphmlParser {
         // Multiple CFA edges in a sequence might match the triggers,
         // so in that case we ALSO need a transition back to the source state
         if (strictMatching || !assumptions.isEmpty() || !actions.isEmpty() || leadsToViolationNode) {
-          Element sourceNode = docDat.getNodeWithId(sourceStateId);
+          GraphMlElement sourceNode = docDat.getNodeWithId(sourceStateId);
           Set<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceNode);
           boolean sourceIsViolationNode = sourceNodeFlags.contains(NodeFlag.ISVIOLATION);
           matchingTransitions.add(createAutomatonTransition(
@@ -486,7 +509,7 @@ public class AutomatonGraphmlParser {
       // Create states ----
       List<AutomatonInternalState> automatonStates = Lists.newArrayList();
       for (String stateId : docDat.getIdToNodeMap().keySet()) {
-        Element stateNode = docDat.getIdToNodeMap().get(stateId);
+        GraphMlElement stateNode = docDat.getIdToNodeMap().get(stateId);
         EnumSet<NodeFlag> nodeFlags = docDat.getNodeFlags(stateNode);
 
         List<AutomatonTransition> transitions = stateTransitions.get(stateId);
@@ -540,7 +563,7 @@ public class AutomatonGraphmlParser {
 
     } catch (FileNotFoundException e) {
       throw new InvalidConfigurationException("Invalid automaton file provided! File not found!: " + pInputFile.getPath());
-    } catch (IOException | ParserConfigurationException | SAXException e) {
+    } catch (IOException | XMLStreamException e) {
       throw new InvalidConfigurationException("Error while accessing automaton file!", e);
     } catch (InvalidAutomatonException e) {
       throw new InvalidConfigurationException("The automaton provided is invalid!", e);
@@ -750,58 +773,191 @@ public class AutomatonGraphmlParser {
     return pAssumeCode;
   }
 
-  private static class GraphMlDocumentData {
+  /**
+   * Parses the assumptions of all edges, with one call to the parser per function scope.
+   *
+   * @param pAssumptionsByFunction the (already fixed) assumption code,
+   * grouped by the function in whose scope it is parsed.
+   * @param pParseTogether whether to use one call to the parser per function scope
+   * instead of one call per assumption.
+   *
+   * @return the parsed statements for each pair of function name and assumption code.
+   */
+  private Map<Pair<String, String>, List<CStatement>> parseAssumptions(
+      Multimap<String, String> pAssumptionsByFunction, CParser pCParser, boolean pParseTogether)
+      throws InvalidAutomatonException, InvalidConfigurationException, CParserException {
+    Map<Pair<String, String>, List<CStatement>> result = Maps.newHashMap();
+    for (String functionName : pAssumptionsByFunction.keySet()) {
+      Scope scope = this.scope;
+      if (!functionName.equals(GLOBAL_SCOPE)) {
+        scope = ((CProgramScope) scope).createFunctionScope(functionName);
+      }
+      List<String> assumeCodes = ImmutableList.copyOf(pAssumptionsByFunction.get(functionName));
+      List<List<CStatement>> statements;
+      if (pParseTogether) {
+        statements = AutomatonASTComparator.generateSourceASTOfBlocks(assumeCodes, pCParser, scope);
+      } else {
+        statements = new ArrayList<>(assumeCodes.size());
+        for (String assumeCode : assumeCodes) {
+          statements.add(AutomatonASTComparator.generateSourceASTOfBlock(assumeCode, pCParser, scope));
+        }
+      }
+      for (int i = 0; i < assumeCodes.size(); i++) {
+        result.put(Pair.of(functionName, assumeCodes.get(i)), statements.get(i));
+      }
+    }
+    return result;
+  }
 
-    private final HashMap<String, Optional<String>> defaultDataValues = Maps.newHashMap();
-    private final Document doc;
+  /**
+   * The parts of a GraphML document that are necessary to build the automaton.
+   * The document is read with a streaming parser,
+   * so no DOM tree of the (potentially large) witness is built;
+   * only the attributes and the data entries of nodes and edges are kept.
+   */
+  private static class GraphMlDocumentData {
 
-    private Map<String, Element> idToNodeMap = null;
+    private final Map<String, Optional<String>> defaultDataValues = Maps.newHashMap();
+    private final Map<String, GraphMlElement> idToNodeMap = Maps.newHashMap();
+    private final List<GraphMlElement> nodes = Lists.newArrayList();
+    private final List<GraphMlElement> edges = Lists.newArrayList();
+
+    private int numberOfGraphs = 0;
+    private String graphName = null;
+
+    private GraphMlDocumentData() { }
+
+    public static GraphMlDocumentData read(InputStream pInput) throws XMLStreamException {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+      GraphMlDocumentData result = new GraphMlDocumentData();
+      Interner<String> interner = Interners.newStrongInterner();
+
+      XMLStreamReader reader = factory.createXMLStreamReader(pInput);
+      try {
+        GraphMlElement currentElement = null;
+        String currentKeyId = null;
+        while (reader.hasNext()) {
+          int event = reader.next();
+          if (event == XMLStreamConstants.END_ELEMENT) {
+            // data elements outside of nodes and edges are not needed
+            currentElement = null;
+            continue;
+          } else if (event != XMLStreamConstants.START_ELEMENT) {
+            continue;
+          }
+          String tag = reader.getLocalName();
 
-    public GraphMlDocumentData(Document doc) {
-      this.doc = doc;
-    }
+          if (tag.equals(GraphMlTag.GRAPH.toString())) {
+            if (result.numberOfGraphs++ == 0) {
+              result.graphName = reader.getAttributeValue(null, "name");
+            }
 
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
-      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
+          } else if (tag.equals(GraphMlTag.NODE.toString())) {
+            currentElement = new GraphMlElement(
+                getAttributeValue(reader, "id", "Every state needs an ID!"), null, null);
+            result.nodes.add(currentElement);
+            result.idToNodeMap.put(currentElement.getId(), currentElement);
+
+          } else if (tag.equals(GraphMlTag.EDGE.toString())) {
+            currentElement = new GraphMlElement(null,
+                interner.intern(getAttributeValue(reader, "source", "Every transition needs a source!")),
+                interner.intern(getAttributeValue(reader, "target", "Every transition needs a target!")));
+            result.edges.add(currentElement);
+
+          } else if (tag.equals(GraphMlTag.KEY.toString())) {
+            currentElement = null;
+            currentKeyId = reader.getAttributeValue(null, "id");
+            // only the first key definition with a given id is considered
+            if (currentKeyId != null && !result.defaultDataValues.containsKey(currentKeyId)) {
+              result.defaultDataValues.put(currentKeyId, Optional.<String>absent());
+            } else {
+              currentKeyId = null;
+            }
 
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMlTag.DATA.toString());
+          } else if (tag.equals(GraphMlTag.DEFAULT.toString())) {
+            if (currentKeyId != null) {
+              result.defaultDataValues.put(currentKeyId, Optional.of(getTextContent(reader)));
+            }
 
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
-        NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
-        if (flag != null) {
-          result.add(flag);
+          } else if (tag.equals(GraphMlTag.DATA.toString()) && currentElement != null) {
+            String key = getAttributeValue(reader, "key", "Every data element must have a key attribute!");
+            currentElement.addData(interner.intern(key), interner.intern(getTextContent(reader)));
+          }
         }
+      } finally {
+        reader.close();
       }
-
       return result;
     }
 
-    public Map<String, Element> getIdToNodeMap() {
-      if (idToNodeMap != null) {
-        return idToNodeMap;
+    /**
+     * Reads the text of the current element, including the text of nested elements
+     * (like {@link org.w3c.dom.Node#getTextContent()}),
+     * and moves the reader to the end of the current element.
+     */
+    private static String getTextContent(XMLStreamReader pReader) throws XMLStreamException {
+      StringBuilder result = new StringBuilder();
+      int depth = 1;
+      while (depth > 0) {
+        switch (pReader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+        case XMLStreamConstants.SPACE:
+          result.append(pReader.getText());
+          break;
+        default:
+          break;
+        }
       }
+      return result.toString();
+    }
+
+    private static String getAttributeValue(XMLStreamReader pReader, String attributeName, String exceptionMessage) {
+      String value = pReader.getAttributeValue(null, attributeName);
+      Preconditions.checkNotNull(value, exceptionMessage);
+      return value;
+    }
+
+    public int getNumberOfGraphs() {
+      return numberOfGraphs;
+    }
 
-      idToNodeMap = Maps.newHashMap();
+    public @Nullable String getGraphName() {
+      return graphName;
+    }
+
+    public List<GraphMlElement> getNodes() {
+      return Collections.unmodifiableList(nodes);
+    }
+
+    public List<GraphMlElement> getEdges() {
+      return Collections.unmodifiableList(edges);
+    }
 
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
-      for (int i=0; i<nodes.getLength(); i++) {
-        Element stateNode = (Element) nodes.item(i);
-        String stateId = getNodeId(stateNode);
+    public EnumSet<NodeFlag> getNodeFlags(GraphMlElement pStateNode) {
+      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
 
-        idToNodeMap.put(stateId, stateNode);
+      for (String key : pStateNode.getDataKeys()) {
+        NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
+        if (flag != null) {
+          result.add(flag);
+        }
       }
 
-      return idToNodeMap;
+      return result;
     }
 
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage) {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
-      Preconditions.checkNotNull(attribute, exceptionMessage);
-      return attribute.getTextContent();
+    public Map<String, GraphMlElement> getIdToNodeMap() {
+      return Collections.unmodifiableMap(idToNodeMap);
     }
 
     private Optional<String> getDataDefault(KeyDef dataKey) {
@@ -809,36 +965,16 @@ public class AutomatonGraphmlParser {
       if (result != null) {
         return result;
       }
-
-      NodeList keyDefs = doc.getElementsByTagName(GraphMlTag.KEY.toString());
-      for (int i=0; i<keyDefs.getLength(); i++) {
-        Element keyDef = (Element) keyDefs.item(i);
-        Node id = keyDef.getAttributes().getNamedItem("id");
-        if (dataKey.id.equals(id.getTextContent())) {
-          NodeList defaultTags = keyDef.getElementsByTagName(GraphMlTag.DEFAULT.toString());
-          result = Optional.absent();
-          if (defaultTags.getLength() > 0) {
-            Preconditions.checkArgument(defaultTags.getLength() == 1);
-            result = Optional.of(defaultTags.item(0).getTextContent());
-          }
-          defaultDataValues.put(dataKey.id, result);
-          return result;
-        }
-      }
       return Optional.absent();
     }
 
-    private static String getNodeId(Node stateNode) {
-      return getAttributeValue(stateNode, "id", "Every state needs an ID!");
-    }
-
-    private Element getNodeWithId(String nodeId) {
-      Element result = getIdToNodeMap().get(nodeId);
+    private GraphMlElement getNodeWithId(String nodeId) {
+      GraphMlElement result = idToNodeMap.get(nodeId);
       Preconditions.checkNotNull(result, "Node not found. Id: " + nodeId);
       return result;
     }
 
-    private String getDataValueWithDefault(Node dataOnNode, KeyDef dataKey, final String defaultValue) {
+    private String getDataValueWithDefault(GraphMlElement dataOnNode, KeyDef dataKey, final String defaultValue) {
       Set<String> values = getDataOnNode(dataOnNode, dataKey);
       if (values.size() == 0) {
         Optional<String> dataDefault = getDataDefault(dataKey);
@@ -852,35 +988,66 @@ public class AutomatonGraphmlParser {
       }
     }
 
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
+    private static Set<String> getDataOnNode(GraphMlElement node, final KeyDef dataKey) {
       Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
+      return node.getData(dataKey.id);
+    }
 
-      Element nodeElement = (Element) node;
-      Set<Node> dataNodes = findKeyedDataNode(nodeElement, dataKey);
+  }
 
+  /**
+   * A node or an edge of a GraphML document together with its data entries.
+   * Edges are compared by identity, like the DOM nodes they replace.
+   */
+  private static class GraphMlElement {
+
+    private final @Nullable String id;
+    private final @Nullable String source;
+    private final @Nullable String target;
+
+    /** Alternating keys and values of the data entries. */
+    private final List<String> data = new ArrayList<>(4);
+
+    private GraphMlElement(@Nullable String pId, @Nullable String pSource, @Nullable String pTarget) {
+      id = pId;
+      source = pSource;
+      target = pTarget;
+    }
+
+    private void addData(String pKey, String pValue) {
+      data.add(pKey);
+      data.add(pValue);
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public String getSource() {
+      return source;
+    }
+
+    public String getTarget() {
+      return target;
+    }
+
+    private Set<String> getDataKeys() {
       Set<String> result = Sets.newHashSet();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
+      for (int i = 0; i < data.size(); i += 2) {
+        result.add(data.get(i));
       }
-
       return result;
     }
 
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = Sets.newHashSet();
-      NodeList dataChilds = of.getElementsByTagName(GraphMlTag.DATA.toString());
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        if (attribute.getTextContent().equals(dataKey.id)) {
-          result.add(dataChild);
+    private Set<String> getData(String pKey) {
+      Set<String> result = Sets.newHashSet();
+      for (int i = 0; i < data.size(); i += 2) {
+        if (data.get(i).equals(pKey)) {
+          result.add(data.get(i + 1));
         }
       }
       return result;
     }
-
   }
 
   public static boolean isGraphmlAutomaton(Path pPath, LogManager pLogger) throws InvalidConfigurationException {
@@ -0,0 +1,96 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFACreator;
+import org.sosy_lab.cpachecker.cfa.CProgramScope;
+import org.sosy_lab.cpachecker.cfa.ast.AStatement;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.collect.ImmutableList;
+
+public class AutomatonGraphmlParserTest {
+
+  private static final String PROGRAM = "test/programs/simple/parallel_exploration_false-unreach-label.c";
+  private static final String WITNESS = PROGRAM + ".graphml";
+
+  private AutomatonGraphmlParser parser;
+
+  @Before
+  public void setUp() throws Exception {
+    Configuration config = TestDataTools.configurationForTest().build();
+    LogManager logger = TestLogManager.getInstance();
+    CFA cfa = new CFACreator(config, logger, ShutdownNotifier.create())
+        .parseFileAndCreateCFA(ImmutableList.of(PROGRAM));
+    parser = new AutomatonGraphmlParser(config, logger, cfa.getMachineModel(), new CProgramScope(cfa, logger));
+  }
+
+  @Test
+  public void testAssumptionsParsedTogetherAsIndividually() throws Exception {
+    Path witness = Paths.get(WITNESS);
+
+    List<String> together = describe(parser.parseAutomatonFile(witness, true));
+    List<String> individually = describe(parser.parseAutomatonFile(witness, false));
+
+    assertThat(together).containsExactlyElementsIn(individually).inOrder();
+    assertThat(together).contains("A4 -> A5 [sum == 0;]");
+    assertThat(together).contains("A2 -> A3 [sum = 0;, n = 1;]");
+  }
+
+  /**
+   * Describes the states and the transitions of the given automata,
+   * including the parsed assumptions of each transition.
+   */
+  private static List<String> describe(List<Automaton> pAutomata) {
+    List<String> result = new ArrayList<>();
+    for (Automaton automaton : pAutomata) {
+      result.add(automaton.getName());
+      for (AutomatonInternalState state : automaton.getStates()) {
+        result.add(state.getName() + (state.isTarget() ? " (target)" : ""));
+        for (AutomatonTransition transition : state.getTransitions()) {
+          List<String> assumptions = new ArrayList<>();
+          for (AStatement assumption : transition.getAssumptions()) {
+            assumptions.add(assumption.toASTString());
+          }
+          result.add(state.getName() + " -> " + transition.getFollowState().getName() + " " + assumptions);
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -66,6 +66,8 @@ public class AutomatonInternalState {
   private final String name;
   /** Outgoing transitions of this state.  */
   private final List<AutomatonTransition> transitions;
+  /** Index from edge features to the transitions that can match them. */
+  private final AutomatonTransitionIndex transitionIndex;
 
   private final boolean mIsTarget;
 
@@ -77,6 +79,7 @@ public class AutomatonInternalState {
   public AutomatonInternalState(String pName, List<AutomatonTransition> pTransitions, boolean pIsTarget, boolean pAllTransitions) {
     this.name = pName;
     this.transitions = pTransitions;
+    this.transitionIndex = AutomatonTransitionIndex.create(pTransitions);
     this.mIsTarget = pIsTarget;
     this.mAllTransitions = pAllTransitions;
   }
@@ -134,6 +137,10 @@ public class AutomatonInternalState {
     return transitions;
   }
 
+  AutomatonTransitionIndex getTransitionIndex() {
+    return transitionIndex;
+  }
+
   @Override
   public String toString() {
     return this.name;
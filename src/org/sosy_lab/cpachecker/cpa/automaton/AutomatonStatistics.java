@@ -49,6 +49,9 @@ class AutomatonStatistics extends AbstractStatistics {
 
     put(out, 0, "Number of states", mCpa.getAutomaton().getNumberOfStates());
     put(out, 0, "Total time for successor computation", trans.totalPostTime);
+    if (trans.matchesDecidedByIndex > 0) {
+      put(out, 1, "Matches decided by transition index", trans.matchesDecidedByIndex);
+    }
 
     if (trans.totalPostTime.getSumTime().compareTo(TimeSpan.ofMillis(500)) >= 0) {
       // normally automaton is very fast, and time measurements are very imprecise
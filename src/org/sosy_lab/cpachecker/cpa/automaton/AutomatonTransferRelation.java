@@ -29,6 +29,7 @@ import static com.google.common.collect.FluentIterable.from;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -82,6 +83,7 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
   Timer assertionsTime = new Timer();
   Timer actionTime = new Timer();
   Timer totalStrengthenTime = new Timer();
+  int matchesDecidedByIndex = 0;
   StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
 
   public AutomatonTransferRelation(ControlAutomatonCPA pCpa, Configuration config,
@@ -91,8 +93,13 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     this.logger = pLogger;
   }
 
+  /*
+   * The operators of this transfer relation are synchronized because they
+   * update the shared statistics and are cheap compared to the other CPAs,
+   * so the automaton may be used by parallel analyses (cf. ThreadSafeCPA).
+   */
   @Override
-  public Collection<? extends AbstractState> getAbstractSuccessorsForEdge(
+  public synchronized Collection<? extends AbstractState> getAbstractSuccessorsForEdge(
                       AbstractState pElement, Precision pPrecision, CFAEdge pCfaEdge)
                       throws CPATransferException {
 
@@ -224,12 +231,24 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     // the list holds a Transition and the TransitionVariables generated during its match
     List<Pair<AutomatonTransition, Map<Integer, String>>> transitionsToBeTaken = new ArrayList<>(2);
 
+    // triggers that are known from the index do not need to be evaluated
+    AutomatonTransitionIndex transitionIndex = state.getInternalState().getTransitionIndex();
+    matchTime.start();
+    BitSet matchingTransitions = transitionIndex.getMatchingTransitions(edge);
+    matchTime.stop();
+    int position = 0;
+
     for (AutomatonTransition t : state.getInternalState().getTransitions()) {
       exprArgs.clearTransitionVariables();
 
-      matchTime.start();
-      ResultValue<Boolean> match = t.match(exprArgs);
-      matchTime.stop();
+      ResultValue<Boolean> match = transitionIndex.getKnownMatch(position++, matchingTransitions);
+      if (match == null) {
+        matchTime.start();
+        match = t.match(exprArgs);
+        matchTime.stop();
+      } else {
+        matchesDecidedByIndex++;
+      }
 
       if (match.canNotEvaluate()) {
         if (failOnUnknownMatch) {
@@ -332,7 +351,7 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
    * @see org.sosy_lab.cpachecker.core.interfaces.TransferRelation#strengthen(org.sosy_lab.cpachecker.core.interfaces.AbstractState, java.util.List, org.sosy_lab.cpachecker.cfa.model.CFAEdge, org.sosy_lab.cpachecker.core.interfaces.Precision)
    */
   @Override
-  public Collection<? extends AbstractState> strengthen(AbstractState pElement,
+  public synchronized Collection<? extends AbstractState> strengthen(AbstractState pElement,
                                     List<AbstractState> pOtherElements,
                                     CFAEdge pCfaEdge, Precision pPrecision)
                                     throws CPATransferException {
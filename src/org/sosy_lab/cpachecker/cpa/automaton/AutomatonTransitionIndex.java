@@ -0,0 +1,273 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.model.AssumeEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.LocationDescriptor;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.OffsetDescriptor;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.OriginLineDescriptor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Lists;
+
+/**
+ * Index from features of CFA edges (origin line, offset, raw statement and
+ * assume case) to the transitions of an automaton state whose trigger
+ * requires this feature.
+ *
+ * A trigger is indexed if it is a conjunction that contains a conjunct
+ * matching on one of these features, or the negation of such a conjunction.
+ * If the feature of an indexed trigger is not present on an edge,
+ * the trigger is known to evaluate to false (or to true, if it is negated)
+ * without evaluating it. All other triggers, e.g., CPA queries or regular
+ * expressions, have to be evaluated as before.
+ */
+class AutomatonTransitionIndex {
+
+  private static final AutomatonTransitionIndex EMPTY = new AutomatonTransitionIndex(
+      new BitSet(), new BitSet(),
+      ImmutableListMultimap.<Integer, Integer>of(),
+      ImmutableSortedMap.<Integer, ImmutableList<Integer>>of(),
+      ImmutableListMultimap.<String, Integer>of(),
+      ImmutableListMultimap.<Boolean, Integer>of());
+
+  private static final BitSet NO_TRANSITIONS = new BitSet();
+
+  /** The positions of the transitions with an indexed trigger. */
+  private final BitSet indexed;
+
+  /** The positions of the indexed transitions whose trigger is negated. */
+  private final BitSet negated;
+
+  private final ImmutableListMultimap<Integer, Integer> byOriginLine;
+  private final ImmutableSortedMap<Integer, ImmutableList<Integer>> byOffset;
+  private final ImmutableListMultimap<String, Integer> byRawStatement;
+  private final ImmutableListMultimap<Boolean, Integer> byAssumeCase;
+
+  private AutomatonTransitionIndex(BitSet pIndexed, BitSet pNegated,
+      ImmutableListMultimap<Integer, Integer> pByOriginLine,
+      ImmutableSortedMap<Integer, ImmutableList<Integer>> pByOffset,
+      ImmutableListMultimap<String, Integer> pByRawStatement,
+      ImmutableListMultimap<Boolean, Integer> pByAssumeCase) {
+    indexed = pIndexed;
+    negated = pNegated;
+    byOriginLine = pByOriginLine;
+    byOffset = pByOffset;
+    byRawStatement = pByRawStatement;
+    byAssumeCase = pByAssumeCase;
+  }
+
+  /**
+   * Creates the index for the given transitions of an automaton state.
+   * The transitions are referred to by their position in the list.
+   */
+  static AutomatonTransitionIndex create(List<AutomatonTransition> pTransitions) {
+    BitSet indexed = new BitSet();
+    BitSet negated = new BitSet();
+    ImmutableListMultimap.Builder<Integer, Integer> byOriginLine = ImmutableListMultimap.builder();
+    NavigableMap<Integer, List<Integer>> byOffset = new TreeMap<>();
+    ImmutableListMultimap.Builder<String, Integer> byRawStatement = ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<Boolean, Integer> byAssumeCase = ImmutableListMultimap.builder();
+
+    int position = 0;
+    for (AutomatonTransition transition : pTransitions) {
+      AutomatonBoolExpr trigger = transition.getTrigger();
+      boolean isNegated = false;
+      if (trigger instanceof AutomatonBoolExpr.Negation) {
+        trigger = ((AutomatonBoolExpr.Negation) trigger).getA();
+        isNegated = true;
+      }
+
+      AutomatonBoolExpr key = selectKey(trigger);
+      if (key != null) {
+        indexed.set(position);
+        negated.set(position, isNegated);
+
+        if (key instanceof AutomatonBoolExpr.MatchLocationDescriptor) {
+          LocationDescriptor descriptor = ((AutomatonBoolExpr.MatchLocationDescriptor) key).getMatchDescriptor();
+          if (descriptor instanceof OffsetDescriptor) {
+            int offset = ((OffsetDescriptor) descriptor).offset;
+            List<Integer> positions = byOffset.get(offset);
+            if (positions == null) {
+              positions = Lists.newArrayListWithExpectedSize(2);
+              byOffset.put(offset, positions);
+            }
+            positions.add(position);
+          } else {
+            byOriginLine.put(((OriginLineDescriptor) descriptor).originLineNumber, position);
+          }
+
+        } else if (key instanceof AutomatonBoolExpr.MatchCFAEdgeExact) {
+          byRawStatement.put(((AutomatonBoolExpr.MatchCFAEdgeExact) key).getPattern(), position);
+
+        } else if (key instanceof AutomatonBoolExpr.MatchAssumeCase) {
+          byAssumeCase.put(((AutomatonBoolExpr.MatchAssumeCase) key).getMatchPositiveCase(), position);
+
+        } else {
+          assert key == AutomatonBoolExpr.MatchAssumeEdge.INSTANCE;
+          byAssumeCase.put(true, position);
+          byAssumeCase.put(false, position);
+        }
+      }
+      position++;
+    }
+
+    if (indexed.isEmpty()) {
+      return EMPTY;
+    }
+
+    ImmutableSortedMap.Builder<Integer, ImmutableList<Integer>> offsets = ImmutableSortedMap.naturalOrder();
+    for (Integer offset : byOffset.keySet()) {
+      offsets.put(offset, ImmutableList.copyOf(byOffset.get(offset)));
+    }
+    return new AutomatonTransitionIndex(indexed, negated,
+        byOriginLine.build(), offsets.build(), byRawStatement.build(), byAssumeCase.build());
+  }
+
+  /**
+   * Selects the most selective conjunct of the given trigger that can be indexed.
+   *
+   * A conjunction evaluates to false whenever one of its conjuncts does,
+   * even if other conjuncts cannot be evaluated, so every conjunct is a
+   * necessary condition for the whole trigger.
+   */
+  private static @Nullable AutomatonBoolExpr selectKey(AutomatonBoolExpr pTrigger) {
+    List<AutomatonBoolExpr> conjuncts = Lists.newArrayList();
+    collectConjuncts(pTrigger, conjuncts);
+
+    AutomatonBoolExpr result = null;
+    int resultPriority = Integer.MAX_VALUE;
+    for (AutomatonBoolExpr conjunct : conjuncts) {
+      int priority = getKeyPriority(conjunct);
+      if (priority < resultPriority) {
+        result = conjunct;
+        resultPriority = priority;
+      }
+    }
+    return result;
+  }
+
+  private static void collectConjuncts(AutomatonBoolExpr pExpr, List<AutomatonBoolExpr> pConjuncts) {
+    if (pExpr instanceof AutomatonBoolExpr.And) {
+      collectConjuncts(((AutomatonBoolExpr.And) pExpr).getA(), pConjuncts);
+      collectConjuncts(((AutomatonBoolExpr.And) pExpr).getB(), pConjuncts);
+    } else {
+      pConjuncts.add(pExpr);
+    }
+  }
+
+  /**
+   * Returns how selective a conjunct is as a key of this index
+   * (lower is better), or {@link Integer#MAX_VALUE} if it cannot be indexed.
+   */
+  private static int getKeyPriority(AutomatonBoolExpr pConjunct) {
+    if (pConjunct instanceof AutomatonBoolExpr.MatchLocationDescriptor) {
+      // Subclasses of the descriptors might match differently, so check the exact class.
+      LocationDescriptor descriptor = ((AutomatonBoolExpr.MatchLocationDescriptor) pConjunct).getMatchDescriptor();
+      if (descriptor.getClass().equals(OffsetDescriptor.class)) {
+        return 0;
+      }
+      if (descriptor.getClass().equals(OriginLineDescriptor.class)) {
+        return 1;
+      }
+    } else if (pConjunct instanceof AutomatonBoolExpr.MatchCFAEdgeExact) {
+      return 2;
+    } else if (pConjunct instanceof AutomatonBoolExpr.MatchAssumeCase) {
+      return 3;
+    } else if (pConjunct == AutomatonBoolExpr.MatchAssumeEdge.INSTANCE) {
+      return 4;
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns the positions of the indexed transitions whose key matches the given edge.
+   * The result must not be modified.
+   */
+  BitSet getMatchingTransitions(CFAEdge pEdge) {
+    if (this == EMPTY) {
+      return NO_TRANSITIONS;
+    }
+    BitSet result = new BitSet();
+
+    if (!byOriginLine.isEmpty() || !byOffset.isEmpty()) {
+      Set<FileLocation> fileLocations = SourceLocationMapper.getFileLocationsFromCfaEdge(pEdge);
+      for (FileLocation location : fileLocations) {
+        for (int position : byOriginLine.get(location.getStartingLineInOrigin())) {
+          result.set(position);
+        }
+        int start = location.getNodeOffset();
+        int end = start + location.getNodeLength();
+        if (start < end) {
+          for (List<Integer> positions : byOffset.subMap(start, true, end, false).values()) {
+            for (int position : positions) {
+              result.set(position);
+            }
+          }
+        }
+      }
+    }
+
+    for (int position : byRawStatement.get(pEdge.getRawStatement())) {
+      result.set(position);
+    }
+
+    if (pEdge instanceof AssumeEdge) {
+      for (int position : byAssumeCase.get(((AssumeEdge) pEdge).getTruthAssumption())) {
+        result.set(position);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the result of the trigger of the transition at the given position
+   * if it is already known from the index, or {@code null} if the trigger
+   * needs to be evaluated.
+   *
+   * @param pPosition the position of the transition.
+   * @param pMatchingTransitions the result of {@link #getMatchingTransitions(CFAEdge)}
+   * for the current edge.
+   */
+  @Nullable ResultValue<Boolean> getKnownMatch(int pPosition, BitSet pMatchingTransitions) {
+    if (!indexed.get(pPosition) || pMatchingTransitions.get(pPosition)) {
+      return null;
+    }
+    return negated.get(pPosition) ? AutomatonBoolExpr.CONST_TRUE : AutomatonBoolExpr.CONST_FALSE;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.model.BlankEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.OffsetDescriptor;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.OriginLineDescriptor;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+public class AutomatonTransitionIndexTest {
+
+  private static final AutomatonBoolExpr CANNOT_EVALUATE = new AutomatonBoolExpr.CPAQuery("none", "none");
+
+  private static AutomatonBoolExpr line(int pLine) {
+    return new AutomatonBoolExpr.MatchLocationDescriptor(
+        new OriginLineDescriptor(Optional.<String>absent(), pLine));
+  }
+
+  private static AutomatonBoolExpr offset(int pOffset) {
+    return new AutomatonBoolExpr.MatchLocationDescriptor(
+        new OffsetDescriptor(Optional.<String>absent(), pOffset));
+  }
+
+  private static AutomatonTransition transition(AutomatonBoolExpr pTrigger) {
+    return new AutomatonTransition(pTrigger,
+        Collections.<AutomatonBoolExpr>emptyList(),
+        Collections.<AutomatonAction>emptyList(),
+        "follow");
+  }
+
+  @Test
+  public void testKnownMatchesAgreeWithEvaluation() throws CPATransferException {
+    List<AutomatonTransition> transitions = ImmutableList.of(
+        transition(line(5)),
+        transition(line(7)),
+        transition(new AutomatonBoolExpr.Negation(line(7))),
+        transition(new AutomatonBoolExpr.And(line(7), CANNOT_EVALUATE)),
+        transition(offset(12)),
+        transition(offset(20)),
+        transition(new AutomatonBoolExpr.MatchCFAEdgeExact("x = 1;")),
+        transition(new AutomatonBoolExpr.MatchCFAEdgeExact("y = 2;")),
+        transition(new AutomatonBoolExpr.MatchAssumeCase(true)),
+        transition(AutomatonBoolExpr.TRUE));
+
+    // line 5, offsets 10 to 15
+    CFAEdge edge = new BlankEdge("x = 1;", new FileLocation(5, "test.c", 6, 10, 5),
+        new CFANode("main"), new CFANode("main"), "x = 1;");
+
+    AutomatonTransitionIndex index = AutomatonTransitionIndex.create(transitions);
+    BitSet matching = index.getMatchingTransitions(edge);
+    AutomatonExpressionArguments args = new AutomatonExpressionArguments(null,
+        null, Collections.<AbstractState>emptyList(), edge, null);
+
+    for (int i = 0; i < transitions.size(); i++) {
+      ResultValue<Boolean> known = index.getKnownMatch(i, matching);
+      if (known != null) {
+        ResultValue<Boolean> evaluated = transitions.get(i).match(args);
+        assertThat(evaluated.canNotEvaluate()).isFalse();
+        assertThat(known.getValue()).isEqualTo(evaluated.getValue());
+      }
+    }
+
+    assertThat(index.getKnownMatch(0, matching)).isNull();
+    assertThat(index.getKnownMatch(1, matching).getValue()).isFalse();
+    assertThat(index.getKnownMatch(2, matching).getValue()).isTrue();
+    assertThat(index.getKnownMatch(3, matching).getValue()).isFalse();
+    assertThat(index.getKnownMatch(4, matching)).isNull();
+    assertThat(index.getKnownMatch(5, matching).getValue()).isFalse();
+    assertThat(index.getKnownMatch(6, matching)).isNull();
+    assertThat(index.getKnownMatch(7, matching).getValue()).isFalse();
+    assertThat(index.getKnownMatch(8, matching).getValue()).isFalse();
+    assertThat(index.getKnownMatch(9, matching)).isNull();
+  }
+}
@@ -0,0 +1,512 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.FluentIterable.from;
+import static org.sosy_lab.cpachecker.util.AbstractStates.IS_TARGET_STATE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.common.Triple;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.CPAs;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent storage for block summaries of BAM across several runs of CPAchecker.
+ *
+ * A summary consists of the (finished) reached set of a block and its exit states,
+ * and is identified by
+ * - a fingerprint of the block, computed from the contents of all CFA edges inside the block
+ *   (the ASTs of the edges without their source-code locations, and the structure of the block),
+ * - a fingerprint of the reduced initial state (its serialized form), and
+ * - a fingerprint of the reduced precision (its serialized form).
+ * The serialized forms are complete, so different states or precisions never share a fingerprint.
+ * The file as a whole is only used if the configuration and the specification are unchanged.
+ * If the program is modified, only blocks whose edges are unchanged are reused.
+ * The serialized states refer to CFA nodes by their number,
+ * so a summary is additionally only restored if the node numbers of the block are unchanged.
+ *
+ * Summaries are only stored for blocks without nested blocks and without target states,
+ * because the refinement of paths through nested blocks needs information
+ * of BAM that is not part of the reached set.
+ * Summaries are deserialized lazily on the first matching lookup.
+ */
+@Options(prefix="cpa.bam.summaries")
+class BAMBlockSummaryStore {
+
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * The options with these prefixes only control the output and the statistics,
+   * they are not part of the signature.
+   */
+  private static final ImmutableList<String> OUTPUT_OPTIONS = ImmutableList.of(
+      "cfa.cache.", "cfa.callgraph.export", "cfa.callgraph.file", "cfa.export", "cfa.file",
+      "cfa.useCache", "cpa.arg.export", "cpa.arg.file", "cpa.bam.summaries.file",
+      "log.", "output.", "statistics.");
+
+  @Option(secure=true, name="file",
+      description="file for storing block summaries across several runs. "
+          + "If the file exists, summaries of unchanged blocks are loaded from it "
+          + "and the blocks are not analyzed again. "
+          + "At the end of the analysis, the summaries of all finished blocks "
+          + "(including evicted ones) and the unused summaries from the file are written to the file. "
+          + "Summaries from a different configuration or specification are ignored.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path file = null;
+
+  private final LogManager logger;
+  private final ReachedSetFactory reachedSetFactory;
+  private final String signature;
+  private BlockPartitioning partitioning = null;
+
+  /** Summaries from the file, still serialized, identified by block, state, and precision. */
+  private final Map<Triple<String, String, String>, byte[]> loadedSummaries = new HashMap<>();
+
+  /** Summaries of the current run, serialized, identified by block, state, and precision. */
+  private final Map<Triple<String, String, String>, byte[]> newSummaries = new HashMap<>();
+
+  private final Map<Block, String> blockFingerprints = new HashMap<>();
+  private final Map<Block, int[]> blockNodeNumbers = new HashMap<>();
+
+  final Timer readTimer = new Timer();
+  final Timer writeTimer = new Timer();
+  final Timer lookupTimer = new Timer();
+
+  int loadedSummariesCount = 0;
+  int reusedSummaries = 0;
+  int storedSummaries = 0;
+  int unserializableSummaries = 0;
+  int renumberedSummaries = 0;
+
+  @Options
+  private static class SpecificationOptions {
+    @Option(secure=true, name="specification",
+        description="comma-separated list of files with specifications that should be checked"
+          + "\n(see config/specification/ for examples)")
+    @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+    private List<Path> specificationFiles = null;
+  }
+
+  BAMBlockSummaryStore(Configuration pConfig, LogManager pLogger, ReachedSetFactory pReachedSetFactory,
+      ConfigurableProgramAnalysis pWrappedCpa, CFA pCfa) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+    reachedSetFactory = pReachedSetFactory;
+
+    if (file != null) {
+      SpecificationOptions specification = new SpecificationOptions();
+      pConfig.inject(specification);
+      signature = computeSignature(pConfig, specification.specificationFiles, pWrappedCpa, pCfa);
+    } else {
+      signature = "";
+    }
+
+    if (file != null && file.exists()) {
+      readSummaries();
+    }
+  }
+
+  /**
+   * Compute a hash of everything besides the program that influences the summaries:
+   * the configuration (without output options), the contents of the specification files,
+   * the machine model, and the used CPAs.
+   */
+  private static String computeSignature(Configuration pConfig, @Nullable List<Path> pSpecificationFiles,
+      ConfigurableProgramAnalysis pWrappedCpa, CFA pCfa) throws InvalidConfigurationException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(pCfa.getMachineModel().name(), StandardCharsets.UTF_8);
+    for (ConfigurableProgramAnalysis cpa : CPAs.asIterable(pWrappedCpa)) {
+      hasher.putString(cpa.getClass().getName(), StandardCharsets.UTF_8).putChar('\n');
+    }
+    List<String> options = Splitter.on('\n').omitEmptyStrings().trimResults()
+        .splitToList(pConfig.asPropertiesString());
+    for (String option : Ordering.natural().sortedCopy(options)) {
+      if (!hasPrefix(option, OUTPUT_OPTIONS)) {
+        hasher.putString(option, StandardCharsets.UTF_8).putChar('\n');
+      }
+    }
+    if (pSpecificationFiles != null) {
+      for (Path specificationFile : pSpecificationFiles) {
+        try {
+          hasher.putBytes(specificationFile.asByteSource().hash(Hashing.sha256()).asBytes());
+        } catch (IOException e) {
+          throw new InvalidConfigurationException(
+              "Could not read specification file " + specificationFile + " (" + e.getMessage() + ")", e);
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  private static boolean hasPrefix(String pOption, List<String> pPrefixes) {
+    for (String prefix : pPrefixes) {
+      if (pOption.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isEnabled() {
+    return file != null;
+  }
+
+  void setBlockPartitioning(BlockPartitioning pPartitioning) {
+    partitioning = pPartitioning;
+  }
+
+  /**
+   * Get a summary for the block from a previous run.
+   * @return the finished reached set of the block with the given precision
+   *         and the exit states of the block, or null if there is no matching summary.
+   */
+  @Nullable Pair<ReachedSet, Collection<AbstractState>> lookup(AbstractState pStateKey,
+      Precision pPrecisionKey, Block pBlock) {
+    if (loadedSummaries.isEmpty()) {
+      return null;
+    }
+
+    lookupTimer.start();
+    try {
+      Triple<String, String, String> key = getKey(pStateKey, pPrecisionKey, pBlock);
+      if (key == null) {
+        return null;
+      }
+      byte[] summary = loadedSummaries.remove(key);
+      if (summary == null) {
+        return null;
+      }
+
+      List<AbstractState> states;
+      List<AbstractState> returnStates;
+      try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(summary))) {
+        if (!Arrays.equals((int[]) in.readObject(), getBlockNodeNumbers(pBlock))) {
+          // the block is unchanged, but the serialized states would refer to the wrong CFA nodes
+          logger.log(Level.FINER, "Not restoring summary of block", pBlock, "because its nodes were renumbered");
+          renumberedSummaries++;
+          return null;
+        }
+        states = readList(in);
+        returnStates = readList(in);
+      } catch (IOException | ClassNotFoundException | ClassCastException e) {
+        logger.logUserException(Level.WARNING, e, "Could not read summary of block " + pBlock);
+        return null;
+      }
+
+      ReachedSet reached = reachedSetFactory.create();
+      for (AbstractState state : states) {
+        reached.add(state, pPrecisionKey);
+      }
+      while (reached.hasWaitingState()) {
+        reached.popFromWaitlist();
+      }
+
+      reusedSummaries++;
+      return Pair.<ReachedSet, Collection<AbstractState>>of(reached, returnStates);
+    } finally {
+      lookupTimer.stop();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<AbstractState> readList(ObjectInputStream pIn) throws IOException, ClassNotFoundException {
+    return (List<AbstractState>) pIn.readObject();
+  }
+
+  /**
+   * Remember the summary of a block for writing it to the file.
+   * Blocks that cannot be restored in a later run are ignored.
+   */
+  void add(AbstractState pStateKey, Precision pPrecisionKey, Block pBlock,
+      ReachedSet pReached, Collection<AbstractState> pReturnStates) {
+    if (partitioning == null
+        || hasNestedBlocks(pBlock)
+        || pReached.hasWaitingState()
+        || !(pReached.getFirstState() instanceof ARGState)
+        || from(pReached).anyMatch(IS_TARGET_STATE)) {
+      return;
+    }
+
+    Triple<String, String, String> key = getKey(pStateKey, pPrecisionKey, pBlock);
+    if (key == null) {
+      unserializableSummaries++;
+      return;
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(getBlockNodeNumbers(pBlock));
+      // both lists in the same stream, such that the return states are shared
+      out.writeObject(new ArrayList<>(pReached.asCollection()));
+      out.writeObject(new ArrayList<>(pReturnStates));
+    } catch (NotSerializableException e) {
+      logger.log(Level.FINER, "Summary of block", pBlock, "cannot be stored, class",
+          e.getMessage(), "does not implement Serializable interface");
+      unserializableSummaries++;
+      return;
+    } catch (StackOverflowError e) {
+      // Java serialization is recursive and fails for deep object graphs (e.g., long paths in the ARG)
+      logger.log(Level.FINER, "Summary of block", pBlock, "cannot be stored, it is too deeply nested");
+      unserializableSummaries++;
+      return;
+    } catch (IOException e) {
+      throw new AssertionError(e); // cannot happen for ByteArrayOutputStream
+    }
+    newSummaries.put(key, bytes.toByteArray());
+  }
+
+  private boolean hasNestedBlocks(Block pBlock) {
+    for (CFANode node : pBlock.getNodes()) {
+      if (partitioning.isCallNode(node) && !pBlock.getCallNodes().contains(node)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Write all summaries that were added in this run to the file,
+   * together with the summaries from the file that were not used in this run
+   * (they are still valid for other parts of the program or other entry states).
+   * This should be called only once, after the analysis has terminated.
+   */
+  void writeSummaries() {
+    checkState(isEnabled());
+    writeTimer.start();
+    try {
+      Map<Triple<String, String, String>, byte[]> summaries = new LinkedHashMap<>(loadedSummaries);
+      summaries.putAll(newSummaries);
+
+      Files.createParentDirs(file);
+      try (OutputStream fos = file.asByteSink().openStream();
+           ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(fos))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(signature);
+        out.writeInt(summaries.size());
+        for (Map.Entry<Triple<String, String, String>, byte[]> entry : summaries.entrySet()) {
+          out.writeUTF(entry.getKey().getFirst());
+          out.writeUTF(entry.getKey().getSecond());
+          out.writeUTF(entry.getKey().getThird());
+          out.writeObject(entry.getValue());
+        }
+      }
+      storedSummaries = summaries.size();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write block summaries to file");
+    } finally {
+      writeTimer.stop();
+    }
+  }
+
+  private void readSummaries() {
+    readTimer.start();
+    try (InputStream fis = file.asByteSource().openStream();
+         ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(fis))) {
+      if (in.readInt() != FORMAT_VERSION || !signature.equals(in.readUTF())) {
+        logger.log(Level.INFO, "Ignoring block summaries from file", file,
+            "because they were created with a different configuration or specification.");
+        return;
+      }
+      int size = in.readInt();
+      for (int i = 0; i < size; i++) {
+        Triple<String, String, String> key = Triple.of(in.readUTF(), in.readUTF(), in.readUTF());
+        loadedSummaries.put(key, (byte[]) in.readObject());
+      }
+      loadedSummariesCount = loadedSummaries.size();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      logger.logUserException(Level.WARNING, e, "Could not read block summaries from file");
+      loadedSummaries.clear();
+    } finally {
+      readTimer.stop();
+    }
+  }
+
+  /** Returns the key for the summary, or null if the state or precision cannot be serialized. */
+  private @Nullable Triple<String, String, String> getKey(AbstractState pStateKey,
+      Precision pPrecisionKey, Block pBlock) {
+    // the ARG of the block is not part of the state
+    AbstractState state = pStateKey instanceof ARGState ? ((ARGState) pStateKey).getWrappedState() : pStateKey;
+    String stateFingerprint = getSerializedFingerprint(state, false);
+    String precisionFingerprint = getSerializedFingerprint(pPrecisionKey, false);
+    if (stateFingerprint == null || precisionFingerprint == null) {
+      return null;
+    }
+    return Triple.of(getBlockFingerprint(pBlock), stateFingerprint, precisionFingerprint);
+  }
+
+  /**
+   * Hash the serialized form of an object.
+   * @param pIgnoreFileLocations whether source-code locations inside the object should be ignored.
+   * @return the hash, or null if the object cannot be serialized.
+   */
+  private static @Nullable String getSerializedFingerprint(Object pObject, boolean pIgnoreFileLocations) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = pIgnoreFileLocations
+        ? new FileLocationIgnoringOutputStream(bytes)
+        : new ObjectOutputStream(bytes)) {
+      out.writeObject(pObject);
+    } catch (NotSerializableException | StackOverflowError e) {
+      return null;
+    } catch (IOException e) {
+      throw new AssertionError(e); // cannot happen for ByteArrayOutputStream
+    }
+    return Hashing.sha256().hashBytes(bytes.toByteArray()).toString();
+  }
+
+  /**
+   * Compute the fingerprint of a block from the contents of its edges.
+   * Nodes are identified by their position in the block (ordered by node number),
+   * such that the fingerprint does not change if only other parts of the program change.
+   */
+  private String getBlockFingerprint(Block pBlock) {
+    String fingerprint = blockFingerprints.get(pBlock);
+    if (fingerprint == null) {
+      List<CFANode> nodes = Ordering.natural().sortedCopy(pBlock.getNodes());
+      ImmutableMap.Builder<CFANode, Integer> positions = ImmutableMap.builder();
+      for (int i = 0; i < nodes.size(); i++) {
+        positions.put(nodes.get(i), i);
+      }
+      Map<CFANode, Integer> position = positions.build();
+
+      Hasher hasher = Hashing.sha256().newHasher();
+      for (CFANode node : nodes) {
+        hasher.putChar('N');
+        hasher.putString(node.getFunctionName(), StandardCharsets.UTF_8);
+        hasher.putBoolean(pBlock.getCallNodes().contains(node));
+        hasher.putBoolean(pBlock.getReturnNodes().contains(node));
+        for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+          hasher.putChar('E');
+          Integer successor = position.get(edge.getSuccessor());
+          if (successor != null) {
+            hasher.putInt(successor);
+          } else {
+            hasher.putInt(-1).putString(edge.getSuccessor().getFunctionName(), StandardCharsets.UTF_8);
+          }
+          hasher.putString(edge.getEdgeType().name(), StandardCharsets.UTF_8);
+          hasher.putString(getEdgeContent(edge), StandardCharsets.UTF_8);
+        }
+      }
+      fingerprint = hasher.hash().toString();
+      blockFingerprints.put(pBlock, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Get the content of an edge, i.e., its complete AST including all types and declarations,
+   * but without source-code locations.
+   */
+  private static String getEdgeContent(CFAEdge pEdge) {
+    Optional<?> ast = pEdge.getRawAST();
+    if (!ast.isPresent()) {
+      return pEdge.getDescription();
+    }
+    String fingerprint = getSerializedFingerprint(ast.get(), true);
+    if (fingerprint == null) {
+      // do not risk a wrong match, make the block unique
+      return pEdge.getDescription() + "@" + System.identityHashCode(pEdge);
+    }
+    return fingerprint;
+  }
+
+  /** The node numbers of the block, which the serialized states of its summary refer to. */
+  private int[] getBlockNodeNumbers(Block pBlock) {
+    int[] numbers = blockNodeNumbers.get(pBlock);
+    if (numbers == null) {
+      List<CFANode> nodes = Ordering.natural().sortedCopy(pBlock.getNodes());
+      numbers = new int[nodes.size()];
+      for (int i = 0; i < numbers.length; i++) {
+        numbers[i] = nodes.get(i).getNodeNumber();
+      }
+      blockNodeNumbers.put(pBlock, numbers);
+    }
+    return numbers;
+  }
+
+  /** An {@link ObjectOutputStream} that replaces all source-code locations by a dummy location. */
+  private static class FileLocationIgnoringOutputStream extends ObjectOutputStream {
+
+    private FileLocationIgnoringOutputStream(OutputStream pOut) throws IOException {
+      super(pOut);
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object pObj) {
+      return pObj instanceof FileLocation ? FileLocation.DUMMY : pObj;
+    }
+  }
+}
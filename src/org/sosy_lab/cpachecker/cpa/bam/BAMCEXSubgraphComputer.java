@@ -156,6 +156,13 @@ public class BAMCEXSubgraphComputer {
           }
           assert pathStateToReachedState.get(newChild) == matchingChild : "output-state must be from (most) inner reachedset";
 
+        } else if (currentState.getEdgeToChild(child) == null) {
+          // child is an expanded state of a block that was evicted from the cache,
+          // thus the block has to be analyzed again.
+          logger.log(Level.FINE, "Block exit refers to a block that was evicted from the cache. Updating it.");
+          ARGSubtreeRemover.removeSubtree(reachedSet, currentState);
+          return DUMMY_STATE_FOR_MISSING_BLOCK;
+
         } else {
           // child is a normal successor
           // -> create an simple connection from parent to current
@@ -206,6 +213,10 @@ public class BAMCEXSubgraphComputer {
 
     // TODO why do we use 'abstractStateToReachedSet' to get the reachedSet and not 'bamCache'?
     final ReachedSet reachedSet = abstractStateToReachedSet.get(expandedRoot);
+    if (reachedSet == null) {
+      logger.log(Level.FINE, "The reached set of the block was evicted from the cache. Updating it.");
+      return DUMMY_STATE_FOR_MISSING_BLOCK;
+    }
 
     // we found the reachedSet, corresponding to the root and precision.
     // now try to find the target in the reach set.
@@ -51,6 +51,7 @@ import org.sosy_lab.cpachecker.core.defaults.AbstractSingleWrapperCPA;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AnalysisTerminationListener;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
@@ -72,7 +73,7 @@ import com.google.common.base.Preconditions;
 
 
 @Options(prefix = "cpa.bam")
-public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvider, ProofChecker {
+public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvider, ProofChecker, AnalysisTerminationListener {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(BAMCPA.class);
@@ -87,6 +88,8 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
   private final BAMMergeOperator merge;
   private final BAMStopOperator stop;
   private final BAMCPAStatistics stats;
+  private final BAMBlockSummaryStore summaryStore;
+  private final BAMCache cache;
   private final PartitioningHeuristic heuristic;
   private final CFA cfa;
   private final ProofChecker wrappedProofChecker;
@@ -124,7 +127,8 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
       this.wrappedProofChecker = null;
     }
     reducer = new TimedReducer(wrappedReducer);
-    final BAMCache cache = new BAMCache(config, reducer);
+    summaryStore = new BAMBlockSummaryStore(config, logger, pReachedSetFactory, pCpa, cfa);
+    cache = new BAMCache(config, reducer, summaryStore);
 
     if (handleRecursiveProcedures) {
       transfer = new BAMTransferRelationWithFixPointForRecursion(config, logger, this, wrappedProofChecker, cache, pReachedSetFactory, pShutdownNotifier);
@@ -151,6 +155,7 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
       }
 
       transfer.setBlockPartitioning(blockPartitioning);
+      summaryStore.setBlockPartitioning(blockPartitioning);
 
       BAMPredicateCPA predicateCpa = ((WrapperCPA) getWrappedCpa()).retrieveWrappedCpa(BAMPredicateCPA.class);
       if (predicateCpa != null) {
@@ -220,6 +225,12 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
     super.collectStatistics(pStatsCollection);
   }
 
+  @Override
+  public void afterAnalysis() {
+    // only finished blocks are stored, so this is also useful after an interrupted analysis
+    cache.writeSummaries();
+  }
+
   BAMCPAStatistics getStatistics() {
     return stats;
   }
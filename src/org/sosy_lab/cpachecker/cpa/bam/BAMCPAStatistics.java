@@ -32,8 +32,10 @@ import java.io.Writer;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 
@@ -48,6 +50,7 @@ import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.PathTemplate;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
@@ -90,6 +93,13 @@ class BAMCPAStatistics implements Statistics {
     }
   };
 
+  private static final Comparator<Map.Entry<Block, Integer>> COMPARE_BY_VALUE = new Comparator<Map.Entry<Block, Integer>>() {
+    @Override
+    public int compare(Map.Entry<Block, Integer> pO1, Map.Entry<Block, Integer> pO2) {
+      return Integer.compare(pO1.getValue(), pO2.getValue());
+    }
+  };
+
   private final BAMCPA cpa;
   private final BAMCache cache;
   private AbstractBAMBasedRefiner refiner = null;
@@ -119,6 +129,7 @@ class BAMCPAStatistics implements Statistics {
 
     BAMTransferRelation transferRelation = cpa.getTransferRelation();
     TimedReducer reducer = cpa.getReducer();
+    BAMBlockSummaryStore summaryStore = cache.getSummaryStore();
 
     int sumCalls = cache.cacheMisses + cache.partialCacheHits + cache.fullCacheHits;
 
@@ -139,6 +150,27 @@ class BAMCPAStatistics implements Statistics {
       out.println("  Number of precision caused misses:                            " + cache.precisionCausedMisses + " (" + toPercent(cache.precisionCausedMisses, cache.cacheMisses) + " of all misses)");
       out.println("  Number of misses with no similar elements:                    " + cache.noSimilarCausedMisses + " (" + toPercent(cache.noSimilarCausedMisses, cache.cacheMisses) + " of all misses)");
     }
+    out.println("Number of states retained in cache:                             " + cache.getRetainedStates() + " (max: " + cache.maxRetainedStates + ")");
+    if (cache.evictions > 0) {
+      out.println("  Number of evicted blocks:                                     " + cache.evictions + " (with " + cache.evictedStates + " states)");
+      out.println("  Number of recomputed blocks after eviction:                   " + cache.recomputations);
+    }
+    Map<Block, Integer> retainedStatesPerBlock = cache.getRetainedStatesPerBlock();
+    if (!retainedStatesPerBlock.isEmpty()) {
+      Map.Entry<Block, Integer> maxBlock = Collections.max(retainedStatesPerBlock.entrySet(), COMPARE_BY_VALUE);
+      out.println("  Avg retained states per cached block:                         " + cache.getRetainedStates() / retainedStatesPerBlock.size());
+      out.println("  Max retained states per cached block:                         " + maxBlock.getValue() + " (for block " + maxBlock.getKey().getCallNodes() + ")");
+    }
+    if (summaryStore.isEnabled()) {
+      out.println("Number of block summaries loaded from file:                     " + summaryStore.loadedSummariesCount);
+      out.println("  Number of reused block summaries:                             " + summaryStore.reusedSummaries + " (" + toPercent(summaryStore.reusedSummaries, sumCalls) + " of all calls)");
+      out.println("  Number of block summaries with renumbered nodes:              " + summaryStore.renumberedSummaries);
+      out.println("Number of block summaries written to file:                      " + summaryStore.storedSummaries);
+      out.println("  Number of non-serializable block summaries:                   " + summaryStore.unserializableSummaries);
+      out.println("Time for reading block summaries:                               " + summaryStore.readTimer);
+      out.println("Time for looking up and restoring block summaries:              " + summaryStore.lookupTimer + " (Calls: " + summaryStore.lookupTimer.getNumberOfIntervals() + ")");
+      out.println("Time for writing block summaries:                               " + summaryStore.writeTimer);
+    }
     out.println("Time for reducing abstract states:                            " + reducer.reduceTime + " (Calls: " + reducer.reduceTime.getNumberOfIntervals() + ")");
     out.println("Time for expanding abstract states:                           " + reducer.expandTime + " (Calls: " + reducer.expandTime.getNumberOfIntervals() + ")");
     out.println("Time for checking equality of abstract states:                " + cache.equalsTimer + " (Calls: " + cache.equalsTimer.getNumberOfIntervals() + ")");
@@ -25,12 +25,19 @@ package org.sosy_lab.cpachecker.cpa.bam;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -43,6 +50,7 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 @Options(prefix = "cpa.bam")
 public class BAMCache {
@@ -53,6 +61,24 @@ public class BAMCache {
   @Option(secure=true, description = "if enabled, the reached set cache is analysed for each cache miss to find the cause of the miss.")
   boolean gatherCacheMissStatistics = false;
 
+  @Option(secure=true, name="cache.maxStates",
+      description = "upper bound for the number of abstract states in all cached reached sets, "
+          + "if the bound is exceeded, blocks are evicted from the cache and recomputed on a cache miss "
+          + "(0 for an unbounded cache)")
+  @IntegerOption(min=0)
+  private int maxCachedStates = 0;
+
+  static enum EvictionPolicy {
+    /** evict the block whose cache entry was used least recently */
+    LRU,
+    /** evict the block with the smallest number of cache hits, least recently used first */
+    LEAST_REUSED,
+  }
+
+  @Option(secure=true, name="cache.evictionPolicy",
+      description = "which block to evict first if the bound for the cache size is exceeded")
+  private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
   final Timer hashingTimer = new Timer();
   final Timer equalsTimer = new Timer();
   final Timer searchingTimer = new Timer();
@@ -65,17 +91,49 @@ public class BAMCache {
   int precisionCausedMisses = 0;
   int noSimilarCausedMisses = 0;
 
+  int evictions = 0;
+  int evictedStates = 0;
+  int recomputations = 0;
+  int maxRetainedStates = 0;
+
   private final Map<AbstractStateHash, ReachedSet> preciseReachedCache = new HashMap<>();
   private final Map<AbstractStateHash, ReachedSet> unpreciseReachedCache = new HashMap<>();
   private final Map<AbstractStateHash, Collection<AbstractState>> returnCache = new HashMap<>();
   private final Map<AbstractStateHash, ARGState> blockARGCache = new HashMap<>();
 
+  /**
+   * Bookkeeping for the entries of {@link #preciseReachedCache}
+   * in order of their last access (least recently used first).
+   * The evictions are done based on this map.
+   */
+  private final LinkedHashMap<AbstractStateHash, CacheEntryUsage> usage = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Keys of evicted entries, used to count recomputations of evicted blocks. */
+  private final Set<AbstractStateHash> evictedKeys = new HashSet<>();
+
+  /**
+   * Reached sets that were evicted since the last call to {@link #pollEvictedReachedSets()}.
+   * Other components may still reference them and need to be informed.
+   */
+  private final List<ReachedSet> evictedReachedSets = new ArrayList<>();
+
+  /** Sum of {@link CacheEntryUsage#size} for all entries. */
+  private int retainedStates = 0;
+
+  private static class CacheEntryUsage {
+    private int hits = 0;
+    private int size = 0;
+  }
+
   private ARGState lastAnalyzedBlock = null;
   private final Reducer reducer;
+  private final BAMBlockSummaryStore summaryStore;
 
-  public BAMCache(Configuration config, Reducer reducer) throws InvalidConfigurationException {
+  public BAMCache(Configuration config, Reducer reducer, BAMBlockSummaryStore summaryStore)
+      throws InvalidConfigurationException {
     config.inject(this);
     this.reducer = reducer;
+    this.summaryStore = checkNotNull(summaryStore);
   }
 
   public boolean doesAggressiveCaching() {
@@ -90,6 +148,10 @@ public class BAMCache {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     assert !preciseReachedCache.containsKey(hash);
     preciseReachedCache.put(hash, item);
+    usage.put(hash, new CacheEntryUsage());
+    if (evictedKeys.remove(hash)) {
+      recomputations++;
+    }
   }
 
   public void put(AbstractState stateKey, Precision precisionKey, Block context, Collection<AbstractState> item,
@@ -100,6 +162,8 @@ public class BAMCache {
     returnCache.put(hash, item);
     blockARGCache.put(hash, rootOfBlock);
     setLastAnalyzedBlock(hash);
+    updateSize(hash);
+    evictIfNecessary(hash);
   }
 
   private boolean allStatesContainedInReachedSet(Collection<AbstractState> pElements, ReachedSet reached) {
@@ -152,14 +216,26 @@ public class BAMCache {
     ReachedSet result = preciseReachedCache.get(hash);
     if (result != null) {
       setLastAnalyzedBlock(hash);
+      markUsed(hash);
       return Pair.of(result, returnCache.get(hash));
     }
 
+    if (summaryStore.isEnabled() && !BAMTransferRelation.PCCInformation.isPCCEnabled()) {
+      // the block might be unchanged since a previous run
+      Pair<ReachedSet, Collection<AbstractState>> summary = summaryStore.lookup(stateKey, precisionKey, context);
+      if (summary != null) {
+        put(stateKey, precisionKey, context, summary.getFirst());
+        put(stateKey, precisionKey, context, summary.getSecond(), null);
+        return summary;
+      }
+    }
+
     if (aggressiveCaching) {
       result = unpreciseReachedCache.get(hash);
       if (result != null) {
         AbstractStateHash unpreciseHash = getHashCode(stateKey, result.getPrecision(result.getFirstState()), context);
         setLastAnalyzedBlock(unpreciseHash);
+        markUsed(unpreciseHash);
         return Pair.of(result, returnCache.get(unpreciseHash));
       }
 
@@ -168,8 +244,10 @@ public class BAMCache {
       if (pair != null) {
         //found similar element, use this
         unpreciseReachedCache.put(hash, pair.getFirst());
-        setLastAnalyzedBlock(getHashCode(stateKey, pair.getFirst().getPrecision(pair.getFirst().getFirstState()),
-                context));
+        AbstractStateHash similarHash = getHashCode(stateKey,
+            pair.getFirst().getPrecision(pair.getFirst().getFirstState()), context);
+        setLastAnalyzedBlock(similarHash);
+        markUsed(similarHash);
         return pair;
       }
     }
@@ -178,6 +256,153 @@ public class BAMCache {
     return Pair.of(null, null);
   }
 
+  private void markUsed(AbstractStateHash pHash) {
+    CacheEntryUsage entryUsage = usage.get(pHash); // get() updates the access order
+    if (entryUsage != null) {
+      entryUsage.hits++;
+    }
+  }
+
+  private void updateSize(AbstractStateHash pHash) {
+    CacheEntryUsage entryUsage = usage.get(pHash);
+    ReachedSet reached = preciseReachedCache.get(pHash);
+    if (entryUsage != null && reached != null) {
+      retainedStates += reached.size() - entryUsage.size;
+      entryUsage.size = reached.size();
+      maxRetainedStates = Math.max(maxRetainedStates, retainedStates);
+    }
+  }
+
+  /**
+   * Evict finished blocks from the cache until the number of retained states
+   * is within the configured bound.
+   * Blocks without return states (i.e., blocks that are currently analyzed or
+   * were partially removed by a refinement) are never evicted.
+   * @param pKeep The entry that was just updated and should not be evicted.
+   */
+  private void evictIfNecessary(AbstractStateHash pKeep) {
+    if (maxCachedStates <= 0) {
+      return;
+    }
+
+    while (retainedStates > maxCachedStates) {
+      AbstractStateHash victim = selectVictim(pKeep);
+      if (victim == null) {
+        return; // nothing left that could be evicted
+      }
+      evict(victim);
+    }
+  }
+
+  private AbstractStateHash selectVictim(AbstractStateHash pKeep) {
+    AbstractStateHash victim = null;
+    int victimHits = Integer.MAX_VALUE;
+
+    // iteration order of 'usage' is from least to most recently used
+    for (Map.Entry<AbstractStateHash, CacheEntryUsage> entry : usage.entrySet()) {
+      AbstractStateHash key = entry.getKey();
+      if (key.equals(pKeep) || !returnCache.containsKey(key)) {
+        continue;
+      }
+
+      switch (evictionPolicy) {
+      case LRU:
+        return key;
+      case LEAST_REUSED:
+        if (entry.getValue().hits < victimHits) {
+          victim = key;
+          victimHits = entry.getValue().hits;
+        }
+        break;
+      default:
+        throw new AssertionError("unhandled eviction policy " + evictionPolicy);
+      }
+    }
+    return victim;
+  }
+
+  /** Remove an entry consistently from all parts of the cache. */
+  private void evict(AbstractStateHash pHash) {
+    ReachedSet reached = preciseReachedCache.remove(pHash);
+    Collection<AbstractState> returnStates = returnCache.remove(pHash);
+    if (reached != null && returnStates != null && summaryStore.isEnabled()) {
+      // the block is finished, keep its summary for later runs
+      summaryStore.add(pHash.stateKey, pHash.precisionKey, pHash.context, reached, returnStates);
+    }
+    blockARGCache.remove(pHash);
+    CacheEntryUsage entryUsage = usage.remove(pHash);
+    if (entryUsage != null) {
+      retainedStates -= entryUsage.size;
+      evictedStates += entryUsage.size;
+    }
+
+    // unprecise entries are only shortcuts to precise entries
+    Iterator<ReachedSet> it = unpreciseReachedCache.values().iterator();
+    while (it.hasNext()) {
+      if (it.next() == reached) {
+        it.remove();
+      }
+    }
+
+    if (reached != null) {
+      evictedReachedSets.add(reached);
+    }
+    evictions++;
+    evictedKeys.add(pHash);
+  }
+
+  /**
+   * Return the reached sets that were evicted from the cache since the last call
+   * and forget about them.
+   * The caller has to drop all remaining references to these reached sets,
+   * otherwise the eviction does not free any memory.
+   */
+  List<ReachedSet> pollEvictedReachedSets() {
+    List<ReachedSet> result = ImmutableList.copyOf(evictedReachedSets);
+    evictedReachedSets.clear();
+    return result;
+  }
+
+  int getRetainedStates() {
+    return retainedStates;
+  }
+
+  /**
+   * Get the approximate number of states retained in the cache per block,
+   * i.e., the sum of the sizes of all cached reached sets for each block.
+   */
+  Map<Block, Integer> getRetainedStatesPerBlock() {
+    Map<Block, Integer> result = new HashMap<>();
+    for (Map.Entry<AbstractStateHash, CacheEntryUsage> entry : usage.entrySet()) {
+      Block block = entry.getKey().context;
+      Integer old = result.get(block);
+      result.put(block, (old == null ? 0 : old) + entry.getValue().size);
+    }
+    return result;
+  }
+
+  /**
+   * Write the summaries of all finished blocks to the persistent summary store, if enabled.
+   * Summaries of evicted blocks were already added to the store on eviction.
+   */
+  void writeSummaries() {
+    if (!summaryStore.isEnabled()) {
+      return;
+    }
+    for (Map.Entry<AbstractStateHash, ReachedSet> entry : preciseReachedCache.entrySet()) {
+      AbstractStateHash hash = entry.getKey();
+      Collection<AbstractState> returnStates = returnCache.get(hash);
+      if (returnStates != null) {
+        summaryStore.add(hash.stateKey, hash.precisionKey, hash.context, entry.getValue(), returnStates);
+      }
+    }
+    summaryStore.writeSummaries();
+  }
+
+  BAMBlockSummaryStore getSummaryStore() {
+    return summaryStore;
+  }
+
   private void setLastAnalyzedBlock(AbstractStateHash pHash) {
     if (BAMTransferRelation.PCCInformation.isPCCEnabled()) {
       lastAnalyzedBlock = blockARGCache.get(pHash);
@@ -239,6 +464,10 @@ public class BAMCache {
     preciseReachedCache.clear();
     unpreciseReachedCache.clear();
     returnCache.clear();
+    usage.clear();
+    evictedKeys.clear();
+    evictedReachedSets.clear();
+    retainedStates = 0;
   }
 
   public boolean containsPreciseKey(AbstractState stateKey, Precision precisionKey, Block context) {
@@ -251,8 +480,17 @@ public class BAMCache {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     ReachedSet reachedSet = preciseReachedCache.get(hash);
     if (reachedSet != null) {
+      AbstractStateHash newHash = getHashCode(stateKey, newPrecisionKey, context);
       preciseReachedCache.remove(hash);
-      preciseReachedCache.put(getHashCode(stateKey, newPrecisionKey, context), reachedSet);
+      preciseReachedCache.put(newHash, reachedSet);
+
+      CacheEntryUsage entryUsage = usage.remove(hash);
+      if (entryUsage != null) {
+        CacheEntryUsage replaced = usage.put(newHash, entryUsage);
+        if (replaced != null) {
+          retainedStates -= replaced.size;
+        }
+      }
     }
   }
 
@@ -107,6 +107,10 @@ public class BAMTransferRelation implements TransferRelation {
   final Map<AbstractState, AbstractState> expandedToReducedCache = new HashMap<>();
   final Map<AbstractState, Block> expandedToBlockCache = new HashMap<>();
 
+  // reverse indices of the caches above, for removing evicted reached sets
+  final Multimap<ReachedSet, AbstractState> reachedSetToAbstractStates = HashMultimap.create();
+  final Multimap<AbstractState, AbstractState> reducedToExpandedCache = HashMultimap.create();
+
   protected Block currentBlock;
   protected BlockPartitioning partitioning;
   protected int depth = 0;
@@ -341,7 +345,7 @@ public class BAMTransferRelation implements TransferRelation {
 
       AbstractState expandedState =
               wrappedReducer.getVariableExpandedState(state, currentBlock, reducedState);
-      expandedToReducedCache.put(expandedState, reducedState);
+      putReducedState(expandedState, reducedState, expandedToReducedCache, reducedToExpandedCache);
       expandedToBlockCache.put(expandedState, currentBlock);
 
       Precision expandedPrecision =
@@ -415,7 +419,7 @@ public class BAMTransferRelation implements TransferRelation {
     }
 
     assert reached != null;
-    abstractStateToReachedSet.put(initialState, reached);
+    putReachedSet(initialState, reached, abstractStateToReachedSet, reachedSetToAbstractStates);
 
     ARGState rootOfBlock = null;
     if (PCCInformation.isPCCEnabled()) {
@@ -428,6 +432,10 @@ public class BAMTransferRelation implements TransferRelation {
     // use 'reducedResult' for cache and 'statesForFurtherAnalysis' as return value,
     // both are always equal, except analysis of recursive procedures (@fixpoint-algorithm)
     argCache.put(reducedInitialState, reached.getPrecision(reached.getFirstState()), currentBlock, reducedResult, rootOfBlock);
+    for (ReachedSet evicted : argCache.pollEvictedReachedSets()) {
+      removeReachedSetFromCaches(evicted, abstractStateToReachedSet, reachedSetToAbstractStates,
+          expandedToReducedCache, reducedToExpandedCache, expandedToBlockCache);
+    }
 
     return imbueAbstractStatesWithPrecision(reached, statesForFurtherAnalysis);
   }
@@ -442,7 +450,8 @@ public class BAMTransferRelation implements TransferRelation {
   void replaceStateInCaches(AbstractState oldState, AbstractState newState, boolean oldStateMustExist) {
     if (oldStateMustExist || expandedToReducedCache.containsKey(oldState)) {
       final AbstractState reducedState = expandedToReducedCache.remove(oldState);
-      expandedToReducedCache.put(newState, reducedState);
+      reducedToExpandedCache.remove(reducedState, oldState);
+      putReducedState(newState, reducedState, expandedToReducedCache, reducedToExpandedCache);
     }
 
     if (oldStateMustExist || expandedToBlockCache.containsKey(oldState)) {
@@ -456,6 +465,73 @@ public class BAMTransferRelation implements TransferRelation {
     }
   }
 
+  /**
+   * Remove all references to a reached set that was evicted from the {@link BAMCache},
+   * such that the reached set and its states can be garbage collected.
+   * Expanded states outside of the reached set keep their block information,
+   * so that the counterexample computation can detect the evicted block as missing block
+   * and trigger its recomputation.
+   */
+  static void removeReachedSetFromCaches(final ReachedSet pEvicted,
+      final Map<AbstractState, ReachedSet> pAbstractStateToReachedSet,
+      final Multimap<ReachedSet, AbstractState> pReachedSetToAbstractStates,
+      final Map<AbstractState, AbstractState> pExpandedToReducedCache,
+      final Multimap<AbstractState, AbstractState> pReducedToExpandedCache,
+      final Map<AbstractState, Block> pExpandedToBlockCache) {
+
+    // entries of the states from which the evicted block was entered
+    for (AbstractState state : pReachedSetToAbstractStates.removeAll(pEvicted)) {
+      if (pAbstractStateToReachedSet.get(state) == pEvicted) {
+        pAbstractStateToReachedSet.remove(state);
+      }
+    }
+
+    for (AbstractState state : pEvicted) {
+      // entries of blocks that were entered from inside the evicted block
+      ReachedSet innerReachedSet = pAbstractStateToReachedSet.remove(state);
+      if (innerReachedSet != null) {
+        pReachedSetToAbstractStates.remove(innerReachedSet, state);
+      }
+
+      // expanded states inside the evicted block
+      AbstractState reducedState = pExpandedToReducedCache.remove(state);
+      if (reducedState != null) {
+        pReducedToExpandedCache.remove(reducedState, state);
+      }
+
+      // expanded states outside of the evicted block for its exit states
+      for (AbstractState expandedState : pReducedToExpandedCache.removeAll(state)) {
+        if (state.equals(pExpandedToReducedCache.get(expandedState))) {
+          pExpandedToReducedCache.remove(expandedState);
+        }
+      }
+    }
+
+    pExpandedToBlockCache.keySet().removeAll(pEvicted.asCollection());
+  }
+
+  /** Add an entry to the map from block entry states to reached sets and to its reverse index. */
+  static void putReachedSet(AbstractState pState, ReachedSet pReached,
+      Map<AbstractState, ReachedSet> pAbstractStateToReachedSet,
+      Multimap<ReachedSet, AbstractState> pReachedSetToAbstractStates) {
+    ReachedSet oldReached = pAbstractStateToReachedSet.put(pState, pReached);
+    if (oldReached != null && oldReached != pReached) {
+      pReachedSetToAbstractStates.remove(oldReached, pState);
+    }
+    pReachedSetToAbstractStates.put(pReached, pState);
+  }
+
+  /** Add an entry to the map from expanded to reduced states and to its reverse index. */
+  static void putReducedState(AbstractState pExpandedState, AbstractState pReducedState,
+      Map<AbstractState, AbstractState> pExpandedToReducedCache,
+      Multimap<AbstractState, AbstractState> pReducedToExpandedCache) {
+    AbstractState oldReducedState = pExpandedToReducedCache.put(pExpandedState, pReducedState);
+    if (oldReducedState != null && !oldReducedState.equals(pReducedState)) {
+      pReducedToExpandedCache.remove(oldReducedState, pExpandedState);
+    }
+    pReducedToExpandedCache.put(pReducedState, pExpandedState);
+  }
+
   /** checks, if the current state is at a node, where several block-exits are available and
    * one of them was already left. */
   private boolean alreadyReturnedFromSameBlock(AbstractState state, Block block) {
@@ -605,6 +681,7 @@ public class BAMTransferRelation implements TransferRelation {
   void clearCaches() {
     argCache.clear();
     abstractStateToReachedSet.clear();
+    reachedSetToAbstractStates.clear();
   }
 
   Pair<Block, ReachedSet> getCachedReachedSet(ARGState root, Precision rootPrecision) {
@@ -0,0 +1,175 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.reachedset.PartitionedReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
+public class BAMTransferRelationTest {
+
+  private static class TestState implements AbstractState, Partitionable {
+
+    @Override
+    public Object getPartitionKey() {
+      return this;
+    }
+  }
+
+  private final Map<AbstractState, ReachedSet> abstractStateToReachedSet = new HashMap<>();
+  private final Multimap<ReachedSet, AbstractState> reachedSetToAbstractStates = HashMultimap.create();
+  private final Map<AbstractState, AbstractState> expandedToReducedCache = new HashMap<>();
+  private final Multimap<AbstractState, AbstractState> reducedToExpandedCache = HashMultimap.create();
+  private final Map<AbstractState, Block> expandedToBlockCache = new HashMap<>();
+
+  private Precision precision;
+  private Block block;
+
+  @Before
+  public void setUp() {
+    precision = mock(Precision.class);
+    block = mock(Block.class);
+  }
+
+  /**
+   * Simulate the analysis of a block: the outer state 'call' enters the block,
+   * whose reached set contains 'entry' and 'exit', and 'expanded' is the expanded exit state.
+   * The block itself contains a call to an inner block.
+   */
+  private ReachedSet analyzeBlock(AbstractState call, AbstractState expanded, ReachedSet inner) {
+    AbstractState entry = new TestState();
+    AbstractState exit = new TestState();
+    AbstractState innerCall = new TestState();
+    AbstractState innerExpanded = new TestState();
+
+    ReachedSet reached = new PartitionedReachedSet(TraversalMethod.DFS);
+    reached.add(entry, precision);
+    reached.add(innerCall, precision);
+    reached.add(innerExpanded, precision);
+    reached.add(exit, precision);
+
+    BAMTransferRelation.putReachedSet(call, reached, abstractStateToReachedSet, reachedSetToAbstractStates);
+    BAMTransferRelation.putReducedState(expanded, exit, expandedToReducedCache, reducedToExpandedCache);
+    expandedToBlockCache.put(expanded, block);
+
+    BAMTransferRelation.putReachedSet(innerCall, inner, abstractStateToReachedSet, reachedSetToAbstractStates);
+    BAMTransferRelation.putReducedState(innerExpanded, inner.getLastState(),
+        expandedToReducedCache, reducedToExpandedCache);
+    expandedToBlockCache.put(innerExpanded, block);
+    return reached;
+  }
+
+  private void removeReachedSetFromCaches(ReachedSet pEvicted) {
+    BAMTransferRelation.removeReachedSetFromCaches(pEvicted,
+        abstractStateToReachedSet, reachedSetToAbstractStates,
+        expandedToReducedCache, reducedToExpandedCache, expandedToBlockCache);
+  }
+
+  private ReachedSet createInnerBlock() {
+    ReachedSet inner = new PartitionedReachedSet(TraversalMethod.DFS);
+    inner.add(new TestState(), precision);
+    inner.add(new TestState(), precision);
+    return inner;
+  }
+
+  @Test
+  public void evictedReachedSetBecomesUnreachable() {
+    ReachedSet inner = createInnerBlock();
+    AbstractState evictedCall = new TestState();
+    AbstractState evictedExpanded = new TestState();
+    ReachedSet evicted = analyzeBlock(evictedCall, evictedExpanded, inner);
+    AbstractState keptCall = new TestState();
+    AbstractState keptExpanded = new TestState();
+    ReachedSet kept = analyzeBlock(keptCall, keptExpanded, inner);
+
+    WeakReference<ReachedSet> evictedRef = new WeakReference<>(evicted);
+    WeakReference<AbstractState> evictedStateRef = new WeakReference<>(evicted.getLastState());
+
+    removeReachedSetFromCaches(evicted);
+    evicted = null;
+
+    // the expanded state outside of the evicted block still knows its block
+    assertThat(expandedToBlockCache).containsKey(evictedExpanded);
+    assertThat(expandedToReducedCache).doesNotContainKey(evictedExpanded);
+    assertThat(abstractStateToReachedSet).doesNotContainKey(evictedCall);
+
+    // the other block is unaffected
+    assertThat(abstractStateToReachedSet.get(keptCall)).isSameAs(kept);
+    assertThat(expandedToReducedCache.get(keptExpanded)).isSameAs(kept.getLastState());
+
+    for (int i = 0; i < 10 && (evictedRef.get() != null || evictedStateRef.get() != null); i++) {
+      System.gc();
+    }
+    assertThat(evictedRef.get()).named("evicted reached set").isNull();
+    assertThat(evictedStateRef.get()).named("state of evicted reached set").isNull();
+  }
+
+  @Test
+  public void statesOfEvictedReachedSetAreRemoved() {
+    ReachedSet inner = createInnerBlock();
+    ReachedSet outer = analyzeBlock(new TestState(), new TestState(), inner);
+
+    removeReachedSetFromCaches(outer);
+
+    for (AbstractState state : outer) {
+      assertThat(abstractStateToReachedSet).doesNotContainKey(state);
+      assertThat(expandedToReducedCache).doesNotContainKey(state);
+      assertThat(expandedToBlockCache).doesNotContainKey(state);
+    }
+    assertThat(abstractStateToReachedSet).isEmpty();
+    assertThat(expandedToReducedCache).isEmpty();
+    assertThat(reachedSetToAbstractStates.isEmpty()).named("reverse index is empty").isTrue();
+    assertThat(reducedToExpandedCache.isEmpty()).named("reverse index is empty").isTrue();
+  }
+
+  @Test
+  public void replacedEntriesAreNotRemovedWithOldReachedSet() {
+    ReachedSet inner = createInnerBlock();
+    AbstractState call = new TestState();
+    AbstractState expanded = new TestState();
+    ReachedSet old = analyzeBlock(call, expanded, inner);
+    ReachedSet current = analyzeBlock(call, expanded, inner);
+
+    removeReachedSetFromCaches(old);
+
+    assertThat(abstractStateToReachedSet.get(call)).isSameAs(current);
+    assertThat(expandedToReducedCache.get(expanded)).isSameAs(current.getLastState());
+  }
+}
@@ -328,7 +328,7 @@ public class BAMTransferRelationWithFixPointForRecursion extends BAMTransferRela
       logger.logf(Level.FINEST, "skipping recursive call with cached result");
     }
 
-    abstractStateToReachedSet.put(initialState, reached);
+    putReachedSet(initialState, reached, abstractStateToReachedSet, reachedSetToAbstractStates);
 
     addBlockAnalysisInfo(pReducedInitialState);
 
@@ -36,7 +36,6 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
-import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
 import org.sosy_lab.cpachecker.cfa.ast.AExpression;
 import org.sosy_lab.cpachecker.cfa.ast.AFunctionCall;
 import org.sosy_lab.cpachecker.cfa.ast.AFunctionCallStatement;
@@ -53,16 +52,19 @@ import org.sosy_lab.cpachecker.cfa.postprocessing.global.singleloop.CFASingleLoo
 import org.sosy_lab.cpachecker.cfa.postprocessing.global.singleloop.ProgramCounterValueAssumeEdge;
 import org.sosy_lab.cpachecker.core.defaults.SingleEdgeTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConcurrentTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.exceptions.UnsupportedCodeException;
 import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.ConcurrentLogOnce;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
 
 @Options(prefix="cpa.callstack")
-public class CallstackTransferRelation extends SingleEdgeTransferRelation {
+public class CallstackTransferRelation extends SingleEdgeTransferRelation
+    implements ConcurrentTransferRelation {
 
   // set of functions that may not appear in the source code
   // the value of the map entry is the explanation for the user
@@ -94,11 +96,13 @@ public class CallstackTransferRelation extends SingleEdgeTransferRelation {
   @Option(secure=true, description = "Skip recursion if it happens only by going via a void function (this is unsound).")
   protected boolean skipVoidRecursion = false;
 
-  protected final LogManagerWithoutDuplicates logger;
+  protected final LogManager logger;
+  protected final ConcurrentLogOnce onceLogger;
 
   public CallstackTransferRelation(Configuration config, LogManager pLogger) throws InvalidConfigurationException {
     config.inject(this);
-    logger = new LogManagerWithoutDuplicates(pLogger);
+    logger = pLogger;
+    onceLogger = new ConcurrentLogOnce(pLogger);
   }
 
   @Override
@@ -165,7 +169,7 @@ public class CallstackTransferRelation extends SingleEdgeTransferRelation {
         if (hasRecursion(e, calledFunction)) {
           if (skipRecursiveFunctionCall(e, (FunctionCallEdge)pEdge)) {
             // skip recursion, don't enter function
-            logger.logOnce(Level.WARNING, "Skipping recursive function call from",
+            onceLogger.logOnce(Level.WARNING, "Skipping recursive function call from",
                 pred.getFunctionName(), "to", calledFunction);
             return Collections.emptySet();
           } else {
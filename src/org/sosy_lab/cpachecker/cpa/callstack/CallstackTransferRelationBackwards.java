@@ -111,7 +111,7 @@ public class CallstackTransferRelationBackwards extends CallstackTransferRelatio
       CFANode correspondingCallNode = edge.getSummaryEdge().getPredecessor();
         if (hasRecursion(e, nextAnalysisFunction)) {
           if (skipRecursion) {
-            logger.logOnce(
+            onceLogger.logOnce(
                 Level.WARNING, "Skipping recursive function call from",
                 prevAnalysisFunction, "to", nextAnalysisFunction);
 
@@ -25,7 +25,9 @@ package org.sosy_lab.cpachecker.cpa.composite;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -38,6 +40,7 @@ import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
 import org.sosy_lab.cpachecker.core.defaults.SimplePrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AnalysisTerminationListener;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
@@ -49,17 +52,19 @@ import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperCPA;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractionManager;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
-public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProvider, WrapperCPA, ConfigurableProgramAnalysisWithBAM, ProofChecker {
+public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProvider, WrapperCPA, ConfigurableProgramAnalysisWithBAM, ProofChecker, ThreadSafeCPA, AnalysisTerminationListener, AutoCloseable {
 
   @Options(prefix="cpa.composite")
   private static class CompositeOptions {
@@ -159,8 +164,10 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
             new CompositePrecisionAdjustment(precisionAdjustments.build());
       }
 
+      OperatorProfiler profiler = new OperatorProfiler(getConfiguration(), getLogger());
+
       return new CompositeCPA(compositeDomain, compositeTransfer, compositeMerge, compositeStop,
-          compositePrecisionAdjustment, cpas);
+          compositePrecisionAdjustment, cpas, profiler);
     }
 
     @Override
@@ -198,6 +205,7 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
   private final CompositeStopOperator stopOperator;
   private final PrecisionAdjustment precisionAdjustment;
   private final Reducer reducer;
+  private final OperatorProfiler profiler;
 
   private final ImmutableList<ConfigurableProgramAnalysis> cpas;
 
@@ -206,13 +214,18 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
       MergeOperator mergeOperator,
       CompositeStopOperator stopOperator,
       PrecisionAdjustment precisionAdjustment,
-      ImmutableList<ConfigurableProgramAnalysis> cpas) {
+      ImmutableList<ConfigurableProgramAnalysis> cpas,
+      OperatorProfiler profiler) {
     this.abstractDomain = abstractDomain;
     this.transferRelation = transferRelation;
     this.mergeOperator = mergeOperator;
     this.stopOperator = stopOperator;
     this.precisionAdjustment = precisionAdjustment;
     this.cpas = cpas;
+    this.profiler = profiler;
+    if (profiler.isEnabled()) {
+      setOperatorProfiler();
+    }
 
     List<Reducer> wrappedReducers = new ArrayList<>();
     for (ConfigurableProgramAnalysis cpa : cpas) {
@@ -294,6 +307,58 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
     if (precisionAdjustment instanceof StatisticsProvider) {
       ((StatisticsProvider)precisionAdjustment).collectStatistics(pStatsCollection);
     }
+
+    transferRelation.collectStatistics(pStatsCollection);
+  }
+
+  @Override
+  public void close() {
+    transferRelation.close();
+  }
+
+  /**
+   * Return the profiler for the operators of this analysis.
+   * The profiler is disabled unless the user requested profiling.
+   */
+  public OperatorProfiler getOperatorProfiler() {
+    return profiler;
+  }
+
+  @Override
+  public void afterAnalysis() {
+    profiler.writeProfile();
+  }
+
+  /**
+   * Measure the operators of the components with the profiler.
+   * Components of the same class are distinguished by their index.
+   */
+  private void setOperatorProfiler() {
+    List<String> names = new ArrayList<>(cpas.size());
+    Set<String> duplicateNames = new HashSet<>();
+    for (ConfigurableProgramAnalysis cpa : cpas) {
+      String name = cpa.getClass().getSimpleName();
+      if (names.contains(name)) {
+        duplicateNames.add(name);
+      }
+      names.add(name);
+    }
+    for (int i = 0; i < names.size(); i++) {
+      if (duplicateNames.contains(names.get(i))) {
+        names.set(i, names.get(i) + "#" + i);
+      }
+    }
+
+    transferRelation.setOperatorProfiler(profiler, names);
+    stopOperator.setOperatorProfiler(profiler, names);
+    if (mergeOperator instanceof CompositeMergeAgreeOperator) {
+      ((CompositeMergeAgreeOperator)mergeOperator).setOperatorProfiler(profiler, names);
+    } else if (mergeOperator instanceof CompositeMergePlainOperator) {
+      ((CompositeMergePlainOperator)mergeOperator).setOperatorProfiler(profiler, names);
+    }
+    if (precisionAdjustment instanceof CompositePrecisionAdjustment) {
+      ((CompositePrecisionAdjustment)precisionAdjustment).setOperatorProfiler(profiler, names);
+    }
   }
 
   @Override
@@ -23,11 +23,13 @@
  */
 package org.sosy_lab.cpachecker.cpa.composite;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Predicates.instanceOf;
 import static com.google.common.collect.FluentIterable.from;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
@@ -35,6 +37,10 @@ import org.sosy_lab.cpachecker.core.interfaces.NonMergeableAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Operator;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Probe;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Sample;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
@@ -59,9 +65,20 @@ public class CompositeMergeAgreeOperator implements MergeOperator {
   private final ImmutableList<MergeOperator> mergeOperators;
   private final ImmutableList<StopOperator> stopOperators;
 
+  private List<Probe> probes;
+
   public CompositeMergeAgreeOperator(ImmutableList<MergeOperator> mergeOperators, ImmutableList<StopOperator> stopOperators) {
     this.mergeOperators = mergeOperators;
     this.stopOperators  = stopOperators;
+    probes = OperatorProfiler.disabledProbes(Operator.MERGE, mergeOperators.size());
+  }
+
+  /**
+   * Measure the merge operators of the components with the given profiler.
+   */
+  void setOperatorProfiler(OperatorProfiler pProfiler, List<String> pComponentNames) {
+    checkArgument(pComponentNames.size() == mergeOperators.size());
+    probes = pProfiler.getProbes(Operator.MERGE, pComponentNames);
   }
 
   @Override
@@ -87,6 +104,7 @@ public class CompositeMergeAgreeOperator implements MergeOperator {
     Iterator<AbstractState> comp1Iter = compSuccessorState.getWrappedStates().iterator();
     Iterator<AbstractState> comp2Iter = compReachedState.getWrappedStates().iterator();
     Iterator<Precision> precIter      = compPrecision.getPrecisions().iterator();
+    Iterator<Probe> probeIter         = probes.iterator();
 
     boolean identicalStates = true;
     for (MergeOperator mergeOp : mergeOperators) {
@@ -95,8 +113,15 @@ public class CompositeMergeAgreeOperator implements MergeOperator {
 
       Precision prec      = precIter.next();
       StopOperator stopOp = stopIter.next();
-
-      AbstractState mergedState = mergeOp.merge(absSuccessorState, absReachedState, prec);
+      Probe probe         = probeIter.next();
+
+      AbstractState mergedState;
+      Sample sample = probe.start();
+      try {
+        mergedState = mergeOp.merge(absSuccessorState, absReachedState, prec);
+      } finally {
+        probe.stop(sample);
+      }
 
       // Check if 'mergedState' also covers 'absSuccessorState', i.e., if 'mergeOp' performed a join.
       // By definition of MergeOperator, we know it covers 'absReachedState'.
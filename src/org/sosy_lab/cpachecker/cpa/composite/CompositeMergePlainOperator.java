@@ -23,12 +23,19 @@
  */
 package org.sosy_lab.cpachecker.cpa.composite;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.Iterator;
+import java.util.List;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Operator;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Probe;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Sample;
 
 import com.google.common.collect.ImmutableList;
 
@@ -40,8 +47,19 @@ public class CompositeMergePlainOperator implements MergeOperator {
 
   private final ImmutableList<MergeOperator> mergeOperators;
 
+  private List<Probe> probes;
+
   public CompositeMergePlainOperator(ImmutableList<MergeOperator> mergeOperators) {
     this.mergeOperators = mergeOperators;
+    probes = OperatorProfiler.disabledProbes(Operator.MERGE, mergeOperators.size());
+  }
+
+  /**
+   * Measure the merge operators of the components with the given profiler.
+   */
+  void setOperatorProfiler(OperatorProfiler pProfiler, List<String> pComponentNames) {
+    checkArgument(pComponentNames.size() == mergeOperators.size());
+    probes = pProfiler.getProbes(Operator.MERGE, pComponentNames);
   }
 
   @Override
@@ -60,12 +78,21 @@ public class CompositeMergePlainOperator implements MergeOperator {
     Iterator<AbstractState> iter1 = compSuccessorState.getWrappedStates().iterator();
     Iterator<AbstractState> iter2 = compReachedState.getWrappedStates().iterator();
     Iterator<Precision> iterPrec  = compPrecision.getPrecisions().iterator();
+    Iterator<Probe> iterProbe     = probes.iterator();
 
     boolean identicalStates = true;
     for (MergeOperator mergeOp : mergeOperators) {
       AbstractState absSuccessorState = iter1.next();
       AbstractState absReachedState   = iter2.next();
-      AbstractState mergedState       = mergeOp.merge(absSuccessorState, absReachedState, iterPrec.next());
+      Probe probe                     = iterProbe.next();
+
+      AbstractState mergedState;
+      Sample sample = probe.start();
+      try {
+        mergedState = mergeOp.merge(absSuccessorState, absReachedState, iterPrec.next());
+      } finally {
+        probe.stop(sample);
+      }
 
       if (mergedState != absReachedState) {
         identicalStates = false;
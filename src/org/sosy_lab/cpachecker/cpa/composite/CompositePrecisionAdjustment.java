@@ -23,6 +23,10 @@
  */
 package org.sosy_lab.cpachecker.cpa.composite;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
@@ -30,6 +34,10 @@ import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Operator;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Probe;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Sample;
 
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
@@ -41,6 +49,8 @@ public class CompositePrecisionAdjustment implements PrecisionAdjustment {
   protected final ImmutableList<StateProjectionFunction> stateProjectionFunctions;
   protected final ImmutableList<PrecisionProjectionFunction> precisionProjectionFunctions;
 
+  private List<Probe> probes;
+
   public CompositePrecisionAdjustment(ImmutableList<PrecisionAdjustment> precisionAdjustments) {
     this.precisionAdjustments = precisionAdjustments;
 
@@ -53,6 +63,15 @@ public class CompositePrecisionAdjustment implements PrecisionAdjustment {
     }
     this.stateProjectionFunctions = stateProjectionFunctions.build();
     this.precisionProjectionFunctions = precisionProjectionFunctions.build();
+    probes = OperatorProfiler.disabledProbes(Operator.PREC, precisionAdjustments.size());
+  }
+
+  /**
+   * Measure the precision adjustment operators of the components with the given profiler.
+   */
+  void setOperatorProfiler(OperatorProfiler pProfiler, List<String> pComponentNames) {
+    checkArgument(pComponentNames.size() == precisionAdjustments.size());
+    probes = pProfiler.getProbes(Operator.PREC, pComponentNames);
   }
 
   protected static class StateProjectionFunction
@@ -109,11 +128,18 @@ public class CompositePrecisionAdjustment implements PrecisionAdjustment {
       PrecisionAdjustment precisionAdjustment = precisionAdjustments.get(i);
       AbstractState oldElement = comp.get(i);
       Precision oldPrecision = prec.get(i);
-      Optional<PrecisionAdjustmentResult> out = precisionAdjustment.prec(
-          oldElement, oldPrecision, pElements,
-          Functions.compose(stateProjectionFunctions.get(i), projection),
-          fullState
-      );
+      Probe probe = probes.get(i);
+      Optional<PrecisionAdjustmentResult> out;
+      Sample sample = probe.start();
+      try {
+        out = precisionAdjustment.prec(
+            oldElement, oldPrecision, pElements,
+            Functions.compose(stateProjectionFunctions.get(i), projection),
+            fullState
+        );
+      } finally {
+        probe.stop(sample);
+      }
 
       if (!out.isPresent()) {
         return Optional.absent();
@@ -36,6 +36,10 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Operator;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Probe;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Sample;
 
 import com.google.common.collect.ImmutableList;
 
@@ -43,8 +47,19 @@ public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOp
 
   protected final ImmutableList<StopOperator> stopOperators;
 
+  private List<Probe> probes;
+
   public CompositeStopOperator(ImmutableList<StopOperator> stopOperators) {
     this.stopOperators = stopOperators;
+    probes = OperatorProfiler.disabledProbes(Operator.STOP, stopOperators.size());
+  }
+
+  /**
+   * Measure the stop operators of the components with the given profiler.
+   */
+  void setOperatorProfiler(OperatorProfiler pProfiler, List<String> pComponentNames) {
+    checkArgument(pComponentNames.size() == stopOperators.size());
+    probes = pProfiler.getProbes(Operator.STOP, pComponentNames);
   }
 
   @Override
@@ -74,7 +89,15 @@ public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOp
       AbstractState absElem2 = compositeReachedStates.get(idx);
       Precision prec = compositePrecisions.get(idx);
 
-      if (!stopOp.stop(absElem1, Collections.singleton(absElem2), prec)) {
+      Probe probe = probes.get(idx);
+      Sample sample = probe.start();
+      boolean stop;
+      try {
+        stop = stopOp.stop(absElem1, Collections.singleton(absElem2), prec);
+      } finally {
+        probe.stop(sample);
+      }
+      if (!stop) {
         return false;
       }
     }
@@ -27,38 +27,112 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.AbstractStates.extractStateByType;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithLocation;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.ConcurrentTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.assumptions.storage.AssumptionStorageTransferRelation;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Operator;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Probe;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Sample;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 @Options(prefix="cpa.composite")
-public final class CompositeTransferRelation implements TransferRelation {
+public final class CompositeTransferRelation implements TransferRelation, StatisticsProvider, AutoCloseable {
+
+  /**
+   * Time and number of calls of the operators of one component CPA.
+   * These are always counted (independently of the operator profiler),
+   * and updated atomically because the transfer relation may be called
+   * from several threads.
+   */
+  private static class ComponentStatistics {
+
+    private final String name;
+    private final AtomicLong transferTime = new AtomicLong();
+    private final AtomicInteger transferCount = new AtomicInteger();
+    private final AtomicLong strengthenTime = new AtomicLong();
+    private final AtomicInteger strengthenCount = new AtomicInteger();
+
+    private ComponentStatistics(String pName) {
+      name = pName;
+    }
+  }
+
+  private class CompositeTransferStatistics implements Statistics {
+
+    @Override
+    public String getName() {
+      return "CompositeCPA";
+    }
+
+    @Override
+    public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
+      if (executor != null) {
+        out.println("Number of threads for component transfer: " + transferThreads);
+        out.println("Number of concurrent component transfers:  " + concurrentTransfers.get());
+      }
+      out.println("Time for transfer relation per component:");
+      for (int i = 0; i < size; i++) {
+        ComponentStatistics component = componentStats.get(i);
+        out.println("  " + i + " " + component.name + ": "
+            + TimeSpan.ofNanos(component.transferTime.get()).formatAs(TimeUnit.SECONDS)
+            + " (calls: " + component.transferCount.get() + ")");
+      }
+      out.println("Time for strengthen per component:");
+      for (int i = 0; i < size; i++) {
+        ComponentStatistics component = componentStats.get(i);
+        out.println("  " + i + " " + component.name + ": "
+            + TimeSpan.ofNanos(component.strengthenTime.get()).formatAs(TimeUnit.SECONDS)
+            + " (calls: " + component.strengthenCount.get() + ")");
+      }
+    }
+  }
 
   @Option(secure=true,
       description="Split MultiEdges and pass each inner edge to the component CPAs"
@@ -66,8 +140,21 @@ public final class CompositeTransferRelation implements TransferRelation {
           + " Does not work with backwards analysis!")
   private boolean splitMultiEdges = false;
 
+  @Option(secure=true,
+      description="Number of threads for computing the successors and strengthened states"
+          + " of the component CPAs concurrently, 0 for computing them one after another."
+          + " Only components whose transfer relation implements ConcurrentTransferRelation"
+          + " are computed in separate threads.")
+  @IntegerOption(min=0)
+  private int transferThreads = 0;
+
   private final ImmutableList<TransferRelation> transferRelations;
   private final int size;
+  private final boolean[] concurrentComponents;
+  private final @Nullable ExecutorService executor;
+  private final AtomicInteger concurrentTransfers = new AtomicInteger();
+  private final ImmutableList<ComponentStatistics> componentStats;
+  private List<Probe> probes;
   private int assumptionIndex = -1;
   private int predicatesIndex = -1;
   private final boolean isErrorStateDetectableInStrengthening;
@@ -80,9 +167,18 @@ public final class CompositeTransferRelation implements TransferRelation {
 
     isErrorStateDetectableInStrengthening = pErrorDetctableInStrengthen;
 
+    concurrentComponents = new boolean[size];
+    boolean hasConcurrentComponent = false;
+    ImmutableList.Builder<ComponentStatistics> componentStatsBuilder = ImmutableList.builder();
+
     // prepare special case handling if both predicates and assumptions are used
     for (int i = 0; i < size; i++) {
       TransferRelation t = transferRelations.get(i);
+      componentStatsBuilder.add(new ComponentStatistics(t.getClass().getSimpleName()));
+      if (t instanceof ConcurrentTransferRelation) {
+        concurrentComponents[i] = true;
+        hasConcurrentComponent = true;
+      }
       if (t instanceof PredicateTransferRelation) {
         predicatesIndex = i;
       }
@@ -90,6 +186,24 @@ public final class CompositeTransferRelation implements TransferRelation {
         assumptionIndex = i;
       }
     }
+    componentStats = componentStatsBuilder.build();
+    probes = OperatorProfiler.disabledProbes(Operator.TRANSFER, size);
+
+    if (transferThreads > 0 && hasConcurrentComponent && size > 1) {
+      executor = Executors.newFixedThreadPool(transferThreads,
+          new ThreadFactoryBuilder().setNameFormat("Composite transfer thread %d").setDaemon(true).build());
+    } else {
+      executor = null;
+    }
+  }
+
+  /**
+   * Measure the transfer relations (including strengthening)
+   * of the components with the given profiler.
+   */
+  void setOperatorProfiler(OperatorProfiler pProfiler, List<String> pComponentNames) {
+    checkArgument(pComponentNames.size() == size);
+    probes = pProfiler.getProbes(Operator.TRANSFER, pComponentNames);
   }
 
   @Override
@@ -170,22 +284,30 @@ public final class CompositeTransferRelation implements TransferRelation {
     checkArgument(componentElements.size() == size, "State with wrong number of component states given");
     List<Collection<? extends AbstractState>> allComponentsSuccessors = new ArrayList<>(size);
 
-    for (int i = 0; i < size; i++) {
-      TransferRelation lCurrentTransfer = transferRelations.get(i);
-      AbstractState lCurrentElement = componentElements.get(i);
-      Precision lCurrentPrecision = compositePrecision.get(i);
-
-      Collection<? extends AbstractState> componentSuccessors;
-      componentSuccessors = lCurrentTransfer.getAbstractSuccessorsForEdge(
-          lCurrentElement, lCurrentPrecision, cfaEdge);
-      resultCount *= componentSuccessors.size();
+    if (executor != null) {
+      allComponentsSuccessors = getComponentSuccessorsConcurrently(componentElements, compositePrecision, cfaEdge);
+      for (Collection<? extends AbstractState> componentSuccessors : allComponentsSuccessors) {
+        resultCount *= componentSuccessors.size();
 
-      if (resultCount == 0) {
-        // shortcut
-        break;
+        if (resultCount == 0) {
+          // shortcut
+          break;
+        }
       }
 
-      allComponentsSuccessors.add(componentSuccessors);
+    } else {
+      for (int i = 0; i < size; i++) {
+        Collection<? extends AbstractState> componentSuccessors = getComponentSuccessors(
+            i, componentElements.get(i), compositePrecision.get(i), cfaEdge);
+        resultCount *= componentSuccessors.size();
+
+        if (resultCount == 0) {
+          // shortcut
+          break;
+        }
+
+        allComponentsSuccessors.add(componentSuccessors);
+      }
     }
 
     // create cartesian product of all elements we got
@@ -201,13 +323,19 @@ public final class CompositeTransferRelation implements TransferRelation {
 
       resultCount = 1;
 
+      List<Collection<? extends AbstractState>> lConcurrentStrengthenResults = null;
+      if (executor != null) {
+        lConcurrentStrengthenResults = strengthenComponentsConcurrently(lReachedState, compositePrecision, cfaEdge);
+      }
+
       for (int i = 0; i < size; i++) {
 
-        TransferRelation lCurrentTransfer = transferRelations.get(i);
         AbstractState lCurrentElement = lReachedState.get(i);
         Precision lCurrentPrecision = compositePrecision.get(i);
 
-        Collection<? extends AbstractState> lResultsList = lCurrentTransfer.strengthen(lCurrentElement, lReachedState, cfaEdge, lCurrentPrecision);
+        Collection<? extends AbstractState> lResultsList = lConcurrentStrengthenResults != null
+            ? lConcurrentStrengthenResults.get(i)
+            : strengthenComponent(i, lCurrentElement, lReachedState, cfaEdge, lCurrentPrecision);
 
         if (lResultsList == null) {
           lStrengthenResults.add(Collections.singleton(lCurrentElement));
@@ -270,6 +398,159 @@ public final class CompositeTransferRelation implements TransferRelation {
     }
   }
 
+  private Collection<? extends AbstractState> getComponentSuccessors(int index,
+      AbstractState componentState, Precision componentPrecision, CFAEdge cfaEdge)
+          throws CPATransferException, InterruptedException {
+    ComponentStatistics component = componentStats.get(index);
+    Probe probe = probes.get(index);
+    Sample sample = probe.start();
+    long start = System.nanoTime();
+    try {
+      return transferRelations.get(index).getAbstractSuccessorsForEdge(componentState, componentPrecision, cfaEdge);
+    } finally {
+      probe.stop(sample);
+      component.transferTime.addAndGet(System.nanoTime() - start);
+      component.transferCount.incrementAndGet();
+    }
+  }
+
+  private @Nullable Collection<? extends AbstractState> strengthenComponent(int index,
+      AbstractState componentState, List<AbstractState> otherStates, CFAEdge cfaEdge,
+      Precision componentPrecision) throws CPATransferException, InterruptedException {
+    ComponentStatistics component = componentStats.get(index);
+    Probe probe = probes.get(index);
+    Sample sample = probe.start();
+    long start = System.nanoTime();
+    try {
+      return transferRelations.get(index).strengthen(componentState, otherStates, cfaEdge, componentPrecision);
+    } finally {
+      probe.stop(sample);
+      component.strengthenTime.addAndGet(System.nanoTime() - start);
+      component.strengthenCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Compute the successors of all components. The components that implement
+   * {@link ConcurrentTransferRelation} are computed in the thread pool,
+   * all others in the current thread.
+   * As soon as one component has no successor, the remaining computations
+   * are cancelled and a list with only this empty result is returned.
+   */
+  private List<Collection<? extends AbstractState>> getComponentSuccessorsConcurrently(
+      final List<AbstractState> componentElements, final CompositePrecision compositePrecision,
+      final CFAEdge cfaEdge) throws CPATransferException, InterruptedException {
+    List<Future<Collection<? extends AbstractState>>> futures = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      if (concurrentComponents[i]) {
+        final int index = i;
+        Callable<Collection<? extends AbstractState>> task = new Callable<Collection<? extends AbstractState>>() {
+          @Override
+          public Collection<? extends AbstractState> call() throws CPATransferException, InterruptedException {
+            return getComponentSuccessors(index, componentElements.get(index), compositePrecision.get(index), cfaEdge);
+          }
+        };
+        futures.add(executor.submit(probes.get(index).inCurrentIteration(task)));
+        concurrentTransfers.incrementAndGet();
+      } else {
+        futures.add(null);
+      }
+    }
+
+    try {
+      List<Collection<? extends AbstractState>> results = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        if (futures.get(i) == null) {
+          Collection<? extends AbstractState> successors =
+              getComponentSuccessors(i, componentElements.get(i), compositePrecision.get(i), cfaEdge);
+          if (successors.isEmpty()) {
+            // shortcut
+            return Collections.<Collection<? extends AbstractState>>singletonList(successors);
+          }
+          results.add(successors);
+        } else {
+          results.add(null); // filled in below
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        if (futures.get(i) != null) {
+          Collection<? extends AbstractState> successors = getResult(futures.get(i));
+          if (successors.isEmpty()) {
+            // shortcut
+            return Collections.<Collection<? extends AbstractState>>singletonList(successors);
+          }
+          results.set(i, successors);
+        }
+      }
+      return results;
+    } finally {
+      cancelAll(futures);
+    }
+  }
+
+  /**
+   * Strengthen the states of all components. The components that implement
+   * {@link ConcurrentTransferRelation} are strengthened in the thread pool,
+   * all others in the current thread.
+   * The results are in the same order as the components and may contain
+   * <code>null</code> for components without a strengthening result.
+   */
+  private List<Collection<? extends AbstractState>> strengthenComponentsConcurrently(
+      final List<AbstractState> states, final CompositePrecision compositePrecision,
+      final CFAEdge cfaEdge) throws CPATransferException, InterruptedException {
+    List<Future<Collection<? extends AbstractState>>> futures = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      if (concurrentComponents[i]) {
+        final int index = i;
+        Callable<Collection<? extends AbstractState>> task = new Callable<Collection<? extends AbstractState>>() {
+          @Override
+          public Collection<? extends AbstractState> call() throws CPATransferException, InterruptedException {
+            return strengthenComponent(index, states.get(index), states, cfaEdge, compositePrecision.get(index));
+          }
+        };
+        futures.add(executor.submit(probes.get(index).inCurrentIteration(task)));
+      } else {
+        futures.add(null);
+      }
+    }
+
+    try {
+      List<Collection<? extends AbstractState>> results = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        if (futures.get(i) == null) {
+          results.add(strengthenComponent(i, states.get(i), states, cfaEdge, compositePrecision.get(i)));
+        } else {
+          results.add(null); // filled in below
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        if (futures.get(i) != null) {
+          results.set(i, getResult(futures.get(i)));
+        }
+      }
+      return results;
+    } finally {
+      cancelAll(futures);
+    }
+  }
+
+  private static <T> T getResult(Future<T> future) throws CPATransferException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), CPATransferException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("component transfer relation", e.getCause());
+    }
+  }
+
+  private static void cancelAll(List<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      if (future != null) {
+        future.cancel(true);
+      }
+    }
+  }
+
   protected static Collection<List<AbstractState>> createCartesianProduct(
       List<Collection<? extends AbstractState>> allComponentsSuccessors, int resultCount) {
     Collection<List<AbstractState>> allResultingElements;
@@ -325,6 +606,18 @@ public final class CompositeTransferRelation implements TransferRelation {
     return null;
   }
 
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(new CompositeTransferStatistics());
+  }
+
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
   boolean areAbstractSuccessors(AbstractState pElement, CFAEdge pCfaEdge, Collection<? extends AbstractState> pSuccessors, List<ConfigurableProgramAnalysis> cpas) throws CPATransferException, InterruptedException {
     Preconditions.checkNotNull(pCfaEdge);
 
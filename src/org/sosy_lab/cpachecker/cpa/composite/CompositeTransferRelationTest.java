@@ -0,0 +1,98 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+public class CompositeTransferRelationTest {
+
+  private static final String SAFE_PROGRAM = "test/programs/simple/parallel_exploration.c";
+  private static final String UNSAFE_PROGRAM = "test/programs/simple/bmc_incremental_false-unreach-label.c";
+
+  private static final String CONCURRENT_CPAS = "cpa.location.LocationCPA, cpa.callstack.CallstackCPA";
+
+  private static Map<String, String> options(int transferThreads, String cpas) {
+    return ImmutableMap.<String, String>builder()
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", cpas)
+        .put("specification", "config/specification/default.spc")
+        .put("cpa.composite.transferThreads", Integer.toString(transferThreads))
+        .build();
+  }
+
+  /**
+   * Computing the successors of the components in separate threads
+   * must not change the result of the analysis.
+   * Repeat to increase the chance of hitting races.
+   */
+  private static void assertSameResultWithThreads(String cpas, String program, Result expected)
+      throws Exception {
+    TestResults sequential = CPATestRunner.run(options(0, cpas), program);
+    assertThat(sequential.getCheckerResult().getResult()).isEqualTo(expected);
+    int expectedSize = sequential.getCheckerResult().getReached().size();
+
+    for (int i = 0; i < 10; i++) {
+      TestResults concurrent = CPATestRunner.run(options(2, cpas), program);
+      assertThat(concurrent.getCheckerResult().getResult())
+          .named("result with cpa.composite.transferThreads").isEqualTo(expected);
+      assertThat(concurrent.getCheckerResult().getReached().size())
+          .named("size of reached set with cpa.composite.transferThreads").isEqualTo(expectedSize);
+    }
+  }
+
+  @Test
+  public void concurrentTransferProvesSafety() throws Exception {
+    assertSameResultWithThreads(CONCURRENT_CPAS, SAFE_PROGRAM, Result.TRUE);
+  }
+
+  @Test
+  public void concurrentTransferFindsBug() throws Exception {
+    assertSameResultWithThreads(CONCURRENT_CPAS + ", cpa.value.ValueAnalysisCPA", UNSAFE_PROGRAM, Result.FALSE);
+  }
+
+  @Test
+  public void statisticsContainTransferPerComponent() throws Exception {
+    TestResults results = CPATestRunner.run(options(0, CONCURRENT_CPAS), SAFE_PROGRAM);
+    ByteArrayOutputStream statistics = new ByteArrayOutputStream();
+    results.getCheckerResult().printStatistics(new PrintStream(statistics, true, "UTF-8"));
+
+    String output = statistics.toString("UTF-8");
+    assertThat(output).contains("Time for transfer relation per component:");
+    assertThat(output).contains("Time for strengthen per component:");
+    assertThat(output).containsMatch("0 LocationTransferRelation: .* \\(calls: [1-9]");
+    assertThat(output).containsMatch("1 CallstackTransferRelation: .* \\(calls: [1-9]");
+  }
+}
@@ -233,6 +233,8 @@ public class FormulaCreatorUsingCConverter implements FormulaCreator {
 
   private static class DummyEdge implements CFAEdge {
 
+    private static final long serialVersionUID = 6801911983557748017L;
+
     private static final String UNKNOWN = "unknown";
     private static final FileLocation DUMMY_LOCATION = new FileLocation(0, UNKNOWN, 0, 0, 0);
 
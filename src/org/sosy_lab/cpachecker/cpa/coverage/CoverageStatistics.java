@@ -44,6 +44,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.reachedset.ConcurrentLocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.LocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -146,6 +147,9 @@ public class CoverageStatistics extends AbstractStatistics {
     if (pReached instanceof LocationMappedReachedSet) {
       return ((LocationMappedReachedSet)pReached).getLocations();
 
+    } else if (pReached instanceof ConcurrentLocationMappedReachedSet) {
+      return ((ConcurrentLocationMappedReachedSet)pReached).getLocations();
+
     } else {
       return from(pReached)
                   .transform(EXTRACT_LOCATION)
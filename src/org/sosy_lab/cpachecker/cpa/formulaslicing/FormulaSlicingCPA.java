@@ -89,7 +89,7 @@ public class FormulaSlicingCPA extends SingleEdgeTransferRelation
         AnalysisDirection.FORWARD);
 
     if (useCachingPathFormulaManager) {
-      pathFormulaManager = new CachingPathFormulaManager(pathFormulaManager);
+      pathFormulaManager = new CachingPathFormulaManager(pathFormulaManager, pConfiguration);
     }
 
     LoopTransitionFinder ltf = new LoopTransitionFinder(
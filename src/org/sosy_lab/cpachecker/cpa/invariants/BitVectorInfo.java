@@ -45,12 +45,26 @@ public class BitVectorInfo {
 
   private final BigInteger maxValue;
 
+  /**
+   * The maximum bit vector size for which all values and all differences
+   * between values fit into a primitive long.
+   */
+  private static final int MAX_LONG_SIZE = Long.SIZE - 1;
+
+  private final long minValueLong;
+
+  private final long maxValueLong;
+
+  private BitVectorInterval range = null;
+
   private BitVectorInfo(int pSize, boolean pSigned) {
     Preconditions.checkArgument(pSize > 0, "bit vector size must be greater than zero");
     size = pSize;
     signed = pSigned;
     minValue = !signed ? BigInteger.ZERO : BigInteger.valueOf(2).pow(size - 1).negate();
     maxValue = !signed ? BigInteger.valueOf(2).pow(size).subtract(BigInteger.ONE) : BigInteger.valueOf(2).pow(size - 1).subtract(BigInteger.ONE);
+    minValueLong = fitsInLong() ? minValue.longValue() : Long.MIN_VALUE;
+    maxValueLong = fitsInLong() ? maxValue.longValue() : Long.MAX_VALUE;
   }
 
   public int getSize() {
@@ -69,8 +83,47 @@ public class BitVectorInfo {
     return maxValue;
   }
 
+  /**
+   * Checks if all values of bit vectors described by this information can
+   * be represented as primitive long values. In this case, intervals over
+   * these bit vectors use a long-backed representation.
+   *
+   * @return {@code true} if the bit vector size is at most 63 bits,
+   * {@code false} otherwise.
+   */
+  public boolean fitsInLong() {
+    return size <= MAX_LONG_SIZE;
+  }
+
+  /**
+   * Gets the minimum value as a long. May only be called if
+   * {@link #fitsInLong()} returns true.
+   *
+   * @return the minimum value as a long.
+   */
+  public long getMinValueAsLong() {
+    Preconditions.checkState(fitsInLong());
+    return minValueLong;
+  }
+
+  /**
+   * Gets the maximum value as a long. May only be called if
+   * {@link #fitsInLong()} returns true.
+   *
+   * @return the maximum value as a long.
+   */
+  public long getMaxValueAsLong() {
+    Preconditions.checkState(fitsInLong());
+    return maxValueLong;
+  }
+
   public BitVectorInterval getRange() {
-    return BitVectorInterval.of(this, minValue, maxValue);
+    BitVectorInterval result = range;
+    if (result == null) {
+      result = BitVectorInterval.of(this, minValue, maxValue);
+      range = result;
+    }
+    return result;
   }
 
   @Override
@@ -26,9 +26,9 @@ package org.sosy_lab.cpachecker.cpa.invariants;
 import static com.google.common.base.Preconditions.*;
 
 import java.math.BigInteger;
-import java.util.Objects;
 
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Longs;
 
 /**
  * This class represents simple convex ranges of BigIntegers.
@@ -36,19 +36,40 @@ import com.google.common.base.Preconditions;
  * concrete value or infinity. In case of a concrete value, the bound is assumed
  * to be included in the range.
  *
+ * If the bit vector size is at most 63 bits (see
+ * {@link BitVectorInfo#fitsInLong()}), the bounds are stored as primitive
+ * longs and the big integer bounds are only created on demand.
+ *
  * All instances of this class are immutable.
  */
 public class BitVectorInterval implements BitVectorType {
 
   /**
-   * The lower bound of the interval.
+   * The lower bound of the interval. For long-backed intervals, this is
+   * created lazily from {@link #lowerBoundLong}.
+   */
+  private BigInteger lowerBound;
+
+  /**
+   * The upper bound of the interval. For long-backed intervals, this is
+   * created lazily from {@link #upperBoundLong}.
+   */
+  private BigInteger upperBound;
+
+  /**
+   * The lower bound of the interval if the interval is long-backed.
    */
-  private final BigInteger lowerBound;
+  private final long lowerBoundLong;
 
   /**
-   * The upper bound of the interval.
+   * The upper bound of the interval if the interval is long-backed.
    */
-  private final BigInteger upperBound;
+  private final long upperBoundLong;
+
+  /**
+   * Whether or not the bounds are stored as primitive longs.
+   */
+  private final boolean longBacked;
 
   /**
    * Size and signedness.
@@ -75,6 +96,36 @@ public class BitVectorInterval implements BitVectorType {
     info = pInfo;
     lowerBound = pLowerBound;
     upperBound = pUpperBound;
+    longBacked = pInfo.fitsInLong();
+    lowerBoundLong = longBacked ? pLowerBound.longValue() : 0;
+    upperBoundLong = longBacked ? pUpperBound.longValue() : 0;
+  }
+
+  /**
+   * Creates a new long-backed interval from the given lower bound to the
+   * given upper bound.
+   *
+   * The lower bound must be a value less than or equal to the upper bound
+   * and the bit vector size must be small enough for its values to fit into
+   * a long.
+   *
+   * @param pLowerBound the lower bound of the interval.
+   * @param pUpperBound the upper bound of the interval.
+   */
+  private BitVectorInterval(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    checkNotNull(pInfo);
+    checkArgument(pInfo.fitsInLong(), "bit vector does not fit into a long");
+    checkArgument(pLowerBound <= pUpperBound
+        , "lower endpoint greater than upper end point");
+    checkArgument(pLowerBound >= pInfo.getMinValueAsLong(), "lower bound must fit the bit vector");
+    checkArgument(pUpperBound <= pInfo.getMaxValueAsLong(), "upper bound must fit the bit vector");
+
+    info = pInfo;
+    lowerBound = null;
+    upperBound = null;
+    longBacked = true;
+    lowerBoundLong = pLowerBound;
+    upperBoundLong = pUpperBound;
   }
 
   /**
@@ -91,14 +142,55 @@ public class BitVectorInterval implements BitVectorType {
    * Return lower bound (may only be called if {@link #hasLowerBound()} returns true.
    */
   public BigInteger getLowerBound() {
-    return lowerBound;
+    BigInteger result = lowerBound;
+    if (result == null) {
+      result = BigInteger.valueOf(lowerBoundLong);
+      lowerBound = result;
+    }
+    return result;
   }
 
   /**
    * Return upper bound (may only be called if {@link #hasUpperBound()} returns true.
    */
   public BigInteger getUpperBound() {
-    return upperBound;
+    BigInteger result = upperBound;
+    if (result == null) {
+      result = BigInteger.valueOf(upperBoundLong);
+      upperBound = result;
+    }
+    return result;
+  }
+
+  /**
+   * Checks if the bounds of this interval are stored as primitive longs,
+   * which is the case if and only if {@link BitVectorInfo#fitsInLong()}
+   * returns true for the bit vector information of this interval.
+   *
+   * @return <code>true</code> if the bounds of this interval can be
+   * retrieved by {@link #getLowerBoundAsLong()} and
+   * {@link #getUpperBoundAsLong()}, <code>false</code> otherwise.
+   */
+  public boolean hasLongBounds() {
+    return longBacked;
+  }
+
+  /**
+   * Return lower bound as a long (may only be called if
+   * {@link #hasLongBounds()} returns true.
+   */
+  public long getLowerBoundAsLong() {
+    checkState(longBacked);
+    return lowerBoundLong;
+  }
+
+  /**
+   * Return upper bound as a long (may only be called if
+   * {@link #hasLongBounds()} returns true.
+   */
+  public long getUpperBoundAsLong() {
+    checkState(longBacked);
+    return upperBoundLong;
   }
 
   /**
@@ -132,8 +224,13 @@ public class BitVectorInterval implements BitVectorType {
     if (pOther.isSingleton() || contains(pOther)) {
       return pOther;
     }
+    if (longBacked && pOther.longBacked) {
+      return new BitVectorInterval(info,
+          Math.max(lowerBoundLong, pOther.lowerBoundLong),
+          Math.min(upperBoundLong, pOther.upperBoundLong));
+    }
     // The lower bound of this interval is a candidate for the new lower bound
-    BigInteger lowerBound = this.lowerBound;
+    BigInteger lowerBound = getLowerBound();
 
     // The lower bound of the other interval is a candidate as well
     BigInteger otherLowerBound = pOther.getLowerBound();
@@ -143,7 +240,7 @@ public class BitVectorInterval implements BitVectorType {
     lowerBound = lowerBound.max(otherLowerBound);
 
     // The upper bound of this interval is a candidate for the new lower bound
-    BigInteger upperBound = this.upperBound;
+    BigInteger upperBound = getUpperBound();
     // The upper bound of the other interval is a candidate as well
     BigInteger otherUpperBound = pOther.getUpperBound();
     /*
@@ -156,11 +253,17 @@ public class BitVectorInterval implements BitVectorType {
 
   public BitVectorInterval getNegativePart() {
     Preconditions.checkArgument(containsNegative(), "This interval has no negative part.");
+    if (longBacked) {
+      return new BitVectorInterval(info, lowerBoundLong, Math.min(-1L, upperBoundLong));
+    }
     return BitVectorInterval.of(info, lowerBound, BigInteger.valueOf(-1).min(upperBound));
   }
 
   public BitVectorInterval getPositivePart() {
     Preconditions.checkArgument(containsPositive(), "This interval has no positive part.");
+    if (longBacked) {
+      return new BitVectorInterval(info, Math.max(1L, lowerBoundLong), upperBoundLong);
+    }
     return BitVectorInterval.of(info, BigInteger.ONE.max(lowerBound), upperBound);
   }
 
@@ -186,6 +289,9 @@ public class BitVectorInterval implements BitVectorType {
    * positive value, <code>false</code> otherwise.
    */
   public boolean containsPositive() {
+    if (longBacked) {
+      return upperBoundLong > 0;
+    }
     return upperBound.signum() == 1;
   }
 
@@ -195,6 +301,9 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean containsZero() {
+    if (longBacked) {
+      return upperBoundLong >= 0 && lowerBoundLong <= 0;
+    }
     return upperBound.signum() >= 0
         && lowerBound.signum() <= 0;
   }
@@ -205,16 +314,34 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean contains(BigInteger pValue) {
+    if (longBacked) {
+      return pValue.bitLength() < Long.SIZE && contains(pValue.longValue());
+    }
     return upperBound.compareTo(pValue) >= 0
         && lowerBound.compareTo(pValue) <= 0;
   }
 
+  /**
+   * Checks if this interval contains the given value.
+   * @return <code>true</code> if this interval contains the given value,
+   * <code>false</code> otherwise.
+   */
+  public boolean contains(long pValue) {
+    if (longBacked) {
+      return upperBoundLong >= pValue && lowerBoundLong <= pValue;
+    }
+    return contains(BigInteger.valueOf(pValue));
+  }
+
   /**
    * Checks if this interval contains at least one negative value.
    * @return <code>true</code> if this interval contains at least one
    * negative value, <code>false</code> otherwise.
    */
   public boolean containsNegative() {
+    if (longBacked) {
+      return lowerBoundLong < 0;
+    }
     return lowerBound.signum() == -1;
   }
 
@@ -225,7 +352,14 @@ public class BitVectorInterval implements BitVectorType {
    * @return The upper bound minus the lower bound plus one.
    */
   public BigInteger size() {
-    return upperBound.subtract(lowerBound).add(BigInteger.ONE);
+    if (longBacked) {
+      // For at most 63 bits, the difference always fits into a long
+      long difference = upperBoundLong - lowerBoundLong;
+      if (difference < Long.MAX_VALUE) {
+        return BigInteger.valueOf(difference + 1);
+      }
+    }
+    return getUpperBound().subtract(getLowerBound()).add(BigInteger.ONE);
   }
 
   /**
@@ -237,6 +371,9 @@ public class BitVectorInterval implements BitVectorType {
    * single value, <code>false</code> otherwise.
    */
   public boolean isSingleton() {
+    if (longBacked) {
+      return lowerBoundLong == upperBoundLong;
+    }
     return lowerBound.equals(upperBound);
   }
 
@@ -251,8 +388,17 @@ public class BitVectorInterval implements BitVectorType {
    * @return the mathematical negation of this interval.
    */
   public BitVectorInterval negate(boolean pAllowSignedWrapAround) {
-    BigInteger newLowerBound = upperBound.negate();
-    BigInteger newUpperBound = lowerBound.negate();
+    if (longBacked) {
+      // For at most 63 bits, negating a value cannot overflow
+      long newLowerBound = -upperBoundLong;
+      long newUpperBound = -lowerBoundLong;
+      if (newLowerBound >= info.getMinValueAsLong() && newUpperBound <= info.getMaxValueAsLong()) {
+        return new BitVectorInterval(info, newLowerBound, newUpperBound);
+      }
+    }
+
+    BigInteger newLowerBound = getUpperBound().negate();
+    BigInteger newUpperBound = getLowerBound().negate();
 
     boolean lbExceedsBelow = newLowerBound.compareTo(info.getMinValue()) < 0;
     boolean lbExceedsAbove = !lbExceedsBelow && newLowerBound.compareTo(info.getMaxValue()) > 0;
@@ -290,6 +436,13 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(info, newLowerBound, newUpperBound);
   }
 
+  public static BitVectorInterval cast(BitVectorInfo pInfo, long pI, boolean pAllowSignedWrapAround) {
+    if (pInfo.fitsInLong() && pI >= pInfo.getMinValueAsLong() && pI <= pInfo.getMaxValueAsLong()) {
+      return new BitVectorInterval(pInfo, pI, pI);
+    }
+    return cast(pInfo, BigInteger.valueOf(pI), pAllowSignedWrapAround);
+  }
+
   public static BitVectorInterval cast(BitVectorInfo pInfo, BigInteger pI, boolean pAllowSignedWrapAround) {
     if (pInfo.getRange().contains(pI)) {
       return BitVectorInterval.singleton(pInfo, pI);
@@ -308,6 +461,14 @@ public class BitVectorInterval implements BitVectorType {
     return BitVectorInterval.singleton(pInfo, value);
   }
 
+  public static BitVectorInterval cast(BitVectorInfo pInfo, long pLowerBound, long pUpperBound, boolean pAllowSignedWrapAround) {
+    if (pInfo.fitsInLong() && pLowerBound <= pUpperBound
+        && pLowerBound >= pInfo.getMinValueAsLong() && pUpperBound <= pInfo.getMaxValueAsLong()) {
+      return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+    }
+    return cast(pInfo, BigInteger.valueOf(pLowerBound), BigInteger.valueOf(pUpperBound), pAllowSignedWrapAround);
+  }
+
   public static BitVectorInterval cast(BitVectorInfo pInfo, BigInteger pLowerBound, BigInteger pUpperBound, boolean pAllowSignedWrapAround) {
     if (pLowerBound.equals(pUpperBound)) {
       return cast(pInfo, pLowerBound, pAllowSignedWrapAround);
@@ -382,6 +543,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMaxValue() {
+    if (longBacked) {
+      if (upperBoundLong == info.getMaxValueAsLong()) {
+        return this;
+      }
+      return new BitVectorInterval(info, lowerBoundLong, info.getMaxValueAsLong());
+    }
     if (upperBound.equals(info.getMaxValue())) {
       return this;
     }
@@ -396,6 +563,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMinValue() {
+    if (longBacked) {
+      if (lowerBoundLong == info.getMinValueAsLong()) {
+        return this;
+      }
+      return new BitVectorInterval(info, info.getMinValueAsLong(), upperBoundLong);
+    }
     if (lowerBound.equals(info.getMinValue())) {
       return this;
     }
@@ -411,17 +584,41 @@ public class BitVectorInterval implements BitVectorType {
     }
 
     BitVectorInterval other = (BitVectorInterval) pObj;
-    return Objects.equals(this.lowerBound, other.lowerBound)
-        && Objects.equals(this.upperBound, other.upperBound);
+    if (longBacked && other.longBacked) {
+      return lowerBoundLong == other.lowerBoundLong
+          && upperBoundLong == other.upperBoundLong;
+    }
+    return getLowerBound().equals(other.getLowerBound())
+        && getUpperBound().equals(other.getUpperBound());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(lowerBound, upperBound);
+    if (longBacked) {
+      return 31 * Longs.hashCode(lowerBoundLong) + Longs.hashCode(upperBoundLong);
+    }
+    return 31 * hashCode(lowerBound) + hashCode(upperBound);
+  }
+
+  /**
+   * Computes a hash code for the given bound that is consistent with the
+   * hash code of the same value stored in a long-backed interval.
+   *
+   * @param pBound the bound to compute the hash code for.
+   * @return the hash code of the given bound.
+   */
+  private static int hashCode(BigInteger pBound) {
+    if (pBound.bitLength() < Long.SIZE) {
+      return Longs.hashCode(pBound.longValue());
+    }
+    return pBound.hashCode();
   }
 
   @Override
   public String toString() {
+    if (longBacked) {
+      return "[" + lowerBoundLong + ", " + upperBoundLong + "]";
+    }
     return "[" + lowerBound + ", " + upperBound + "]";
   }
 
@@ -439,8 +636,8 @@ public class BitVectorInterval implements BitVectorType {
       return false;
     }
 
-    return this.lowerBound.compareTo(pOther.lowerBound) <= 0
-        && this.upperBound.compareTo(pOther.upperBound) >= 0;
+    return compareLowerBounds(pOther) <= 0
+        && compareUpperBounds(pOther) >= 0;
   }
 
   /**
@@ -456,8 +653,13 @@ public class BitVectorInterval implements BitVectorType {
   public boolean touches(BitVectorInterval pOther) {
     if (pOther == null) { return false; }
     if (intersectsWith(pOther)) { return true; }
-    return pOther.upperBound.add(BigInteger.ONE).equals(this.lowerBound)
-        || this.upperBound.add(BigInteger.ONE).equals(pOther.lowerBound);
+    if (longBacked && pOther.longBacked) {
+      // For at most 63 bits, subtracting one from a lower bound cannot overflow
+      return pOther.upperBoundLong == this.lowerBoundLong - 1
+          || this.upperBoundLong == pOther.lowerBoundLong - 1;
+    }
+    return pOther.getUpperBound().add(BigInteger.ONE).equals(this.getLowerBound())
+        || this.getUpperBound().add(BigInteger.ONE).equals(pOther.getLowerBound());
   }
 
   /**
@@ -471,11 +673,62 @@ public class BitVectorInterval implements BitVectorType {
 
     // this is [a, b]; other is [c, d]
     // result is true if a <= d and b >= c
-    boolean aLessThanOrEqB = this.lowerBound.compareTo(other.upperBound) <= 0;
-    boolean bGreaterThanOrEqC = this.upperBound.compareTo(other.lowerBound) >= 0;
+    if (longBacked && other.longBacked) {
+      return this.lowerBoundLong <= other.upperBoundLong
+          && this.upperBoundLong >= other.lowerBoundLong;
+    }
+    boolean aLessThanOrEqB = this.getLowerBound().compareTo(other.getUpperBound()) <= 0;
+    boolean bGreaterThanOrEqC = this.getUpperBound().compareTo(other.getLowerBound()) >= 0;
     return aLessThanOrEqB && bGreaterThanOrEqC;
   }
 
+  /**
+   * Compares the lower bound of this interval to the lower bound of the
+   * given interval.
+   *
+   * @param pOther the interval to compare the lower bounds with.
+   * @return a negative value, zero or a positive value if the lower bound
+   * of this interval is less than, equal to or greater than the lower
+   * bound of the given interval.
+   */
+  int compareLowerBounds(BitVectorInterval pOther) {
+    if (longBacked && pOther.longBacked) {
+      return Long.compare(lowerBoundLong, pOther.lowerBoundLong);
+    }
+    return getLowerBound().compareTo(pOther.getLowerBound());
+  }
+
+  /**
+   * Compares the upper bound of this interval to the upper bound of the
+   * given interval.
+   *
+   * @param pOther the interval to compare the upper bounds with.
+   * @return a negative value, zero or a positive value if the upper bound
+   * of this interval is less than, equal to or greater than the upper
+   * bound of the given interval.
+   */
+  int compareUpperBounds(BitVectorInterval pOther) {
+    if (longBacked && pOther.longBacked) {
+      return Long.compare(upperBoundLong, pOther.upperBoundLong);
+    }
+    return getUpperBound().compareTo(pOther.getUpperBound());
+  }
+
+  /**
+   * Checks if the lower bound of this interval is greater than the upper
+   * bound of the given interval.
+   *
+   * @param pOther the interval to compare with.
+   * @return <code>true</code> if all values of this interval are greater
+   * than all values of the given interval, <code>false</code> otherwise.
+   */
+  boolean startsAfter(BitVectorInterval pOther) {
+    if (longBacked && pOther.longBacked) {
+      return lowerBoundLong > pOther.upperBoundLong;
+    }
+    return getLowerBound().compareTo(pOther.getUpperBound()) > 0;
+  }
+
   /**
    * Gets the closest negative value to zero of this interval.
    * May only be called if {@link #containsNegative()} returns true.
@@ -506,6 +759,13 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pI, pI);
   }
 
+  public static BitVectorInterval singleton(BitVectorInfo pInfo, long pI) {
+    if (pInfo.fitsInLong()) {
+      return new BitVectorInterval(pInfo, pI, pI);
+    }
+    return singleton(pInfo, BigInteger.valueOf(pI));
+  }
+
   public static BitVectorInterval greaterOrEqual(BitVectorInfo pInfo, BigInteger pI) {
     return singleton(pInfo, pI).extendToMaxValue();
   }
@@ -518,31 +778,29 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
   }
 
+  public static BitVectorInterval of(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    if (pInfo.fitsInLong()) {
+      return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+    }
+    return of(pInfo, BigInteger.valueOf(pLowerBound), BigInteger.valueOf(pUpperBound));
+  }
+
   /**
    * Create the smallest interval that contains two given intervals;
    */
   public static BitVectorInterval span(BitVectorInterval a, BitVectorInterval b) {
     a.checkBitVectorCompatibilityWith(b);
-    BigInteger lower;
-    if (a.lowerBound == null || b.lowerBound == null) {
-      lower = null;
-    } else {
-      lower = a.lowerBound.min(b.lowerBound);
-    }
-
-    BigInteger upper;
-    if (a.upperBound == null || b.upperBound == null) {
-      upper = null;
-    } else {
-      upper = a.upperBound.max(b.upperBound);
-    }
-
-    if (lower == a.lowerBound && upper == a.upperBound) {
+    if (a.compareLowerBounds(b) <= 0 && a.compareUpperBounds(b) >= 0) {
       return a;
-    } else if (lower == b.lowerBound && upper == b.upperBound) {
+    } else if (b.compareLowerBounds(a) <= 0 && b.compareUpperBounds(a) >= 0) {
       return b;
-    } else {
-      return new BitVectorInterval(a.info, lower, upper);
+    } else if (a.longBacked && b.longBacked) {
+      return new BitVectorInterval(a.info,
+          Math.min(a.lowerBoundLong, b.lowerBoundLong),
+          Math.max(a.upperBoundLong, b.upperBoundLong));
     }
+    return new BitVectorInterval(a.info,
+        a.getLowerBound().min(b.getLowerBound()),
+        a.getUpperBound().max(b.getUpperBound()));
   }
 }
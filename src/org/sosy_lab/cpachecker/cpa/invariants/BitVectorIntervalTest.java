@@ -0,0 +1,258 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.invariants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector.IIIOperatorFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector.ISIOperatorFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for the boundaries of the primitive long representation of
+ * {@link BitVectorInterval}. The results of the long fast paths are compared
+ * with the results of the same operations on big integers.
+ */
+public class BitVectorIntervalTest {
+
+  private static final ImmutableList<Integer> SIZES = ImmutableList.of(8, 32, 62, 63, 64);
+
+  private static final ImmutableList<BigInteger> SCALARS = ImmutableList.of(
+      BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(2), BigInteger.valueOf(-1),
+      BigInteger.valueOf(Integer.MAX_VALUE), BigInteger.valueOf(Integer.MIN_VALUE),
+      BigInteger.valueOf(Long.MAX_VALUE), BigInteger.valueOf(Long.MIN_VALUE),
+      BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+
+  private static List<BitVectorInfo> infos() {
+    List<BitVectorInfo> result = Lists.newArrayList();
+    for (int size : SIZES) {
+      result.add(BitVectorInfo.from(size, true));
+      result.add(BitVectorInfo.from(size, false));
+    }
+    return result;
+  }
+
+  /**
+   * Intervals at and around the boundaries of the given bit vector range.
+   */
+  private static List<BitVectorInterval> intervals(BitVectorInfo pInfo) {
+    BigInteger min = pInfo.getMinValue();
+    BigInteger max = pInfo.getMaxValue();
+    BigInteger two = BigInteger.valueOf(2);
+    return ImmutableList.of(
+        BitVectorInterval.singleton(pInfo, min),
+        BitVectorInterval.of(pInfo, min, min.add(BigInteger.ONE)),
+        BitVectorInterval.of(pInfo, min, min.add(two)),
+        BitVectorInterval.singleton(pInfo, max),
+        BitVectorInterval.of(pInfo, max.subtract(BigInteger.ONE), max),
+        BitVectorInterval.of(pInfo, max.subtract(two), max),
+        BitVectorInterval.of(pInfo, min.add(max).shiftRight(1), max),
+        BitVectorInterval.of(pInfo, min, min.add(max).shiftRight(1)),
+        BitVectorInterval.of(pInfo, min, max));
+  }
+
+  @Test
+  public void testLongBackedRange() {
+    for (BitVectorInfo info : infos()) {
+      boolean fitsInLong = info.getSize() < Long.SIZE;
+      assertEquals(info.toString(), fitsInLong, info.fitsInLong());
+
+      BitVectorInterval range = info.getRange();
+      assertEquals(info.toString(), fitsInLong, range.hasLongBounds());
+      assertEquals(info.getMinValue(), range.getLowerBound());
+      assertEquals(info.getMaxValue(), range.getUpperBound());
+      if (fitsInLong) {
+        assertEquals(info.getMinValue().longValue(), range.getLowerBoundAsLong());
+        assertEquals(info.getMaxValue().longValue(), range.getUpperBoundAsLong());
+        assertEquals(info.getMinValue().longValue(), info.getMinValueAsLong());
+        assertEquals(info.getMaxValue().longValue(), info.getMaxValueAsLong());
+      }
+    }
+  }
+
+  @Test
+  public void testRepresentationsAreEqual() {
+    for (BitVectorInfo info : infos()) {
+      if (!info.fitsInLong()) {
+        continue;
+      }
+      for (BitVectorInterval interval : intervals(info)) {
+        BitVectorInterval fromLongs = BitVectorInterval.of(info,
+            interval.getLowerBound().longValue(), interval.getUpperBound().longValue());
+        BitVectorInterval fromBigIntegers = BitVectorInterval.of(info,
+            interval.getLowerBound(), interval.getUpperBound());
+        assertEquals(fromBigIntegers, fromLongs);
+        assertEquals(fromBigIntegers.hashCode(), fromLongs.hashCode());
+        assertEquals(fromBigIntegers.size(), fromLongs.size());
+      }
+    }
+  }
+
+  @Test
+  public void testContainsAtBoundaries() {
+    for (BitVectorInfo info : infos()) {
+      BitVectorInterval range = info.getRange();
+      assertTrue(range.contains(info.getMinValue()));
+      assertTrue(range.contains(info.getMaxValue()));
+      assertFalse(range.contains(info.getMinValue().subtract(BigInteger.ONE)));
+      assertFalse(range.contains(info.getMaxValue().add(BigInteger.ONE)));
+      if (info.fitsInLong()) {
+        assertTrue(range.contains(info.getMinValueAsLong()));
+        assertTrue(range.contains(info.getMaxValueAsLong()));
+        assertFalse(range.contains(info.getMinValueAsLong() - 1));
+        if (info.getMaxValueAsLong() < Long.MAX_VALUE) {
+          assertFalse(range.contains(info.getMaxValueAsLong() + 1));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCastOfLongs() {
+    for (BitVectorInfo info : infos()) {
+      for (boolean wrap : new boolean[] { true, false }) {
+        for (long value : new long[] { Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE }) {
+          assertEquals(info + " " + value,
+              BitVectorInterval.cast(info, BigInteger.valueOf(value), wrap),
+              BitVectorInterval.cast(info, value, wrap));
+        }
+        assertEquals(info.toString(),
+            BitVectorInterval.cast(info, BigInteger.valueOf(Long.MIN_VALUE), BigInteger.valueOf(Long.MAX_VALUE), wrap),
+            BitVectorInterval.cast(info, Long.MIN_VALUE, Long.MAX_VALUE, wrap));
+        assertEquals(info.toString(),
+            BitVectorInterval.cast(info, BigInteger.valueOf(Long.MAX_VALUE - 1), BigInteger.valueOf(Long.MAX_VALUE), wrap),
+            BitVectorInterval.cast(info, Long.MAX_VALUE - 1, Long.MAX_VALUE, wrap));
+      }
+    }
+  }
+
+  @Test
+  public void testNegateAtBoundaries() {
+    for (BitVectorInfo info : infos()) {
+      for (boolean wrap : new boolean[] { true, false }) {
+        for (BitVectorInterval interval : intervals(info)) {
+          BitVectorInterval negated = interval.negate(wrap);
+          BigInteger lowerBound = interval.getUpperBound().negate();
+          BigInteger upperBound = interval.getLowerBound().negate();
+          if (info.getRange().contains(lowerBound) && info.getRange().contains(upperBound)) {
+            assertEquals(info + " -" + interval, BitVectorInterval.of(info, lowerBound, upperBound), negated);
+          } else if (info.isSigned() && !wrap) {
+            assertEquals(info + " -" + interval, info.getRange(), negated);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAddScalarAtBoundaries() {
+    for (BitVectorInfo info : infos()) {
+      for (boolean wrap : new boolean[] { true, false }) {
+        for (BitVectorInterval interval : intervals(info)) {
+          for (BigInteger scalar : SCALARS) {
+            BitVectorInterval expected = interval.isTop()
+                ? interval
+                : BitVectorInterval.cast(info,
+                    interval.getLowerBound().add(scalar), interval.getUpperBound().add(scalar), wrap);
+            assertEquals(info + " " + interval + " + " + scalar, expected,
+                ISIOperatorFactory.INSTANCE.getAdd(wrap).apply(interval, scalar));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMultiplyScalarAtBoundaries() {
+    for (BitVectorInfo info : infos()) {
+      for (boolean wrap : new boolean[] { true, false }) {
+        for (BitVectorInterval interval : intervals(info)) {
+          for (BigInteger scalar : SCALARS) {
+            if (scalar.signum() <= 0 || scalar.equals(BigInteger.ONE) || interval.isTop()) {
+              // special cases that do not reach the fast path
+              continue;
+            }
+            BitVectorInterval expected = BitVectorInterval.cast(info,
+                interval.getLowerBound().multiply(scalar), interval.getUpperBound().multiply(scalar), wrap);
+            assertEquals(info + " " + interval + " * " + scalar, expected,
+                ISIOperatorFactory.INSTANCE.getMultiply(wrap).apply(interval, scalar));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAddIntervalsAtBoundaries() {
+    for (BitVectorInfo info : infos()) {
+      for (boolean wrap : new boolean[] { true, false }) {
+        for (BitVectorInterval first : intervals(info)) {
+          for (BitVectorInterval second : intervals(info)) {
+            if (first.isTop() || second.isTop() || first.isSingleton() || second.isSingleton()) {
+              // special cases that do not reach the fast path
+              continue;
+            }
+            BitVectorInterval expected = BitVectorInterval.cast(info,
+                first.getLowerBound().add(second.getLowerBound()),
+                first.getUpperBound().add(second.getUpperBound()), wrap);
+            assertEquals(info + " " + first + " + " + second, expected,
+                IIIOperatorFactory.INSTANCE.getAdd(wrap).apply(first, second));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMultiplyIntervalsAtBoundaries() {
+    for (BitVectorInfo info : infos()) {
+      for (boolean wrap : new boolean[] { true, false }) {
+        for (BitVectorInterval first : intervals(info)) {
+          for (BitVectorInterval second : intervals(info)) {
+            if (first.isSingleton() || second.isSingleton()) {
+              // special cases that do not reach the fast path
+              continue;
+            }
+            BigInteger lbLb = first.getLowerBound().multiply(second.getLowerBound());
+            BigInteger lbUb = first.getLowerBound().multiply(second.getUpperBound());
+            BigInteger ubLb = first.getUpperBound().multiply(second.getLowerBound());
+            BigInteger ubUb = first.getUpperBound().multiply(second.getUpperBound());
+            BitVectorInterval expected = BitVectorInterval.cast(info,
+                lbLb.min(lbUb).min(ubLb).min(ubUb), lbLb.max(lbUb).max(ubLb).max(ubUb), wrap);
+            assertEquals(info + " " + first + " * " + second, expected,
+                IIIOperatorFactory.INSTANCE.getMultiply(wrap).apply(first, second));
+          }
+        }
+      }
+    }
+  }
+}
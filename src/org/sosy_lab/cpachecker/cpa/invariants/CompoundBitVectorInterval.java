@@ -217,9 +217,8 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
     int start = 0;
     BitVectorInterval lastInterval = null;
     if (pOther.hasLowerBound() && hasUpperBound()) {
-      BigInteger pOtherLB = pOther.getLowerBound();
       BitVectorInterval currentLocal = this.intervals[start];
-      while (currentLocal != null && pOtherLB.compareTo(currentLocal.getUpperBound()) > 0) {
+      while (currentLocal != null && pOther.startsAfter(currentLocal)) {
         resultIntervals.add(currentLocal);
         ++start;
         lastInterval = currentLocal;
@@ -252,7 +251,7 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
           currentInserted = true;
         } else {
           if (!pOther.hasLowerBound()
-              || (interval.hasLowerBound() && less(pOther.getLowerBound(), interval.getLowerBound()))) {
+              || (interval.hasLowerBound() && pOther.compareLowerBounds(interval) < 0)) {
             resultIntervals.add(pOther);
             inserted = true;
           }
@@ -397,15 +396,13 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
     }
     boolean hasLowerBound = pInterval.hasLowerBound();
     boolean hasUpperBound = pInterval.hasUpperBound();
-    BigInteger lb = hasLowerBound ? pInterval.getLowerBound() : null;
-    BigInteger ub = hasUpperBound ? pInterval.getUpperBound() : null;
     int leftInclusive = 0;
     int rightExclusive = this.intervals.length;
     while (leftInclusive < rightExclusive) {
       int index = IntMath.mean(leftInclusive, rightExclusive);
       BitVectorInterval intervalAtIndex = this.intervals[index];
-      boolean lbIndexLeqLb = !intervalAtIndex.hasLowerBound() || hasLowerBound && intervalAtIndex.getLowerBound().compareTo(lb) <= 0;
-      boolean ubIndexGeqUb = !intervalAtIndex.hasUpperBound() || hasUpperBound && intervalAtIndex.getUpperBound().compareTo(ub) >= 0;
+      boolean lbIndexLeqLb = !intervalAtIndex.hasLowerBound() || hasLowerBound && intervalAtIndex.compareLowerBounds(pInterval) <= 0;
+      boolean ubIndexGeqUb = !intervalAtIndex.hasUpperBound() || hasUpperBound && intervalAtIndex.compareUpperBounds(pInterval) >= 0;
       if (lbIndexLeqLb) { // Interval at index starts before interval
         if (ubIndexGeqUb) { // Interval at index ends after interval
           return true;
@@ -425,6 +422,9 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
     if (containsAllPossibleValues()) {
       return 0;
     }
+    if (info.fitsInLong() && value.bitLength() < Long.SIZE) {
+      return intervalIndexOf(value.longValue());
+    }
     int leftInclusive = 0;
     int rightExclusive = this.intervals.length;
     int index = rightExclusive / 2;
@@ -446,6 +446,40 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
     return index == 0 ? -1 : -index;
   }
 
+  /**
+   * Variant of {@link #intervalIndexOf(BigInteger)} operating on the long
+   * bounds of the intervals. May only be called if the bit vector fits into
+   * a long.
+   *
+   * @param value the value to search for.
+   *
+   * @return the index of the interval containing the value, or a negative
+   * value if no interval contains it.
+   */
+  private int intervalIndexOf(long value) {
+    assert info.fitsInLong();
+    if (isBottom()) {
+      return -1;
+    }
+    int leftInclusive = 0;
+    int rightExclusive = this.intervals.length;
+    int index = rightExclusive / 2;
+    while (leftInclusive < rightExclusive) {
+      BitVectorInterval intervalAtIndex = this.intervals[index];
+      if (intervalAtIndex.getLowerBoundAsLong() <= value) { // Interval at index starts before the value
+        if (intervalAtIndex.getUpperBoundAsLong() >= value) { // Interval at index ends after the value
+          return index;
+        }
+        // Interval at index ends before the value
+        leftInclusive = index + 1;
+      } else { // Interval at index starts after the value
+        rightExclusive = index;
+      }
+      index = IntMath.mean(leftInclusive, rightExclusive);
+    }
+    return index == 0 ? -1 : -index;
+  }
+
   /**
    * Checks if the given big integer value is contained in this state.
    * @param pValue the value to check for.
@@ -473,6 +507,11 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
    */
   public boolean contains(long pValue) {
     if (isBottom()) { return false; }
+    if (info.fitsInLong()) {
+      return pValue >= info.getMinValueAsLong()
+          && pValue <= info.getMaxValueAsLong()
+          && intervalIndexOf(pValue) >= 0;
+    }
     BigInteger value = BigInteger.valueOf(pValue);
     return intervalIndexOf(value) >= 0;
   }
@@ -1777,60 +1816,7 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
   private static BitVectorInterval union(BitVectorInterval pA, BitVectorInterval pB) {
     Preconditions.checkArgument(pA.getBitVectorInfo().equals(pB.getBitVectorInfo()));
     Preconditions.checkArgument(pA.touches(pB), "Cannot unite intervals that do not touch.");
-    return BitVectorInterval.of(pA.getBitVectorInfo(), lowestBound(pA, pB), highestBound(pA, pB));
-  }
-
-  /**
-   * Returns the lowest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the lowest lower bound from.
-   * @param pB one if the intervals to get the lowest lower bound from.
-   *
-   * @return the lowest bound of the two given intervals.
-   */
-  private static BigInteger lowestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aLowerBound = pA.getLowerBound();
-    BigInteger bLowerBound = pB.getLowerBound();
-    return lessOrEqual(aLowerBound, bLowerBound) ? aLowerBound : bLowerBound;
-  }
-
-  /**
-   * Returns the highest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the highest upper bound from.
-   * @param pB one if the intervals to get the highest upper bound from.
-   *
-   * @return the highest bound of the two given intervals.
-   */
-  private static BigInteger highestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aUpperBound = pA.getUpperBound();
-    BigInteger bUpperBound = pB.getUpperBound();
-    return lessOrEqual(bUpperBound, aUpperBound) ? aUpperBound : bUpperBound;
-  }
-
-  /**
-   * Checks if the first given big integer is less than the second given big integer,
-   * none of which may be <code>null</code>.
-   *
-   * @param pFirst the value being compared to the reference value.
-   * @param pSecond the reference value.
-   *
-   * @return <code>true</code> if <code>pFirst</code> is less than <code>pSecond</code>, <code>false</code> otherwise.
-   */
-  private static boolean less(BigInteger pFirst, BigInteger pSecond) {
-    return pFirst.compareTo(pSecond) < 0;
-  }
-
-  /**
-   * Checks if the first given big integer is less than or equal to the second given big integer, none of which may be <code>null</code>.
-   *
-   * @param pFirst the value being compared to the reference value.
-   * @param pSecond the reference value.
-   *
-   * @return <code>true</code> if <code>pFirst</code> is less than or equal to <code>pSecond</code>, <code>false</code> otherwise.
-   */
-  private static boolean lessOrEqual(BigInteger pFirst, BigInteger pSecond) {
-    return pFirst.compareTo(pSecond) <= 0;
+    return BitVectorInterval.span(pA, pB);
   }
 
   /**
@@ -1867,7 +1853,7 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
    * @return a compound state representing the given long value.
    */
   public static CompoundBitVectorInterval singleton(BitVectorInfo pInfo, long pValue) {
-    return singleton(pInfo, BigInteger.valueOf(pValue));
+    return CompoundBitVectorInterval.of(BitVectorInterval.singleton(pInfo, pValue));
   }
 
   /**
@@ -26,11 +26,14 @@ package org.sosy_lab.cpachecker.cpa.invariants;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
+import org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector.CheckedLongArithmeticTest;
 import org.sosy_lab.cpachecker.cpa.invariants.operators.mathematical.IIIOperatorTest;
 import org.sosy_lab.cpachecker.cpa.invariants.operators.mathematical.ISIOperatorTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+  BitVectorIntervalTest.class,
+  CheckedLongArithmeticTest.class,
   CompoundMathematicalIntervalTest.class,
   SimpleIntervalTest.class,
   IIIOperatorTest.class,
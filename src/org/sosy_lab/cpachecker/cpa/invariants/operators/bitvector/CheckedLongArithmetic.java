@@ -0,0 +1,88 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector;
+
+import java.math.BigInteger;
+
+/**
+ * Overflow checks for the primitive long fast paths of the bit vector
+ * interval operators. If any of these checks fail, the operators fall back
+ * to big integer arithmetic.
+ */
+final class CheckedLongArithmetic {
+
+  private CheckedLongArithmetic() {
+
+  }
+
+  /**
+   * Checks if the given big integer value can be represented as a long.
+   *
+   * @param pValue the value to check.
+   * @return {@code true} if the value fits into a long, {@code false}
+   * otherwise.
+   */
+  static boolean fitsInLong(BigInteger pValue) {
+    return pValue.bitLength() < Long.SIZE;
+  }
+
+  /**
+   * Checks if the sum of the given values overflows.
+   *
+   * @param pA the first summand.
+   * @param pB the second summand.
+   * @return {@code true} if the sum of the values cannot be represented
+   * as a long, {@code false} otherwise.
+   */
+  static boolean addOverflows(long pA, long pB) {
+    long result = pA + pB;
+    // Overflow occurred iff both summands have a sign different from the result
+    return ((pA ^ result) & (pB ^ result)) < 0;
+  }
+
+  /**
+   * Checks if the product of the given values overflows.
+   *
+   * @param pA the first factor.
+   * @param pB the second factor.
+   * @return {@code true} if the product of the values cannot be represented
+   * as a long, {@code false} otherwise.
+   */
+  static boolean multiplyOverflows(long pA, long pB) {
+    int leadingZeros = Long.numberOfLeadingZeros(pA) + Long.numberOfLeadingZeros(~pA)
+        + Long.numberOfLeadingZeros(pB) + Long.numberOfLeadingZeros(~pB);
+    if (leadingZeros > Long.SIZE + 1) {
+      return false;
+    }
+    if (leadingZeros < Long.SIZE) {
+      return true;
+    }
+    if (pA < 0 && pB == Long.MIN_VALUE) {
+      return true;
+    }
+    long result = pA * pB;
+    return pA != 0 && result / pA != pB;
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class CheckedLongArithmeticTest {
+
+  private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+  private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+  /** Values around the boundaries where overflows start to occur. */
+  private static final long[] VALUES = {
+    Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MIN_VALUE / 2, -(1L << 32) - 1, -(1L << 32),
+    -3037000500L, -3037000499L, Integer.MIN_VALUE, -2, -1, 0, 1, 2, Integer.MAX_VALUE,
+    3037000499L, 3037000500L, 1L << 32, (1L << 32) + 1, Long.MAX_VALUE / 2, Long.MAX_VALUE - 1,
+    Long.MAX_VALUE };
+
+  private static boolean fits(BigInteger pValue) {
+    return pValue.compareTo(LONG_MIN) >= 0 && pValue.compareTo(LONG_MAX) <= 0;
+  }
+
+  @Test
+  public void testFitsInLong() {
+    assertTrue(CheckedLongArithmetic.fitsInLong(BigInteger.ZERO));
+    assertTrue(CheckedLongArithmetic.fitsInLong(LONG_MIN));
+    assertTrue(CheckedLongArithmetic.fitsInLong(LONG_MAX));
+    assertFalse(CheckedLongArithmetic.fitsInLong(LONG_MIN.subtract(BigInteger.ONE)));
+    assertFalse(CheckedLongArithmetic.fitsInLong(LONG_MAX.add(BigInteger.ONE)));
+  }
+
+  @Test
+  public void testAddOverflows() {
+    for (long a : VALUES) {
+      for (long b : VALUES) {
+        boolean expected = !fits(BigInteger.valueOf(a).add(BigInteger.valueOf(b)));
+        assertEquals(a + " + " + b, expected, CheckedLongArithmetic.addOverflows(a, b));
+      }
+    }
+  }
+
+  @Test
+  public void testMultiplyOverflows() {
+    for (long a : VALUES) {
+      for (long b : VALUES) {
+        boolean expected = !fits(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)));
+        assertEquals(a + " * " + b, expected, CheckedLongArithmetic.multiplyOverflows(a, b));
+      }
+    }
+  }
+}
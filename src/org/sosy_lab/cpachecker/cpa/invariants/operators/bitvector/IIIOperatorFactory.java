@@ -78,6 +78,16 @@ public enum IIIOperatorFactory {
          * bounds for the new upper bound. If any of the summands is not
          * finite, the resulting bound isn't finite either.
          */
+        if (pOperand1.hasLongBounds() && pOperand2.hasLongBounds()) {
+          long lowerBound = pOperand1.getLowerBoundAsLong();
+          long upperBound = pOperand1.getUpperBoundAsLong();
+          long pLowerBound = pOperand2.getLowerBoundAsLong();
+          long pUpperBound = pOperand2.getUpperBoundAsLong();
+          if (!CheckedLongArithmetic.addOverflows(lowerBound, pLowerBound)
+              && !CheckedLongArithmetic.addOverflows(upperBound, pUpperBound)) {
+            return BitVectorInterval.cast(pOperand1.getBitVectorInfo(), lowerBound + pLowerBound, upperBound + pUpperBound, pAllowSignedWrapAround);
+          }
+        }
         BigInteger lowerBound = pOperand1.getLowerBound();
         BigInteger upperBound = pOperand1.getUpperBound();
         BigInteger pLowerBound = pOperand2.getLowerBound();
@@ -238,6 +248,25 @@ public enum IIIOperatorFactory {
          * At most one bound of each interval can be infinite and neither
          * of the intervals is a singleton at this point.
          */
+        if (pFirstOperand.hasLongBounds() && pSecondOperand.hasLongBounds()) {
+          long lowerBound = pFirstOperand.getLowerBoundAsLong();
+          long upperBound = pFirstOperand.getUpperBoundAsLong();
+          long pLowerBound = pSecondOperand.getLowerBoundAsLong();
+          long pUpperBound = pSecondOperand.getUpperBoundAsLong();
+          if (!CheckedLongArithmetic.multiplyOverflows(lowerBound, pLowerBound)
+              && !CheckedLongArithmetic.multiplyOverflows(lowerBound, pUpperBound)
+              && !CheckedLongArithmetic.multiplyOverflows(upperBound, pLowerBound)
+              && !CheckedLongArithmetic.multiplyOverflows(upperBound, pUpperBound)) {
+            long lbLb = lowerBound * pLowerBound;
+            long lbUb = lowerBound * pUpperBound;
+            long ubLb = upperBound * pLowerBound;
+            long ubUb = upperBound * pUpperBound;
+            return BitVectorInterval.cast(pFirstOperand.getBitVectorInfo(),
+                Math.min(Math.min(lbLb, lbUb), Math.min(ubLb, ubUb)),
+                Math.max(Math.max(lbLb, lbUb), Math.max(ubLb, ubUb)),
+                pAllowSignedWrapAround);
+          }
+        }
         BigInteger pLowerBound = pSecondOperand.getLowerBound();
         BigInteger pUpperBound = pSecondOperand.getUpperBound();
 
@@ -60,6 +60,15 @@ public enum ISIOperatorFactory {
         if (pFirstOperand.isTop() || pSecondOperand.equals(BigInteger.ZERO)) {
           return pFirstOperand;
         }
+        if (pFirstOperand.hasLongBounds() && CheckedLongArithmetic.fitsInLong(pSecondOperand)) {
+          long value = pSecondOperand.longValue();
+          long lowerBound = pFirstOperand.getLowerBoundAsLong();
+          long upperBound = pFirstOperand.getUpperBoundAsLong();
+          if (!CheckedLongArithmetic.addOverflows(lowerBound, value)
+              && !CheckedLongArithmetic.addOverflows(upperBound, value)) {
+            return BitVectorInterval.cast(pFirstOperand.getBitVectorInfo(), lowerBound + value, upperBound + value, pAllowSignedWrapAround);
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().add(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().add(pSecondOperand);
         return BitVectorInterval.cast(pFirstOperand.getBitVectorInfo(), lowerBound, upperBound, pAllowSignedWrapAround);
@@ -119,6 +128,15 @@ public enum ISIOperatorFactory {
          * Infinite bounds stay infinite, finite bounds are multiplied with
          * the factor.
          */
+        if (pFirstOperand.hasLongBounds() && CheckedLongArithmetic.fitsInLong(pSecondOperand)) {
+          long factor = pSecondOperand.longValue();
+          long lowerBound = pFirstOperand.getLowerBoundAsLong();
+          long upperBound = pFirstOperand.getUpperBoundAsLong();
+          if (!CheckedLongArithmetic.multiplyOverflows(lowerBound, factor)
+              && !CheckedLongArithmetic.multiplyOverflows(upperBound, factor)) {
+            return BitVectorInterval.cast(pFirstOperand.getBitVectorInfo(), lowerBound * factor, upperBound * factor, pAllowSignedWrapAround);
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().multiply(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().multiply(pSecondOperand);
         return BitVectorInterval.cast(pFirstOperand.getBitVectorInfo(), lowerBound, upperBound, pAllowSignedWrapAround);
@@ -113,7 +113,7 @@ public class PolicyCPA extends SingleEdgeTransferRelation
 
     if (useCachingPathFormulaManager) {
       pathFormulaManager = new CachingPathFormulaManager(
-          pathFormulaManager
+          pathFormulaManager, pConfig
       );
     }
 
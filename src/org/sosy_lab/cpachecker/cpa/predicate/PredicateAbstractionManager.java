@@ -43,6 +43,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -111,6 +113,8 @@ public class PredicateAbstractionManager {
     public int numCartesianAbsPredicates = 0;
     public int numCartesianAbsPredicatesCached = 0;
     public int numBooleanAbsPredicates = 0;
+    public int numIncrementalPushedFormulas = 0; // formulas pushed onto the incremental prover
+    public int numIncrementalReusedFormulas = 0; // formulas that were already on the incremental prover
     public final Timer abstractionReuseTime = new Timer();
     public final StatTimer abstractionReuseImplicationTime = new StatTimer("Time for checking reusability of abstractions");
     public final Timer trivialPredicatesTime = new Timer();
@@ -183,6 +187,19 @@ public class PredicateAbstractionManager {
       description="Eliminate propositions about dead variables in abstraction predicates by running a generalization procedure.")
   private boolean elimDeadVariablePredsByGeneralization = false;
 
+  @Option(secure=true, name = "abstraction.incremental",
+      description="Use one prover environment for all abstraction computations instead of a new one for each. "
+          + "The previous abstraction formula and the block formula stay on the prover stack "
+          + "as long as consecutive abstraction computations share them, "
+          + "and only the differing formulas are pushed to the solver.")
+  private boolean incrementalAbstraction = false;
+
+  // Only used if incrementalAbstraction is enabled.
+  private @Nullable ProverEnvironment incrementalProver = null;
+
+  // The formulas on the stack of incrementalProver, one for each level.
+  private final List<BooleanFormula> incrementalProverStack = new ArrayList<>(2);
+
   private boolean warnedOfCartesianAbstraction = false;
 
   private boolean abstractionReuseDisabledBecauseOfAmbiguity = false;
@@ -435,9 +452,9 @@ public class PredicateAbstractionManager {
       stats.trivialPredicatesTime.stop();
     }
 
-    try (ProverEnvironment thmProver = solver.newProverEnvironment()) {
-      thmProver.push(f);
-
+    ProverEnvironment thmProver = getProver(absFormula, symbFormula);
+    boolean proverIsClean = false;
+    try {
       if (predicates.isEmpty() && (abstractionType != AbstractionType.ELIMINATION)) {
         stats.numSatCheckAbstractions++;
 
@@ -493,9 +510,13 @@ public class PredicateAbstractionManager {
           }
 
           // Warning:
-          // buildBooleanAbstraction() does not clean up thmProver, so do not use it here.
+          // buildBooleanAbstraction() does not clean up thmProver
+          // (unless incremental abstraction is enabled), so do not use it here.
         }
       }
+      proverIsClean = true;
+    } finally {
+      releaseProver(thmProver, proverIsClean);
     }
 
     AbstractionFormula result = makeAbstractionFormula(abs, ssa, pathFormula);
@@ -535,6 +556,68 @@ public class PredicateAbstractionManager {
     return result;
   }
 
+  /**
+   * Get a prover environment in which the conjunction of the two formulas is asserted.
+   * If incremental abstraction is enabled, this is always the same environment
+   * and only those formulas that are not already on its stack are pushed.
+   * The environment has to be given back with {@link #releaseProver(ProverEnvironment, boolean)}.
+   */
+  private ProverEnvironment getProver(BooleanFormula pAbsFormula, BooleanFormula pSymbFormula) {
+    if (!incrementalAbstraction) {
+      ProverEnvironment prover = solver.newProverEnvironment();
+      prover.push(bfmgr.and(pAbsFormula, pSymbFormula));
+      return prover;
+    }
+
+    if (incrementalProver == null) {
+      incrementalProver = solver.newProverEnvironment();
+    }
+
+    List<BooleanFormula> formulas = ImmutableList.of(pAbsFormula, pSymbFormula);
+    int common = 0;
+    while (common < incrementalProverStack.size()
+        && incrementalProverStack.get(common).equals(formulas.get(common))) {
+      common++;
+    }
+    stats.numIncrementalReusedFormulas += common;
+
+    while (incrementalProverStack.size() > common) {
+      incrementalProver.pop();
+      incrementalProverStack.remove(incrementalProverStack.size() - 1);
+    }
+    for (BooleanFormula formula : formulas.subList(common, formulas.size())) {
+      incrementalProver.push(formula);
+      incrementalProverStack.add(formula);
+      stats.numIncrementalPushedFormulas++;
+    }
+    return incrementalProver;
+  }
+
+  /**
+   * Give back a prover environment that was retrieved with {@link #getProver(BooleanFormula, BooleanFormula)}.
+   * @param pIsClean Whether all formulas pushed during the abstraction computation were popped again.
+   */
+  private void releaseProver(ProverEnvironment pProver, boolean pIsClean) {
+    if (!incrementalAbstraction) {
+      pProver.close();
+    } else if (!pIsClean) {
+      // we do not know the stack of the prover anymore
+      close();
+    }
+  }
+
+  /**
+   * Close the prover environment that is kept if incremental abstraction is enabled.
+   * It is re-created on the next abstraction computation.
+   */
+  public void close() {
+    if (incrementalProver != null) {
+      incrementalProver.close();
+      incrementalProver = null;
+      incrementalProverStack.clear();
+    }
+  }
+
   private Region eliminateIrrelevantVariablePropositions(BooleanFormula pF, CFANode pLocation, SSAMap pSsa,
       ProverEnvironment pThmProver, ImmutableSet<AbstractionPredicate> pPredicates) throws InterruptedException, SolverException {
 
@@ -913,8 +996,11 @@ public class PredicateAbstractionManager {
     AllSatCallbackImpl callback = new AllSatCallbackImpl();
     Region result = thmProver.allSat(callback, predVars);
 
-    // pop() is actually costly sometimes, and we delete the environment anyway
-    // thmProver.pop();
+    if (incrementalAbstraction) {
+      // the environment is used for the next abstraction computation
+      thmProver.pop();
+    }
+    // otherwise no pop(), it is actually costly sometimes, and we delete the environment anyway
 
     // update statistics
     int numModels = callback.getCount();
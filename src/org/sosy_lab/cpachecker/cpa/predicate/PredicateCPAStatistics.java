@@ -50,6 +50,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.SnapshotStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperPrecision;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.LoopInvariantsWriter;
@@ -63,14 +64,16 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.RegionManager;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.CachingPathFormulaManager;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 
 @Options(prefix="cpa.predicate")
-class PredicateCPAStatistics extends AbstractStatistics {
+class PredicateCPAStatistics extends AbstractStatistics implements SnapshotStatistics {
 
   @Option(secure=true, description="export final predicate map",
           name="predmap.export")
@@ -270,6 +273,10 @@ class PredicateCPAStatistics extends AbstractStatistics {
       out.println("  Times result was cached:         " + valueWithPercentage(as.numCallsAbstractionCached, as.numCallsAbstraction));
       out.println("  Times cartesian abs was used:    " + valueWithPercentage(as.cartesianAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
       out.println("  Times boolean abs was used:      " + valueWithPercentage(as.booleanAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
+      if (as.numIncrementalPushedFormulas + as.numIncrementalReusedFormulas > 0) {
+        out.println("  Formulas pushed to solver:       " + as.numIncrementalPushedFormulas);
+        out.println("  Formulas reused on solver stack: " + valueWithPercentage(as.numIncrementalReusedFormulas, as.numIncrementalPushedFormulas + as.numIncrementalReusedFormulas));
+      }
       out.println("  Times result was 'false':        " + valueWithPercentage(prec.numAbstractionsFalse, prec.numAbstractions));
     }
 
@@ -328,6 +335,10 @@ class PredicateCPAStatistics extends AbstractStatistics {
       int pathFormulaCacheHits = pfMgr.pathFormulaCacheHits;
       int totalPathFormulaComputations = pfMgr.pathFormulaComputationTimer.getNumberOfIntervals() + pathFormulaCacheHits;
       out.println("Number of path formula cache hits:   " + pathFormulaCacheHits + " (" + toPercent(pathFormulaCacheHits, totalPathFormulaComputations) + ")");
+      CacheStats cacheStats = pfMgr.getCacheStats();
+      out.println("  Path formula cache hit rate:       " + toPercent(cacheStats.hitCount(), cacheStats.requestCount()));
+      out.println("  Path formula cache miss rate:      " + toPercent(cacheStats.missCount(), cacheStats.requestCount()));
+      out.println("  Path formula cache size:           " + pfMgr.getCacheSize() + " (evictions: " + cacheStats.evictionCount() + ")");
     }
 
     out.println();
@@ -391,4 +402,12 @@ class PredicateCPAStatistics extends AbstractStatistics {
     out.println();
     rmgr.printStatistics(out);
   }
+
+  @Override
+  public void writeSnapshot(StatisticsWriter writer) {
+    Solver solver = cpa.getSolver();
+    writer.put("solverTime", solver.solverTime)
+          .put("satChecks", solver.satChecks)
+          .put("abstractions", cpa.getPrecisionAdjustment().numAbstractions);
+  }
 }
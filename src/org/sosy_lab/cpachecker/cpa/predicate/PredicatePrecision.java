@@ -31,6 +31,7 @@ import java.util.Set;
 
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.LocationSensitivePrecision;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
@@ -56,7 +57,7 @@ import com.google.common.collect.Sets;
  *
  * All instances of this class are immutable.
  */
-public class PredicatePrecision implements Precision {
+public class PredicatePrecision implements LocationSensitivePrecision {
 
   // do not access theses sets directly except in their getters
   // (overrides from subclass need to be used)
@@ -65,6 +66,9 @@ public class PredicatePrecision implements Precision {
   private final ImmutableSetMultimap<String, AbstractionPredicate> mFunctionPredicates;
   private final ImmutableSet<AbstractionPredicate> mGlobalPredicates;
 
+  // the location-instance predicates indexed by location, computed lazily
+  private volatile ImmutableSetMultimap<CFANode, Pair<Integer, AbstractionPredicate>> mLocationInstancePredicatesByLocation = null;
+
   public PredicatePrecision(
       Multimap<Pair<CFANode, Integer>, AbstractionPredicate> pLocationInstancePredicates,
       Multimap<CFANode, AbstractionPredicate> pLocalPredicates,
@@ -299,6 +303,39 @@ public class PredicatePrecision implements Precision {
     return difference;
   }
 
+  /**
+   * Two predicate precisions have the same effect at a location
+   * if they contain the same predicates that are relevant for this location,
+   * including the location-instance predicates for all instances of it.
+   */
+  @Override
+  public boolean hasSameEffectAt(Precision pOtherPrecision, CFANode pLocation) {
+    if (!(pOtherPrecision instanceof PredicatePrecision)) {
+      return false;
+    }
+    PredicatePrecision other = (PredicatePrecision)pOtherPrecision;
+    return getLocalPredicates().get(pLocation).equals(other.getLocalPredicates().get(pLocation))
+        && getFunctionPredicates().get(pLocation.getFunctionName()).equals(
+            other.getFunctionPredicates().get(pLocation.getFunctionName()))
+        && getGlobalPredicates().equals(other.getGlobalPredicates())
+        && (getLocationInstancePredicates() == other.getLocationInstancePredicates()
+            || getLocationInstancePredicatesByLocation().get(pLocation).equals(
+                other.getLocationInstancePredicatesByLocation().get(pLocation)));
+  }
+
+  private ImmutableSetMultimap<CFANode, Pair<Integer, AbstractionPredicate>> getLocationInstancePredicatesByLocation() {
+    ImmutableSetMultimap<CFANode, Pair<Integer, AbstractionPredicate>> result = mLocationInstancePredicatesByLocation;
+    if (result == null) {
+      ImmutableSetMultimap.Builder<CFANode, Pair<Integer, AbstractionPredicate>> builder = ImmutableSetMultimap.builder();
+      for (Map.Entry<Pair<CFANode, Integer>, AbstractionPredicate> entry : getLocationInstancePredicates().entries()) {
+        builder.put(entry.getKey().getFirst(), Pair.of(entry.getKey().getSecond(), entry.getValue()));
+      }
+      result = builder.build();
+      mLocationInstancePredicatesByLocation = result;
+    }
+    return result;
+  }
+
   @Override
   public int hashCode() {
     return Objects.hash(getGlobalPredicates(),
@@ -27,10 +27,6 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -39,16 +35,24 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
+import org.sosy_lab.cpachecker.util.collections.PersistentHashMap;
+import org.sosy_lab.cpachecker.util.collections.PersistentHashSet;
 
-import com.google.common.collect.ImmutableList;
-
+/**
+ * A symbolic memory graph.
+ *
+ * All components of the graph are stored in persistent collections,
+ * thus copying an SMG is cheap and a copy shares all unchanged parts
+ * with the original graph. Modifying one of the graphs does not affect
+ * the other one.
+ */
 public class SMG {
-  final private HashSet<SMGObject> objects = new HashSet<>();
-  final private HashSet<Integer> values = new HashSet<>();
-  final private HashSet<SMGEdgeHasValue> hv_edges = new HashSet<>();
-  final private HashMap<Integer, SMGEdgePointsTo> pt_edges = new HashMap<>();
-  final private HashMap<SMGObject, Boolean> object_validity = new HashMap<>();
-  final private NeqRelation neq = new NeqRelation();
+  private PersistentHashSet<SMGObject> objects = PersistentHashSet.of();
+  private PersistentHashSet<Integer> values = PersistentHashSet.of();
+  private SMGHasValueEdges hv_edges = SMGHasValueEdges.of();
+  private PersistentHashMap<Integer, SMGEdgePointsTo> pt_edges = PersistentHashMap.of();
+  private PersistentHashMap<SMGObject, Boolean> object_validity = PersistentHashMap.of();
+  final private NeqRelation neq;
 
   final private MachineModel machine_model;
 
@@ -73,8 +77,9 @@ public class SMG {
   public SMG(final MachineModel pMachineModel) {
     SMGEdgePointsTo nullPointer = new SMGEdgePointsTo(nullAddress, nullObject, 0);
 
-    addObject(nullObject);
-    object_validity.put(nullObject, false);
+    neq = new NeqRelation();
+
+    addObject(nullObject, false);
 
     addValue(nullAddress);
     addPointsToEdge(nullPointer);
@@ -87,19 +92,21 @@ public class SMG {
    *
    * Consistent after call: yes if pHeap is consistent, no otherwise.
    *
+   * Runs in constant time, the copy shares all its components with pHeap.
+   *
    * @param pHeap Original SMG.
    */
   public SMG(final SMG pHeap) {
-    objects.addAll(pHeap.objects);
-    values.addAll(pHeap.values);
-    hv_edges.addAll(pHeap.hv_edges);
-    pt_edges.putAll(pHeap.pt_edges);
+    objects = pHeap.objects;
+    values = pHeap.values;
+    hv_edges = pHeap.hv_edges;
+    pt_edges = pHeap.pt_edges;
 
-    object_validity.putAll(pHeap.object_validity);
+    object_validity = pHeap.object_validity;
 
     machine_model = pHeap.machine_model;
 
-    neq.putAll(pHeap.neq);
+    neq = new NeqRelation(pHeap.neq);
   }
 
   @Override
@@ -197,7 +204,7 @@ public class SMG {
    * @param pValue Value to remove
    */
   final public void removeValue(final Integer pValue) {
-    values.remove(pValue);
+    values = values.removeAndCopy(pValue);
     neq.removeValue(pValue);
   }
   /**
@@ -209,8 +216,8 @@ public class SMG {
    * @param pObj Object to remove
    */
   final public void removeObject(final SMGObject pObj) {
-    objects.remove(pObj);
-    object_validity.remove(pObj);
+    objects = objects.removeAndCopy(pObj);
+    object_validity = object_validity.removeAndCopy(pObj);
   }
 
   /**
@@ -222,17 +229,11 @@ public class SMG {
    */
   final public void removeObjectAndEdges(final SMGObject pObj) {
     removeObject(pObj);
-    Iterator<SMGEdgeHasValue> hv_iter = hv_edges.iterator();
-    Iterator<SMGEdgePointsTo> pt_iter = pt_edges.values().iterator();
-    while (hv_iter.hasNext()) {
-      if (hv_iter.next().getObject() == pObj) {
-        hv_iter.remove();
-      }
-    }
+    hv_edges = hv_edges.removeEdgesOfObjectAndCopy(pObj);
 
-    while (pt_iter.hasNext()) {
-      if (pt_iter.next().getObject() == pObj) {
-        pt_iter.remove();
+    for (SMGEdgePointsTo pt : pt_edges.values()) {
+      if (pt.getObject() == pObj) {
+        pt_edges = pt_edges.removeAndCopy(pt.getValue());
       }
     }
   }
@@ -247,8 +248,8 @@ public class SMG {
    *
    */
   final public void addObject(final SMGObject pObj, final boolean pValidity) {
-    objects.add(pObj);
-    object_validity.put(pObj, pValidity);
+    objects = objects.addAndCopy(pObj);
+    object_validity = object_validity.putAndCopy(pObj, pValidity);
   }
 
   /**
@@ -259,7 +260,7 @@ public class SMG {
    * @param pValue  Value to add.
    */
   final public void addValue(Integer pValue) {
-    values.add(pValue);
+    values = values.addAndCopy(pValue);
   }
 
   /**
@@ -270,7 +271,7 @@ public class SMG {
    * @param pEdge Points-To edge to add.
    */
   final public void addPointsToEdge(SMGEdgePointsTo pEdge) {
-    pt_edges.put(pEdge.getValue(), pEdge);
+    pt_edges = pt_edges.putAndCopy(pEdge.getValue(), pEdge);
   }
 
   /**
@@ -281,7 +282,7 @@ public class SMG {
    * @param pEdge Has-Value edge to add
    */
   final public void addHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.add(pEdge);
+    hv_edges = hv_edges.addEdgeAndCopy(pEdge);
   }
 
   /**
@@ -292,7 +293,7 @@ public class SMG {
    * @param pEdge Has-Value edge to remove
    */
   final public void removeHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.remove(pEdge);
+    hv_edges = hv_edges.removeEdgeAndCopy(pEdge);
   }
 
   /**
@@ -303,7 +304,7 @@ public class SMG {
    * @param pValue the Source of the Points-To edge to be removed
    */
   final public void removePointsToEdge(int pValue) {
-    pt_edges.remove(pValue);
+    pt_edges = pt_edges.removeAndCopy(pValue);
   }
 
   /**
@@ -321,7 +322,7 @@ public class SMG {
       throw new IllegalArgumentException("Object [" + pObject + "] not in SMG");
     }
 
-    object_validity.put(pObject, pValidity);
+    object_validity = object_validity.putAndCopy(pObject, pValidity);
   }
 
   /**
@@ -331,8 +332,7 @@ public class SMG {
    * Keeps consistency: no
    */
   public void replaceHVSet(Set<SMGEdgeHasValue> pNewHV) {
-    hv_edges.clear();
-    hv_edges.addAll(pNewHV);
+    hv_edges = SMGHasValueEdges.copyOf(pNewHV);
   }
 
   /**
@@ -392,45 +392,47 @@ public class SMG {
   }
 
   /**
-   * Getter for obtaining unmodifiable view on values set. Constant.
-   * @return Unmodifiable view on values set.
+   * Getter for obtaining an immutable snapshot of the values set. Constant.
+   * @return Immutable snapshot of the values set.
    */
   final public Set<Integer> getValues() {
-    return Collections.unmodifiableSet(values);
+    return values;
   }
 
   /**
-   * Getter for obtaining unmodifiable view on objects set. Constant.
-   * @return Unmodifiable view on objects set.
+   * Getter for obtaining an immutable snapshot of the objects set. Constant.
+   * @return Immutable snapshot of the objects set.
    */
   final public Set<SMGObject> getObjects() {
-    return Collections.unmodifiableSet(objects);
+    return objects;
   }
 
   /**
-   * Getter for obtaining unmodifiable view on Has-Value edges set. Constant.
-   * @return Unmodifiable view on Has-Value edges set.
+   * Getter for obtaining an immutable snapshot of the Has-Value edges set. Constant.
+   * @return Immutable snapshot of the Has-Value edges set.
    */
   final public Set<SMGEdgeHasValue> getHVEdges() {
-    return Collections.unmodifiableSet(hv_edges);
+    return hv_edges;
   }
 
   /**
    * Getter for obtaining unmodifiable view on Has-Value edges set, filtered by
    * a certain set of criteria.
+   * The query is answered from the indexes of the edge set if possible,
+   * see {@link SMGEdgeHasValueFilter#filterSet(Set)}.
    * @param pFilter Filtering object
    * @return A set of Has-Value edges for which the criteria in p hold
    */
   final public Set<SMGEdgeHasValue> getHVEdges(SMGEdgeHasValueFilter pFilter) {
-    return Collections.unmodifiableSet(pFilter.filterSet(hv_edges));
+    return pFilter.filterSet(hv_edges);
   }
 
   /**
-   * Getter for obtaining unmodifiable view on Points-To edges set. Constant.
-   * @return Unmodifiable view on Points-To edges set.
+   * Getter for obtaining an immutable snapshot of the Points-To edges map. Constant.
+   * @return Immutable snapshot of the Points-To edges map.
    */
   final public Map<Integer, SMGEdgePointsTo> getPTEdges() {
-    return Collections.unmodifiableMap(pt_edges );
+    return pt_edges;
   }
 
   /**
@@ -452,8 +454,9 @@ public class SMG {
       throw new IllegalArgumentException("Value [" + pValue + "] not in SMG");
     }
 
-    if (pt_edges.containsKey(pValue)) {
-      return pt_edges.get(pValue).getObject();
+    SMGEdgePointsTo edge = pt_edges.get(pValue);
+    if (edge != null) {
+      return edge.getObject();
     } else {
       return null;
     }
@@ -557,16 +560,12 @@ public class SMG {
 
     neq.mergeValues(pV1, pV2);
     removeValue(pV2);
-    HashSet<SMGEdgeHasValue> new_hv_edges = new HashSet<>();
-    for (SMGEdgeHasValue hv : hv_edges) {
-      if (hv.getValue() != pV2) {
-        new_hv_edges.add(hv);
-      } else {
-        new_hv_edges.add(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
-      }
+    SMGHasValueEdges new_hv_edges = hv_edges;
+    for (SMGEdgeHasValue hv : hv_edges.getEdgesToValue(pV2)) {
+      new_hv_edges = new_hv_edges.removeEdgeAndCopy(hv)
+          .addEdgeAndCopy(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
     }
-    hv_edges.clear();
-    hv_edges.addAll(new_hv_edges);
+    hv_edges = new_hv_edges;
     // TODO: Handle PT Edges: I'm not entirely sure how they should be handled
   }
 
@@ -832,7 +831,23 @@ final class SMGConsistencyVerifier {
   }
 }
 
+/**
+ * The symmetric relation of values that are known to be not equal.
+ * It is backed by persistent collections, thus copying is cheap.
+ */
 final class NeqRelation {
+
+  private PersistentHashMap<Integer, PersistentHashSet<Integer>> smgValues = PersistentHashMap.of();
+
+  NeqRelation() {}
+
+  /**
+   * Copy constructor, runs in constant time.
+   */
+  NeqRelation(NeqRelation pNeq) {
+    smgValues = pNeq.smgValues;
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -842,10 +857,11 @@ final class NeqRelation {
   }
 
   public Set<Integer> getNeqsForValue(Integer pV) {
-    if (smgValues.containsKey(pV)) {
-      return Collections.unmodifiableSet(new HashSet<>(smgValues.get(pV)));
+    Set<Integer> neqs = smgValues.get(pV);
+    if (neqs != null) {
+      return neqs;
     }
-    return Collections.unmodifiableSet(new HashSet<Integer>());
+    return Collections.emptySet();
   }
 
   @Override
@@ -870,7 +886,14 @@ final class NeqRelation {
     return true;
   }
 
-  private final Map<Integer, List<Integer>> smgValues = new HashMap<>();
+  private PersistentHashSet<Integer> getNeqs(Integer pV) {
+    PersistentHashSet<Integer> neqs = smgValues.get(pV);
+    return neqs == null ? PersistentHashSet.<Integer>of() : neqs;
+  }
+
+  private void setNeqs(Integer pV, PersistentHashSet<Integer> pNeqs) {
+    smgValues = smgValues.putAndCopy(pV, pNeqs);
+  }
 
   public void add_relation(Integer pOne, Integer pTwo) {
 
@@ -878,75 +901,62 @@ final class NeqRelation {
       return;
     }
 
-    if (! smgValues.containsKey(pOne)) {
-      smgValues.put(pOne, new ArrayList<Integer>());
-    }
-    if (! smgValues.containsKey(pTwo)) {
-      smgValues.put(pTwo, new ArrayList<Integer>());
-    }
-
-    if (! smgValues.get(pOne).contains(pTwo)) {
-      smgValues.get(pOne).add(pTwo);
-      smgValues.get(pTwo).add(pOne);
-    }
+    setNeqs(pOne, getNeqs(pOne).addAndCopy(pTwo));
+    setNeqs(pTwo, getNeqs(pTwo).addAndCopy(pOne));
   }
 
   public void putAll(NeqRelation pNeq) {
-    for (Integer key : pNeq.smgValues.keySet()) {
-      smgValues.put(key, new ArrayList<Integer>());
-      smgValues.get(key).addAll(pNeq.smgValues.get(key));
+    if (smgValues.isEmpty()) {
+      smgValues = pNeq.smgValues;
+      return;
+    }
+    for (Map.Entry<Integer, PersistentHashSet<Integer>> entry : pNeq.smgValues.entrySet()) {
+      setNeqs(entry.getKey(), entry.getValue());
     }
   }
 
   public void remove_relation(Integer pOne, Integer pTwo) {
     if (smgValues.containsKey(pOne) && smgValues.containsKey(pTwo)) {
-      List<Integer> listOne = smgValues.get(pOne);
-      List<Integer> listTwo = smgValues.get(pTwo);
+      PersistentHashSet<Integer> setOne = smgValues.get(pOne);
+      PersistentHashSet<Integer> setTwo = smgValues.get(pTwo);
 
-      if (listOne.contains(pTwo)) {
-        listOne.remove(pTwo);
-        listTwo.remove(pOne);
+      if (setOne.contains(pTwo)) {
+        setNeqs(pOne, setOne.removeAndCopy(pTwo));
+        setNeqs(pTwo, setTwo.removeAndCopy(pOne));
       }
     }
   }
 
   public boolean neq_exists(Integer pOne, Integer pTwo) {
-    if (smgValues.containsKey(pOne) && smgValues.get(pOne).contains(pTwo)) {
-      return true;
-    }
-    return false;
+    return getNeqs(pOne).contains(pTwo);
   }
 
   public void removeValue(Integer pOne) {
-    if (smgValues.containsKey(pOne)) {
-      for (Integer other : smgValues.get(pOne)) {
-        smgValues.get(other).remove(pOne);
+    PersistentHashSet<Integer> neqs = smgValues.get(pOne);
+    if (neqs != null) {
+      for (Integer other : neqs) {
+        setNeqs(other, getNeqs(other).removeAndCopy(pOne));
       }
-      smgValues.remove(pOne);
+      smgValues = smgValues.removeAndCopy(pOne);
     }
   }
 
   public void mergeValues(Integer pOne, Integer pTwo) {
     if (! smgValues.containsKey(pOne)) {
-      smgValues.put(pOne, new ArrayList<Integer>());
-    }
-    if (! smgValues.containsKey(pTwo)) {
-      smgValues.put(pTwo, new ArrayList<Integer>());
+      setNeqs(pOne, PersistentHashSet.<Integer>of());
     }
 
-    List<Integer> values = ImmutableList.copyOf(smgValues.get(pTwo));
+    PersistentHashSet<Integer> values = getNeqs(pTwo);
     removeValue(pTwo);
 
-    List<Integer> my = smgValues.get(pOne);
     for (Integer value : values) {
       if(!smgValues.containsKey(value)) {
         continue;
       }
 
-      List<Integer> other = smgValues.get(value);
-      if ((! value.equals(pOne)) && (! other.contains(pOne))) {
-        other.add(pOne);
-        my.add(value);
+      if ((! value.equals(pOne)) && (! getNeqs(value).contains(pOne))) {
+        setNeqs(value, getNeqs(value).addAndCopy(pOne));
+        setNeqs(pOne, getNeqs(pOne).addAndCopy(value));
       }
     }
   }
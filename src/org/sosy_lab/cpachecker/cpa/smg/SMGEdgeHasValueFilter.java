@@ -97,9 +97,31 @@ public class SMGEdgeHasValueFilter {
     return true;
   }
 
+  /**
+   * Select the edges of a set that may satisfy this filter.
+   * If the set is the edge set of an SMG, its indexes are used
+   * to avoid looking at all edges, otherwise the set itself is returned.
+   */
+  private Set<SMGEdgeHasValue> getCandidates(Set<SMGEdgeHasValue> pEdges) {
+    if (!(pEdges instanceof SMGHasValueEdges)) {
+      return pEdges;
+    }
+    SMGHasValueEdges indexedEdges = (SMGHasValueEdges) pEdges;
+
+    if (object != null && offset != null) {
+      return indexedEdges.getEdgesOfObjectAtOffset(object, offset);
+    } else if (object != null) {
+      return indexedEdges.getEdgesOfObject(object);
+    } else if (value != null && !valueComplement) {
+      return indexedEdges.getEdgesToValue(value);
+    } else {
+      return pEdges;
+    }
+  }
+
   public Set<SMGEdgeHasValue> filterSet(Set<SMGEdgeHasValue> pEdges) {
     Set<SMGEdgeHasValue> returnSet = new HashSet<>();
-    for (SMGEdgeHasValue edge : pEdges) {
+    for (SMGEdgeHasValue edge : getCandidates(pEdges)) {
       if (holdsFor(edge)) {
         returnSet.add(edge);
       }
@@ -114,7 +136,7 @@ public class SMGEdgeHasValueFilter {
     assert offset != null;
     assert type != null;
 
-    for (SMGEdgeHasValue edge : pEdges) {
+    for (SMGEdgeHasValue edge : getCandidates(pEdges)) {
       if (holdsFor(edge)) {
         return true;
       }
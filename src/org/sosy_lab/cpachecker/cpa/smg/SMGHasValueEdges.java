@@ -0,0 +1,198 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
+import org.sosy_lab.cpachecker.util.collections.PersistentHashMap;
+import org.sosy_lab.cpachecker.util.collections.PersistentHashSet;
+
+/**
+ * An immutable set of Has-Value edges with secondary indexes
+ * by object, by object and offset, and by value.
+ * The indexes are used by {@link SMGEdgeHasValueFilter}
+ * to answer queries without scanning all edges of the SMG.
+ *
+ * All components are persistent, so adding or removing an edge
+ * creates a new instance that shares most of its structure with this one.
+ */
+@Immutable
+final class SMGHasValueEdges extends AbstractSet<SMGEdgeHasValue> {
+
+  private static final SMGHasValueEdges EMPTY_EDGES = new SMGHasValueEdges(
+      PersistentHashSet.<SMGEdgeHasValue>of(),
+      PersistentHashMap.<SMGObject, PersistentHashSet<SMGEdgeHasValue>>of(),
+      PersistentHashMap.<Pair<SMGObject, Integer>, PersistentHashSet<SMGEdgeHasValue>>of(),
+      PersistentHashMap.<Integer, PersistentHashSet<SMGEdgeHasValue>>of());
+
+  private final PersistentHashSet<SMGEdgeHasValue> edges;
+  private final PersistentHashMap<SMGObject, PersistentHashSet<SMGEdgeHasValue>> edgesByObject;
+  private final PersistentHashMap<Pair<SMGObject, Integer>, PersistentHashSet<SMGEdgeHasValue>> edgesByObjectAndOffset;
+  private final PersistentHashMap<Integer, PersistentHashSet<SMGEdgeHasValue>> edgesByValue;
+
+  private SMGHasValueEdges(
+      PersistentHashSet<SMGEdgeHasValue> pEdges,
+      PersistentHashMap<SMGObject, PersistentHashSet<SMGEdgeHasValue>> pEdgesByObject,
+      PersistentHashMap<Pair<SMGObject, Integer>, PersistentHashSet<SMGEdgeHasValue>> pEdgesByObjectAndOffset,
+      PersistentHashMap<Integer, PersistentHashSet<SMGEdgeHasValue>> pEdgesByValue) {
+    edges = pEdges;
+    edgesByObject = pEdgesByObject;
+    edgesByObjectAndOffset = pEdgesByObjectAndOffset;
+    edgesByValue = pEdgesByValue;
+  }
+
+  static SMGHasValueEdges of() {
+    return EMPTY_EDGES;
+  }
+
+  static SMGHasValueEdges copyOf(Set<SMGEdgeHasValue> pEdges) {
+    if (pEdges instanceof SMGHasValueEdges) {
+      return (SMGHasValueEdges) pEdges;
+    }
+    SMGHasValueEdges result = of();
+    for (SMGEdgeHasValue edge : pEdges) {
+      result = result.addEdgeAndCopy(edge);
+    }
+    return result;
+  }
+
+  private static Pair<SMGObject, Integer> objectAndOffset(SMGObject pObject, int pOffset) {
+    return Pair.of(pObject, pOffset);
+  }
+
+  private static <K> PersistentHashMap<K, PersistentHashSet<SMGEdgeHasValue>> addToIndex(
+      PersistentHashMap<K, PersistentHashSet<SMGEdgeHasValue>> pIndex, K pKey, SMGEdgeHasValue pEdge) {
+    PersistentHashSet<SMGEdgeHasValue> entry = pIndex.get(pKey);
+    if (entry == null) {
+      entry = PersistentHashSet.of();
+    }
+    return pIndex.putAndCopy(pKey, entry.addAndCopy(pEdge));
+  }
+
+  private static <K> PersistentHashMap<K, PersistentHashSet<SMGEdgeHasValue>> removeFromIndex(
+      PersistentHashMap<K, PersistentHashSet<SMGEdgeHasValue>> pIndex, K pKey, SMGEdgeHasValue pEdge) {
+    PersistentHashSet<SMGEdgeHasValue> entry = pIndex.get(pKey);
+    if (entry == null) {
+      return pIndex;
+    }
+    entry = entry.removeAndCopy(pEdge);
+    return entry.isEmpty() ? pIndex.removeAndCopy(pKey) : pIndex.putAndCopy(pKey, entry);
+  }
+
+  SMGHasValueEdges addEdgeAndCopy(SMGEdgeHasValue pEdge) {
+    if (edges.contains(pEdge)) {
+      return this;
+    }
+    return new SMGHasValueEdges(
+        edges.addAndCopy(pEdge),
+        addToIndex(edgesByObject, pEdge.getObject(), pEdge),
+        addToIndex(edgesByObjectAndOffset, objectAndOffset(pEdge.getObject(), pEdge.getOffset()), pEdge),
+        addToIndex(edgesByValue, pEdge.getValue(), pEdge));
+  }
+
+  SMGHasValueEdges removeEdgeAndCopy(SMGEdgeHasValue pEdge) {
+    if (!edges.contains(pEdge)) {
+      return this;
+    }
+    PersistentHashSet<SMGEdgeHasValue> newEdges = edges.removeAndCopy(pEdge);
+    if (newEdges.isEmpty()) {
+      return of();
+    }
+    return new SMGHasValueEdges(
+        newEdges,
+        removeFromIndex(edgesByObject, pEdge.getObject(), pEdge),
+        removeFromIndex(edgesByObjectAndOffset, objectAndOffset(pEdge.getObject(), pEdge.getOffset()), pEdge),
+        removeFromIndex(edgesByValue, pEdge.getValue(), pEdge));
+  }
+
+  /**
+   * Remove all edges leading from the given object.
+   */
+  SMGHasValueEdges removeEdgesOfObjectAndCopy(SMGObject pObject) {
+    SMGHasValueEdges result = this;
+    for (SMGEdgeHasValue edge : getEdgesOfObject(pObject)) {
+      result = result.removeEdgeAndCopy(edge);
+    }
+    return result;
+  }
+
+  /** Returns all edges leading from the given object. */
+  Set<SMGEdgeHasValue> getEdgesOfObject(SMGObject pObject) {
+    return nullToEmpty(edgesByObject.get(pObject));
+  }
+
+  /** Returns all edges leading from the given object at the given offset. */
+  Set<SMGEdgeHasValue> getEdgesOfObjectAtOffset(SMGObject pObject, int pOffset) {
+    return nullToEmpty(edgesByObjectAndOffset.get(objectAndOffset(pObject, pOffset)));
+  }
+
+  /** Returns all edges leading to the given value. */
+  Set<SMGEdgeHasValue> getEdgesToValue(int pValue) {
+    return nullToEmpty(edgesByValue.get(pValue));
+  }
+
+  private static Set<SMGEdgeHasValue> nullToEmpty(@Nullable PersistentHashSet<SMGEdgeHasValue> pEdges) {
+    return pEdges == null ? PersistentHashSet.<SMGEdgeHasValue>of() : pEdges;
+  }
+
+  @Override
+  public boolean contains(Object pO) {
+    return edges.contains(pO);
+  }
+
+  @Override
+  public Iterator<SMGEdgeHasValue> iterator() {
+    return edges.iterator();
+  }
+
+  @Override
+  public int size() {
+    return edges.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return edges.isEmpty();
+  }
+
+  @Override
+  public boolean equals(Object pO) {
+    if (pO instanceof SMGHasValueEdges) {
+      return edges.equals(((SMGHasValueEdges) pO).edges);
+    }
+    return super.equals(pO);
+  }
+
+  @Override
+  public int hashCode() {
+    return edges.hashCode();
+  }
+}
@@ -35,8 +35,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
-import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.cfa.types.Type;
 import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
@@ -59,10 +57,12 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.refinement.ForgetfulState;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.states.PersistentMemoryLocationMap;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Multimap;
 
 public class ValueAnalysisState implements AbstractQueryableState, FormulaReportingState,
@@ -79,18 +79,22 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
   /**
    * the map that keeps the name of variables and their constant values (concrete and symbolic ones)
+   *
+   * Note: iteration over this map and over memLocToType is not sorted by the memory locations
+   * (it depends on their ids), code that needs a deterministic order has to sort itself
+   * (as toString and toDOTLabel do).
    */
-  private PersistentMap<MemoryLocation, Value> constantsMap;
+  private PersistentMemoryLocationMap<Value> constantsMap;
 
-  private transient PersistentMap<MemoryLocation, Type> memLocToType = PathCopyingPersistentTreeMap.of();
+  private transient PersistentMemoryLocationMap<Type> memLocToType = PersistentMemoryLocationMap.of();
 
   public ValueAnalysisState() {
-    constantsMap = PathCopyingPersistentTreeMap.of();
+    constantsMap = PersistentMemoryLocationMap.of();
   }
 
-  public ValueAnalysisState(PersistentMap<MemoryLocation, Value> pConstantsMap, PersistentMap<MemoryLocation, Type> pLocToTypeMap) {
-    this.constantsMap = pConstantsMap;
-    this.memLocToType = pLocToTypeMap;
+  public ValueAnalysisState(Map<MemoryLocation, Value> pConstantsMap, Map<MemoryLocation, Type> pLocToTypeMap) {
+    this.constantsMap = PersistentMemoryLocationMap.copyOf(pConstantsMap);
+    this.memLocToType = PersistentMemoryLocationMap.copyOf(pLocToTypeMap);
   }
 
   public static ValueAnalysisState copyOf(ValueAnalysisState state) {
@@ -134,7 +138,11 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     }
 
     addToConstantsMap(pMemoryLocation, value);
-    memLocToType = memLocToType.putAndCopy(pMemoryLocation, pType);
+    if (pType == null) {
+      memLocToType = memLocToType.removeAndCopy(pMemoryLocation);
+    } else {
+      memLocToType = memLocToType.putAndCopy(pMemoryLocation, pType);
+    }
   }
 
   /**
@@ -330,15 +338,18 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
    */
   @Override
   public ValueAnalysisState join(ValueAnalysisState reachedState) {
-    PersistentMap<MemoryLocation, Value> newConstantsMap = PathCopyingPersistentTreeMap.of();
-    PersistentMap<MemoryLocation, Type> newlocToTypeMap = PathCopyingPersistentTreeMap.of();
+    PersistentMemoryLocationMap<Value> newConstantsMap = PersistentMemoryLocationMap.of();
+    PersistentMemoryLocationMap<Type> newlocToTypeMap = PersistentMemoryLocationMap.of();
 
     for (Map.Entry<MemoryLocation, Value> otherEntry : reachedState.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
 
       if (Objects.equals(otherEntry.getValue(), constantsMap.get(key))) {
         newConstantsMap = newConstantsMap.putAndCopy(key, otherEntry.getValue());
-        newlocToTypeMap = newlocToTypeMap.putAndCopy(key, memLocToType.get(key));
+        Type type = memLocToType.get(key);
+        if (type != null) {
+          newlocToTypeMap = newlocToTypeMap.putAndCopy(key, type);
+        }
       }
     }
 
@@ -408,7 +419,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   public String toString() {
     StringBuilder sb = new StringBuilder();
     sb.append("[");
-    for (Map.Entry<MemoryLocation, Value> entry : constantsMap.entrySet()) {
+    for (Map.Entry<MemoryLocation, Value> entry : ImmutableSortedMap.copyOf(constantsMap).entrySet()) {
       MemoryLocation key = entry.getKey();
       sb.append(" <");
       sb.append(key.getAsSimpleString());
@@ -430,7 +441,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     StringBuilder sb = new StringBuilder();
 
     sb.append("[");
-    Joiner.on(", ").withKeyValueSeparator("=").appendTo(sb, constantsMap);
+    Joiner.on(", ").withKeyValueSeparator("=").appendTo(sb, ImmutableSortedMap.copyOf(constantsMap));
     sb.append("]");
 
     return sb.toString();
@@ -750,6 +761,6 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     } catch (ClassNotFoundException e) {
       throw new IOException("",e);
     }
-    memLocToType = PathCopyingPersistentTreeMap.of();
+    memLocToType = PersistentMemoryLocationMap.of();
   }
 }
@@ -227,6 +227,29 @@ public class ValueAnalysisTransferRelation
     constraintsStrengthenOperator = new ConstraintsStrengthenOperator(config);
   }
 
+  /**
+   * Create a transfer relation with the same configuration as the given one
+   * that can be used by another thread.
+   * Both share the statistics, but not the information that is kept between
+   * the transfer and the strengthening of a state.
+   */
+  ValueAnalysisTransferRelation(ValueAnalysisTransferRelation pOther) {
+    initAssumptionVars = pOther.initAssumptionVars;
+    assignSymbolicAssumptionVars = pOther.assignSymbolicAssumptionVars;
+    automatonAssumesAsStatements = pOther.automatonAssumesAsStatements;
+    optimizeBooleanVariables = pOther.optimizeBooleanVariables;
+    trackJavaArrayValues = pOther.trackJavaArrayValues;
+
+    machineModel = pOther.machineModel;
+    // the set of messages that were already logged is not thread-safe
+    logger = new LogManagerWithoutDuplicates(pOther.logger);
+    addressedVariables = pOther.addressedVariables;
+    booleanVariables = pOther.booleanVariables;
+
+    unknownValueHandler = pOther.unknownValueHandler;
+    constraintsStrengthenOperator = pOther.constraintsStrengthenOperator;
+  }
+
   @Override
   protected Collection<ValueAnalysisState> postProcessing(ValueAnalysisState successor) {
     // always return a new state (requirement for strengthening states with interpolants)
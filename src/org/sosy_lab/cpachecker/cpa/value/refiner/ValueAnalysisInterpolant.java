@@ -32,7 +32,6 @@ import java.util.Set;
 
 import javax.annotation.Nullable;
 
-import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.cpachecker.cfa.types.Type;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
@@ -207,7 +206,7 @@ public class ValueAnalysisInterpolant implements Interpolant<ValueAnalysisState>
       throw new IllegalStateException("Can't reconstruct state from FALSE-interpolant");
 
     } else {
-      return new ValueAnalysisState(PathCopyingPersistentTreeMap.copyOf(assignment), PathCopyingPersistentTreeMap.copyOf(assignmentTypes));
+      return new ValueAnalysisState(assignment, assignmentTypes);
     }
   }
 
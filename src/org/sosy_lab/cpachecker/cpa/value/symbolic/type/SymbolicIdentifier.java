@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.cpa.value.symbolic.type;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
@@ -54,8 +56,8 @@ public class SymbolicIdentifier implements SymbolicValue, Comparable<SymbolicIde
 
   private static final long serialVersionUID = -3773425414056328601L;
 
-  // stores the next usable id
-  private static long nextId = 0;
+  // stores the next usable id, may be requested concurrently by parallel analyses
+  private static final AtomicLong nextId = new AtomicLong();
 
   // this objects unique id for identifying it
   private final long id;
@@ -80,7 +82,7 @@ public class SymbolicIdentifier implements SymbolicValue, Comparable<SymbolicIde
    * @return a new instance of a <code>SymbolicIdentifier</code>
    */
   static SymbolicIdentifier getNewIdentifier() {
-    return new SymbolicIdentifier(nextId++);
+    return new SymbolicIdentifier(nextId.getAndIncrement());
   }
 
   @Override
@@ -38,6 +38,8 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.Triple;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -78,6 +80,31 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @IntegerOption(min=1)
   protected int numThreads = 1;
 
+  static enum ProofFormat {
+    /** zip file with one entry per proof stream */
+    ZIP,
+    /** independently compressed chunks with a header for random access, see {@link ChunkedProofFile} */
+    CHUNKED,
+  }
+
+  @Option(secure=true,
+      name = "proofFormat",
+      description = "format in which the proof is written: "
+          + "a zip file with one entry per proof stream, "
+          + "or independently compressed chunks that are read in parallel "
+          + "(with pcc.useCores threads) and can be read in any order. "
+          + "The format is detected automatically when the proof is read.")
+  private ProofFormat proofFormat = ProofFormat.ZIP;
+
+  @Option(secure=true,
+      name = "chunkCompressionLevel",
+      description = "compression level (0-9) of the chunks if the proof is written in the chunked format")
+  @IntegerOption(min=0, max=9)
+  private int chunkCompressionLevel = 6;
+
+  // set lazily when a proof in the chunked format is read
+  private @Nullable ChunkedProofFile chunkedProof = null;
+
   public AbstractStrategy(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
     pConfig.inject(this, AbstractStrategy.class);
     numThreads = Math.max(1, numThreads);
@@ -90,6 +117,10 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @Override
   @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Do not close stream o because it wraps stream zos/fos which need to remain open and would be closed if o.close() is called.")
   public void writeProof(UnmodifiableReachedSet pReached) {
+    if (proofFormat == ProofFormat.CHUNKED) {
+      writeChunkedProof(pReached);
+      return;
+    }
 
     OutputStream fos = null;
     try {
@@ -123,11 +154,7 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       zos.putNextEntry(ze);
       //write helper storages
       o = new ObjectOutputStream(zos);
-      int numberOfStorages = GlobalInfo.getInstance().getNumberOfHelperStorages();
-      o.writeInt(numberOfStorages);
-      for (int i = 0; i < numberOfStorages; ++i) {
-        o.writeObject(GlobalInfo.getInstance().getHelperStorage(i));
-      }
+      writeHelperStorages(o);
 
       o.flush();
       zos.closeEntry();
@@ -148,12 +175,82 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     }
   }
 
+  /**
+   * Write the proof in the chunked format.
+   * The proof streams are serialized one after another (they may depend on each other),
+   * and each one is compressed and written to the file directly.
+   */
+  private void writeChunkedProof(final UnmodifiableReachedSet pReached) {
+    try (ChunkedProofFile.Writer writer = ChunkedProofFile.createWriter(file, chunkCompressionLevel)) {
+      ObjectOutputStream o = new ObjectOutputStream(writer.nextChunk());
+      writeProofToStream(o, pReached);
+      o.close();
+
+      boolean continueWriting;
+      do {
+        o = new ObjectOutputStream(writer.nextChunk());
+        continueWriting = writeAdditionalProofStream(o);
+        o.close();
+      } while (continueWriting);
+
+      o = new ObjectOutputStream(writer.nextChunk());
+      writeHelperStorages(o);
+      o.close();
+
+    } catch (NotSerializableException eS) {
+      logger.log(Level.SEVERE, "Proof cannot be written. Class " + eS.getMessage() + " does not implement Serializable interface");
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } catch (InvalidConfigurationException e) {
+      logger.log(Level.SEVERE, "Proof cannot be constructed due to conflicting configuration.", e.getMessage());
+    } catch (InterruptedException e) {
+      logger.log(Level.SEVERE, "Proof cannot be written due to time out during proof construction");
+    }
+  }
+
+  private void writeHelperStorages(ObjectOutputStream pOut) throws IOException {
+    int numberOfStorages = GlobalInfo.getInstance().getNumberOfHelperStorages();
+    pOut.writeInt(numberOfStorages);
+    for (int i = 0; i < numberOfStorages; ++i) {
+      pOut.writeObject(GlobalInfo.getInstance().getHelperStorage(i));
+    }
+  }
+
+  private void readHelperStorages(ObjectInputStream pIn) throws IOException, ClassNotFoundException {
+    int numberOfStorages = pIn.readInt();
+    for (int i = 0; i < numberOfStorages; ++i) {
+      Serializable storage = (Serializable) pIn.readObject();
+      GlobalInfo.getInstance().addHelperStorage(storage);
+    }
+  }
+
+  /**
+   * Get the proof file if it is in the chunked format, or null if it is in the zip format.
+   * This method is called concurrently by parallel proof readers.
+   */
+  private synchronized @Nullable ChunkedProofFile getChunkedProof() throws IOException {
+    if (chunkedProof == null && ChunkedProofFile.isChunkedProofFile(file)) {
+      chunkedProof = ChunkedProofFile.open(file);
+    }
+    return chunkedProof;
+  }
+
   protected abstract void writeProofToStream(ObjectOutputStream out, UnmodifiableReachedSet reached)
       throws IOException, InvalidConfigurationException, InterruptedException;
 
 
   @Override
   public void readProof() throws IOException, ClassNotFoundException, InvalidConfigurationException {
+    ChunkedProofFile chunked = getChunkedProof();
+    if (chunked != null) {
+      try (ObjectInputStream o = chunked.openObjectChunk(chunked.getNumberOfChunks() - 1)) {
+        readHelperStorages(o);
+      }
+      try (ObjectInputStream o = chunked.openObjectChunk(0)) {
+        readProofFromStream(o);
+      }
+      return;
+    }
 
     InputStream fis = null;
     try {
@@ -172,18 +269,14 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       assert entry.getName().equals("Helper");
       ObjectInputStream o = new ObjectInputStream(zis);
       //read helper storages
-      int numberOfStorages = o.readInt();
-      for (int i = 0; i < numberOfStorages; ++i) {
-        Serializable storage = (Serializable) o.readObject();
-        GlobalInfo.getInstance().addHelperStorage(storage);
-      }
+      readHelperStorages(o);
       zis.closeEntry();
 
       o.close();
       zis.close();
       fis.close();
 
-      Triple<InputStream, ZipInputStream, ObjectInputStream> proofStream = openProofStream();
+      Triple<InputStream, InputStream, ObjectInputStream> proofStream = openProofStream();
       readProofFromStream(proofStream.getThird());
       proofStream.getThird().close();
       proofStream.getSecond().close();
@@ -199,17 +292,37 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     return false;
   }
 
-  protected Triple<InputStream, ZipInputStream, ObjectInputStream> openProofStream() throws IOException {
+  protected Triple<InputStream, InputStream, ObjectInputStream> openProofStream() throws IOException {
+    ChunkedProofFile chunked = getChunkedProof();
+    if (chunked != null) {
+      InputStream chunk = chunked.openChunk(0);
+      return Triple.<InputStream, InputStream, ObjectInputStream>of(chunk, chunk, new ObjectInputStream(chunk));
+    }
     InputStream fis = file.asByteSource().openStream();
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = zis.getNextEntry();
     assert entry.getName().equals("Proof");
-    return Triple.of(fis, zis, new ObjectInputStream(zis));
+    return Triple.<InputStream, InputStream, ObjectInputStream>of(fis, zis, new ObjectInputStream(zis));
   }
 
-  public Triple<InputStream, ZipInputStream, ObjectInputStream> openAdditionalProofStream(final int index)
+  /**
+   * Open the additional proof stream with the given index.
+   * This method may be called concurrently for different indices.
+   * For proofs in the chunked format, the stream is read directly from its position in the file,
+   * for proofs in the zip format, all preceding entries need to be skipped.
+   */
+  public Triple<InputStream, InputStream, ObjectInputStream> openAdditionalProofStream(final int index)
       throws IOException {
     if (index < 0) { throw new IllegalArgumentException("Not a valid index. Indices must be at least zero."); }
+    ChunkedProofFile chunked = getChunkedProof();
+    if (chunked != null) {
+      // first chunk is the proof, last chunk contains the helper storages
+      if (index + 1 >= chunked.getNumberOfChunks() - 1) {
+        throw new IOException("Proof does not contain additional proof stream " + index);
+      }
+      InputStream chunk = chunked.openChunk(index + 1);
+      return Triple.<InputStream, InputStream, ObjectInputStream>of(chunk, chunk, new ObjectInputStream(chunk));
+    }
     InputStream fis = file.asByteSource().openStream();
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = null;
@@ -218,7 +331,7 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     }
 
     assert entry.getName().equals("Additional " + index);
-    return Triple.of(fis, zis, new ObjectInputStream(zis));
+    return Triple.<InputStream, InputStream, ObjectInputStream>of(fis, zis, new ObjectInputStream(zis));
   }
 
   protected abstract void readProofFromStream(ObjectInputStream in) throws ClassNotFoundException, InvalidConfigurationException, IOException;
@@ -0,0 +1,239 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.sosy_lab.common.io.Path;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Proof file that consists of independently compressed chunks.
+ *
+ * The chunks are written one after another directly to the file,
+ * followed by an index with offset and length of each chunk,
+ * and the file ends with the offset of the index.
+ * Thus a chunk can be read without reading (and decompressing) the chunks before it,
+ * and several chunks can be read in parallel.
+ * The chunks are in the same order as the entries of the zip-based proof format:
+ * the proof, the additional proof streams, and the helper storages.
+ */
+final class ChunkedProofFile {
+
+  private static final int MAGIC = 0x43504143;
+  private static final int VERSION = 2;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Path file;
+  private final long[] offsets;
+  private final long[] lengths;
+
+  private ChunkedProofFile(Path pFile, long[] pOffsets, long[] pLengths) {
+    file = pFile;
+    offsets = pOffsets;
+    lengths = pLengths;
+  }
+
+  /** Check whether the file is in the chunked format (and not in the zip-based format). */
+  static boolean isChunkedProofFile(Path pFile) throws IOException {
+    try (DataInputStream in = new DataInputStream(pFile.asByteSource().openStream())) {
+      return in.readInt() == MAGIC;
+    } catch (EOFException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Writer for a chunked proof file.
+   * Each chunk is compressed and written to the file while it is produced.
+   * The index is written when the writer is closed.
+   */
+  static final class Writer implements Closeable {
+
+    private final CountingOutputStream out;
+    private final int compressionLevel;
+    private final List<Long> chunkOffsets = new ArrayList<>();
+    private final List<Long> chunkLengths = new ArrayList<>();
+    private boolean chunkOpen = false;
+
+    private Writer(Path pFile, int pCompressionLevel) throws IOException {
+      out = new CountingOutputStream(new BufferedOutputStream(pFile.asByteSink().openStream(), BUFFER_SIZE));
+      compressionLevel = pCompressionLevel;
+
+      DataOutputStream header = new DataOutputStream(out);
+      header.writeInt(MAGIC);
+      header.writeInt(VERSION);
+    }
+
+    /**
+     * Start the next chunk.
+     * Everything written to the returned stream is compressed and written to the file.
+     * The chunk ends when the returned stream is closed, which does not close the file.
+     */
+    OutputStream nextChunk() {
+      checkState(!chunkOpen, "previous chunk was not closed");
+      chunkOpen = true;
+
+      final long offset = out.getCount();
+      final Deflater deflater = new Deflater(compressionLevel);
+      return new DeflaterOutputStream(new NonClosingOutputStream(out), deflater, BUFFER_SIZE) {
+
+        private boolean closed = false;
+
+        @Override
+        public void close() throws IOException {
+          if (!closed) {
+            closed = true;
+            try {
+              finish();
+            } finally {
+              deflater.end();
+            }
+            chunkOffsets.add(offset);
+            chunkLengths.add(Writer.this.out.getCount() - offset);
+            chunkOpen = false;
+          }
+        }
+      };
+    }
+
+    /** Write the index of the chunks and close the file. */
+    @Override
+    public void close() throws IOException {
+      try {
+        checkState(!chunkOpen, "last chunk was not closed");
+        long indexOffset = out.getCount();
+        DataOutputStream index = new DataOutputStream(out);
+        index.writeInt(chunkOffsets.size());
+        for (int i = 0; i < chunkOffsets.size(); i++) {
+          index.writeLong(chunkOffsets.get(i));
+          index.writeLong(chunkLengths.get(i));
+        }
+        index.writeLong(indexOffset);
+        index.flush();
+      } finally {
+        out.close();
+      }
+    }
+  }
+
+  /** Stream that passes everything to the delegate, but only flushes it on close. */
+  private static class NonClosingOutputStream extends FilterOutputStream {
+
+    private NonClosingOutputStream(OutputStream pOut) {
+      super(pOut);
+    }
+
+    @Override
+    public void write(byte[] pBytes, int pOffset, int pLength) throws IOException {
+      out.write(pBytes, pOffset, pLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+
+  /** Create a new chunked proof file, the chunks are compressed with the given level. */
+  static Writer createWriter(Path pFile, int pCompressionLevel) throws IOException {
+    return new Writer(pFile, pCompressionLevel);
+  }
+
+  /** Read the index of the file. */
+  static ChunkedProofFile open(Path pFile) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(pFile.toFile(), "r")) {
+      if (raf.readInt() != MAGIC) {
+        throw new IOException("File " + pFile + " is not a chunked proof file");
+      }
+      int version = raf.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported version " + version + " of chunked proof file " + pFile);
+      }
+      raf.seek(raf.length() - 8);
+      raf.seek(raf.readLong());
+      int numChunks = raf.readInt();
+      long[] offsets = new long[numChunks];
+      long[] lengths = new long[numChunks];
+      for (int i = 0; i < numChunks; i++) {
+        offsets[i] = raf.readLong();
+        lengths[i] = raf.readLong();
+      }
+      return new ChunkedProofFile(pFile, offsets, lengths);
+    }
+  }
+
+  int getNumberOfChunks() {
+    return offsets.length;
+  }
+
+  /**
+   * Open a chunk for reading.
+   * This method is thread-safe, the chunks can be read in parallel.
+   */
+  @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Stream is closed by caller.")
+  InputStream openChunk(int pIndex) throws IOException {
+    if (pIndex < 0 || pIndex >= offsets.length) {
+      throw new IOException("Proof file " + file + " has no chunk " + pIndex);
+    }
+    FileInputStream in = new FileInputStream(file.toFile());
+    try {
+      in.getChannel().position(offsets[pIndex]);
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+    return new InflaterInputStream(
+        new BufferedInputStream(ByteStreams.limit(in, lengths[pIndex]), BUFFER_SIZE));
+  }
+
+  @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Stream is closed by caller.")
+  ObjectInputStream openObjectChunk(int pIndex) throws IOException {
+    return new ObjectInputStream(openChunk(pIndex));
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+public class ChunkedProofFileTest {
+
+  private File file;
+  private Path path;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("proof", ".chunked");
+    path = Paths.get(file.getPath());
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  private static byte[] content(int pChunk) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < 1000 * (pChunk + 1); i++) {
+      result.append("chunk ").append(pChunk).append(" line ").append(i).append('\n');
+    }
+    return result.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] read(ChunkedProofFile pProof, int pIndex) throws IOException {
+    try (InputStream in = pProof.openChunk(pIndex)) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  @Test
+  public void testChunksAreReadBackByIndex() throws IOException {
+    try (ChunkedProofFile.Writer writer = ChunkedProofFile.createWriter(path, Deflater.DEFAULT_COMPRESSION)) {
+      for (int i = 0; i < 3; i++) {
+        try (OutputStream chunk = writer.nextChunk()) {
+          chunk.write(content(i));
+        }
+      }
+      try (ObjectOutputStream chunk = new ObjectOutputStream(writer.nextChunk())) {
+        chunk.writeObject("object chunk");
+      }
+    }
+
+    assertThat(ChunkedProofFile.isChunkedProofFile(path)).isTrue();
+    ChunkedProofFile proof = ChunkedProofFile.open(path);
+    assertThat(proof.getNumberOfChunks()).isEqualTo(4);
+
+    // read in reverse order to check that the chunks are independent
+    try (ObjectInputStream in = proof.openObjectChunk(3)) {
+      assertThat(in.readObject()).isEqualTo("object chunk");
+    } catch (ClassNotFoundException e) {
+      throw new AssertionError(e);
+    }
+    for (int i = 2; i >= 0; i--) {
+      assertThat(read(proof, i)).isEqualTo(content(i));
+    }
+  }
+
+  @Test
+  public void testEmptyChunk() throws IOException {
+    try (ChunkedProofFile.Writer writer = ChunkedProofFile.createWriter(path, Deflater.BEST_SPEED)) {
+      writer.nextChunk().close();
+      try (OutputStream chunk = writer.nextChunk()) {
+        chunk.write(content(0));
+      }
+    }
+
+    ChunkedProofFile proof = ChunkedProofFile.open(path);
+    assertThat(proof.getNumberOfChunks()).isEqualTo(2);
+    assertThat(read(proof, 0)).isEmpty();
+    assertThat(read(proof, 1)).isEqualTo(content(0));
+  }
+
+  @Test(expected=IOException.class)
+  public void testMissingChunk() throws IOException {
+    try (ChunkedProofFile.Writer writer = ChunkedProofFile.createWriter(path, Deflater.BEST_SPEED)) {
+      writer.nextChunk().close();
+    }
+
+    ChunkedProofFile.open(path).openChunk(1);
+  }
+
+  @Test
+  public void testOtherVersionIsRejected() throws IOException {
+    try (ChunkedProofFile.Writer writer = ChunkedProofFile.createWriter(path, Deflater.BEST_SPEED)) {
+      writer.nextChunk().close();
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(4); // after the magic number
+      int version = raf.readInt();
+      raf.seek(4);
+      raf.writeInt(version + 1);
+    }
+
+    assertThat(ChunkedProofFile.isChunkedProofFile(path)).isTrue();
+    try {
+      ChunkedProofFile.open(path);
+      throw new AssertionError("expected IOException for unsupported version");
+    } catch (IOException e) {
+      assertThat(e.getMessage()).contains("Unsupported version");
+    }
+  }
+
+  @Test
+  public void testZipFileIsNotChunked() throws IOException {
+    Files.write(new byte[] {'P', 'K', 3, 4, 0, 0}, file);
+    assertThat(ChunkedProofFile.isChunkedProofFile(path)).isFalse();
+  }
+}
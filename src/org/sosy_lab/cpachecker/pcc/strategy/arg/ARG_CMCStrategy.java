@@ -43,7 +43,6 @@ import java.util.TreeSet;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
-import java.util.zip.ZipInputStream;
 
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.Triple;
@@ -173,7 +172,7 @@ public class ARG_CMCStrategy extends AbstractStrategy {
       final ReachedSetFactory factory = new ReachedSetFactory(globalConfig, logger);
       List<ARGState> incompleteStates = new ArrayList<>();
 
-      Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+      Triple<InputStream, InputStream, ObjectInputStream> streams = null;
       try {
         streams = openProofStream();
         ObjectInputStream o = streams.getThird();
@@ -252,7 +251,7 @@ public class ARG_CMCStrategy extends AbstractStrategy {
 
         @Override
         public void run() {
-          Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+          Triple<InputStream, InputStream, ObjectInputStream> streams = null;
           try {
             streams = openProofStream();
             ObjectInputStream o = streams.getThird();
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithLocation;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractWrapperState;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
+import org.sosy_lab.cpachecker.core.reachedset.ConcurrentLocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.LocationMappedReachedSet;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.BooleanFormula;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.BooleanFormulaManager;
@@ -134,6 +135,9 @@ public final class AbstractStates {
       // because this method is imprecise for the rest
       return ((LocationMappedReachedSet)pStates).getReached(pLoc);
     }
+    if (pStates instanceof ConcurrentLocationMappedReachedSet) {
+      return ((ConcurrentLocationMappedReachedSet)pStates).getReached(pLoc);
+    }
 
     Predicate<AbstractState> statesWithRightLocation = Predicates.compose(equalTo(pLoc), EXTRACT_LOCATION);
     return FluentIterable.from(pStates).filter(statesWithRightLocation);
@@ -151,6 +155,15 @@ public final class AbstractStates {
                   }
                 });
     }
+    if (pStates instanceof ConcurrentLocationMappedReachedSet) {
+      final ConcurrentLocationMappedReachedSet states = (ConcurrentLocationMappedReachedSet)pStates;
+      return from(pLocs).transformAndConcat(new Function<CFANode, Iterable<AbstractState>>() {
+                  @Override
+                  public Iterable<AbstractState> apply(CFANode location) {
+                    return states.getReached(location);
+                  }
+                });
+    }
 
     Predicate<AbstractState> statesWithRightLocation = Predicates.compose(in(pLocs), EXTRACT_LOCATION);
     return from(pStates).filter(statesWithRightLocation);
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.util;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.AnalysisTerminationListener;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperCPA;
 
@@ -75,6 +76,17 @@ public class CPAs {
     }.preOrderTraversal(pCpa);
   }
 
+  /**
+   * Inform all CPAs (including wrapped CPAs) that the analysis has terminated,
+   * if they implement {@link AnalysisTerminationListener}.
+   * @param cpa A CPA (possibly a WrapperCPA).
+   */
+  public static void notifyAnalysisTerminated(ConfigurableProgramAnalysis cpa) {
+    for (AnalysisTerminationListener listener : asIterable(cpa).filter(AnalysisTerminationListener.class)) {
+      listener.afterAnalysis();
+    }
+  }
+
   /**
    * Close all CPAs (including wrapped CPAs) if they support this.
    * @param cpa A CPA (possibly a WrapperCPA).
@@ -0,0 +1,61 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.log.LogManager;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Logs each message only once, like
+ * {@link org.sosy_lab.common.log.LogManagerWithoutDuplicates#logOnce(Level, Object...)},
+ * but may be used concurrently from several threads
+ * (e.g., by transfer relations of a {@link org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA}).
+ */
+public final class ConcurrentLogOnce {
+
+  private final LogManager logger;
+  private final Set<List<Object>> loggedMessages = Sets.newConcurrentHashSet();
+
+  public ConcurrentLogOnce(LogManager pLogger) {
+    logger = checkNotNull(pLogger);
+  }
+
+  /**
+   * Log a message with the given level, if the same message was not logged before.
+   * The arguments are compared with {@link Object#equals(Object)}.
+   */
+  public void logOnce(Level pPriority, Object... pArgs) {
+    if (logger.wouldBeLogged(pPriority) && loggedMessages.add(Arrays.asList(pArgs))) {
+      logger.log(pPriority, pArgs);
+    }
+  }
+}
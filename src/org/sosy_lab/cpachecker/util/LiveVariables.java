@@ -27,6 +27,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Predicates.*;
 import static com.google.common.collect.FluentIterable.from;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -80,6 +81,7 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedSet;
@@ -89,7 +91,9 @@ import com.google.common.collect.Ordering;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
 
-public class LiveVariables {
+public class LiveVariables implements Serializable {
+
+  private static final long serialVersionUID = 5328709358316307398L;
 
   public enum EvaluationStrategy {
     FUNCTION_WISE, GLOBAL
@@ -159,9 +163,17 @@ public class LiveVariables {
    */
   private static class AllVariablesAsLiveVariables extends LiveVariables {
 
+    private static final long serialVersionUID = -1207357591850383522L;
+
     private FluentIterable<String> allVariables;
     private FluentIterable<ASimpleDeclaration> allVariableDecls;
 
+    private AllVariablesAsLiveVariables(List<ASimpleDeclaration> pAllVariableDecls) {
+      super();
+      allVariableDecls = from(pAllVariableDecls);
+      allVariables = allVariableDecls.transform(ASimpleDeclaration.GET_QUALIFIED_NAME);
+    }
+
     private AllVariablesAsLiveVariables(CFA cfa, List<Pair<ADeclaration, String>> globalsList) {
       super();
       checkNotNull(cfa);
@@ -210,6 +222,25 @@ public class LiveVariables {
     public FluentIterable<ASimpleDeclaration> getLiveVariablesForNode(CFANode pNode) {
       return allVariableDecls;
     }
+
+    private Object writeReplace() {
+      return new AllVariablesSerializationProxy(allVariableDecls.toList());
+    }
+  }
+
+  private static class AllVariablesSerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = 3213694541425429530L;
+
+    private final ImmutableList<ASimpleDeclaration> allVariableDecls;
+
+    private AllVariablesSerializationProxy(ImmutableList<ASimpleDeclaration> pAllVariableDecls) {
+      allVariableDecls = pAllVariableDecls;
+    }
+
+    private Object readResolve() {
+      return new AllVariablesAsLiveVariables(allVariableDecls);
+    }
   }
 
   /**
@@ -322,6 +353,43 @@ public class LiveVariables {
     return from(liveVariablesStrings.get(pNode)).append(globalVariablesStrings);
   }
 
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  /**
+   * Serializes the live variables without the equivalence wrappers
+   * and the string representations, which are both re-created
+   * on deserialization.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -4360216405117911484L;
+
+    private final ImmutableSetMultimap<CFANode, ASimpleDeclaration> liveVariables;
+    private final ImmutableList<ASimpleDeclaration> globalVariables;
+    private final VariableClassification variableClassification;
+    private final EvaluationStrategy evaluationStrategy;
+    private final Language language;
+
+    private SerializationProxy(LiveVariables pLiveVariables) {
+      liveVariables = ImmutableSetMultimap.copyOf(
+          Multimaps.transformValues(pLiveVariables.liveVariables, FROM_EQUIV_WRAPPER));
+      globalVariables = from(pLiveVariables.globalVariables).transform(FROM_EQUIV_WRAPPER).toList();
+      variableClassification = pLiveVariables.variableClassification;
+      evaluationStrategy = pLiveVariables.evaluationStrategy;
+      language = pLiveVariables.language;
+    }
+
+    private Object readResolve() {
+      return new LiveVariables(Multimaps.transformValues(liveVariables, TO_EQUIV_WRAPPER),
+                               variableClassification,
+                               from(globalVariables).transform(TO_EQUIV_WRAPPER).toSet(),
+                               evaluationStrategy,
+                               language);
+    }
+  }
+
   public static Optional<LiveVariables> createWithAllVariablesAsLive(final List<Pair<ADeclaration, String>> globalsList,
                                                            final MutableCFA pCFA) {
     return Optional.of((LiveVariables)new AllVariablesAsLiveVariables(pCFA, globalsList));
@@ -23,6 +23,10 @@
  */
 package org.sosy_lab.cpachecker.util;
 
+import java.util.Iterator;
+
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.LocationSensitivePrecision;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperPrecision;
 
@@ -106,4 +110,38 @@ public class Precisions {
       return pNewPrecision;
     }
   }
+
+  /**
+   * Check whether two precisions have the same effect at a given location.
+   * Wrapper precisions are compared component-wise,
+   * components that are not {@link LocationSensitivePrecision}s need to be equal.
+   *
+   * @param pPrecision1 The first precision.
+   * @param pPrecision2 The second precision.
+   * @param pLocation The location at which the precisions are applied.
+   * @return Whether both precisions are known to be equivalent at the given location.
+   */
+  public static boolean haveSameEffectAt(Precision pPrecision1, Precision pPrecision2, CFANode pLocation) {
+    if (pPrecision1 == pPrecision2 || pPrecision1.equals(pPrecision2)) {
+      return true;
+
+    } else if (pPrecision1 instanceof WrapperPrecision) {
+      if (!pPrecision1.getClass().equals(pPrecision2.getClass())) {
+        return false;
+      }
+      Iterator<Precision> it1 = ((WrapperPrecision)pPrecision1).getWrappedPrecisions().iterator();
+      Iterator<Precision> it2 = ((WrapperPrecision)pPrecision2).getWrappedPrecisions().iterator();
+      while (it1.hasNext() && it2.hasNext()) {
+        if (!haveSameEffectAt(it1.next(), it2.next(), pLocation)) {
+          return false;
+        }
+      }
+      return !it1.hasNext() && !it2.hasNext();
+
+    } else if (pPrecision1 instanceof LocationSensitivePrecision) {
+      return ((LocationSensitivePrecision)pPrecision1).hasSameEffectAt(pPrecision2, pLocation);
+    }
+
+    return false;
+  }
 }
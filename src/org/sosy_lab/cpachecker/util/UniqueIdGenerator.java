@@ -42,4 +42,15 @@ public final class UniqueIdGenerator {
     checkState(id >= 0, "Overflow for unique ID");
     return id;
   }
+
+  /**
+   * Make sure that all ids that are given out in the future
+   * are larger than the given id.
+   */
+  public void skipIdsUpTo(int pId) {
+    int next = nextId.get();
+    while (next <= pId && !nextId.compareAndSet(next, pId + 1)) {
+      next = nextId.get();
+    }
+  }
 }
@@ -25,6 +25,7 @@ package org.sosy_lab.cpachecker.util;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collection;
@@ -34,6 +35,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -52,7 +55,9 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 
-public class VariableClassification {
+public class VariableClassification implements Serializable {
+
+  private static final long serialVersionUID = 7151372880263941442L;
 
   private final boolean hasRelevantNonIntAddVars;
 
@@ -84,7 +89,8 @@ public class VariableClassification {
 
   private final Map<Pair<CFAEdge, Integer>, Partition> edgeToPartitions;
 
-  private final LogManager logger;
+  // not serialized, a deserialized instance does not log anything
+  private final transient @Nullable LogManager logger;
 
   VariableClassification(boolean pHasRelevantNonIntAddVars,
       Set<String> pIntBoolVars,
@@ -324,13 +330,7 @@ public class VariableClassification {
 
       // check for overflow
       if(newScore < oldScore) {
-        logger.log(Level.WARNING,
-            "Highest possible value reached in score computation."
-                + " Error path prefix preference may not be applied reliably.");
-        logger.logf(Level.FINE,
-            "Overflow in score computation happened for variables %s.",
-            variableNames.toString());
-
+        logScoreOverflow(variableNames);
         return Integer.MAX_VALUE - 1;
       }
       oldScore = newScore;
@@ -376,13 +376,7 @@ public class VariableClassification {
 
       // check for overflow
       if(newScore < oldScore) {
-        logger.log(Level.WARNING,
-            "Highest possible value reached in score computation."
-                + " Error path prefix preference may not be applied reliably.");
-        logger.logf(Level.FINE,
-            "Overflow in score computation happened for variables %s.",
-            variableNames.toString());
-
+        logScoreOverflow(variableNames);
         return Integer.MAX_VALUE - 1;
       }
       oldScore = newScore;
@@ -391,6 +385,17 @@ public class VariableClassification {
     return newScore;
   }
 
+  private void logScoreOverflow(Collection<String> variableNames) {
+    if (logger != null) {
+      logger.log(Level.WARNING,
+          "Highest possible value reached in score computation."
+              + " Error path prefix preference may not be applied reliably.");
+      logger.logf(Level.FINE,
+          "Overflow in score computation happened for variables %s.",
+          variableNames.toString());
+    }
+  }
+
   @Override
   public String toString() {
     StringBuilder str = new StringBuilder();
@@ -402,7 +407,9 @@ public class VariableClassification {
 
   /** A Partition is a Wrapper for a Collection of vars, values and edges.
   * The Partitions are disjunct, so no variable and no edge is in 2 Partitions. */
-  public static class Partition {
+  public static class Partition implements Serializable {
+
+   private static final long serialVersionUID = -5217567640285400455L;
 
    private final Set<String> vars = new HashSet<>();
    private final Set<BigInteger> values = Sets.newTreeSet();
@@ -31,6 +31,9 @@ import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -335,6 +338,88 @@ public class AutomatonGraphmlCommon {
 
   }
 
+  /**
+   * Writes a GraphML document element by element with an {@link XMLStreamWriter},
+   * such that no part of the document needs to be kept in memory.
+   * In contrast to {@link GraphMlBuilder}, elements are opened with a start method,
+   * filled with data elements, and closed with {@link #endElement()}.
+   */
+  public static class GraphMlStreamWriter {
+
+    private final XMLStreamWriter writer;
+
+    public GraphMlStreamWriter(Appendable target) throws XMLStreamException {
+      this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(CharStreams.asWriter(target));
+    }
+
+    public void writeDocHeader() throws XMLStreamException {
+      writer.writeStartDocument("UTF-8", "1.0");
+      writer.writeCharacters("\n");
+      writer.writeStartElement("graphml");
+      writer.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns");
+      writer.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+      writer.writeCharacters("\n");
+    }
+
+    public void writeKeyDef(KeyDef keyDef, @Nullable String defaultValue) throws XMLStreamException {
+      writer.writeStartElement(GraphMlTag.KEY.toString());
+      writer.writeAttribute("id", keyDef.id);
+      writer.writeAttribute("for", keyDef.keyFor);
+      writer.writeAttribute("attr.name", keyDef.attrName);
+      writer.writeAttribute("attr.type", keyDef.attrType);
+      if (defaultValue != null) {
+        writer.writeStartElement(GraphMlTag.DEFAULT.toString());
+        writer.writeCharacters(defaultValue);
+        writer.writeEndElement();
+      }
+      endElement();
+    }
+
+    public void writeGraphHeader(GraphType pGraphType, String pSourceLanguage) throws XMLStreamException {
+      writer.writeStartElement(GraphMlTag.GRAPH.toString());
+      writer.writeAttribute("edgedefault", "directed");
+      writer.writeCharacters("\n");
+      writeData(KeyDef.SOURCECODELANGUAGE, pSourceLanguage);
+      writer.writeCharacters("\n");
+    }
+
+    public void startNode(String nodeId, NodeType nodeType) throws XMLStreamException {
+      writer.writeStartElement(GraphMlTag.NODE.toString());
+      writer.writeAttribute("id", nodeId);
+      if (nodeType != defaultNodeType) {
+        writeData(KeyDef.NODETYPE, nodeType.toString());
+      }
+    }
+
+    public void startEdge(String from, String to) throws XMLStreamException {
+      writer.writeStartElement(GraphMlTag.EDGE.toString());
+      writer.writeAttribute("source", from);
+      writer.writeAttribute("target", to);
+    }
+
+    public void writeData(KeyDef key, String value) throws XMLStreamException {
+      writer.writeStartElement(GraphMlTag.DATA.toString());
+      writer.writeAttribute("key", key.id);
+      writer.writeCharacters(value);
+      writer.writeEndElement();
+    }
+
+    /** Closes the node, edge, or key element that was started last. */
+    public void endElement() throws XMLStreamException {
+      writer.writeEndElement();
+      writer.writeCharacters("\n");
+    }
+
+    public void writeFooter() throws XMLStreamException {
+      writer.writeEndElement(); // graph
+      writer.writeCharacters("\n");
+      writer.writeEndElement(); // graphml
+      writer.writeCharacters("\n");
+      writer.writeEndDocument();
+      writer.flush();
+    }
+  }
+
   public static boolean handleAsEpsilonEdge(CFAEdge edge) {
     if (handleAsEpsilonEdge0(edge)) {
       if (edge.getSuccessor().getNumLeavingEdges() <= 0) {
@@ -0,0 +1,608 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.collections;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * A persistent (immutable) map based on a hash array mapped trie.
+ * Modifications create a new instance that shares all unchanged parts
+ * of the trie with the old instance, thus they need only O(log n) time and space
+ * (with a branching factor of 32), and the old instance stays valid.
+ *
+ * In contrast to {@link org.sosy_lab.common.collect.PathCopyingPersistentTreeMap},
+ * the keys only need to implement {@link Object#hashCode()} and {@link Object#equals(Object)}
+ * and do not need to be comparable.
+ * Iteration order is unspecified (but deterministic for equal hash codes of the keys).
+ *
+ * Null keys and null values are not supported.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values.
+ */
+@Immutable
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+  private static final PersistentHashMap<?, ?> EMPTY_MAP = new PersistentHashMap<>(null, 0);
+
+  private final @Nullable Node<K, V> root;
+  private final int size;
+
+  private transient @Nullable Set<Map.Entry<K, V>> entrySet;
+
+  private PersistentHashMap(@Nullable Node<K, V> pRoot, int pSize) {
+    root = pRoot;
+    size = pSize;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> of() {
+    return (PersistentHashMap<K, V>) EMPTY_MAP;
+  }
+
+  public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> pMap) {
+    if (pMap instanceof PersistentHashMap<?, ?>) {
+      @SuppressWarnings("unchecked")
+      PersistentHashMap<K, V> result = (PersistentHashMap<K, V>) pMap;
+      return result;
+    }
+    PersistentHashMap<K, V> result = of();
+    for (Map.Entry<? extends K, ? extends V> entry : pMap.entrySet()) {
+      result = result.putAndCopy(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  private static int hash(Object pKey) {
+    int h = pKey.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Return a map that contains the same mappings as this map,
+   * except that the given key is mapped to the given value.
+   * This instance is not modified.
+   */
+  public PersistentHashMap<K, V> putAndCopy(K pKey, V pValue) {
+    checkNotNull(pKey);
+    checkNotNull(pValue);
+    int hash = hash(pKey);
+
+    if (root == null) {
+      return new PersistentHashMap<>(new Leaf<>(hash, pKey, pValue), 1);
+    }
+
+    Node<K, V> newRoot = root.put(hash, pKey, pValue, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    int newSize = root.get(hash, pKey, 0) == null ? size + 1 : size;
+    return new PersistentHashMap<>(newRoot, newSize);
+  }
+
+  /**
+   * Return a map that contains the same mappings as this map,
+   * except for the given key, which is not contained in the result.
+   * This instance is not modified.
+   */
+  public PersistentHashMap<K, V> removeAndCopy(Object pKey) {
+    if (root == null || pKey == null) {
+      return this;
+    }
+    int hash = hash(pKey);
+    if (root.get(hash, pKey, 0) == null) {
+      return this;
+    }
+    Node<K, V> newRoot = root.remove(hash, pKey, 0);
+    if (newRoot == null) {
+      return of();
+    }
+    return new PersistentHashMap<>(newRoot, size - 1);
+  }
+
+  /**
+   * Return an empty map.
+   */
+  public PersistentHashMap<K, V> emptyCopy() {
+    return of();
+  }
+
+  @Override
+  public V get(@Nullable Object pKey) {
+    if (root == null || pKey == null) {
+      return null;
+    }
+    return root.get(hash(pKey), pKey, 0);
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object pKey) {
+    return get(pKey) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Map.Entry<K, V>>() {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+          return new EntryIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public boolean contains(Object pO) {
+          if (!(pO instanceof Map.Entry<?, ?>)) {
+            return false;
+          }
+          Map.Entry<?, ?> entry = (Map.Entry<?, ?>) pO;
+          V value = get(entry.getKey());
+          return value != null && value.equals(entry.getValue());
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  @Override
+  public boolean equals(Object pO) {
+    if (pO instanceof PersistentHashMap<?, ?>) {
+      PersistentHashMap<?, ?> other = (PersistentHashMap<?, ?>) pO;
+      if (root == other.root) {
+        // cheap check for maps that share their structure
+        return true;
+      }
+      if (size != other.size) {
+        return false;
+      }
+    }
+    return super.equals(pO);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  @Override
+  public V put(K pKey, V pValue) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public V remove(Object pKey) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> pM) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * A node of the trie.
+   * All nodes are immutable, modifying operations return a new node
+   * or the same node if nothing changed.
+   */
+  private abstract static class Node<K, V> {
+
+    abstract @Nullable V get(int pHash, Object pKey, int pShift);
+
+    abstract Node<K, V> put(int pHash, K pKey, V pValue, int pShift);
+
+    /** Returns null if the resulting node would be empty. */
+    abstract @Nullable Node<K, V> remove(int pHash, Object pKey, int pShift);
+
+    /** Returns true if all keys in this node have the same hash (i.e., it is not an inner node). */
+    abstract boolean hasSingleHash();
+
+    /** Returns the hash of one of the keys in this node. */
+    abstract int getSomeHash();
+
+    abstract Iterator<Node<K, V>> children();
+  }
+
+  /**
+   * Create a new node at the given level that contains two nodes with different hashes.
+   */
+  private static <K, V> Node<K, V> createNode(Node<K, V> pNode1, Node<K, V> pNode2, int pShift) {
+    int hash1 = pNode1.getSomeHash();
+    int hash2 = pNode2.getSomeHash();
+    assert hash1 != hash2;
+    int index1 = (hash1 >>> pShift) & LEVEL_MASK;
+    int index2 = (hash2 >>> pShift) & LEVEL_MASK;
+
+    if (index1 == index2) {
+      Node<K, V> child = createNode(pNode1, pNode2, pShift + BITS_PER_LEVEL);
+      return new BitmapNode<>(1 << index1, Arrays.<Node<K, V>>asList(child));
+    }
+    if (index1 < index2) {
+      return new BitmapNode<>((1 << index1) | (1 << index2), Arrays.asList(pNode1, pNode2));
+    } else {
+      return new BitmapNode<>((1 << index1) | (1 << index2), Arrays.asList(pNode2, pNode1));
+    }
+  }
+
+  /**
+   * A node with a single mapping, this is also used as the map entry.
+   */
+  private static final class Leaf<K, V> extends Node<K, V> implements Map.Entry<K, V> {
+
+    private final int hash;
+    private final K key;
+    private final V value;
+
+    private Leaf(int pHash, K pKey, V pValue) {
+      hash = pHash;
+      key = pKey;
+      value = pValue;
+    }
+
+    @Override
+    V get(int pHash, Object pKey, int pShift) {
+      return (hash == pHash && key.equals(pKey)) ? value : null;
+    }
+
+    @Override
+    Node<K, V> put(int pHash, K pKey, V pValue, int pShift) {
+      if (hash == pHash) {
+        if (key.equals(pKey)) {
+          return value.equals(pValue) ? this : new Leaf<>(pHash, pKey, pValue);
+        }
+        return new CollisionNode<>(hash, Arrays.asList(this, new Leaf<>(pHash, pKey, pValue)));
+      }
+      return createNode(this, new Leaf<>(pHash, pKey, pValue), pShift);
+    }
+
+    @Override
+    Node<K, V> remove(int pHash, Object pKey, int pShift) {
+      return (hash == pHash && key.equals(pKey)) ? null : this;
+    }
+
+    @Override
+    boolean hasSingleHash() {
+      return true;
+    }
+
+    @Override
+    int getSomeHash() {
+      return hash;
+    }
+
+    @Override
+    Iterator<Node<K, V>> children() {
+      return Collections.emptyIterator();
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V pValue) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object pO) {
+      if (!(pO instanceof Map.Entry<?, ?>)) {
+        return false;
+      }
+      Map.Entry<?, ?> other = (Map.Entry<?, ?>) pO;
+      return key.equals(other.getKey()) && value.equals(other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  /**
+   * A node with several mappings whose keys have the same hash.
+   */
+  private static final class CollisionNode<K, V> extends Node<K, V> {
+
+    private final int hash;
+    private final Leaf<K, V>[] leaves;
+
+    @SuppressWarnings("unchecked")
+    private CollisionNode(int pHash, List<Leaf<K, V>> pLeaves) {
+      hash = pHash;
+      leaves = pLeaves.toArray(new Leaf[pLeaves.size()]);
+    }
+
+    private int indexOf(Object pKey) {
+      for (int i = 0; i < leaves.length; i++) {
+        if (leaves[i].key.equals(pKey)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    V get(int pHash, Object pKey, int pShift) {
+      if (hash != pHash) {
+        return null;
+      }
+      int i = indexOf(pKey);
+      return i < 0 ? null : leaves[i].value;
+    }
+
+    @Override
+    Node<K, V> put(int pHash, K pKey, V pValue, int pShift) {
+      if (hash != pHash) {
+        return createNode(this, new Leaf<>(pHash, pKey, pValue), pShift);
+      }
+      List<Leaf<K, V>> newLeaves = new ArrayList<>(Arrays.asList(leaves));
+      int i = indexOf(pKey);
+      if (i < 0) {
+        newLeaves.add(new Leaf<>(pHash, pKey, pValue));
+      } else if (leaves[i].value.equals(pValue)) {
+        return this;
+      } else {
+        newLeaves.set(i, new Leaf<>(pHash, pKey, pValue));
+      }
+      return new CollisionNode<>(hash, newLeaves);
+    }
+
+    @Override
+    Node<K, V> remove(int pHash, Object pKey, int pShift) {
+      int i = hash == pHash ? indexOf(pKey) : -1;
+      if (i < 0) {
+        return this;
+      }
+      List<Leaf<K, V>> newLeaves = new ArrayList<>(Arrays.asList(leaves));
+      newLeaves.remove(i);
+      if (newLeaves.size() == 1) {
+        return newLeaves.get(0);
+      }
+      return new CollisionNode<>(hash, newLeaves);
+    }
+
+    @Override
+    boolean hasSingleHash() {
+      return true;
+    }
+
+    @Override
+    int getSomeHash() {
+      return hash;
+    }
+
+    @Override
+    Iterator<Node<K, V>> children() {
+      return Iterators.<Node<K, V>>forArray(leaves);
+    }
+  }
+
+  /**
+   * An inner node with up to 32 children.
+   * The bitmap indicates which of the 32 possible children are present,
+   * and the children are stored densely in the array.
+   */
+  private static final class BitmapNode<K, V> extends Node<K, V> {
+
+    private final int bitmap;
+    private final Node<K, V>[] children;
+
+    @SuppressWarnings("unchecked")
+    private BitmapNode(int pBitmap, List<Node<K, V>> pChildren) {
+      this(pBitmap, pChildren.toArray(new Node[pChildren.size()]));
+    }
+
+    private BitmapNode(int pBitmap, Node<K, V>[] pChildren) {
+      assert Integer.bitCount(pBitmap) == pChildren.length;
+      bitmap = pBitmap;
+      children = pChildren;
+    }
+
+    private int position(int pBit) {
+      return Integer.bitCount(bitmap & (pBit - 1));
+    }
+
+    @Override
+    V get(int pHash, Object pKey, int pShift) {
+      int bit = 1 << ((pHash >>> pShift) & LEVEL_MASK);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      return children[position(bit)].get(pHash, pKey, pShift + BITS_PER_LEVEL);
+    }
+
+    @Override
+    Node<K, V> put(int pHash, K pKey, V pValue, int pShift) {
+      int bit = 1 << ((pHash >>> pShift) & LEVEL_MASK);
+      int pos = position(bit);
+
+      if ((bitmap & bit) == 0) {
+        Node<K, V>[] newChildren = Arrays.copyOf(children, children.length + 1);
+        System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+        newChildren[pos] = new Leaf<>(pHash, pKey, pValue);
+        return new BitmapNode<>(bitmap | bit, newChildren);
+      }
+
+      Node<K, V> child = children[pos];
+      Node<K, V> newChild = child.put(pHash, pKey, pValue, pShift + BITS_PER_LEVEL);
+      if (newChild == child) {
+        return this;
+      }
+      Node<K, V>[] newChildren = children.clone();
+      newChildren[pos] = newChild;
+      return new BitmapNode<>(bitmap, newChildren);
+    }
+
+    @Override
+    Node<K, V> remove(int pHash, Object pKey, int pShift) {
+      int bit = 1 << ((pHash >>> pShift) & LEVEL_MASK);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int pos = position(bit);
+      Node<K, V> child = children[pos];
+      Node<K, V> newChild = child.remove(pHash, pKey, pShift + BITS_PER_LEVEL);
+      if (newChild == child) {
+        return this;
+      }
+
+      if (newChild == null) {
+        if (children.length == 1) {
+          return null;
+        }
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] newChildren = new Node[children.length - 1];
+        System.arraycopy(children, 0, newChildren, 0, pos);
+        System.arraycopy(children, pos + 1, newChildren, pos, children.length - pos - 1);
+        if (newChildren.length == 1 && newChildren[0].hasSingleHash()) {
+          // a leaf does not need an inner node above it, move it up to keep the trie flat
+          return newChildren[0];
+        }
+        return new BitmapNode<>(bitmap & ~bit, newChildren);
+      }
+
+      if (children.length == 1 && newChild.hasSingleHash()) {
+        return newChild;
+      }
+      Node<K, V>[] newChildren = children.clone();
+      newChildren[pos] = newChild;
+      return new BitmapNode<>(bitmap, newChildren);
+    }
+
+    @Override
+    boolean hasSingleHash() {
+      return false;
+    }
+
+    @Override
+    int getSomeHash() {
+      return children[0].getSomeHash();
+    }
+
+    @Override
+    Iterator<Node<K, V>> children() {
+      return Iterators.forArray(children);
+    }
+  }
+
+  /**
+   * Depth-first iterator over all leaves of a trie.
+   */
+  private static final class EntryIterator<K, V> extends UnmodifiableIterator<Map.Entry<K, V>> {
+
+    private final Deque<Iterator<Node<K, V>>> stack = new ArrayDeque<>();
+    private @Nullable Leaf<K, V> next = null;
+
+    private EntryIterator(@Nullable Node<K, V> pRoot) {
+      if (pRoot != null) {
+        stack.push(Iterators.singletonIterator(pRoot));
+      }
+      advance();
+    }
+
+    private void advance() {
+      next = null;
+      while (!stack.isEmpty()) {
+        Iterator<Node<K, V>> current = stack.peek();
+        if (!current.hasNext()) {
+          stack.pop();
+          continue;
+        }
+        Node<K, V> node = current.next();
+        if (node instanceof Leaf<?, ?>) {
+          next = (Leaf<K, V>) node;
+          return;
+        }
+        stack.push(node.children());
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Leaf<K, V> result = next;
+      advance();
+      return result;
+    }
+  }
+}
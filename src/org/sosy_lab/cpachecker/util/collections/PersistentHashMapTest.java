@@ -0,0 +1,140 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PersistentHashMap} and {@link PersistentHashSet}.
+ */
+public class PersistentHashMapTest {
+
+  /** A key class with many hash collisions. */
+  private static class CollidingKey {
+
+    private final int id;
+
+    private CollidingKey(int pId) {
+      id = pId;
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      return pObj instanceof CollidingKey && ((CollidingKey) pObj).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id % 7;
+    }
+
+    @Override
+    public String toString() {
+      return "key" + id;
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    PersistentHashMap<String, Integer> map = PersistentHashMap.of();
+    assertThat(map).isEmpty();
+    assertThat(map.get("a")).isNull();
+    assertThat(map.removeAndCopy("a")).isSameAs(map);
+  }
+
+  @Test
+  public void testPutDoesNotModifyOriginal() {
+    PersistentHashMap<String, Integer> map1 = PersistentHashMap.<String, Integer>of().putAndCopy("a", 1);
+    PersistentHashMap<String, Integer> map2 = map1.putAndCopy("b", 2).putAndCopy("a", 3);
+
+    assertThat(map1).hasSize(1);
+    assertThat(map1.get("a")).isEqualTo(1);
+    assertThat(map1.containsKey("b")).isFalse();
+
+    assertThat(map2).hasSize(2);
+    assertThat(map2.get("a")).isEqualTo(3);
+    assertThat(map2.get("b")).isEqualTo(2);
+
+    assertThat(map1.putAndCopy("a", 1)).isSameAs(map1);
+  }
+
+  @Test
+  public void testRandomOperations() {
+    checkRandomOperations(new Random(0), 20000, 1000, false);
+  }
+
+  @Test
+  public void testRandomOperationsWithCollisions() {
+    checkRandomOperations(new Random(0), 5000, 100, true);
+  }
+
+  private void checkRandomOperations(Random random, int operations, int keys, boolean collisions) {
+    Map<Object, Integer> expected = new HashMap<>();
+    PersistentHashMap<Object, Integer> map = PersistentHashMap.of();
+
+    for (int i = 0; i < operations; i++) {
+      int id = random.nextInt(keys);
+      Object key = collisions ? new CollidingKey(id) : Integer.valueOf(id);
+      PersistentHashMap<Object, Integer> old = map;
+      Map<Object, Integer> oldExpected = new HashMap<>(expected);
+
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.removeAndCopy(key);
+      } else {
+        Integer value = random.nextInt(10);
+        expected.put(key, value);
+        map = map.putAndCopy(key, value);
+      }
+
+      assertThat(map.get(key)).isEqualTo(expected.get(key));
+      assertThat(map.size()).isEqualTo(expected.size());
+      assertThat(old).isEqualTo(oldExpected);
+
+      if (i % 100 == 0) {
+        assertThat(map).isEqualTo(expected);
+        assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+      }
+    }
+    assertThat(map).isEqualTo(expected);
+  }
+
+  @Test
+  public void testSet() {
+    PersistentHashSet<Integer> set1 = PersistentHashSet.<Integer>of().addAndCopy(1).addAndCopy(2);
+    PersistentHashSet<Integer> set2 = set1.removeAndCopy(1).addAndCopy(3);
+
+    assertThat(set1).containsExactly(1, 2);
+    assertThat(set2).containsExactly(2, 3);
+    assertThat(set2.removeAndCopy(2).removeAndCopy(3)).isEmpty();
+    assertThat(set1.addAndCopy(1)).isSameAs(set1);
+    assertThat(set1).isEqualTo(PersistentHashSet.copyOf(set2.removeAndCopy(3).addAndCopy(1)));
+  }
+}
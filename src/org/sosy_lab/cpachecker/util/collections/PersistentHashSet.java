@@ -0,0 +1,191 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.collections;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A persistent (immutable) set based on {@link PersistentHashMap}.
+ * Modifications create a new instance that shares all unchanged parts
+ * with the old instance.
+ *
+ * Null elements are not supported.
+ *
+ * @param <E> The type of elements.
+ */
+@Immutable
+public final class PersistentHashSet<E> extends AbstractSet<E> {
+
+  private static final PersistentHashSet<?> EMPTY_SET =
+      new PersistentHashSet<>(PersistentHashMap.<Object, Boolean>of());
+
+  private final PersistentHashMap<E, Boolean> delegate;
+
+  private PersistentHashSet(PersistentHashMap<E, Boolean> pDelegate) {
+    delegate = pDelegate;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <E> PersistentHashSet<E> of() {
+    return (PersistentHashSet<E>) EMPTY_SET;
+  }
+
+  public static <E> PersistentHashSet<E> copyOf(Iterable<? extends E> pElements) {
+    if (pElements instanceof PersistentHashSet<?>) {
+      @SuppressWarnings("unchecked")
+      PersistentHashSet<E> result = (PersistentHashSet<E>) pElements;
+      return result;
+    }
+    PersistentHashSet<E> result = of();
+    for (E element : pElements) {
+      result = result.addAndCopy(element);
+    }
+    return result;
+  }
+
+  private PersistentHashSet<E> wrap(PersistentHashMap<E, Boolean> pNewDelegate) {
+    if (pNewDelegate == delegate) {
+      return this;
+    }
+    if (pNewDelegate.isEmpty()) {
+      return of();
+    }
+    return new PersistentHashSet<>(pNewDelegate);
+  }
+
+  /**
+   * Return a set that contains the elements of this set and the given element.
+   * This instance is not modified.
+   */
+  public PersistentHashSet<E> addAndCopy(E pElement) {
+    return wrap(delegate.putAndCopy(pElement, Boolean.TRUE));
+  }
+
+  /**
+   * Return a set that contains the elements of this set and the given elements.
+   * This instance is not modified.
+   */
+  public PersistentHashSet<E> addAllAndCopy(Iterable<? extends E> pElements) {
+    PersistentHashMap<E, Boolean> result = delegate;
+    for (E element : pElements) {
+      result = result.putAndCopy(element, Boolean.TRUE);
+    }
+    return wrap(result);
+  }
+
+  /**
+   * Return a set that contains the elements of this set except the given element.
+   * This instance is not modified.
+   */
+  public PersistentHashSet<E> removeAndCopy(Object pElement) {
+    return wrap(delegate.removeAndCopy(pElement));
+  }
+
+  /**
+   * Return a set that contains the elements of this set except the given elements.
+   * This instance is not modified.
+   */
+  public PersistentHashSet<E> removeAllAndCopy(Iterable<?> pElements) {
+    PersistentHashMap<E, Boolean> result = delegate;
+    for (Object element : pElements) {
+      result = result.removeAndCopy(element);
+    }
+    return wrap(result);
+  }
+
+  /**
+   * Return an empty set.
+   */
+  public PersistentHashSet<E> emptyCopy() {
+    return of();
+  }
+
+  @Override
+  public boolean contains(@Nullable Object pO) {
+    return delegate.containsKey(pO);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return delegate.keySet().iterator();
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return delegate.isEmpty();
+  }
+
+  @Override
+  public boolean equals(Object pO) {
+    if (pO instanceof PersistentHashSet<?>) {
+      return delegate.equals(((PersistentHashSet<?>) pO).delegate);
+    }
+    return super.equals(pO);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  @Override
+  public boolean add(E pE) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean remove(Object pO) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> pC) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> pC) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> pC) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+}
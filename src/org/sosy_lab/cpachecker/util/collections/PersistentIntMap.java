@@ -0,0 +1,428 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.collections;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * A persistent (immutable) map from int keys to values,
+ * based on a bitmap-compressed trie that is indexed directly by the bits of the key
+ * (like {@link PersistentHashMap}, but without hashing and without boxing of the keys).
+ * Modifications create a new instance that shares all unchanged parts
+ * of the trie with the old instance.
+ *
+ * The map works best for dense keys (e.g., ids that are assigned consecutively),
+ * because then the trie is as flat as possible.
+ * The shape of the trie depends only on the set of keys,
+ * so two maps can be compared structurally,
+ * which is cheap if they share most of their structure.
+ * Iteration order is unspecified (but deterministic for the same set of keys).
+ *
+ * Null values are not supported.
+ *
+ * @param <V> The type of values.
+ */
+@Immutable
+public final class PersistentIntMap<V> implements Iterable<V> {
+
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+  private static final PersistentIntMap<?> EMPTY_MAP = new PersistentIntMap<>(null, 0);
+
+  private final @Nullable Node<V> root;
+  private final int size;
+
+  private PersistentIntMap(@Nullable Node<V> pRoot, int pSize) {
+    root = pRoot;
+    size = pSize;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentIntMap<V> of() {
+    return (PersistentIntMap<V>) EMPTY_MAP;
+  }
+
+  /**
+   * Return a map that contains the same mappings as this map,
+   * except that the given key is mapped to the given value.
+   * This instance is not modified.
+   */
+  public PersistentIntMap<V> putAndCopy(int pKey, V pValue) {
+    checkNotNull(pValue);
+
+    if (root == null) {
+      return new PersistentIntMap<>(new Leaf<>(pKey, pValue), 1);
+    }
+
+    Node<V> newRoot = root.put(pKey, pValue, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    int newSize = root.get(pKey, 0) == null ? size + 1 : size;
+    return new PersistentIntMap<>(newRoot, newSize);
+  }
+
+  /**
+   * Return a map that contains the same mappings as this map,
+   * except for the given key, which is not contained in the result.
+   * This instance is not modified.
+   */
+  public PersistentIntMap<V> removeAndCopy(int pKey) {
+    if (root == null || root.get(pKey, 0) == null) {
+      return this;
+    }
+    Node<V> newRoot = root.remove(pKey, 0);
+    if (newRoot == null) {
+      return of();
+    }
+    return new PersistentIntMap<>(newRoot, size - 1);
+  }
+
+  public @Nullable V get(int pKey) {
+    if (root == null) {
+      return null;
+    }
+    return root.get(pKey, 0);
+  }
+
+  public boolean containsKey(int pKey) {
+    return get(pKey) != null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Iterate over the values of this map.
+   */
+  @Override
+  public Iterator<V> iterator() {
+    return new ValueIterator<>(root);
+  }
+
+  @Override
+  public boolean equals(Object pO) {
+    if (this == pO) {
+      return true;
+    }
+    if (!(pO instanceof PersistentIntMap<?>)) {
+      return false;
+    }
+    PersistentIntMap<?> other = (PersistentIntMap<?>) pO;
+    return size == other.size && equalNodes(root, other.root);
+  }
+
+  /**
+   * Compare two (sub-)tries, skipping all parts that are shared.
+   * This relies on the fact that the shape of a trie is determined by its keys.
+   */
+  private static boolean equalNodes(@Nullable Node<?> pNode1, @Nullable Node<?> pNode2) {
+    if (pNode1 == pNode2) {
+      return true;
+    }
+    if (pNode1 instanceof Leaf<?> && pNode2 instanceof Leaf<?>) {
+      Leaf<?> leaf1 = (Leaf<?>) pNode1;
+      Leaf<?> leaf2 = (Leaf<?>) pNode2;
+      return leaf1.key == leaf2.key && leaf1.value.equals(leaf2.value);
+    }
+    if (pNode1 instanceof BitmapNode<?> && pNode2 instanceof BitmapNode<?>) {
+      BitmapNode<?> inner1 = (BitmapNode<?>) pNode1;
+      BitmapNode<?> inner2 = (BitmapNode<?>) pNode2;
+      if (inner1.bitmap != inner2.bitmap) {
+        return false;
+      }
+      for (int i = 0; i < inner1.children.length; i++) {
+        if (!equalNodes(inner1.children[i], inner2.children[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 0;
+    Iterator<Leaf<V>> it = new LeafIterator<>(root);
+    while (it.hasNext()) {
+      Leaf<V> leaf = it.next();
+      result += leaf.key ^ leaf.value.hashCode();
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    Iterator<Leaf<V>> it = new LeafIterator<>(root);
+    while (it.hasNext()) {
+      Leaf<V> leaf = it.next();
+      sb.append(leaf.key).append('=').append(leaf.value);
+      if (it.hasNext()) {
+        sb.append(", ");
+      }
+    }
+    return sb.append('}').toString();
+  }
+
+  /**
+   * A node of the trie.
+   * All nodes are immutable, modifying operations return a new node
+   * or the same node if nothing changed.
+   */
+  private abstract static class Node<V> {
+
+    abstract @Nullable V get(int pKey, int pShift);
+
+    abstract Node<V> put(int pKey, V pValue, int pShift);
+
+    /** Returns null if the resulting node would be empty. */
+    abstract @Nullable Node<V> remove(int pKey, int pShift);
+
+    /** Returns one of the keys in this node. */
+    abstract int getSomeKey();
+  }
+
+  /**
+   * Create a new node at the given level that contains two nodes with different keys.
+   */
+  private static <V> Node<V> createNode(Node<V> pNode1, Node<V> pNode2, int pShift) {
+    int key1 = pNode1.getSomeKey();
+    int key2 = pNode2.getSomeKey();
+    assert key1 != key2;
+    int index1 = (key1 >>> pShift) & LEVEL_MASK;
+    int index2 = (key2 >>> pShift) & LEVEL_MASK;
+
+    @SuppressWarnings("unchecked")
+    Node<V>[] children = new Node[index1 == index2 ? 1 : 2];
+    if (index1 == index2) {
+      children[0] = createNode(pNode1, pNode2, pShift + BITS_PER_LEVEL);
+      return new BitmapNode<>(1 << index1, children);
+    }
+    children[index1 < index2 ? 0 : 1] = pNode1;
+    children[index1 < index2 ? 1 : 0] = pNode2;
+    return new BitmapNode<>((1 << index1) | (1 << index2), children);
+  }
+
+  /**
+   * A node with a single mapping.
+   */
+  private static final class Leaf<V> extends Node<V> {
+
+    private final int key;
+    private final V value;
+
+    private Leaf(int pKey, V pValue) {
+      key = pKey;
+      value = pValue;
+    }
+
+    @Override
+    V get(int pKey, int pShift) {
+      return key == pKey ? value : null;
+    }
+
+    @Override
+    Node<V> put(int pKey, V pValue, int pShift) {
+      if (key == pKey) {
+        return value.equals(pValue) ? this : new Leaf<>(pKey, pValue);
+      }
+      return createNode(this, new Leaf<>(pKey, pValue), pShift);
+    }
+
+    @Override
+    Node<V> remove(int pKey, int pShift) {
+      return key == pKey ? null : this;
+    }
+
+    @Override
+    int getSomeKey() {
+      return key;
+    }
+  }
+
+  /**
+   * An inner node with up to 32 children.
+   * The bitmap indicates which of the 32 possible children are present,
+   * and the children are stored densely in the array.
+   */
+  private static final class BitmapNode<V> extends Node<V> {
+
+    private final int bitmap;
+    private final Node<V>[] children;
+
+    private BitmapNode(int pBitmap, Node<V>[] pChildren) {
+      assert Integer.bitCount(pBitmap) == pChildren.length;
+      bitmap = pBitmap;
+      children = pChildren;
+    }
+
+    private int position(int pBit) {
+      return Integer.bitCount(bitmap & (pBit - 1));
+    }
+
+    @Override
+    V get(int pKey, int pShift) {
+      int bit = 1 << ((pKey >>> pShift) & LEVEL_MASK);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      return children[position(bit)].get(pKey, pShift + BITS_PER_LEVEL);
+    }
+
+    @Override
+    Node<V> put(int pKey, V pValue, int pShift) {
+      int bit = 1 << ((pKey >>> pShift) & LEVEL_MASK);
+      int pos = position(bit);
+
+      if ((bitmap & bit) == 0) {
+        Node<V>[] newChildren = Arrays.copyOf(children, children.length + 1);
+        System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+        newChildren[pos] = new Leaf<>(pKey, pValue);
+        return new BitmapNode<>(bitmap | bit, newChildren);
+      }
+
+      Node<V> child = children[pos];
+      Node<V> newChild = child.put(pKey, pValue, pShift + BITS_PER_LEVEL);
+      if (newChild == child) {
+        return this;
+      }
+      Node<V>[] newChildren = children.clone();
+      newChildren[pos] = newChild;
+      return new BitmapNode<>(bitmap, newChildren);
+    }
+
+    @Override
+    Node<V> remove(int pKey, int pShift) {
+      int bit = 1 << ((pKey >>> pShift) & LEVEL_MASK);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int pos = position(bit);
+      Node<V> child = children[pos];
+      Node<V> newChild = child.remove(pKey, pShift + BITS_PER_LEVEL);
+      if (newChild == child) {
+        return this;
+      }
+
+      if (newChild == null) {
+        if (children.length == 1) {
+          return null;
+        }
+        @SuppressWarnings("unchecked")
+        Node<V>[] newChildren = new Node[children.length - 1];
+        System.arraycopy(children, 0, newChildren, 0, pos);
+        System.arraycopy(children, pos + 1, newChildren, pos, children.length - pos - 1);
+        if (newChildren.length == 1 && newChildren[0] instanceof Leaf<?>) {
+          // a leaf does not need an inner node above it, move it up to keep the trie flat
+          return newChildren[0];
+        }
+        return new BitmapNode<>(bitmap & ~bit, newChildren);
+      }
+
+      if (children.length == 1 && newChild instanceof Leaf<?>) {
+        return newChild;
+      }
+      Node<V>[] newChildren = children.clone();
+      newChildren[pos] = newChild;
+      return new BitmapNode<>(bitmap, newChildren);
+    }
+
+    @Override
+    int getSomeKey() {
+      return children[0].getSomeKey();
+    }
+  }
+
+  /**
+   * Depth-first iterator over all leaves of a trie.
+   */
+  private static final class LeafIterator<V> extends UnmodifiableIterator<Leaf<V>> {
+
+    private final Deque<Node<V>> stack = new ArrayDeque<>();
+
+    private LeafIterator(@Nullable Node<V> pRoot) {
+      if (pRoot != null) {
+        stack.push(pRoot);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !stack.isEmpty();
+    }
+
+    @Override
+    public Leaf<V> next() {
+      while (!stack.isEmpty()) {
+        Node<V> node = stack.pop();
+        if (node instanceof Leaf<?>) {
+          return (Leaf<V>) node;
+        }
+        Node<V>[] children = ((BitmapNode<V>) node).children;
+        for (int i = children.length - 1; i >= 0; i--) {
+          stack.push(children[i]);
+        }
+      }
+      throw new NoSuchElementException();
+    }
+  }
+
+  private static final class ValueIterator<V> extends UnmodifiableIterator<V> {
+
+    private final LeafIterator<V> leaves;
+
+    private ValueIterator(@Nullable Node<V> pRoot) {
+      leaves = new LeafIterator<>(pRoot);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return leaves.hasNext();
+    }
+
+    @Override
+    public V next() {
+      return leaves.next().value;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PersistentIntMap}.
+ */
+public class PersistentIntMapTest {
+
+  @Test
+  public void testEmpty() {
+    PersistentIntMap<String> map = PersistentIntMap.of();
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(0)).isNull();
+    assertThat(map.removeAndCopy(0)).isSameAs(map);
+    assertThat(map.iterator().hasNext()).isFalse();
+  }
+
+  @Test
+  public void testPutDoesNotModifyOriginal() {
+    PersistentIntMap<String> map1 = PersistentIntMap.<String>of().putAndCopy(1, "a");
+    PersistentIntMap<String> map2 = map1.putAndCopy(33, "b").putAndCopy(1, "c");
+
+    assertThat(map1.size()).isEqualTo(1);
+    assertThat(map1.get(1)).isEqualTo("a");
+    assertThat(map1.containsKey(33)).isFalse();
+    assertThat(map2.size()).isEqualTo(2);
+    assertThat(map2.get(1)).isEqualTo("c");
+    assertThat(map2.get(33)).isEqualTo("b");
+    assertThat(map2).containsExactly("b", "c");
+
+    assertThat(map1.putAndCopy(1, "a")).isSameAs(map1);
+  }
+
+  @Test
+  public void testEqualsIsIndependentOfInsertionOrder() {
+    PersistentIntMap<Integer> map1 = PersistentIntMap.of();
+    PersistentIntMap<Integer> map2 = PersistentIntMap.of();
+    for (int i = 0; i < 1000; i++) {
+      map1 = map1.putAndCopy(i, i % 10);
+      map2 = map2.putAndCopy(999 - i, (999 - i) % 10);
+    }
+    assertThat(map1).isEqualTo(map2);
+    assertThat(map1.hashCode()).isEqualTo(map2.hashCode());
+
+    for (int i = 0; i < 1000; i += 3) {
+      map1 = map1.removeAndCopy(i);
+    }
+    PersistentIntMap<Integer> map3 = PersistentIntMap.of();
+    for (int i = 0; i < 1000; i++) {
+      if (i % 3 != 0) {
+        map3 = map3.putAndCopy(i, i % 10);
+      }
+    }
+    assertThat(map1).isEqualTo(map3);
+    assertThat(map1).isNotEqualTo(map2);
+    assertThat(map3.putAndCopy(1, 42)).isNotEqualTo(map3);
+  }
+
+  @Test
+  public void testRandomOperations() {
+    Random random = new Random(0);
+    Map<Integer, Integer> expected = new HashMap<>();
+    PersistentIntMap<Integer> map = PersistentIntMap.of();
+
+    for (int i = 0; i < 20000; i++) {
+      // include negative keys, which use all bits of the key
+      int key = random.nextInt(2000) - 100;
+      PersistentIntMap<Integer> old = map;
+      Integer oldValue = expected.get(key);
+
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.removeAndCopy(key);
+      } else {
+        Integer value = random.nextInt(10);
+        expected.put(key, value);
+        map = map.putAndCopy(key, value);
+      }
+
+      assertThat(map.get(key)).isEqualTo(expected.get(key));
+      assertThat(map.size()).isEqualTo(expected.size());
+      assertThat(old.get(key)).isEqualTo(oldValue);
+
+      if (i % 100 == 0) {
+        assertThat(map).containsExactlyElementsIn(expected.values());
+      }
+    }
+  }
+}
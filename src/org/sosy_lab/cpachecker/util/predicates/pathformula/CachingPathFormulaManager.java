@@ -23,11 +23,16 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.pathformula;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.sosy_lab.common.Pair;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -39,40 +44,92 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.BooleanFormula;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.Formula;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Implementation of {@link PathFormulaManager} that delegates to another
  * instance but caches results of some methods.
+ * The caches can be bounded in order to not keep all path formulas
+ * (and the solver terms referenced by them) alive for the whole analysis.
  */
+@Options(prefix="cpa.predicate.pathFormulaCache")
 public class CachingPathFormulaManager implements PathFormulaManager {
 
+  @Option(secure=true, description="maximum number of entries in each of the path-formula caches, "
+      + "the least recently used entries are removed if the bound is exceeded (0 for unbounded caches)")
+  @IntegerOption(min=0)
+  private int maxSize = 0;
+
+  @Option(secure=true, description="reference cached path formulas only softly, "
+      + "such that they can be removed from the caches by the garbage collector if memory gets low")
+  private boolean softValues = false;
+
   public final Timer pathFormulaComputationTimer = new Timer();
   public int pathFormulaCacheHits = 0;
 
   public final PathFormulaManager delegate;
 
-  private final Map<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache
-            = new HashMap<>();
-  private final Map<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache;
+  private final Cache<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache;
 
-  private final Map<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache
-            = new HashMap<>();
+  /** Keys are unordered, such that the result for (f1, f2) is also used for (f2, f1). */
+  private final Cache<Set<PathFormula>, PathFormula> orFormulaCache;
 
-  private final Map<PathFormula, PathFormula> emptyFormulaCache
-            = new HashMap<>();
+  private final Cache<PathFormula, PathFormula> emptyFormulaCache;
 
   private final PathFormula emptyFormula;
 
-  public CachingPathFormulaManager(PathFormulaManager pDelegate) {
+  public CachingPathFormulaManager(PathFormulaManager pDelegate, Configuration config)
+      throws InvalidConfigurationException {
+    config.inject(this);
     delegate = pDelegate;
     emptyFormula = delegate.makeEmptyPathFormula();
+
+    andFormulaWithConditionsCache = createCache();
+    andFormulaCache = createCache();
+    orFormulaCache = createCache();
+    emptyFormulaCache = createCache();
+  }
+
+  private <K, V> Cache<K, V> createCache() {
+    // the manager is used by a single thread,
+    // and with one segment the eviction order is exactly LRU
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .recordStats();
+    if (maxSize > 0) {
+      builder.maximumSize(maxSize);
+    }
+    if (softValues) {
+      builder.softValues();
+    }
+    return builder.build();
+  }
+
+  /** Get the accumulated hit, miss, and eviction counts of all caches. */
+  public CacheStats getCacheStats() {
+    return andFormulaWithConditionsCache.stats()
+        .plus(andFormulaCache.stats())
+        .plus(orFormulaCache.stats())
+        .plus(emptyFormulaCache.stats());
+  }
+
+  /** Get the number of entries in all caches. */
+  public long getCacheSize() {
+    return andFormulaWithConditionsCache.size()
+        + andFormulaCache.size()
+        + orFormulaCache.size()
+        + emptyFormulaCache.size();
   }
 
   @Override
   public Pair<PathFormula, ErrorConditions> makeAndWithErrorConditions(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
 
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.get(formulaCacheKey);
+    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.getIfPresent(formulaCacheKey);
     if (result == null) {
       pathFormulaComputationTimer.start();
       // compute new pathFormula with the operation on the edge
@@ -89,7 +146,7 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   @Override
   public PathFormula makeAnd(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    PathFormula result = andFormulaCache.get(formulaCacheKey);
+    PathFormula result = andFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
       pathFormulaComputationTimer.start();
       // compute new pathFormula with the operation on the edge
@@ -105,14 +162,10 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public PathFormula makeOr(PathFormula pF1, PathFormula pF2) throws InterruptedException {
-    final Pair<PathFormula, PathFormula> formulaCacheKey = Pair.of(pF1, pF2);
-
-    PathFormula result = orFormulaCache.get(formulaCacheKey);
-    if (result == null) {
-      // try again with other order
-      result = orFormulaCache.get(Pair.of(pF2, pF1));
-    }
+    // a single lookup for both orders, such that each call counts as one hit or one miss
+    final Set<PathFormula> formulaCacheKey = ImmutableSet.of(pF1, pF2);
 
+    PathFormula result = orFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
       result = delegate.makeOr(pF1, pF2);
       orFormulaCache.put(formulaCacheKey, result);
@@ -132,7 +185,7 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     if (pOldFormula.getFormula() == null) {
       return delegate.makeEmptyPathFormula(pOldFormula);
     }
-    PathFormula result = emptyFormulaCache.get(pOldFormula);
+    PathFormula result = emptyFormulaCache.getIfPresent(pOldFormula);
     if (result == null) {
       result = delegate.makeEmptyPathFormula(pOldFormula);
       emptyFormulaCache.put(pOldFormula, result);
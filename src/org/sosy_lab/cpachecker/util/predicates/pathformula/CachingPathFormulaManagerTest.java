@@ -0,0 +1,85 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.BooleanFormula;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
+
+import com.google.common.cache.CacheStats;
+
+public class CachingPathFormulaManagerTest {
+
+  private PathFormulaManager delegate;
+  private CachingPathFormulaManager pfmgr;
+
+  private PathFormula f1;
+  private PathFormula f2;
+
+  private static PathFormula makePathFormula() {
+    return new PathFormula(mock(BooleanFormula.class), SSAMap.emptySSAMap(),
+        PointerTargetSet.emptyPointerTargetSet(), 0);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    delegate = mock(PathFormulaManager.class);
+    when(delegate.makeEmptyPathFormula()).thenReturn(makePathFormula());
+    pfmgr = new CachingPathFormulaManager(delegate, Configuration.defaultConfiguration());
+
+    f1 = makePathFormula();
+    f2 = makePathFormula();
+    when(delegate.makeOr(f1, f2)).thenReturn(makePathFormula());
+  }
+
+  @Test
+  public void makeOrCountsOneMissPerCall() throws Exception {
+    pfmgr.makeOr(f1, f2);
+
+    CacheStats stats = pfmgr.getCacheStats();
+    assertThat(stats.requestCount()).named("lookups").isEqualTo(1);
+    assertThat(stats.missCount()).named("misses").isEqualTo(1);
+  }
+
+  @Test
+  public void makeOrReusesResultForReversedArguments() throws Exception {
+    PathFormula result = pfmgr.makeOr(f1, f2);
+
+    assertThat(pfmgr.makeOr(f2, f1)).isSameAs(result);
+    assertThat(pfmgr.makeOr(f1, f2)).isSameAs(result);
+    verify(delegate, times(1)).makeOr(f1, f2);
+
+    CacheStats stats = pfmgr.getCacheStats();
+    assertThat(stats.requestCount()).named("lookups").isEqualTo(3);
+    assertThat(stats.missCount()).named("misses").isEqualTo(1);
+    assertThat(stats.hitCount()).named("hits").isEqualTo(2);
+    assertThat(pfmgr.pathFormulaCacheHits).named("counted hits").isEqualTo(2);
+  }
+}
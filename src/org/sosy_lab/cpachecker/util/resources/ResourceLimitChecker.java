@@ -109,6 +109,21 @@ public final class ResourceLimitChecker {
    */
   public static ResourceLimitChecker fromConfiguration(Configuration config,
       LogManager logger, ShutdownNotifier notifier) throws InvalidConfigurationException {
+    return fromConfiguration(config, logger, notifier, 1);
+  }
+
+  /**
+   * Create an instance of this class from some configuration options
+   * for an analysis that runs concurrently with other analyses in the same process.
+   * Because the cpu time is measured for the whole process,
+   * the configured cpu time limit is multiplied by the number of concurrent analyses
+   * such that each analysis gets its share of the process cpu time.
+   * The returned instance is not started yet.
+   */
+  public static ResourceLimitChecker fromConfiguration(Configuration config,
+      LogManager logger, ShutdownNotifier notifier, int pConcurrentAnalyses)
+          throws InvalidConfigurationException {
+    checkArgument(pConcurrentAnalyses > 0);
 
     ResourceLimitOptions options = new ResourceLimitOptions();
     config.inject(options);
@@ -119,7 +134,11 @@ public final class ResourceLimitChecker {
     }
     if (options.cpuTime.compareTo(TimeSpan.empty()) >= 0) {
       try {
-        limits.add(ProcessCpuTimeLimit.fromNowOn(options.cpuTime));
+        TimeSpan cpuTime = options.cpuTime;
+        if (pConcurrentAnalyses > 1) {
+          cpuTime = TimeSpan.ofNanos(LongMath.checkedMultiply(cpuTime.asNanos(), pConcurrentAnalyses));
+        }
+        limits.add(ProcessCpuTimeLimit.fromNowOn(cpuTime));
       } catch (JMException e) {
         logger.logDebugException(e, "Querying cpu time failed");
         logger.log(Level.WARNING, "Your Java VM does not support measuring the cpu time, cpu time threshold disabled.");
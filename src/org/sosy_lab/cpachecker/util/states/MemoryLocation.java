@@ -25,27 +25,54 @@ package org.sosy_lab.cpachecker.util.states;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
 
 import com.google.common.base.Function;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
 import com.google.common.primitives.Longs;
 
 /**
 * This class describes a location in the memory.
+*
+* Instances are interned: there is only one instance for each location
+* that is currently in use, so they can usually be compared by identity,
+* and each location has a unique id (see {@link #getId()}).
+* Instances that are no longer used can be garbage collected.
 */
 public class MemoryLocation implements Comparable<MemoryLocation>, Serializable {
 
   private static final long serialVersionUID = -8910967707373729034L;
+
+  /** All memory locations that are currently in use. */
+  private static final Interner<MemoryLocation> INTERNED = Interners.newWeakInterner();
+
+  /** Cache for {@link #valueOf(String)}, which needs to split the name. */
+  private static final ConcurrentMap<String, MemoryLocation> PARSED_NAMES =
+      new MapMaker().weakValues().makeMap();
+
+  private static final AtomicInteger nextId = new AtomicInteger();
+
   private final String functionName;
   private final String identifier;
   private final long offset;
 
+  // assigned lazily, such that only interned instances consume ids
+  private transient volatile int id = -1;
+  private final transient int hashCode;
+
   /**
    * This function can be used to {@link com.google.common.collect.Iterables#transform transform}
    * a collection of {@link String}s to a collection of {@link MemoryLocation}s, representing the
@@ -68,71 +95,93 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
           public String apply(MemoryLocation memoryLocation) { return memoryLocation.getAsSimpleString(); }
       };
 
-  private MemoryLocation(String pFunctionName, String pIdentifier,
-      long pOffset) {
-    checkNotNull(pFunctionName);
-    checkNotNull(pIdentifier);
-
+  private MemoryLocation(@Nullable String pFunctionName, String pIdentifier, long pOffset) {
     functionName = pFunctionName;
-    identifier = pIdentifier;
+    identifier = checkNotNull(pIdentifier);
     offset = pOffset;
-  }
 
-  private MemoryLocation(String pIdentifier, long pOffset) {
-    checkNotNull(pIdentifier);
+    int hc = 17;
+    int hashMultiplier = 59;
 
-    int separatorIndex = pIdentifier.indexOf("::");
-    if (separatorIndex >= 0) {
-      functionName = pIdentifier.substring(0, separatorIndex);
-      identifier = pIdentifier.substring(separatorIndex + 2);
-    } else {
-      functionName = null;
-      identifier = pIdentifier;
-    }
-    offset = pOffset;
+    hc = hc * hashMultiplier + Objects.hashCode(functionName);
+    hc = hc * hashMultiplier + identifier.hashCode();
+    hc = hc * hashMultiplier + Longs.hashCode(offset);
+
+    hashCode = hc;
+  }
+
+  /**
+   * Return the unique instance for the given location, creating it if necessary.
+   */
+  private static MemoryLocation intern(@Nullable String pFunctionName, String pIdentifier, long pOffset) {
+    return INTERNED.intern(new MemoryLocation(pFunctionName, pIdentifier, pOffset));
   }
 
   public static MemoryLocation valueOf(String pFunctionName,
       String pIdentifier, long pOffest) {
-    return new MemoryLocation(pFunctionName, pIdentifier, pOffest);
+    checkNotNull(pFunctionName);
+    return intern(pFunctionName, pIdentifier, pOffest);
+  }
+
+  /**
+   * Return the id of this memory location.
+   * The ids of all memory locations are unique,
+   * they are assigned consecutively starting from 0 when they are first requested.
+   * A memory location that is garbage collected and created again gets a new id.
+   * They are not stable across runs and must not be persisted.
+   */
+  public int getId() {
+    int result = id;
+    if (result < 0) {
+      synchronized (this) {
+        result = id;
+        if (result < 0) {
+          result = nextId.getAndIncrement();
+          id = result;
+        }
+      }
+    }
+    return result;
   }
 
   @Override
   public boolean equals(Object other) {
-
+    // Instances are interned, so usually the identity check suffices.
+    // The full comparison is needed for the interning itself.
     if (this == other) {
       return true;
     }
-
     if (!(other instanceof MemoryLocation)) {
       return false;
     }
-
     MemoryLocation otherLocation = (MemoryLocation) other;
-
-    return Objects.equals(functionName, otherLocation.functionName)
-        && Objects.equals(identifier, otherLocation.identifier)
-        && offset == otherLocation.offset;
+    return hashCode == otherLocation.hashCode
+        && offset == otherLocation.offset
+        && identifier.equals(otherLocation.identifier)
+        && Objects.equals(functionName, otherLocation.functionName);
   }
 
   @Override
   public int hashCode() {
-
-    int hc = 17;
-    int hashMultiplier = 59;
-
-    hc = hc * hashMultiplier + Objects.hashCode(functionName);
-    hc = hc * hashMultiplier + identifier.hashCode();
-    hc = hc * hashMultiplier + Longs.hashCode(offset);
-
-    return hc;
+    return hashCode;
   }
 
   public static MemoryLocation valueOf(String pIdentifier, long pOffest) {
-    return new MemoryLocation(pIdentifier, pOffest);
+    checkNotNull(pIdentifier);
+
+    int separatorIndex = pIdentifier.indexOf("::");
+    if (separatorIndex >= 0) {
+      return intern(pIdentifier.substring(0, separatorIndex), pIdentifier.substring(separatorIndex + 2), pOffest);
+    } else {
+      return intern(null, pIdentifier, pOffest);
+    }
   }
 
   public static MemoryLocation valueOf(String pVariableName) {
+    MemoryLocation result = PARSED_NAMES.get(pVariableName);
+    if (result != null) {
+      return result;
+    }
 
     String[] nameParts    = pVariableName.split("::");
     String[] offsetParts  = pVariableName.split("/");
@@ -143,11 +192,17 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     int offset = hasOffset ? Integer.parseInt(offsetParts[1]) : 0;
 
     if (isScoped) {
-      return new MemoryLocation(nameParts[0], nameParts[1].replace("/" + offset, ""), offset);
+      result = valueOf(nameParts[0], nameParts[1].replace("/" + offset, ""), offset);
 
     } else {
-      return new MemoryLocation(nameParts[0].replace("/" + offset, ""), offset);
+      result = valueOf(nameParts[0].replace("/" + offset, ""), offset);
     }
+    PARSED_NAMES.putIfAbsent(pVariableName, result);
+    return result;
+  }
+
+  private Object readResolve() throws ObjectStreamException {
+    return intern(functionName, identifier, offset);
   }
 
   public String getAsSimpleString() {
@@ -205,6 +260,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int compareTo(MemoryLocation other) {
+    if (this == other) {
+      return 0;
+    }
 
     int result = 0;
 
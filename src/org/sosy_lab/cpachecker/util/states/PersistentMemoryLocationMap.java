@@ -0,0 +1,249 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.sosy_lab.cpachecker.util.collections.PersistentIntMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A persistent (immutable) map with {@link MemoryLocation}s as keys.
+ * The map is keyed by the ids of the memory locations
+ * (cf. {@link MemoryLocation#getId()}) and stored in a {@link PersistentIntMap},
+ * thus lookups need neither string comparisons nor hashing,
+ * and comparing two maps that share most of their structure is cheap.
+ *
+ * Iteration order is unspecified (it depends on the ids of the memory locations).
+ * Null values are not supported.
+ *
+ * @param <V> The type of values.
+ */
+@Immutable
+public final class PersistentMemoryLocationMap<V> extends AbstractMap<MemoryLocation, V>
+    implements Serializable {
+
+  private static final long serialVersionUID = 7315604261425213392L;
+
+  private static final PersistentMemoryLocationMap<?> EMPTY_MAP =
+      new PersistentMemoryLocationMap<>(PersistentIntMap.<Map.Entry<MemoryLocation, Object>>of());
+
+  private final transient PersistentIntMap<Map.Entry<MemoryLocation, V>> entries;
+
+  private transient @Nullable Set<Map.Entry<MemoryLocation, V>> entrySet;
+  private transient int hashCode = 0;
+
+  private PersistentMemoryLocationMap(PersistentIntMap<Map.Entry<MemoryLocation, V>> pEntries) {
+    entries = pEntries;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentMemoryLocationMap<V> of() {
+    return (PersistentMemoryLocationMap<V>) EMPTY_MAP;
+  }
+
+  public static <V> PersistentMemoryLocationMap<V> copyOf(Map<MemoryLocation, ? extends V> pMap) {
+    if (pMap instanceof PersistentMemoryLocationMap<?>) {
+      @SuppressWarnings("unchecked")
+      PersistentMemoryLocationMap<V> result = (PersistentMemoryLocationMap<V>) pMap;
+      return result;
+    }
+    PersistentMemoryLocationMap<V> result = of();
+    for (Map.Entry<MemoryLocation, ? extends V> entry : pMap.entrySet()) {
+      result = result.putAndCopy(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Return a map that contains the same mappings as this map,
+   * except that the given key is mapped to the given value.
+   * This instance is not modified.
+   */
+  public PersistentMemoryLocationMap<V> putAndCopy(MemoryLocation pKey, V pValue) {
+    checkNotNull(pKey);
+    checkNotNull(pValue);
+    Map.Entry<MemoryLocation, V> oldEntry = entries.get(pKey.getId());
+    if (oldEntry != null && oldEntry.getValue().equals(pValue)) {
+      return this;
+    }
+    return new PersistentMemoryLocationMap<>(
+        entries.putAndCopy(pKey.getId(), Maps.immutableEntry(pKey, pValue)));
+  }
+
+  /**
+   * Return a map that contains the same mappings as this map,
+   * except for the given key, which is not contained in the result.
+   * This instance is not modified.
+   */
+  public PersistentMemoryLocationMap<V> removeAndCopy(MemoryLocation pKey) {
+    PersistentIntMap<Map.Entry<MemoryLocation, V>> newEntries = entries.removeAndCopy(pKey.getId());
+    if (newEntries == entries) {
+      return this;
+    }
+    if (newEntries.isEmpty()) {
+      return of();
+    }
+    return new PersistentMemoryLocationMap<>(newEntries);
+  }
+
+  /**
+   * Return an empty map.
+   */
+  public PersistentMemoryLocationMap<V> emptyCopy() {
+    return of();
+  }
+
+  @Override
+  public @Nullable V get(@Nullable Object pKey) {
+    if (!(pKey instanceof MemoryLocation)) {
+      return null;
+    }
+    Map.Entry<MemoryLocation, V> entry = entries.get(((MemoryLocation) pKey).getId());
+    return entry == null ? null : entry.getValue();
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object pKey) {
+    return get(pKey) != null;
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  @Override
+  public Set<Map.Entry<MemoryLocation, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Map.Entry<MemoryLocation, V>>() {
+        @Override
+        public Iterator<Map.Entry<MemoryLocation, V>> iterator() {
+          return entries.iterator();
+        }
+
+        @Override
+        public int size() {
+          return entries.size();
+        }
+
+        @Override
+        public boolean contains(Object pO) {
+          if (!(pO instanceof Map.Entry<?, ?>)) {
+            return false;
+          }
+          Map.Entry<?, ?> entry = (Map.Entry<?, ?>) pO;
+          V value = get(entry.getKey());
+          return value != null && value.equals(entry.getValue());
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  @Override
+  public boolean equals(Object pO) {
+    if (this == pO) {
+      return true;
+    }
+    if (pO instanceof PersistentMemoryLocationMap<?>) {
+      // the entries are equal if the keys and values are equal, because keys are interned
+      return entries.equals(((PersistentMemoryLocationMap<?>) pO).entries);
+    }
+    return super.equals(pO);
+  }
+
+  @Override
+  public int hashCode() {
+    if (hashCode == 0) {
+      hashCode = super.hashCode();
+    }
+    return hashCode;
+  }
+
+  @Override
+  public V put(MemoryLocation pKey, V pValue) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public V remove(Object pKey) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putAll(Map<? extends MemoryLocation, ? extends V> pM) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  private Object writeReplace() {
+    return new SerialProxy<>(this);
+  }
+
+  private void readObject(@SuppressWarnings("unused") ObjectInputStream pIn) throws InvalidObjectException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * The serialized form of the map, the ids of the keys are not stable across runs.
+   */
+  private static class SerialProxy<V> implements Serializable {
+
+    private static final long serialVersionUID = -2580932264932155624L;
+
+    private final HashMap<MemoryLocation, V> map;
+
+    private SerialProxy(Map<MemoryLocation, V> pMap) {
+      map = new HashMap<>(pMap);
+    }
+
+    private Object readResolve() {
+      return copyOf(map);
+    }
+  }
+}
@@ -48,4 +48,11 @@ public abstract class AbstractStatValue {
   public StatKind getMainStatisticKind() {
     return mainStatisticKind;
   }
+
+  /**
+   * The value that corresponds to the main statistic kind,
+   * e.g., the sum of all values for {@link StatKind#SUM}.
+   * Times are given in milliseconds.
+   */
+  public abstract Number getMainValue();
 }
@@ -0,0 +1,104 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.sosy_lab.common.JSON;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+
+/**
+ * A {@link StatisticsWriter} that collects the values as key/value pairs
+ * instead of printing them, and writes them as one JSON object per line
+ * (JSON lines format).
+ * The name of each value is used as key, the levels of the writer are ignored.
+ * Statistical values are written with their main value
+ * (cf. {@link AbstractStatValue#getMainValue()}),
+ * times are written in milliseconds.
+ */
+public class JsonLinesStatisticsWriter extends StatisticsWriter {
+
+  private final Map<String, Object> values;
+
+  private JsonLinesStatisticsWriter(int pLevel, StatisticsWriter pParentLevelWriter,
+      Map<String, Object> pValues) {
+    super(null, pLevel, 0, pParentLevelWriter);
+    values = pValues;
+  }
+
+  public static JsonLinesStatisticsWriter collectingStatistics() {
+    return new JsonLinesStatisticsWriter(0, null, new LinkedHashMap<String, Object>());
+  }
+
+  @Override
+  protected StatisticsWriter newInstance(PrintStream pTarget, int pLevel,
+      int pOutputNameColWidth, StatisticsWriter pParentLevelWriter) {
+    return new JsonLinesStatisticsWriter(pLevel, pParentLevelWriter, values);
+  }
+
+  @Override
+  public StatisticsWriter spacer() {
+    return this;
+  }
+
+  @Override
+  public StatisticsWriter put(String pName, Object pValue) {
+    values.put(pName, toJSONValue(pValue));
+    return this;
+  }
+
+  @Override
+  public StatisticsWriter put(AbstractStatValue pStat) {
+    values.put(pStat.getTitle(), pStat.getMainValue());
+    return this;
+  }
+
+  private static Object toJSONValue(Object pValue) {
+    if (pValue == null || pValue instanceof Number || pValue instanceof Boolean
+        || pValue instanceof String) {
+      return pValue;
+    } else if (pValue instanceof AbstractStatValue) {
+      return ((AbstractStatValue)pValue).getMainValue();
+    } else if (pValue instanceof TimeSpan) {
+      return ((TimeSpan)pValue).asMillis();
+    } else if (pValue instanceof Timer) {
+      return ((Timer)pValue).getSumTime().asMillis();
+    } else {
+      return pValue.toString();
+    }
+  }
+
+  /**
+   * Write all collected values as one line and start a new line.
+   */
+  public void writeLine(Appendable pOut) throws IOException {
+    JSON.writeJSONString(values, pOut);
+    pOut.append('\n');
+    values.clear();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.sosy_lab.common.JSON;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+
+import com.google.common.base.Splitter;
+
+public class JsonLinesStatisticsWriterTest {
+
+  /** The expected line for the given values. */
+  private static String line(Object... pKeysAndValues) throws IOException {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (int i = 0; i < pKeysAndValues.length; i += 2) {
+      values.put((String) pKeysAndValues[i], pKeysAndValues[i + 1]);
+    }
+    StringBuilder result = new StringBuilder();
+    JSON.writeJSONString(values, result);
+    return result.toString();
+  }
+
+  private static List<String> lines(StringBuilder pOutput) {
+    assertThat(pOutput.toString()).endsWith("\n");
+    return Splitter.on('\n').omitEmptyStrings().splitToList(pOutput);
+  }
+
+  @Test
+  public void testOneObjectPerLine() throws IOException {
+    JsonLinesStatisticsWriter writer = JsonLinesStatisticsWriter.collectingStatistics();
+    StringBuilder out = new StringBuilder();
+
+    writer.put("first", 1).put("second", "two");
+    writer.writeLine(out);
+    writer.put("third", true);
+    writer.writeLine(out);
+    writer.writeLine(out);
+
+    assertThat(lines(out)).containsExactly(
+        line("first", 1, "second", "two"),
+        line("third", true),
+        line()).inOrder();
+  }
+
+  @Test
+  public void testLevelsAndConditions() throws IOException {
+    JsonLinesStatisticsWriter writer = JsonLinesStatisticsWriter.collectingStatistics();
+    StringBuilder out = new StringBuilder();
+
+    writer.put("top", 1)
+        .spacer()
+        .beginLevel()
+          .put("nested", 2)
+          .putIf(false, "skipped", 3)
+          .putIf(true, "included", 4)
+          .ifTrue(false)
+            .put("disabled", 5)
+          .endLevel()
+        .endLevel()
+        .put("last", 6);
+    writer.writeLine(out);
+
+    assertThat(lines(out)).containsExactly(line("top", 1, "nested", 2, "included", 4, "last", 6));
+  }
+
+  @Test
+  public void testConversionOfValues() throws IOException {
+    JsonLinesStatisticsWriter writer = JsonLinesStatisticsWriter.collectingStatistics();
+    StringBuilder out = new StringBuilder();
+
+    StatCounter counter = new StatCounter("Number of refinements");
+    counter.inc();
+    counter.inc();
+    StatCounter unused = new StatCounter("Number of unused things");
+
+    writer.put("time span", TimeSpan.ofSeconds(2))
+        .put("timer", new Timer())
+        .put("counter as value", counter)
+        .put(counter)
+        .putIfUpdatedAtLeastOnce(unused)
+        .put("null", null)
+        .put("other", TimeUnit.SECONDS);
+    writer.writeLine(out);
+
+    assertThat(lines(out)).containsExactly(line(
+        "time span", 2000L,
+        "timer", 0L,
+        "counter as value", 2,
+        "Number of refinements", 2,
+        "null", null,
+        "other", "SECONDS"));
+  }
+}
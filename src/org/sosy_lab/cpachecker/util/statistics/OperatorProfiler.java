@@ -0,0 +1,491 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.JSON;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.PathTemplate;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Profiler that attributes the time and the allocated memory of the CPA operators
+ * to the function of the currently handled state and to the component CPA
+ * that executes the operator.
+ *
+ * The algorithm announces each iteration with {@link #beginIteration(AbstractState)},
+ * and the operators surround their work with the {@link Probe}s they got from
+ * {@link #getProbe(Operator, String)}.
+ * Only every n-th iteration is measured (cf. option cpa.profiling.samplingInterval),
+ * in all other iterations the probes only read a thread-local field,
+ * so the profiler is cheap enough to be left enabled.
+ *
+ * The probes may be used from several threads at the same time.
+ * Whether an iteration is measured is stored per thread,
+ * so each thread that runs the algorithm needs to announce its own iterations.
+ * Operators that are executed in a different thread than the algorithm
+ * need to be wrapped with {@link Probe#inCurrentIteration(Callable)}.
+ *
+ * There should be only one profiler per analysis
+ * (it is created by {@link org.sosy_lab.cpachecker.cpa.composite.CompositeCPA}),
+ * and {@link #writeProfile()} should be called once after the analysis.
+ * Each written profile gets its own index for the name of the profile file,
+ * so the profiles of several analyses in the same run do not overwrite each other.
+ * The profile is written as JSON or as collapsed stacks
+ * (one line "function;operator;component value" per entry, as used by flame graph tools).
+ */
+@Options(prefix="cpa.profiling")
+public class OperatorProfiler {
+
+  public static enum Operator {
+    TRANSFER("transfer"),
+    PREC("prec"),
+    MERGE("merge"),
+    STOP("stop");
+
+    private final String name;
+
+    private Operator(String pName) {
+      name = pName;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  public static enum ProfileFormat {
+    JSON,
+    COLLAPSED,
+  }
+
+  @Option(secure=true, name="export",
+      description="Profile the time and the allocated memory of the CPA operators"
+          + " per component CPA and per function, and write the profile to a file."
+          + " This requires that the analysis uses the CompositeCPA.")
+  private boolean enabled = false;
+
+  @Option(secure=true, name="file",
+      description="File for the operator profile."
+          + " The placeholder is replaced by the index of the analysis,"
+          + " such that several analyses (e.g., in a restart or portfolio algorithm)"
+          + " write separate profiles.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private PathTemplate profileFile = PathTemplate.ofFormatString("OperatorProfile.%d.json");
+
+  @Option(secure=true, toUppercase=true,
+      description="Format of the operator profile: JSON with call counts, times and allocated bytes,"
+          + " or COLLAPSED stacks with the time in nanoseconds (for flame graph tools).")
+  private ProfileFormat format = ProfileFormat.JSON;
+
+  @Option(secure=true,
+      description="Measure only every n-th iteration of the CPA algorithm."
+          + " The profile contains the values of the measured iterations only.")
+  @IntegerOption(min=1)
+  private int samplingInterval = 1;
+
+  @Option(secure=true,
+      description="Measure the memory allocated by the CPA operators"
+          + " (only if the JVM supports measuring the allocations of a thread).")
+  private boolean allocations = true;
+
+  /** Name used for states without location. */
+  private static final String UNKNOWN_FUNCTION = "<unknown>";
+
+  /** Name used for the measurements of a whole operator. */
+  private static final String ALL_COMPONENTS = "<all>";
+
+  private static final OperatorProfiler DISABLED = new OperatorProfiler();
+
+  /** Index of the next profile that is written, used to give each profile its own file. */
+  private static final AtomicInteger nextIndex = new AtomicInteger();
+
+  private final @Nullable LogManager logger;
+  private final @Nullable ThreadMXBean allocationBean;
+  private final Map<String, Probe> probes = Collections.synchronizedMap(new LinkedHashMap<String, Probe>());
+
+  /** The function of the iteration that is currently measured in this thread, if any. */
+  private final ThreadLocal<String> currentFunction = new ThreadLocal<>();
+  private final AtomicLong iterations = new AtomicLong();
+  private final AtomicLong sampledIterations = new AtomicLong();
+
+  public OperatorProfiler(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+    allocationBean = (enabled && allocations) ? getAllocationBean() : null;
+  }
+
+  private OperatorProfiler() {
+    logger = null;
+    allocationBean = null;
+  }
+
+  /**
+   * Return a profiler that never measures anything.
+   */
+  public static OperatorProfiler disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Return the given number of probes that never measure anything.
+   */
+  public static List<Probe> disabledProbes(Operator pOperator, int pCount) {
+    return Collections.nCopies(pCount, DISABLED.getProbe(pOperator, null));
+  }
+
+  private static @Nullable ThreadMXBean getAllocationBean() {
+    // the allocation counters are an extension of the OpenJDK and Oracle JVMs
+    if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean)) {
+      return null;
+    }
+    ThreadMXBean sunBean = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+    if (!sunBean.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    try {
+      sunBean.setThreadAllocatedMemoryEnabled(true);
+    } catch (UnsupportedOperationException | SecurityException e) {
+      return null;
+    }
+    return sunBean;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Get the probe for an operator of a component.
+   * Calling this several times with the same arguments returns the same probe.
+   * @param pComponent The name of the component, or <code>null</code> for the whole operator.
+   */
+  public Probe getProbe(Operator pOperator, @Nullable String pComponent) {
+    String component = pComponent == null ? ALL_COMPONENTS : pComponent;
+    String key = pOperator + ";" + component;
+    synchronized (probes) {
+      Probe probe = probes.get(key);
+      if (probe == null) {
+        probe = new Probe(pOperator, component);
+        probes.put(key, probe);
+      }
+      return probe;
+    }
+  }
+
+  /**
+   * Get the probes for an operator of several components, in the same order.
+   */
+  public ImmutableList<Probe> getProbes(Operator pOperator, List<String> pComponents) {
+    ImmutableList.Builder<Probe> result = ImmutableList.builder();
+    for (String component : pComponents) {
+      result.add(getProbe(pOperator, component));
+    }
+    return result.build();
+  }
+
+  /**
+   * Announce that the algorithm starts to handle the given state in the current thread.
+   * This decides whether the operators called by this thread
+   * are measured until the next call.
+   */
+  public void beginIteration(AbstractState pState) {
+    if (!enabled) {
+      return;
+    }
+    if (iterations.incrementAndGet() % samplingInterval != 0) {
+      currentFunction.remove();
+      return;
+    }
+    sampledIterations.incrementAndGet();
+    CFANode location = AbstractStates.extractLocation(pState);
+    currentFunction.set(location == null ? UNKNOWN_FUNCTION : location.getFunctionName());
+  }
+
+  /**
+   * Announce that the algorithm does not call any operators in the current thread
+   * until the next call to {@link #beginIteration(AbstractState)}.
+   */
+  public void endIteration() {
+    if (enabled) {
+      currentFunction.remove();
+    }
+  }
+
+  private long getAllocatedBytes() {
+    return allocationBean == null ? 0 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Write the profile to the configured file.
+   * This should be called once after the analysis has terminated.
+   */
+  public void writeProfile() {
+    if (!enabled || profileFile == null) {
+      return;
+    }
+    Path file = profileFile.getPath(nextIndex.getAndIncrement());
+    try {
+      if (format == ProfileFormat.JSON) {
+        JSON.writeJSONString(getProfileAsJSON(), file);
+      } else {
+        try (Writer w = Files.openOutputFile(file)) {
+          writeCollapsedStacks(w);
+        }
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write operator profile to file");
+    }
+  }
+
+  private List<Probe> getAllProbes() {
+    synchronized (probes) {
+      return new ArrayList<>(probes.values());
+    }
+  }
+
+  @VisibleForTesting
+  Map<String, Object> getProfileAsJSON() {
+    List<Object> entries = new ArrayList<>();
+    for (Probe probe : getAllProbes()) {
+      for (Map.Entry<String, Counter> entry : probe.counters.entrySet()) {
+        Counter counter = entry.getValue();
+        Map<String, Object> jsonEntry = new LinkedHashMap<>();
+        jsonEntry.put("function", entry.getKey());
+        jsonEntry.put("operator", probe.operator.toString());
+        jsonEntry.put("component", probe.component);
+        synchronized (counter) {
+          jsonEntry.put("calls", counter.calls);
+          jsonEntry.put("timeNanos", counter.nanos);
+          if (allocationBean != null) {
+            jsonEntry.put("allocatedBytes", counter.allocatedBytes);
+          }
+        }
+        entries.add(jsonEntry);
+      }
+    }
+
+    Map<String, Object> profile = new LinkedHashMap<>();
+    profile.put("samplingInterval", samplingInterval);
+    profile.put("iterations", iterations.get());
+    profile.put("sampledIterations", sampledIterations.get());
+    profile.put("allocationsMeasured", allocationBean != null);
+    profile.put("entries", entries);
+    return profile;
+  }
+
+  /**
+   * Write one line "function;operator;component nanoseconds" per entry.
+   * The time of the whole operator is written as line "function;operator nanoseconds"
+   * and contains only the time that is not attributed to a component,
+   * because flame graph tools expect the self time of each stack.
+   */
+  @VisibleForTesting
+  void writeCollapsedStacks(Appendable out) throws IOException {
+    List<Probe> allProbes = getAllProbes();
+
+    // time attributed to the components, per "function;operator"
+    Map<String, Long> componentTimes = new HashMap<>();
+    for (Probe probe : allProbes) {
+      if (probe.component.equals(ALL_COMPONENTS)) {
+        continue;
+      }
+      for (Map.Entry<String, Counter> entry : probe.counters.entrySet()) {
+        String stack = entry.getKey() + ";" + probe.operator;
+        Long time = componentTimes.get(stack);
+        componentTimes.put(stack, (time == null ? 0 : time) + entry.getValue().getNanos());
+      }
+    }
+
+    for (Probe probe : allProbes) {
+      for (Map.Entry<String, Counter> entry : probe.counters.entrySet()) {
+        String stack = entry.getKey() + ";" + probe.operator;
+        long time = entry.getValue().getNanos();
+        if (probe.component.equals(ALL_COMPONENTS)) {
+          Long componentTime = componentTimes.get(stack);
+          time = Math.max(0, time - (componentTime == null ? 0 : componentTime));
+        } else {
+          stack = stack + ";" + probe.component;
+        }
+        out.append(stack.replace(' ', '_'));
+        out.append(' ');
+        out.append(Long.toString(time));
+        out.append('\n');
+      }
+    }
+  }
+
+  private static class Counter {
+
+    private long calls = 0;
+    private long nanos = 0;
+    private long allocatedBytes = 0;
+
+    private synchronized void add(long pNanos, long pAllocatedBytes) {
+      calls++;
+      nanos += pNanos;
+      allocatedBytes += pAllocatedBytes;
+    }
+
+    private synchronized long getNanos() {
+      return nanos;
+    }
+  }
+
+  /**
+   * A measurement that was started by {@link Probe#start()}.
+   */
+  public static final class Sample {
+
+    private final String function;
+    private final long startTime;
+    private final long startAllocatedBytes;
+
+    private Sample(String pFunction, long pStartTime, long pStartAllocatedBytes) {
+      function = pFunction;
+      startTime = pStartTime;
+      startAllocatedBytes = pStartAllocatedBytes;
+    }
+  }
+
+  /**
+   * Measures one operator of one component.
+   * Use it like this:
+   * <pre>
+   * Sample sample = probe.start();
+   * try {
+   *   ...
+   * } finally {
+   *   probe.stop(sample);
+   * }
+   * </pre>
+   */
+  public final class Probe {
+
+    private final Operator operator;
+    private final String component;
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private Probe(Operator pOperator, String pComponent) {
+      operator = pOperator;
+      component = pComponent;
+    }
+
+    /**
+     * Start a measurement if the current iteration is measured.
+     * @return The sample to pass to {@link #stop(Sample)}, or <code>null</code>.
+     */
+    public @Nullable Sample start() {
+      if (!enabled) {
+        return null;
+      }
+      String function = currentFunction.get();
+      if (function == null) {
+        return null;
+      }
+      return new Sample(function, System.nanoTime(), getAllocatedBytes());
+    }
+
+    /**
+     * Finish a measurement.
+     * @param pSample The result of {@link #start()}, may be <code>null</code>.
+     */
+    public void stop(@Nullable Sample pSample) {
+      if (pSample == null) {
+        return;
+      }
+      long time = System.nanoTime() - pSample.startTime;
+      long allocatedBytes = getAllocatedBytes() - pSample.startAllocatedBytes;
+
+      Counter counter = counters.get(pSample.function);
+      if (counter == null) {
+        Counter newCounter = new Counter();
+        counter = counters.putIfAbsent(pSample.function, newCounter);
+        if (counter == null) {
+          counter = newCounter;
+        }
+      }
+      counter.add(time, allocatedBytes);
+    }
+
+    /**
+     * Wrap a task that is executed in another thread
+     * such that its operators are measured if and only if
+     * the current iteration of the current thread is measured.
+     */
+    public <T> Callable<T> inCurrentIteration(final Callable<T> pTask) {
+      if (!enabled) {
+        return pTask;
+      }
+      final String function = currentFunction.get();
+      return new Callable<T>() {
+        @Override
+        public T call() throws Exception {
+          if (function == null) {
+            currentFunction.remove();
+          } else {
+            currentFunction.set(function);
+          }
+          try {
+            return pTask.call();
+          } finally {
+            currentFunction.remove();
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithLocation;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Operator;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Probe;
+import org.sosy_lab.cpachecker.util.statistics.OperatorProfiler.Sample;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.base.Splitter;
+
+public class OperatorProfilerTest {
+
+  private AbstractStateWithLocation state;
+
+  @Before
+  public void setUp() {
+    state = mock(AbstractStateWithLocation.class);
+    when(state.getLocationNode()).thenReturn(new CFANode("foo"));
+  }
+
+  private static OperatorProfiler profiler(boolean pEnabled, int pSamplingInterval)
+      throws InvalidConfigurationException {
+    return new OperatorProfiler(TestDataTools.configurationForTest()
+        .setOption("cpa.profiling.export", Boolean.toString(pEnabled))
+        .setOption("cpa.profiling.samplingInterval", Integer.toString(pSamplingInterval))
+        .setOption("cpa.profiling.allocations", "false")
+        .build(), TestLogManager.getInstance());
+  }
+
+  /** Run the given number of iterations with one measured call of the probe each. */
+  private int runIterations(OperatorProfiler pProfiler, Probe pProbe, int pIterations) {
+    int samples = 0;
+    for (int i = 0; i < pIterations; i++) {
+      pProfiler.beginIteration(state);
+      Sample sample = pProbe.start();
+      if (sample != null) {
+        samples++;
+      }
+      pProbe.stop(sample);
+      pProfiler.endIteration();
+    }
+    return samples;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> getEntries(OperatorProfiler pProfiler) {
+    return (List<Map<String, Object>>) pProfiler.getProfileAsJSON().get("entries");
+  }
+
+  @Test
+  public void testOnlyEveryNthIterationIsMeasured() throws Exception {
+    OperatorProfiler profiler = profiler(true, 3);
+    Probe probe = profiler.getProbe(Operator.TRANSFER, "ValueAnalysisCPA");
+
+    assertThat(runIterations(profiler, probe, 10)).isEqualTo(3);
+
+    Map<String, Object> profile = profiler.getProfileAsJSON();
+    assertThat(profile.get("samplingInterval")).isEqualTo(3);
+    assertThat(profile.get("iterations")).isEqualTo(10L);
+    assertThat(profile.get("sampledIterations")).isEqualTo(3L);
+    assertThat(getEntries(profiler).get(0).get("calls")).isEqualTo(3L);
+  }
+
+  @Test
+  public void testNothingIsMeasuredOutsideOfIterations() throws Exception {
+    OperatorProfiler profiler = profiler(true, 1);
+    Probe probe = profiler.getProbe(Operator.TRANSFER, "ValueAnalysisCPA");
+
+    profiler.beginIteration(state);
+    profiler.endIteration();
+    assertThat(probe.start()).isNull();
+  }
+
+  @Test
+  public void testDisabledProfilerMeasuresNothing() throws Exception {
+    OperatorProfiler profiler = profiler(false, 1);
+    Probe probe = profiler.getProbe(Operator.TRANSFER, "ValueAnalysisCPA");
+
+    assertThat(runIterations(profiler, probe, 5)).isEqualTo(0);
+    assertThat(getEntries(profiler)).isEmpty();
+  }
+
+  @Test
+  public void testJSONEntries() throws Exception {
+    OperatorProfiler profiler = profiler(true, 1);
+    Probe probe = profiler.getProbe(Operator.MERGE, "ValueAnalysisCPA");
+    runIterations(profiler, probe, 2);
+
+    List<Map<String, Object>> entries = getEntries(profiler);
+    assertThat(entries).hasSize(1);
+    Map<String, Object> entry = entries.get(0);
+    assertThat(entry.get("function")).isEqualTo("foo");
+    assertThat(entry.get("operator")).isEqualTo("merge");
+    assertThat(entry.get("component")).isEqualTo("ValueAnalysisCPA");
+    assertThat(entry.get("calls")).isEqualTo(2L);
+    assertThat((Long) entry.get("timeNanos")).isAtLeast(0L);
+    assertThat(entry).doesNotContainKey("allocatedBytes");
+    assertThat(profiler.getProfileAsJSON().get("allocationsMeasured")).isEqualTo(false);
+  }
+
+  @Test
+  public void testCollapsedStacksContainSelfTimeOfOperator() throws Exception {
+    OperatorProfiler profiler = profiler(true, 1);
+    Probe operatorProbe = profiler.getProbe(Operator.TRANSFER, null);
+    Probe componentProbe = profiler.getProbe(Operator.TRANSFER, "ValueAnalysisCPA");
+
+    profiler.beginIteration(state);
+    Sample operatorSample = operatorProbe.start();
+    Sample componentSample = componentProbe.start();
+    Thread.sleep(5);
+    componentProbe.stop(componentSample);
+    operatorProbe.stop(operatorSample);
+    profiler.endIteration();
+
+    Map<String, Long> times = new HashMap<>();
+    for (Map<String, Object> entry : getEntries(profiler)) {
+      times.put((String) entry.get("component"), (Long) entry.get("timeNanos"));
+    }
+    long operatorTime = times.get("<all>");
+    long componentTime = times.get("ValueAnalysisCPA");
+    assertThat(componentTime).isAtLeast(5000000L);
+
+    StringBuilder collapsed = new StringBuilder();
+    profiler.writeCollapsedStacks(collapsed);
+    Map<String, Long> stacks = new HashMap<>();
+    for (String line : Splitter.on('\n').omitEmptyStrings().split(collapsed)) {
+      int separator = line.lastIndexOf(' ');
+      stacks.put(line.substring(0, separator), Long.parseLong(line.substring(separator + 1)));
+    }
+
+    assertThat(stacks).hasSize(2);
+    assertThat(stacks.get("foo;transfer;ValueAnalysisCPA")).isEqualTo(componentTime);
+    assertThat(stacks.get("foo;transfer")).isEqualTo(operatorTime - componentTime);
+  }
+}
@@ -40,6 +40,11 @@ public class StatCounter extends AbstractStatValue {
     return counter;
   }
 
+  @Override
+  public Number getMainValue() {
+    return counter;
+  }
+
   @Override
   public int getUpdateCount() {
     return counter;
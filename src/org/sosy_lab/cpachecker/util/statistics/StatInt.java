@@ -66,6 +66,18 @@ public class StatInt extends AbstractStatValue {
     }
   }
 
+  @Override
+  public Number getMainValue() {
+    switch (getMainStatisticKind()) {
+    case COUNT:
+      return valueCount;
+    case AVG:
+      return getAverage();
+    default:
+      return valueSum;
+    }
+  }
+
   @Override
   public int getUpdateCount() {
     return valueCount;
@@ -46,6 +46,18 @@ public class StatTimer extends AbstractStatValue {
     timer.stop();
   }
 
+  @Override
+  public Number getMainValue() {
+    switch (getMainStatisticKind()) {
+    case COUNT:
+      return timer.getNumberOfIntervals();
+    case AVG:
+      return timer.getAvgTime().asMillis();
+    default:
+      return timer.getSumTime().asMillis();
+    }
+  }
+
   @Override
   public int getUpdateCount() {
     return timer.getNumberOfIntervals();
@@ -32,7 +32,7 @@ public class StatisticsWriter {
   private final int level;
   private final int outputNameColWidth;
 
-  private StatisticsWriter(PrintStream pTarget, int pLevel,
+  protected StatisticsWriter(PrintStream pTarget, int pLevel,
       int pOutputNameColWidth, StatisticsWriter pParentLevelWriter) {
     this.parentLevelWriter = pParentLevelWriter;
     this.target = pTarget;
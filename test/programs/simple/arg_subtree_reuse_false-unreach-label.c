@@ -0,0 +1,21 @@
+extern int __VERIFIER_nondet_int(void);
+
+int main() {
+  int x;
+  int y;
+  if (__VERIFIER_nondet_int()) {
+    x = 1;
+  } else {
+    x = 2;
+  }
+  if (__VERIFIER_nondet_int()) {
+    y = x + 1;
+  } else {
+    y = x + 2;
+  }
+  if (x < 1 || y == 4) {
+ERROR:
+    return 1;
+  }
+  return 0;
+}
@@ -0,0 +1,16 @@
+extern int __VERIFIER_nondet_int(void);
+
+int main() {
+  int n = __VERIFIER_nondet_int();
+  int i = 0;
+  int s = 0;
+  while (i < n) {
+    s = s + 2;
+    i++;
+    if (s == 8) {
+ERROR:
+      return 1;
+    }
+  }
+  return 0;
+}
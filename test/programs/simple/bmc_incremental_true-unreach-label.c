@@ -0,0 +1,19 @@
+extern int __VERIFIER_nondet_int(void);
+
+int main() {
+  int n = __VERIFIER_nondet_int();
+  int i = 0;
+  int s = 0;
+  if (n > 5) {
+    n = 5;
+  }
+  while (i < n) {
+    s = s + 2;
+    i++;
+  }
+  if (s != 2 * i) {
+ERROR:
+    return 1;
+  }
+  return 0;
+}
@@ -0,0 +1,42 @@
+extern int __VERIFIER_nondet_int(void);
+
+int g;
+
+void inc(int n) {
+  if (n > 0) {
+    g = g + n;
+  } else {
+    g = g - n;
+  }
+}
+
+int step(int x) {
+  int i;
+  for (i = 0; i < x; i++) {
+    if (__VERIFIER_nondet_int()) {
+      inc(i);
+    } else {
+      inc(-i);
+    }
+  }
+  return g;
+}
+
+int main() {
+  int a = __VERIFIER_nondet_int();
+  int b = __VERIFIER_nondet_int();
+  while (a > 0) {
+    if (b) {
+      a = step(a);
+    } else {
+      inc(a);
+      a = step(b);
+    }
+    switch (a) {
+    case 1: inc(1); break;
+    case 2: inc(2); break;
+    default: step(3);
+    }
+  }
+  return 0;
+}
@@ -0,0 +1,21 @@
+extern int __VERIFIER_nondet_int(void);
+
+int add(int sum, int n) {
+  if (__VERIFIER_nondet_int()) {
+    return sum + n;
+  }
+  return sum;
+}
+
+int main() {
+  int sum = 0;
+  int i;
+  for (i = 1; i <= 12; i++) {
+    sum = add(sum, i);
+  }
+  if (sum > 90) {
+ERROR:
+    return 1;
+  }
+  return 0;
+}
@@ -0,0 +1,9 @@
+int main() {
+  int i = 0;
+  // tracking the value of i makes the state space practically infinite
+  while (1) {
+    i++;
+  }
+ERROR:
+  return 1;
+}